@@ -1,36 +1,27 @@
 package de.be.thaw.cli;
 
-import de.be.thaw.core.document.Document;
-import de.be.thaw.core.document.builder.impl.DefaultDocumentBuilder;
-import de.be.thaw.core.document.builder.impl.source.DocumentBuildSource;
-import de.be.thaw.export.Exporter;
-import de.be.thaw.export.exception.ExportException;
-import de.be.thaw.export.pdf.PdfExporter;
-import de.be.thaw.info.ThawInfo;
-import de.be.thaw.info.parser.InfoParser;
-import de.be.thaw.info.parser.impl.DefaultInfoParser;
-import de.be.thaw.reference.citation.CitationManagerFactory;
-import de.be.thaw.shared.ThawContext;
-import de.be.thaw.style.model.StyleModel;
-import de.be.thaw.style.model.impl.DefaultStyleModel;
-import de.be.thaw.style.parser.StyleFormatParser;
-import de.be.thaw.style.parser.StyleFormatParserFactory;
-import de.be.thaw.style.parser.exception.StyleModelParseException;
-import de.be.thaw.text.model.TextModel;
-import de.be.thaw.text.parser.TextParser;
-import de.be.thaw.text.parser.exception.ParseException;
+import de.be.thaw.cli.batch.BatchJobResult;
+import de.be.thaw.cli.batch.BatchManifest;
+import de.be.thaw.cli.batch.BatchRunner;
+import de.be.thaw.cli.daemon.DaemonProtocol;
+import de.be.thaw.cli.daemon.DaemonResponse;
+import de.be.thaw.cli.daemon.RenderDaemon;
+import de.be.thaw.cli.daemon.RenderDaemonClient;
+import de.be.thaw.cli.render.RenderException;
+import de.be.thaw.cli.render.RenderJob;
+import de.be.thaw.cli.render.Renderer;
+import de.be.thaw.cli.watch.ProjectWatcher;
 import de.be.thaw.util.cache.CacheUtil;
 import picocli.CommandLine;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * CLI entry point for Thaw.
@@ -62,6 +53,13 @@ public class CLI implements Callable<Integer> {
             "If not specified the systems default charset will be used.")
     private String charsetName;
 
+    /**
+     * Whether to watch the project for changes and render it again on every change.
+     */
+    @CommandLine.Option(names = {"-w", "--watch"}, description = "Watch the project folder for changes and render again on every change. " +
+            "Only paragraphs that changed are broken into lines again, the document is still laid out and exported in full.")
+    private boolean watch;
+
     /**
      * Subcommand to clean the cache folder
      */
@@ -78,6 +76,102 @@ public class CLI implements Callable<Integer> {
         return ErrorResult.OK.getCode();
     }
 
+    /**
+     * Subcommand to render many projects concurrently.
+     */
+    @CommandLine.Command(name = "batch", description = "Render all projects listed in a manifest concurrently. " +
+            "Every line of the manifest names a project root folder, optionally followed by '|' and the output path.")
+    int batch(
+            @CommandLine.Parameters(paramLabel = "MANIFEST", description = "Path to the manifest listing the projects to render") String manifest,
+            @CommandLine.Option(names = {"-c", "--charset"}, description = "Name of the charset the files to process are encoded in") String charset,
+            @CommandLine.Option(names = {"-t", "--threads"}, description = "Maximum count of concurrent renders") Integer threads
+    ) {
+        List<RenderJob> jobs;
+        try {
+            jobs = BatchManifest.read(Path.of(manifest), charset != null ? Charset.forName(charset) : getCharset());
+        } catch (IOException e) {
+            System.err.println(String.format("Could not read the batch manifest at '%s': '%s'", manifest, e.getMessage()));
+            return ErrorResult.BATCH_MANIFEST_ERROR.getCode();
+        }
+
+        List<BatchJobResult> results = new BatchRunner(
+                threads != null ? threads : Runtime.getRuntime().availableProcessors(),
+                System.out
+        ).run(jobs);
+
+        for (BatchJobResult result : results) {
+            if (!result.isSuccessful()) {
+                return ErrorResult.BATCH_JOB_ERROR.getCode();
+            }
+        }
+
+        return ErrorResult.OK.getCode();
+    }
+
+    /**
+     * Subcommand to start a render daemon keeping resources warm between renders.
+     */
+    @CommandLine.Command(name = "daemon", description = "Start a daemon rendering the jobs sent by the 'remote' command.")
+    int daemon(
+            @CommandLine.Option(names = {"-p", "--port"}, description = "Loopback port to listen on") Integer port,
+            @CommandLine.Option(names = {"-t", "--threads"}, description = "Maximum count of concurrent renders") Integer threads
+    ) {
+        try (RenderDaemon daemon = new RenderDaemon(
+                port != null ? port : DaemonProtocol.DEFAULT_PORT,
+                threads != null ? threads : Runtime.getRuntime().availableProcessors(),
+                System.out
+        )) {
+            daemon.run();
+        } catch (IOException e) {
+            System.err.println(String.format("Could not run the render daemon: '%s'", e.getMessage()));
+            return ErrorResult.DAEMON_ERROR.getCode();
+        }
+
+        return ErrorResult.OK.getCode();
+    }
+
+    /**
+     * Subcommand to let a running render daemon render a project.
+     */
+    @CommandLine.Command(name = "remote", description = "Let a running render daemon render the project.")
+    int remote(
+            @CommandLine.Option(names = {"-r", "--root-folder"}, description = "Path to the folder containing the root *.tdi file") String rootFolder,
+            @CommandLine.Option(names = {"-o", "--output"}, description = "Path where to save the resulting file to") String output,
+            @CommandLine.Option(names = {"-c", "--charset"}, description = "Name of the charset the files to process are encoded in") String charset,
+            @CommandLine.Option(names = {"-p", "--port"}, description = "Loopback port the daemon listens on") Integer port,
+            @CommandLine.Option(names = {"--shutdown"}, description = "Shut the daemon down instead of rendering") boolean shutdown
+    ) {
+        RenderDaemonClient client = new RenderDaemonClient(port != null ? port : DaemonProtocol.DEFAULT_PORT);
+
+        try {
+            if (shutdown) {
+                DaemonResponse response = client.shutdown();
+                if (response.getCode() != ErrorResult.OK.getCode()) {
+                    System.err.println(response.getMessage());
+                }
+
+                return response.getCode();
+            }
+
+            DaemonResponse response = client.render(new RenderJob(
+                    rootFolder != null ? new File(rootFolder) : getRootInfoFolderPath().toFile(),
+                    output != null ? Path.of(output) : getOutputPath(),
+                    charset != null ? Charset.forName(charset) : getCharset()
+            ));
+
+            if (response.getCode() != ErrorResult.OK.getCode()) {
+                System.err.println(response.getMessage());
+            } else {
+                System.out.println(String.format("Rendered in %d ms", response.getDuration()));
+            }
+
+            return response.getCode();
+        } catch (IOException e) {
+            System.err.println(String.format("Could not reach the render daemon: '%s'", e.getMessage()));
+            return ErrorResult.DAEMON_ERROR.getCode();
+        }
+    }
+
     /**
      * Entry point of the CLI application.
      *
@@ -141,125 +235,32 @@ public class CLI implements Callable<Integer> {
         System.out.println();
         System.out.println("### Processing ###");
 
-        File root = getRootInfoFolderPath().toFile();
-        ThawContext.getInstance().setRootFolder(root);
-        ThawContext.getInstance().setCurrentFolder(root);
-        System.out.println(String.format("Searching for Thaw files within folder at '%s'...", root.getAbsolutePath()));
-
-        System.out.println();
-
-        String[] infoFiles = root.list((dir, name) -> name.endsWith(".tdi"));
-        if (infoFiles.length == 0) {
-            System.out.println("[WARNING] Found not info file (*.tdi). It is recommended to have one.");
-        } else if (infoFiles.length > 1) {
-            System.err.println(String.format("There are more than one Thaw info file (ending with *.tdi) in the folder at '%s'", root.getAbsolutePath()));
-            return ErrorResult.MORE_THAN_ONE_INFO_FILE.getCode();
-        } else {
-            System.out.println(String.format("Processing Thaw info file '%s'...", infoFiles[0]));
-        }
-
-        File infoFile = new File(root, infoFiles[0]);
-
-        InfoParser infoParser = new DefaultInfoParser();
-        ThawContext.getInstance().setInfoParser(infoParser);
-        ThawInfo info;
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(infoFile), charset))) {
-            info = infoParser.parse(br, ThawContext.getInstance().getCurrentFolder());
-        } catch (de.be.thaw.info.parser.exception.ParseException e) {
-            System.err.println(String.format(
-                    "An exception occurred while trying to parse the provided info file at '%s'.\n" +
-                            "The exception message is: '%s'",
-                    infoFile.getAbsolutePath(),
-                    e.getMessage()
-            ));
-
-            return ErrorResult.INFO_FILE_PARSING_ERROR.getCode();
-        }
-        ThawContext.getInstance().setEncoding(info.getEncoding());
-        ThawContext.getInstance().setLanguage(info.getLanguage());
-
-        String[] textFiles = root.list((dir, name) -> name.endsWith(".tdt"));
-
-        if (textFiles.length == 0) {
-            System.err.println(String.format("There is no Thaw text file (ending with *.tdt) in the folder at '%s'", root.getAbsolutePath()));
-            return ErrorResult.MISSING_TEXT_FILE.getCode();
-        } else if (textFiles.length > 1) {
-            System.err.println(String.format("There are more than one Thaw text file (ending with *.tdt) in the folder at '%s'", root.getAbsolutePath()));
-            return ErrorResult.MORE_THAN_ONE_TEXT_FILE.getCode();
-        } else {
-            System.out.println(String.format("Processing Thaw text file '%s'...", textFiles[0]));
-        }
-
-        File textFile = new File(root, textFiles[0]);
-
-        TextParser textParser = new TextParser();
-        ThawContext.getInstance().setTextParser(textParser);
-        TextModel textModel;
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(textFile), info.getEncoding()))) {
-            textModel = textParser.parse(br);
-        } catch (ParseException e) {
-            System.err.println(String.format(
-                    "An exception occurred while trying to parse the provided text file at '%s'.\n" +
-                            "The exception message is: '%s'",
-                    textFile.getAbsolutePath(),
-                    e.getMessage()
-            ));
+        RenderJob job = new RenderJob(
+                getRootInfoFolderPath().toFile(),
+                getOutputPath(),
+                charset
+        );
+
+        if (watch) {
+            try (ProjectWatcher watcher = new ProjectWatcher(job, new Renderer(ForkJoinPool.commonPool()), System.out)) {
+                watcher.run();
+            } catch (IOException e) {
+                System.err.println(String.format("Could not watch the project folder: '%s'", e.getMessage()));
+                return ErrorResult.WATCH_ERROR.getCode();
+            }
 
-            return ErrorResult.TEXT_FILE_PARSING_ERROR.getCode();
+            return ErrorResult.OK.getCode();
         }
 
-        String[] styleFiles = root.list((dir, name) -> name.endsWith(".tds"));
-
-        StyleFormatParser styleFormatParser = StyleFormatParserFactory.getInstance().getParser();
-        ThawContext.getInstance().setStyleParser(styleFormatParser);
-        StyleModel styleModel;
-        if (styleFiles.length > 1) {
-            System.err.println(String.format("There are more than one Thaw style files (ending with *.tds) in the folder at '%s'", root.getAbsolutePath()));
-            return ErrorResult.MORE_THAN_ONE_STYLE_FILE.getCode();
-        } else if (styleFiles.length == 1) {
-            System.out.println(String.format("Processing Thaw style file '%s'...", styleFiles[0]));
-
-            File styleFile = new File(root, styleFiles[0]);
-
-            try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(styleFile), info.getEncoding()))) {
-                styleModel = styleFormatParser.parse(br, ThawContext.getInstance().getRootFolder());
-                styleModel = styleModel.merge(DefaultStyleModel.defaultModel());
-            } catch (StyleModelParseException e) {
-                System.err.println(String.format(
-                        "An exception occurred while trying to parse the provided style file at '%s'.\n" +
-                                "The exception message is: '%s'",
-                        styleFile.getAbsolutePath(),
-                        e.getMessage()
-                ));
-
-                return ErrorResult.STYLE_FILE_PARSING_ERROR.getCode();
+        try {
+            new Renderer(ForkJoinPool.commonPool(), System.out).render(job);
+        } catch (RenderException e) {
+            System.err.println(e.getMessage());
+            if (e.getResult() == ErrorResult.EXPORT_ERROR) {
+                e.getCause().printStackTrace();
             }
-        } else {
-            styleModel = DefaultStyleModel.defaultModel();
-        }
 
-        Document document = new DefaultDocumentBuilder().build(new DocumentBuildSource(
-                info,
-                textModel,
-                styleModel,
-                CitationManagerFactory.getInstance().create(
-                        info.getBibliographyFile().orElse(null),
-                        info.getBibliographyStyle(),
-                        info.getLanguage()
-                )
-        ));
-
-        Exporter exporter = new PdfExporter();
-        try {
-            exporter.export(document, getOutputPath());
-        } catch (ExportException e) {
-            System.err.println(String.format(
-                    "An exception occurred while trying to export the resulting document.\n" +
-                            "The exception message is: '%s'",
-                    e.getMessage()
-            ));
-            e.printStackTrace();
-            return ErrorResult.EXPORT_ERROR.getCode();
+            return e.getResult().getCode();
         }
 
         return ErrorResult.OK.getCode();
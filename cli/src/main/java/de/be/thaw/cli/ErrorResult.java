@@ -16,7 +16,13 @@ public enum ErrorResult {
     STYLE_FILE_PARSING_ERROR(8),
     MORE_THAN_ONE_SOURCE_FILE(9),
     SOURCE_FILE_PARSING_ERROR(10),
-    ROOT_CACHE_CLEANING_ERROR(11);
+    ROOT_CACHE_CLEANING_ERROR(11),
+    DOCUMENT_BUILD_ERROR(12),
+    DAEMON_ERROR(13),
+    BATCH_JOB_ERROR(14),
+    BATCH_MANIFEST_ERROR(15),
+    MISSING_ROOT_FOLDER(16),
+    WATCH_ERROR(17);
 
     /**
      * Code of the error.
@@ -0,0 +1,83 @@
+package de.be.thaw.cli.batch;
+
+import de.be.thaw.cli.ErrorResult;
+import de.be.thaw.cli.render.RenderJob;
+
+/**
+ * Result of a single render job of a batch.
+ */
+public class BatchJobResult {
+
+    /**
+     * The rendered job.
+     */
+    private final RenderJob job;
+
+    /**
+     * Result of the render.
+     */
+    private final ErrorResult result;
+
+    /**
+     * Message describing the error or an empty string on success.
+     */
+    private final String message;
+
+    /**
+     * Duration of the render in milliseconds.
+     */
+    private final long duration;
+
+    public BatchJobResult(RenderJob job, ErrorResult result, String message, long duration) {
+        this.job = job;
+        this.result = result;
+        this.message = message;
+        this.duration = duration;
+    }
+
+    /**
+     * Get the rendered job.
+     *
+     * @return job
+     */
+    public RenderJob getJob() {
+        return job;
+    }
+
+    /**
+     * Get the result of the render.
+     *
+     * @return result
+     */
+    public ErrorResult getResult() {
+        return result;
+    }
+
+    /**
+     * Get the message describing the error.
+     *
+     * @return message or an empty string on success
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Get the duration of the render.
+     *
+     * @return duration in milliseconds
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * Check whether the render succeeded.
+     *
+     * @return whether successful
+     */
+    public boolean isSuccessful() {
+        return result == ErrorResult.OK;
+    }
+
+}
@@ -0,0 +1,72 @@
+package de.be.thaw.cli.batch;
+
+import de.be.thaw.cli.render.RenderJob;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Manifest listing the projects to render in a batch.
+ * Every non-blank line that does not start with '#' names the root folder of a project,
+ * optionally followed by '|' and the path to save the resulting file to (defaults to 'out.pdf' in the root folder).
+ * Relative paths are resolved against the folder containing the manifest.
+ */
+public class BatchManifest {
+
+    /**
+     * Prefix of comment lines.
+     */
+    private static final String COMMENT_PREFIX = "#";
+
+    /**
+     * Separator between the root folder and the output path.
+     */
+    private static final char OUTPUT_SEPARATOR = '|';
+
+    /**
+     * Name of the resulting file when no output path is specified.
+     */
+    private static final String DEFAULT_OUTPUT_NAME = "out.pdf";
+
+    /**
+     * Read the render jobs from the passed manifest file.
+     *
+     * @param manifest file to read
+     * @param charset  the info files of the listed projects are encoded in
+     * @return the render jobs in the order listed in the manifest
+     * @throws IOException in case the manifest could not be read
+     */
+    public static List<RenderJob> read(Path manifest, Charset charset) throws IOException {
+        Path baseFolder = manifest.toAbsolutePath().getParent();
+
+        List<RenderJob> jobs = new ArrayList<>();
+        try (BufferedReader br = Files.newBufferedReader(manifest)) {
+            String line = br.readLine();
+            while (line != null) {
+                line = line.trim();
+
+                if (!line.isEmpty() && !line.startsWith(COMMENT_PREFIX)) {
+                    int separatorIndex = line.indexOf(OUTPUT_SEPARATOR);
+
+                    Path rootFolder = baseFolder.resolve(separatorIndex == -1 ? line : line.substring(0, separatorIndex).trim()).normalize();
+                    Path outputPath = separatorIndex == -1
+                            ? rootFolder.resolve(DEFAULT_OUTPUT_NAME)
+                            : baseFolder.resolve(line.substring(separatorIndex + 1).trim()).normalize();
+
+                    jobs.add(new RenderJob(new File(rootFolder.toString()), outputPath, charset));
+                }
+
+                line = br.readLine();
+            }
+        }
+
+        return jobs;
+    }
+
+}
@@ -0,0 +1,139 @@
+package de.be.thaw.cli.batch;
+
+import de.be.thaw.cli.ErrorResult;
+import de.be.thaw.cli.render.RenderException;
+import de.be.thaw.cli.render.RenderJob;
+import de.be.thaw.cli.render.Renderer;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runner rendering a batch of projects concurrently on a bounded thread pool within one JVM.
+ * Fonts, hyphenation dictionaries, parsed font files and syntax highlighting results are shared by all jobs.
+ */
+public class BatchRunner {
+
+    /**
+     * Maximum count of concurrent renders.
+     */
+    private final int threads;
+
+    /**
+     * Stream to print the job results and the summary to.
+     */
+    private final PrintStream log;
+
+    public BatchRunner(int threads, PrintStream log) {
+        this.threads = threads;
+        this.log = log;
+    }
+
+    /**
+     * Render the passed jobs and print the result of every job once it finished followed by a summary.
+     *
+     * @param jobs to render
+     * @return results of the jobs in the order of the passed jobs
+     */
+    public List<BatchJobResult> run(List<RenderJob> jobs) {
+        long start = System.nanoTime();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<BatchJobResult> results = new ArrayList<>(jobs.size());
+        try {
+            Renderer renderer = new Renderer(executor);
+
+            List<CompletableFuture<BatchJobResult>> futures = new ArrayList<>(jobs.size());
+            for (RenderJob job : jobs) {
+                futures.add(CompletableFuture.supplyAsync(() -> render(renderer, job), executor));
+            }
+
+            for (CompletableFuture<BatchJobResult> future : futures) {
+                results.add(future.join());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        printSummary(results, (System.nanoTime() - start) / 1_000_000);
+
+        return results;
+    }
+
+    /**
+     * Render the passed job and print its result.
+     *
+     * @param renderer to render with
+     * @param job      to render
+     * @return result of the job
+     */
+    private BatchJobResult render(Renderer renderer, RenderJob job) {
+        long start = System.nanoTime();
+
+        ErrorResult result = ErrorResult.OK;
+        String message = "";
+        try {
+            renderer.render(job);
+        } catch (RenderException e) {
+            result = e.getResult();
+            message = e.getMessage();
+        } catch (RuntimeException e) {
+            result = ErrorResult.BATCH_JOB_ERROR;
+            message = String.format("An unexpected exception occurred while rendering: '%s'", e);
+        }
+
+        BatchJobResult jobResult = new BatchJobResult(job, result, message, (System.nanoTime() - start) / 1_000_000);
+        if (jobResult.isSuccessful()) {
+            log.println(String.format(
+                    "[OK] '%s' -> '%s' in %d ms",
+                    job.getRootFolder().getAbsolutePath(),
+                    job.getOutputPath().toAbsolutePath(),
+                    jobResult.getDuration()
+            ));
+        } else {
+            log.println(String.format(
+                    "[FAILED] '%s' in %d ms: %s",
+                    job.getRootFolder().getAbsolutePath(),
+                    jobResult.getDuration(),
+                    message
+            ));
+        }
+
+        return jobResult;
+    }
+
+    /**
+     * Print a summary of the passed results.
+     *
+     * @param results  of the batch
+     * @param duration of the whole batch in milliseconds
+     */
+    private void printSummary(List<BatchJobResult> results, long duration) {
+        int succeeded = 0;
+        long jobDurationSum = 0;
+        BatchJobResult slowest = null;
+        for (BatchJobResult result : results) {
+            if (result.isSuccessful()) {
+                succeeded++;
+            }
+
+            jobDurationSum += result.getDuration();
+            if (slowest == null || result.getDuration() > slowest.getDuration()) {
+                slowest = result;
+            }
+        }
+
+        log.println();
+        log.println("### Summary ###");
+        log.println(String.format("Rendered %d of %d projects (%d failed) in %d ms", succeeded, results.size(), results.size() - succeeded, duration));
+        if (!results.isEmpty()) {
+            log.println(String.format("Total job time: %d ms, average: %d ms", jobDurationSum, jobDurationSum / results.size()));
+            log.println(String.format("Slowest job: '%s' with %d ms", slowest.getJob().getRootFolder().getAbsolutePath(), slowest.getDuration()));
+        }
+    }
+
+}
@@ -0,0 +1,275 @@
+package de.be.thaw.cli.daemon;
+
+import de.be.thaw.cli.render.RenderJob;
+import de.be.thaw.util.cache.CacheUtil;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Formatter;
+
+/**
+ * Protocol spoken between the render daemon and its clients.
+ * A client sends a single command per connection, preceded by the token the daemon wrote to its token file.
+ * As only the user running the daemon can read the token file, other local users cannot make the daemon
+ * read or write files on their behalf.
+ * A render command is followed by the absolute project root folder, the absolute output path and the charset name.
+ * The daemon answers with the error result code, a message (empty on success) and the render duration in milliseconds.
+ */
+public class DaemonProtocol {
+
+    /**
+     * Default loopback port the daemon listens on.
+     */
+    public static final int DEFAULT_PORT = 27315;
+
+    /**
+     * Maximum length of a string in the protocol in bytes.
+     */
+    public static final int MAX_STRING_LENGTH = 64 * 1024;
+
+    /**
+     * Count of random bytes of a token.
+     */
+    private static final int TOKEN_LENGTH = 32;
+
+    /**
+     * Command requesting a render.
+     */
+    public static final String RENDER_COMMAND = "render";
+
+    /**
+     * Command requesting the daemon to shut down.
+     */
+    public static final String SHUTDOWN_COMMAND = "shutdown";
+
+    /**
+     * Get the token file of the daemon listening on the passed port.
+     *
+     * @param port the daemon listens on
+     * @return path of the token file in the root cache directory
+     */
+    public static Path getTokenFile(int port) {
+        return CacheUtil.getCacheRootDir().toPath().resolve(String.format("daemon-%d.token", port));
+    }
+
+    /**
+     * Generate a new random token.
+     *
+     * @return token in hex form
+     */
+    public static String generateToken() {
+        byte[] bytes = new byte[TOKEN_LENGTH];
+        new SecureRandom().nextBytes(bytes);
+
+        try (Formatter formatter = new Formatter()) {
+            for (byte b : bytes) {
+                formatter.format("%02X", b);
+            }
+            return formatter.toString();
+        }
+    }
+
+    /**
+     * Write the passed token to a file only readable by the current user.
+     * An already existing file is replaced.
+     *
+     * @param file  to write to
+     * @param token to write
+     * @throws IOException in case the file could not be written
+     */
+    public static void writeTokenFile(Path file, String token) throws IOException {
+        Files.deleteIfExists(file);
+
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            File f = Files.createFile(file).toFile();
+            boolean ownerOnly = f.setReadable(false, false) && f.setReadable(true, true)
+                    && f.setWritable(false, false) && f.setWritable(true, true);
+            if (!ownerOnly) {
+                Files.delete(file);
+                throw new IOException(String.format("Could not restrict the access to the token file at '%s'", file));
+            }
+        }
+
+        Files.writeString(file, token, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Read the token of the daemon listening on the passed port.
+     *
+     * @param port the daemon listens on
+     * @return the token
+     * @throws IOException in case the token file could not be read
+     */
+    public static String readToken(int port) throws IOException {
+        Path file = getTokenFile(port);
+        if (!Files.isRegularFile(file)) {
+            throw new IOException(String.format("There is no token file at '%s'. Is the render daemon running?", file));
+        }
+
+        return Files.readString(file, StandardCharsets.US_ASCII).trim();
+    }
+
+    /**
+     * Check whether the passed tokens are equal in time independent of where they differ.
+     *
+     * @param expected token
+     * @param actual   token sent by a client
+     * @return whether the tokens are equal
+     */
+    public static boolean isValidToken(String expected, String actual) {
+        return MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.US_ASCII),
+                actual.getBytes(StandardCharsets.US_ASCII)
+        );
+    }
+
+    /**
+     * Write the token and command starting every request.
+     *
+     * @param out     to write to
+     * @param token   of the daemon
+     * @param command to send
+     * @throws IOException in case the request could not be written
+     */
+    public static void writeRequestHeader(DataOutputStream out, String token, String command) throws IOException {
+        writeString(out, token);
+        writeString(out, command);
+    }
+
+    /**
+     * Write a render request for the passed job.
+     *
+     * @param out   to write to
+     * @param token of the daemon
+     * @param job   to request a render for
+     * @throws IOException in case the request could not be written
+     */
+    public static void writeRenderRequest(DataOutputStream out, String token, RenderJob job) throws IOException {
+        writeRequestHeader(out, token, RENDER_COMMAND);
+        writeString(out, job.getRootFolder().getAbsolutePath());
+        writeString(out, job.getOutputPath().toAbsolutePath().toString());
+        writeString(out, job.getCharset().name());
+        out.flush();
+    }
+
+    /**
+     * Read the render job of a render request whose command has already been read.
+     *
+     * @param in to read from
+     * @return the requested render job
+     * @throws ProtocolException in case the request is malformed (for example names an unknown charset)
+     * @throws IOException       in case the request could not be read
+     */
+    public static RenderJob readRenderRequest(DataInputStream in) throws IOException {
+        String rootFolder = readString(in);
+        String outputPath = readString(in);
+        String charset = readString(in);
+
+        Path output;
+        try {
+            output = Path.of(outputPath);
+        } catch (InvalidPathException e) {
+            throw new ProtocolException(String.format("The output path '%s' is invalid: '%s'", outputPath, e.getMessage()));
+        }
+
+        // Charset.forName throws IllegalCharsetNameException or UnsupportedCharsetException (both IllegalArgumentException)
+        Charset cs;
+        try {
+            cs = Charset.forName(charset);
+        } catch (IllegalArgumentException e) {
+            throw new ProtocolException(String.format("The charset '%s' is unknown", charset));
+        }
+
+        return new RenderJob(new File(rootFolder), output, cs);
+    }
+
+    /**
+     * Write the response to a request.
+     *
+     * @param out      to write to
+     * @param code     the error result code
+     * @param message  describing the error or an empty string on success
+     * @param duration of the render in milliseconds
+     * @throws IOException in case the response could not be written
+     */
+    public static void writeResponse(DataOutputStream out, int code, String message, long duration) throws IOException {
+        // A char takes at most 4 bytes in UTF-8 -> the message fits into MAX_STRING_LENGTH
+        if (message.length() > MAX_STRING_LENGTH / 4) {
+            message = message.substring(0, MAX_STRING_LENGTH / 4);
+        }
+
+        out.writeInt(code);
+        writeString(out, message);
+        out.writeLong(duration);
+        out.flush();
+    }
+
+    /**
+     * Read the response to a request.
+     *
+     * @param in to read from
+     * @return the read response
+     * @throws IOException in case the response could not be read
+     */
+    public static DaemonResponse readResponse(DataInputStream in) throws IOException {
+        int code = in.readInt();
+        String message = readString(in);
+        long duration = in.readLong();
+
+        return new DaemonResponse(code, message, duration);
+    }
+
+    /**
+     * Write the passed string as its UTF-8 byte length followed by the bytes.
+     * Unlike {@link DataOutputStream#writeUTF(String)} the length of the string is not limited to 64 KB.
+     *
+     * @param out to write to
+     * @param str to write
+     * @throws IOException in case the string could not be written
+     */
+    public static void writeString(DataOutputStream out, String str) throws IOException {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Read a string written using {@link #writeString(DataOutputStream, String)}.
+     *
+     * @param in to read from
+     * @return the read string
+     * @throws ProtocolException in case the announced length is negative or exceeds {@link #MAX_STRING_LENGTH}
+     * @throws IOException       in case the string could not be read
+     */
+    public static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_STRING_LENGTH) {
+            throw new ProtocolException(String.format(
+                    "String length %d is not within 0 and %d bytes",
+                    length,
+                    MAX_STRING_LENGTH
+            ));
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,56 @@
+package de.be.thaw.cli.daemon;
+
+/**
+ * Response of the render daemon to a request.
+ */
+public class DaemonResponse {
+
+    /**
+     * The error result code.
+     */
+    private final int code;
+
+    /**
+     * Message describing the error or an empty string on success.
+     */
+    private final String message;
+
+    /**
+     * Duration of the render in milliseconds.
+     */
+    private final long duration;
+
+    public DaemonResponse(int code, String message, long duration) {
+        this.code = code;
+        this.message = message;
+        this.duration = duration;
+    }
+
+    /**
+     * Get the error result code.
+     *
+     * @return code
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Get the message describing the error.
+     *
+     * @return message or an empty string on success
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Get the duration of the render.
+     *
+     * @return duration in milliseconds
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+}
@@ -0,0 +1,278 @@
+package de.be.thaw.cli.daemon;
+
+import de.be.thaw.cli.ErrorResult;
+import de.be.thaw.cli.render.RenderException;
+import de.be.thaw.cli.render.RenderJob;
+import de.be.thaw.cli.render.Renderer;
+import de.be.thaw.export.pdf.PdfExporter;
+import de.be.thaw.reference.citation.CitationManagerFactory;
+import de.be.thaw.style.model.impl.DefaultStyleModel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ProtocolException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-running daemon accepting render jobs on a loopback port.
+ * Keeping the JVM alive keeps the system fonts, hyphenation dictionaries, CSL styles
+ * and the syntax highlighting tool checks warm between renders.
+ * The system fonts, hyphenation dictionaries, math font and citation engine are warmed up
+ * before the first job is accepted.
+ * Only clients presenting the token written to the token file of the daemon are served.
+ */
+public class RenderDaemon implements Closeable {
+
+    /**
+     * Time a client has to send its request in (in milliseconds).
+     * Connections not sending a request in time are closed, so that they cannot occupy the daemon forever.
+     */
+    private static final int REQUEST_TIMEOUT = 10_000;
+
+    /**
+     * Time to wait for renders in progress to finish when shutting down (in minutes).
+     */
+    private static final int SHUTDOWN_TIMEOUT = 5;
+
+    /**
+     * Socket accepting client connections.
+     */
+    private final ServerSocket serverSocket;
+
+    /**
+     * Executor reading the requests of client connections.
+     */
+    private final ExecutorService requestExecutor;
+
+    /**
+     * Executor running the renders of authenticated clients concurrently.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Renderer shared by all render jobs.
+     */
+    private final Renderer renderer;
+
+    /**
+     * Stream to print messages of the daemon to.
+     */
+    private final PrintStream log;
+
+    /**
+     * Token clients have to present with every request.
+     */
+    private final String token;
+
+    /**
+     * File the token is written to (only readable by the user running the daemon).
+     */
+    private final Path tokenFile;
+
+    public RenderDaemon(int port, int threads, PrintStream log) throws IOException {
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.requestExecutor = Executors.newCachedThreadPool();
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.renderer = new Renderer(executor);
+        this.log = log;
+
+        this.token = DaemonProtocol.generateToken();
+        this.tokenFile = DaemonProtocol.getTokenFile(getPort());
+        try {
+            DaemonProtocol.writeTokenFile(tokenFile, token);
+        } catch (IOException e) {
+            serverSocket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Get the port the daemon is listening on.
+     *
+     * @return port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accept and process client connections until the daemon is closed.
+     * Returns after the renders in progress have finished.
+     */
+    public void run() {
+        warmUp();
+
+        log.println(String.format("Render daemon listening on port %d", getPort()));
+
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    log.println(String.format("[WARNING] Could not accept a client connection: '%s'", e.getMessage()));
+                }
+                continue;
+            }
+
+            requestExecutor.execute(() -> handle(socket));
+        }
+
+        // Requests not read yet are rejected, renders in progress are finished
+        requestExecutor.shutdown();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MINUTES)) {
+                log.println(String.format("[WARNING] Renders still in progress after waiting %d minutes are cancelled", SHUTDOWN_TIMEOUT));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Load the resources shared by all renders before the first job arrives.
+     * Failing to warm up is not fatal, the resources are then loaded by the first render needing them.
+     */
+    private void warmUp() {
+        long start = System.nanoTime();
+
+        DefaultStyleModel.defaultModel(); // Loads the system fonts
+
+        try {
+            PdfExporter.warmUp();
+        } catch (IOException | RuntimeException e) {
+            log.println(String.format("[WARNING] Could not warm up the hyphenation dictionaries and math font: '%s'", e.getMessage()));
+        }
+
+        try {
+            CitationManagerFactory.getInstance().warmUp();
+        } catch (IOException | RuntimeException e) {
+            log.println(String.format("[WARNING] Could not warm up the citation engine: '%s'", e.getMessage()));
+        }
+
+        log.println(String.format("Warmed up in %d ms", (System.nanoTime() - start) / 1_000_000));
+    }
+
+    /**
+     * Read the request of the passed client connection.
+     * Only render requests of authenticated clients are passed to the render executor.
+     *
+     * @param socket of the client
+     */
+    private void handle(Socket socket) {
+        boolean passedOn = false;
+        try {
+            socket.setSoTimeout(REQUEST_TIMEOUT);
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+            try {
+                if (!DaemonProtocol.isValidToken(token, DaemonProtocol.readString(in))) {
+                    DaemonProtocol.writeResponse(out, ErrorResult.DAEMON_ERROR.getCode(), "Invalid daemon token", 0);
+                    return;
+                }
+
+                String command = DaemonProtocol.readString(in);
+                if (command.equals(DaemonProtocol.RENDER_COMMAND)) {
+                    RenderJob job = DaemonProtocol.readRenderRequest(in);
+
+                    try {
+                        executor.execute(() -> {
+                            try (socket) {
+                                render(job, out);
+                            } catch (IOException e) {
+                                log.println(String.format("[WARNING] Could not respond to a client request: '%s'", e.getMessage()));
+                            }
+                        });
+                        passedOn = true;
+                    } catch (RejectedExecutionException e) {
+                        DaemonProtocol.writeResponse(out, ErrorResult.DAEMON_ERROR.getCode(), "The render daemon is shutting down", 0);
+                    }
+                } else if (command.equals(DaemonProtocol.SHUTDOWN_COMMAND)) {
+                    DaemonProtocol.writeResponse(out, ErrorResult.OK.getCode(), "", 0);
+                    close();
+                } else {
+                    DaemonProtocol.writeResponse(out, ErrorResult.DAEMON_ERROR.getCode(), String.format("Unknown command '%s'", command), 0);
+                }
+            } catch (ProtocolException e) {
+                DaemonProtocol.writeResponse(out, ErrorResult.DAEMON_ERROR.getCode(), e.getMessage(), 0);
+            }
+        } catch (SocketTimeoutException e) {
+            log.println(String.format("[WARNING] Closed a client connection not sending its request within %d ms", REQUEST_TIMEOUT));
+        } catch (SocketException e) {
+            // Client went away -> nothing to respond to
+        } catch (IOException e) {
+            log.println(String.format("[WARNING] Could not process a client request: '%s'", e.getMessage()));
+        } finally {
+            if (!passedOn) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // Nothing left to do with the connection
+                }
+            }
+        }
+    }
+
+    /**
+     * Render the passed job of an authenticated client.
+     *
+     * @param job to render
+     * @param out to write the response to
+     * @throws IOException in case the response could not be written
+     */
+    private void render(RenderJob job, DataOutputStream out) throws IOException {
+        long start = System.nanoTime();
+        ErrorResult result = ErrorResult.OK;
+        String message = "";
+        try {
+            renderer.render(job);
+        } catch (RenderException e) {
+            result = e.getResult();
+            message = e.getMessage();
+        } catch (RuntimeException e) {
+            result = ErrorResult.DAEMON_ERROR;
+            message = String.format("An unexpected exception occurred while rendering: '%s'", e);
+        }
+        long duration = (System.nanoTime() - start) / 1_000_000;
+
+        log.println(String.format(
+                "%s '%s' in %d ms",
+                result == ErrorResult.OK ? "Rendered" : "Failed to render",
+                job.getRootFolder().getAbsolutePath(),
+                duration
+        ));
+
+        DaemonProtocol.writeResponse(out, result.getCode(), message, duration);
+    }
+
+    /**
+     * Stop accepting client connections.
+     * Renders already in progress are finished before {@link #run()} returns.
+     *
+     * @throws IOException in case the server socket could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        Files.deleteIfExists(tokenFile);
+    }
+
+}
@@ -0,0 +1,63 @@
+package de.be.thaw.cli.daemon;
+
+import de.be.thaw.cli.render.RenderJob;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+/**
+ * Thin client sending requests to a running render daemon.
+ * The token authenticating the requests is read from the token file of the daemon.
+ */
+public class RenderDaemonClient {
+
+    /**
+     * Loopback port the daemon is listening on.
+     */
+    private final int port;
+
+    public RenderDaemonClient(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Let the daemon render the passed job and wait for it to finish.
+     *
+     * @param job to render
+     * @return response of the daemon
+     * @throws IOException in case the daemon could not be reached
+     */
+    public DaemonResponse render(RenderJob job) throws IOException {
+        String token = DaemonProtocol.readToken(port);
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            DaemonProtocol.writeRenderRequest(new DataOutputStream(new BufferedOutputStream(socket.getOutputStream())), token, job);
+
+            return DaemonProtocol.readResponse(new DataInputStream(new BufferedInputStream(socket.getInputStream())));
+        }
+    }
+
+    /**
+     * Let the daemon shut down.
+     *
+     * @return response of the daemon
+     * @throws IOException in case the daemon could not be reached
+     */
+    public DaemonResponse shutdown() throws IOException {
+        String token = DaemonProtocol.readToken(port);
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            DaemonProtocol.writeRequestHeader(out, token, DaemonProtocol.SHUTDOWN_COMMAND);
+            out.flush();
+
+            return DaemonProtocol.readResponse(new DataInputStream(new BufferedInputStream(socket.getInputStream())));
+        }
+    }
+
+}
@@ -0,0 +1,36 @@
+package de.be.thaw.cli.render;
+
+import de.be.thaw.cli.ErrorResult;
+
+/**
+ * Exception thrown when a render failed.
+ */
+public class RenderException extends Exception {
+
+    /**
+     * Result describing why the render failed.
+     */
+    private final ErrorResult result;
+
+    public RenderException(ErrorResult result, String message) {
+        super(message);
+
+        this.result = result;
+    }
+
+    public RenderException(ErrorResult result, String message, Throwable cause) {
+        super(message, cause);
+
+        this.result = result;
+    }
+
+    /**
+     * Get the result describing why the render failed.
+     *
+     * @return error result
+     */
+    public ErrorResult getResult() {
+        return result;
+    }
+
+}
@@ -0,0 +1,60 @@
+package de.be.thaw.cli.render;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+
+/**
+ * A single render of a Thaw project to a PDF file.
+ */
+public class RenderJob {
+
+    /**
+     * Root folder of the Thaw project to render.
+     */
+    private final File rootFolder;
+
+    /**
+     * Path to save the resulting file to.
+     */
+    private final Path outputPath;
+
+    /**
+     * Charset the info file of the project is encoded in.
+     */
+    private final Charset charset;
+
+    public RenderJob(File rootFolder, Path outputPath, Charset charset) {
+        this.rootFolder = rootFolder;
+        this.outputPath = outputPath;
+        this.charset = charset;
+    }
+
+    /**
+     * Get the root folder of the Thaw project to render.
+     *
+     * @return root folder
+     */
+    public File getRootFolder() {
+        return rootFolder;
+    }
+
+    /**
+     * Get the path to save the resulting file to.
+     *
+     * @return output path
+     */
+    public Path getOutputPath() {
+        return outputPath;
+    }
+
+    /**
+     * Get the charset the info file of the project is encoded in.
+     *
+     * @return charset
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+}
@@ -0,0 +1,286 @@
+package de.be.thaw.cli.render;
+
+import de.be.thaw.cli.ErrorResult;
+import de.be.thaw.core.document.Document;
+import de.be.thaw.core.document.builder.impl.DefaultDocumentBuilder;
+import de.be.thaw.core.document.builder.impl.exception.DocumentBuildException;
+import de.be.thaw.core.document.builder.impl.source.DocumentBuildSource;
+import de.be.thaw.export.Exporter;
+import de.be.thaw.export.exception.ExportException;
+import de.be.thaw.export.pdf.PdfExporter;
+import de.be.thaw.info.ThawInfo;
+import de.be.thaw.info.parser.InfoParser;
+import de.be.thaw.info.parser.impl.DefaultInfoParser;
+import de.be.thaw.reference.citation.CitationManager;
+import de.be.thaw.reference.citation.CitationManagerFactory;
+import de.be.thaw.reference.citation.exception.CitationManagerCreationException;
+import de.be.thaw.shared.ThawContext;
+import de.be.thaw.style.model.StyleModel;
+import de.be.thaw.style.model.impl.DefaultStyleModel;
+import de.be.thaw.style.parser.StyleFormatParser;
+import de.be.thaw.style.parser.StyleFormatParserFactory;
+import de.be.thaw.style.parser.exception.StyleModelParseException;
+import de.be.thaw.text.model.TextModel;
+import de.be.thaw.text.parser.TextParser;
+import de.be.thaw.text.parser.exception.ParseException;
+import de.be.thaw.typeset.knuthplass.config.util.LineBreakCache;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Renderer turning Thaw projects into PDF files.
+ * Each render uses its own context, so that a renderer may be shared and run many renders concurrently.
+ */
+public class Renderer {
+
+    /**
+     * Executor to run asynchronous renders on.
+     */
+    private final Executor executor;
+
+    /**
+     * Stream to print progress messages to.
+     */
+    private final PrintStream log;
+
+    public Renderer(Executor executor, PrintStream log) {
+        this.executor = executor;
+        this.log = log;
+    }
+
+    public Renderer(Executor executor) {
+        this(executor, new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * Run the passed render asynchronously on the executor of the renderer.
+     * The returned future is completed exceptionally with a {@link RenderException} in case the render failed.
+     *
+     * @param job to render
+     * @return future completed when the render finished
+     */
+    public CompletableFuture<Void> renderAsync(RenderJob job) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                render(job);
+            } catch (RenderException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Run the passed render on the calling thread.
+     *
+     * @param job to render
+     * @throws RenderException in case the render failed
+     */
+    public void render(RenderJob job) throws RenderException {
+        render(job, null, null);
+    }
+
+    /**
+     * Run the passed render on the calling thread.
+     * Text paragraphs whose line breaks are already in the passed cache are not broken into lines again.
+     *
+     * @param job                    to render
+     * @param lineBreakCache         to reuse and fill with the line breaks of the rendered project (null to not cache line breaks)
+     * @param includedFolderConsumer to pass the folders included using the #INCLUDE# Thingy to,
+     *                               even in case the render failed (may be null)
+     * @throws RenderException in case the render failed
+     */
+    public void render(
+            RenderJob job,
+            LineBreakCache lineBreakCache,
+            Consumer<File> includedFolderConsumer
+    ) throws RenderException {
+        File root = job.getRootFolder();
+        if (!root.isDirectory()) {
+            throw new RenderException(ErrorResult.MISSING_ROOT_FOLDER, String.format(
+                    "There is no folder at '%s'",
+                    root.getAbsolutePath()
+            ));
+        }
+
+        log.println(String.format("Searching for Thaw files within folder at '%s'...", root.getAbsolutePath()));
+
+        log.println();
+
+        String[] infoFiles = listFiles(root, ".tdi");
+
+        InfoParser infoParser = new DefaultInfoParser();
+        ThawInfo info;
+        if (infoFiles.length == 0) {
+            log.println("[WARNING] Found not info file (*.tdi). It is recommended to have one.");
+
+            try {
+                info = infoParser.parse(new StringReader(""), root); // Continue with the default info
+            } catch (de.be.thaw.info.parser.exception.ParseException e) {
+                throw new RenderException(ErrorResult.INFO_FILE_PARSING_ERROR, String.format(
+                        "An exception occurred while trying to create the default info.\n" +
+                                "The exception message is: '%s'",
+                        e.getMessage()
+                ), e);
+            }
+        } else if (infoFiles.length > 1) {
+            throw new RenderException(ErrorResult.MORE_THAN_ONE_INFO_FILE, String.format(
+                    "There are more than one Thaw info file (ending with *.tdi) in the folder at '%s'",
+                    root.getAbsolutePath()
+            ));
+        } else {
+            log.println(String.format("Processing Thaw info file '%s'...", infoFiles[0]));
+
+            File infoFile = new File(root, infoFiles[0]);
+            try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(infoFile), job.getCharset()))) {
+                info = infoParser.parse(br, root);
+            } catch (IOException | de.be.thaw.info.parser.exception.ParseException e) {
+                throw new RenderException(ErrorResult.INFO_FILE_PARSING_ERROR, String.format(
+                        "An exception occurred while trying to parse the provided info file at '%s'.\n" +
+                                "The exception message is: '%s'",
+                        infoFile.getAbsolutePath(),
+                        e.getMessage()
+                ), e);
+            }
+        }
+
+        String[] textFiles = listFiles(root, ".tdt");
+
+        if (textFiles.length == 0) {
+            throw new RenderException(ErrorResult.MISSING_TEXT_FILE, String.format(
+                    "There is no Thaw text file (ending with *.tdt) in the folder at '%s'",
+                    root.getAbsolutePath()
+            ));
+        } else if (textFiles.length > 1) {
+            throw new RenderException(ErrorResult.MORE_THAN_ONE_TEXT_FILE, String.format(
+                    "There are more than one Thaw text file (ending with *.tdt) in the folder at '%s'",
+                    root.getAbsolutePath()
+            ));
+        } else {
+            log.println(String.format("Processing Thaw text file '%s'...", textFiles[0]));
+        }
+
+        File textFile = new File(root, textFiles[0]);
+
+        TextParser textParser = new TextParser();
+        TextModel textModel;
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(textFile), info.getEncoding()))) {
+            textModel = textParser.parse(br);
+        } catch (IOException | ParseException e) {
+            throw new RenderException(ErrorResult.TEXT_FILE_PARSING_ERROR, String.format(
+                    "An exception occurred while trying to parse the provided text file at '%s'.\n" +
+                            "The exception message is: '%s'",
+                    textFile.getAbsolutePath(),
+                    e.getMessage()
+            ), e);
+        }
+
+        String[] styleFiles = listFiles(root, ".tds");
+
+        StyleFormatParser styleFormatParser = StyleFormatParserFactory.getInstance().getParser();
+        StyleModel styleModel;
+        if (styleFiles.length > 1) {
+            throw new RenderException(ErrorResult.MORE_THAN_ONE_STYLE_FILE, String.format(
+                    "There are more than one Thaw style files (ending with *.tds) in the folder at '%s'",
+                    root.getAbsolutePath()
+            ));
+        } else if (styleFiles.length == 1) {
+            log.println(String.format("Processing Thaw style file '%s'...", styleFiles[0]));
+
+            File styleFile = new File(root, styleFiles[0]);
+
+            try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(styleFile), info.getEncoding()))) {
+                styleModel = styleFormatParser.parse(br, root);
+                styleModel = styleModel.merge(DefaultStyleModel.defaultModel());
+            } catch (IOException | StyleModelParseException e) {
+                throw new RenderException(ErrorResult.STYLE_FILE_PARSING_ERROR, String.format(
+                        "An exception occurred while trying to parse the provided style file at '%s'.\n" +
+                                "The exception message is: '%s'",
+                        styleFile.getAbsolutePath(),
+                        e.getMessage()
+                ), e);
+            }
+        } else {
+            styleModel = DefaultStyleModel.defaultModel();
+        }
+
+        ThawContext context = new ThawContext(
+                root,
+                infoParser,
+                textParser,
+                styleFormatParser,
+                info.getEncoding(),
+                info.getLanguage()
+        );
+
+        Document document;
+        try {
+            CitationManager citationManager = CitationManagerFactory.getInstance().create(
+                    context,
+                    info.getBibliographyFile().orElse(null),
+                    info.getBibliographyStyle(),
+                    info.getLanguage()
+            );
+
+            document = new DefaultDocumentBuilder().build(new DocumentBuildSource(
+                    context,
+                    info,
+                    textModel,
+                    styleModel,
+                    citationManager
+            ));
+        } catch (CitationManagerCreationException | DocumentBuildException e) {
+            throw new RenderException(ErrorResult.DOCUMENT_BUILD_ERROR, String.format(
+                    "An exception occurred while trying to build the document.\n" +
+                            "The exception message is: '%s'",
+                    e.getMessage()
+            ), e);
+        } finally {
+            if (includedFolderConsumer != null) {
+                context.getIncludedFolders().forEach(includedFolderConsumer);
+            }
+        }
+
+        Exporter exporter = new PdfExporter(context, lineBreakCache);
+        try {
+            exporter.export(document, job.getOutputPath());
+        } catch (ExportException e) {
+            throw new RenderException(ErrorResult.EXPORT_ERROR, String.format(
+                    "An exception occurred while trying to export the resulting document.\n" +
+                            "The exception message is: '%s'",
+                    e.getMessage()
+            ), e);
+        }
+    }
+
+    /**
+     * List the names of the files with the passed extension in the passed folder.
+     *
+     * @param folder    to list files in
+     * @param extension of the files to list (for example ".tdt")
+     * @return file names
+     * @throws RenderException in case the folder could not be listed
+     */
+    private static String[] listFiles(File folder, String extension) throws RenderException {
+        String[] names = folder.list((dir, name) -> name.endsWith(extension));
+        if (names == null) {
+            throw new RenderException(ErrorResult.MISSING_ROOT_FOLDER, String.format(
+                    "Could not list the files in the folder at '%s'",
+                    folder.getAbsolutePath()
+            ));
+        }
+
+        return names;
+    }
+
+}
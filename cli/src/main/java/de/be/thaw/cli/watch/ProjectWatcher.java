@@ -0,0 +1,234 @@
+package de.be.thaw.cli.watch;
+
+import de.be.thaw.cli.render.RenderException;
+import de.be.thaw.cli.render.RenderJob;
+import de.be.thaw.cli.render.Renderer;
+import de.be.thaw.typeset.knuthplass.config.util.LineBreakCache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watcher rendering a project again whenever a file in the project folder, one of its subfolders
+ * or a folder included using the #INCLUDE# Thingy changes.
+ * The line breaks of the previous render are kept, so that only paragraphs whose content, style
+ * or available width changed are broken into lines again.
+ * <p>
+ * Parsing, building the document, the page layout and the PDF export still run in full for every change.
+ * Re-flowing only the pages from the first changed page on would need the previously typeset pages to
+ * stay valid, but they refer to document nodes by IDs that are generated anew on every build and
+ * page numbers (for example in the table of contents) are only resolved while exporting.
+ */
+public class ProjectWatcher implements Closeable {
+
+    /**
+     * Time to wait for further changes (in milliseconds) before rendering.
+     * Editors tend to save a file in several steps.
+     */
+    private static final long SETTLE_TIME = 100;
+
+    /**
+     * The job to render on changes.
+     */
+    private final RenderJob job;
+
+    /**
+     * Renderer to render the job with.
+     */
+    private final Renderer renderer;
+
+    /**
+     * Stream to print the render results to.
+     */
+    private final PrintStream log;
+
+    /**
+     * Service notifying about changes in the project folders.
+     */
+    private final WatchService watchService;
+
+    /**
+     * Cache for the line breaks kept between renders.
+     */
+    private final LineBreakCache lineBreakCache = new LineBreakCache();
+
+    /**
+     * Folders whose trees are watched.
+     */
+    private final Set<Path> watchedFolders = new HashSet<>();
+
+    public ProjectWatcher(RenderJob job, Renderer renderer, PrintStream log) throws IOException {
+        this.job = job;
+        this.renderer = renderer;
+        this.log = log;
+
+        this.watchService = job.getRootFolder().toPath().getFileSystem().newWatchService();
+        watch(job.getRootFolder().toPath());
+    }
+
+    /**
+     * Render the project and render it again on every change until the watcher is closed.
+     */
+    public void run() {
+        render();
+
+        log.println(String.format("Watching '%s' for changes...", job.getRootFolder().getAbsolutePath()));
+
+        while (true) {
+            try {
+                boolean changed = process(watchService.take());
+
+                // Collect the changes following shortly after
+                WatchKey key;
+                while ((key = watchService.poll(SETTLE_TIME, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= process(key);
+                }
+
+                if (changed) {
+                    render();
+                }
+            } catch (ClosedWatchServiceException | InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Render the project once.
+     */
+    private void render() {
+        long start = System.nanoTime();
+        long hitsBefore = lineBreakCache.getHits();
+        long missesBefore = lineBreakCache.getMisses();
+
+        try {
+            renderer.render(job, lineBreakCache, folder -> {
+                try {
+                    watch(folder.toPath());
+                } catch (IOException e) {
+                    log.println(String.format("[WARNING] Could not watch included folder '%s': '%s'", folder, e.getMessage()));
+                }
+            });
+
+            log.println(String.format(
+                    "Rendered '%s' in %d ms (%d paragraphs reused, %d broken into lines)",
+                    job.getOutputPath().toAbsolutePath(),
+                    (System.nanoTime() - start) / 1_000_000,
+                    lineBreakCache.getHits() - hitsBefore,
+                    lineBreakCache.getMisses() - missesBefore
+            ));
+        } catch (RenderException e) {
+            log.println(String.format("[FAILED] %s", e.getMessage()));
+        } catch (RuntimeException e) {
+            log.println(String.format("[FAILED] An unexpected exception occurred while rendering: '%s'", e));
+        }
+    }
+
+    /**
+     * Process the events of the passed watch key.
+     *
+     * @param key to process events of
+     * @return whether the project changed
+     */
+    private boolean process(WatchKey key) {
+        Path folder = (Path) key.watchable();
+        Path output = job.getOutputPath().toAbsolutePath().normalize();
+
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changed = true;
+                continue;
+            }
+
+            Path path = folder.resolve((Path) event.context()).toAbsolutePath().normalize();
+            if (path.equals(output)) {
+                continue; // Written by the render itself
+            }
+
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                try {
+                    register(path);
+                } catch (IOException e) {
+                    log.println(String.format("[WARNING] Could not watch folder '%s': '%s'", path, e.getMessage()));
+                }
+            }
+
+            changed = true;
+        }
+
+        key.reset();
+
+        return changed;
+    }
+
+    /**
+     * Watch the passed folder tree unless it is already watched as part of another watched folder tree.
+     *
+     * @param folder to watch
+     * @throws IOException in case a folder could not be watched
+     */
+    private void watch(Path folder) throws IOException {
+        Path normalized = folder.toAbsolutePath().normalize();
+        for (Path watched : watchedFolders) {
+            if (normalized.startsWith(watched)) {
+                return;
+            }
+        }
+
+        register(normalized);
+        watchedFolders.add(normalized);
+    }
+
+    /**
+     * Watch the passed folder and all its subfolders.
+     * Hidden folders are skipped.
+     *
+     * @param folder to watch
+     * @throws IOException in case a folder could not be watched
+     */
+    private void register(Path folder) throws IOException {
+        Files.walkFileTree(folder, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!dir.equals(folder) && dir.getFileName().toString().startsWith(".")) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+
+                dir.register(
+                        watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE,
+                        StandardWatchEventKinds.ENTRY_MODIFY
+                );
+
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Stop watching the project.
+     *
+     * @throws IOException in case the watch service could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+}
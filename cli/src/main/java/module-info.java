@@ -10,5 +10,11 @@ module de.be.thaw.cli {
     requires de.be.thaw.reference;
     requires de.be.thaw.util;
 
+    exports de.be.thaw.cli;
+    exports de.be.thaw.cli.render;
+    exports de.be.thaw.cli.daemon;
+    exports de.be.thaw.cli.batch;
+    exports de.be.thaw.cli.watch;
+
     opens de.be.thaw.cli;
 }
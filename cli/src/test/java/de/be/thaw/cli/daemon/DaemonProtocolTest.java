@@ -0,0 +1,112 @@
+package de.be.thaw.cli.daemon;
+
+import de.be.thaw.cli.render.RenderJob;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+public class DaemonProtocolTest {
+
+    @Test
+    public void renderRequestRoundTrip() throws IOException {
+        RenderJob job = new RenderJob(new File("/tmp/project"), Path.of("/tmp/out.pdf"), StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DaemonProtocol.writeRenderRequest(new DataOutputStream(bytes), "token", job);
+
+        DataInputStream in = toInput(bytes);
+        Assertions.assertEquals("token", DaemonProtocol.readString(in));
+        Assertions.assertEquals(DaemonProtocol.RENDER_COMMAND, DaemonProtocol.readString(in));
+
+        RenderJob read = DaemonProtocol.readRenderRequest(in);
+        Assertions.assertEquals(job.getRootFolder().getAbsolutePath(), read.getRootFolder().getAbsolutePath());
+        Assertions.assertEquals(job.getOutputPath().toAbsolutePath(), read.getOutputPath());
+        Assertions.assertEquals(StandardCharsets.UTF_8, read.getCharset());
+    }
+
+    @Test
+    public void rejectNegativeStringLength() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new DataOutputStream(bytes).writeInt(-1);
+
+        Assertions.assertThrows(ProtocolException.class, () -> DaemonProtocol.readString(toInput(bytes)));
+    }
+
+    @Test
+    public void rejectTooLongString() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new DataOutputStream(bytes).writeInt(Integer.MAX_VALUE);
+
+        Assertions.assertThrows(ProtocolException.class, () -> DaemonProtocol.readString(toInput(bytes)));
+    }
+
+    @Test
+    public void rejectUnknownCharset() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        DaemonProtocol.writeString(out, "/tmp/project");
+        DaemonProtocol.writeString(out, "/tmp/out.pdf");
+        DaemonProtocol.writeString(out, "no such charset");
+
+        ProtocolException e = Assertions.assertThrows(ProtocolException.class, () -> DaemonProtocol.readRenderRequest(toInput(bytes)));
+        Assertions.assertTrue(e.getMessage().contains("no such charset"));
+    }
+
+    @Test
+    public void longResponseMessagesAreReadable() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DaemonProtocol.writeResponse(new DataOutputStream(bytes), 4, "x".repeat(DaemonProtocol.MAX_STRING_LENGTH * 2), 10);
+
+        DaemonResponse response = DaemonProtocol.readResponse(toInput(bytes));
+        Assertions.assertEquals(4, response.getCode());
+        Assertions.assertEquals(10, response.getDuration());
+    }
+
+    @Test
+    public void tokens() {
+        String token = DaemonProtocol.generateToken();
+
+        Assertions.assertEquals(64, token.length());
+        Assertions.assertNotEquals(token, DaemonProtocol.generateToken());
+        Assertions.assertTrue(DaemonProtocol.isValidToken(token, token));
+        Assertions.assertFalse(DaemonProtocol.isValidToken(token, ""));
+        Assertions.assertFalse(DaemonProtocol.isValidToken(token, token.substring(1) + "0"));
+    }
+
+    @Test
+    public void tokenFileIsOnlyAccessibleByOwner(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("daemon.token");
+        Files.writeString(file, "stale");
+
+        DaemonProtocol.writeTokenFile(file, "secret");
+
+        Assertions.assertEquals("secret", Files.readString(file, StandardCharsets.US_ASCII));
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Assertions.assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(file)));
+        }
+    }
+
+    /**
+     * Get an input stream reading the passed written bytes.
+     *
+     * @param bytes written
+     * @return input stream
+     */
+    private static DataInputStream toInput(ByteArrayOutputStream bytes) {
+        return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+}
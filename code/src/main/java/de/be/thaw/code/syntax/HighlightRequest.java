@@ -0,0 +1,61 @@
+package de.be.thaw.code.syntax;
+
+/**
+ * Request to highlight a piece of code.
+ */
+public class HighlightRequest {
+
+    /**
+     * The code to highlight.
+     */
+    private final String code;
+
+    /**
+     * Language the code is written in.
+     */
+    private final String language;
+
+    /**
+     * Name of the style to format the code with.
+     */
+    private final String style;
+
+    public HighlightRequest(String code, String language, String style) {
+        this.code = code;
+        this.language = language;
+        this.style = style;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+
+    public String getStyle() {
+        return style;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        HighlightRequest that = (HighlightRequest) o;
+
+        if (!code.equals(that.code)) return false;
+        if (!language.equals(that.language)) return false;
+        return style.equals(that.style);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = code.hashCode();
+        result = 31 * result + language.hashCode();
+        result = 31 * result + style.hashCode();
+        return result;
+    }
+
+}
@@ -0,0 +1,357 @@
+package de.be.thaw.code.syntax;
+
+import de.be.thaw.code.syntax.exception.HighlightException;
+import de.be.thaw.util.color.Color;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Syntax highlighted code as a list of lines, each holding runs of equally styled text.
+ * All runs point into a single style palette shared by the whole code block.
+ * <p>
+ * Highlighted code may be written to and read from a compact text format (used by the Pygments worker and the on-disk cache):
+ * <pre>
+ * &lt;count of styles&gt;
+ * &lt;color as RRGGBB (or empty for the default color)&gt;;&lt;flags ('b' for bold, 'i' for italic)&gt;   (once per style)
+ * &lt;count of lines&gt;
+ * &lt;style index&gt;:&lt;text&gt;\t&lt;style index&gt;:&lt;text&gt;...   (once per line, may be empty)
+ * </pre>
+ * Backslashes, tabs, line feeds and carriage returns in the text of a run are escaped as {@code \\}, {@code \t}, {@code \n} and {@code \r}.
+ */
+public class HighlightedCode {
+
+    /**
+     * Separator of the runs of a line in the text format.
+     */
+    private static final char RUN_SEPARATOR = '\t';
+
+    /**
+     * Separator of the style index and the text of a run in the text format.
+     */
+    private static final char STYLE_INDEX_SEPARATOR = ':';
+
+    /**
+     * Separator of the color and the flags of a style in the text format.
+     */
+    private static final char STYLE_FLAGS_SEPARATOR = ';';
+
+    /**
+     * The style palette all runs point into.
+     */
+    private final List<TokenStyle> styles;
+
+    /**
+     * Lines of the code.
+     */
+    private final List<Line> lines;
+
+    public HighlightedCode(List<TokenStyle> styles, List<Line> lines) {
+        this.styles = Collections.unmodifiableList(styles);
+        this.lines = Collections.unmodifiableList(lines);
+    }
+
+    /**
+     * Get the style palette all runs point into.
+     *
+     * @return styles
+     */
+    public List<TokenStyle> getStyles() {
+        return styles;
+    }
+
+    /**
+     * Get the lines of the code.
+     *
+     * @return lines
+     */
+    public List<Line> getLines() {
+        return lines;
+    }
+
+    /**
+     * Write the highlighted code in the text format.
+     *
+     * @return the highlighted code in the text format
+     */
+    public String write() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(styles.size()).append('\n');
+        for (TokenStyle style : styles) {
+            Color color = style.getColor();
+            if (color != null) {
+                sb.append(String.format(
+                        "%02X%02X%02X",
+                        (int) Math.round(color.getRed() * 255),
+                        (int) Math.round(color.getGreen() * 255),
+                        (int) Math.round(color.getBlue() * 255)
+                ));
+            }
+
+            sb.append(STYLE_FLAGS_SEPARATOR);
+            if (style.isBold()) {
+                sb.append('b');
+            }
+            if (style.isItalic()) {
+                sb.append('i');
+            }
+            sb.append('\n');
+        }
+
+        sb.append(lines.size()).append('\n');
+        for (Line line : lines) {
+            List<TokenRun> runs = line.getRuns();
+            for (int i = 0; i < runs.size(); i++) {
+                if (i > 0) {
+                    sb.append(RUN_SEPARATOR);
+                }
+
+                TokenRun run = runs.get(i);
+                sb.append(run.getStyleIndex()).append(STYLE_INDEX_SEPARATOR);
+                escape(run.getText(), sb);
+            }
+            sb.append('\n');
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Read highlighted code from the passed text format.
+     *
+     * @param str highlighted code in the text format
+     * @return the read highlighted code
+     * @throws HighlightException in case the passed string is malformed
+     */
+    public static HighlightedCode read(String str) throws HighlightException {
+        String[] rows = str.split("\n", -1);
+
+        try {
+            int row = 0;
+
+            int styleCount = Integer.parseInt(rows[row++]);
+            List<TokenStyle> styles = new ArrayList<>(styleCount);
+            for (int i = 0; i < styleCount; i++) {
+                String styleStr = rows[row++];
+
+                int separatorIndex = styleStr.indexOf(STYLE_FLAGS_SEPARATOR);
+                String colorStr = styleStr.substring(0, separatorIndex);
+                String flags = styleStr.substring(separatorIndex + 1);
+
+                Color color = null;
+                if (!colorStr.isEmpty()) {
+                    int rgb = Integer.parseInt(colorStr, 16);
+                    color = new Color(
+                            ((rgb >> 16) & 0xFF) / 255.0,
+                            ((rgb >> 8) & 0xFF) / 255.0,
+                            (rgb & 0xFF) / 255.0
+                    );
+                }
+
+                styles.add(new TokenStyle(color, flags.indexOf('b') >= 0, flags.indexOf('i') >= 0));
+            }
+
+            int lineCount = Integer.parseInt(rows[row++]);
+            List<Line> lines = new ArrayList<>(lineCount);
+            for (int i = 0; i < lineCount; i++) {
+                lines.add(readLine(rows[row++], styleCount));
+            }
+
+            return new HighlightedCode(styles, lines);
+        } catch (RuntimeException e) {
+            throw new HighlightException("Highlighted code is malformed", e);
+        }
+    }
+
+    /**
+     * Read a line from the text format.
+     *
+     * @param str        the line in the text format
+     * @param styleCount count of styles in the palette
+     * @return the read line
+     */
+    private static Line readLine(String str, int styleCount) {
+        List<TokenRun> runs = new ArrayList<>();
+
+        int offset = 0;
+        while (offset < str.length()) {
+            int separatorIndex = str.indexOf(STYLE_INDEX_SEPARATOR, offset);
+            int styleIndex = Integer.parseInt(str.substring(offset, separatorIndex));
+            if (styleIndex < 0 || styleIndex >= styleCount) {
+                throw new IllegalArgumentException(String.format("Style index %d is out of the palette", styleIndex));
+            }
+
+            StringBuilder text = new StringBuilder();
+            offset = unescape(str, separatorIndex + 1, text);
+
+            runs.add(new TokenRun(text.toString(), styleIndex));
+        }
+
+        return new Line(runs);
+    }
+
+    /**
+     * Escape the passed text for the text format.
+     *
+     * @param text to escape
+     * @param sb   to append the escaped text to
+     */
+    private static void escape(String text, StringBuilder sb) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case '\t' -> sb.append("\\t");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                default -> sb.append(c);
+            }
+        }
+    }
+
+    /**
+     * Unescape the text of a run in the text format.
+     *
+     * @param str    to unescape the run text from
+     * @param offset where the run text starts
+     * @param sb     to append the unescaped text to
+     * @return offset of the next run (or the length of the string if there is none)
+     */
+    private static int unescape(String str, int offset, StringBuilder sb) {
+        int i = offset;
+        while (i < str.length()) {
+            char c = str.charAt(i++);
+            if (c == RUN_SEPARATOR) {
+                return i;
+            } else if (c == '\\') {
+                char escaped = str.charAt(i++);
+                switch (escaped) {
+                    case 't' -> sb.append('\t');
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    default -> sb.append(escaped);
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+
+        return i;
+    }
+
+    /**
+     * A line of highlighted code.
+     */
+    public static class Line {
+
+        /**
+         * Runs of equally styled text in the line.
+         */
+        private final List<TokenRun> runs;
+
+        public Line(List<TokenRun> runs) {
+            this.runs = Collections.unmodifiableList(runs);
+        }
+
+        public List<TokenRun> getRuns() {
+            return runs;
+        }
+
+    }
+
+    /**
+     * Run of equally styled text.
+     */
+    public static class TokenRun {
+
+        /**
+         * Text of the run.
+         */
+        private final String text;
+
+        /**
+         * Index of the style of the run in the style palette.
+         */
+        private final int styleIndex;
+
+        public TokenRun(String text, int styleIndex) {
+            this.text = text;
+            this.styleIndex = styleIndex;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public int getStyleIndex() {
+            return styleIndex;
+        }
+
+    }
+
+    /**
+     * Style of a run in the style palette.
+     */
+    public static class TokenStyle {
+
+        /**
+         * Color of the text or null to use the default color.
+         */
+        @Nullable
+        private final Color color;
+
+        /**
+         * Whether the text is bold.
+         */
+        private final boolean bold;
+
+        /**
+         * Whether the text is italic.
+         */
+        private final boolean italic;
+
+        public TokenStyle(@Nullable Color color, boolean bold, boolean italic) {
+            this.color = color;
+            this.bold = bold;
+            this.italic = italic;
+        }
+
+        @Nullable
+        public Color getColor() {
+            return color;
+        }
+
+        public boolean isBold() {
+            return bold;
+        }
+
+        public boolean isItalic() {
+            return italic;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            TokenStyle that = (TokenStyle) o;
+
+            if (bold != that.bold) return false;
+            if (italic != that.italic) return false;
+            return color != null ? color.equals(that.color) : that.color == null;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = color != null ? color.hashCode() : 0;
+            result = 31 * result + (bold ? 1 : 0);
+            result = 31 * result + (italic ? 1 : 0);
+            return result;
+        }
+
+    }
+
+}
@@ -2,6 +2,10 @@ package de.be.thaw.code.syntax;
 
 import de.be.thaw.code.syntax.exception.HighlightException;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Something that is able to highlight the syntax of code.
  */
@@ -13,9 +17,31 @@ public interface SyntaxHighlighter {
      * @param code     to highlight
      * @param language the code is written in
      * @param style    name of the style to format the code with
-     * @return the highlighted code
+     * @return the highlighted code as lines of styled token runs
      * @throws HighlightException in case the code could not be highlighted
      */
-    String highlight(String code, String language, String style) throws HighlightException;
+    HighlightedCode highlight(String code, String language, String style) throws HighlightException;
+
+    /**
+     * Highlight all passed requests at once.
+     * Requests that could not be highlighted are missing in the result
+     * (highlight them individually using {@link #highlight(String, String, String)} to get the reason).
+     *
+     * @param requests to highlight
+     * @return the highlighted code by request
+     * @throws HighlightException in case the highlighter is not able to highlight anything
+     */
+    default Map<HighlightRequest, HighlightedCode> highlightAll(List<HighlightRequest> requests) throws HighlightException {
+        Map<HighlightRequest, HighlightedCode> results = new HashMap<>();
+        for (HighlightRequest request : requests) {
+            try {
+                results.put(request, highlight(request.getCode(), request.getLanguage(), request.getStyle()));
+            } catch (HighlightException e) {
+                // Request is missing in the result
+            }
+        }
+
+        return results;
+    }
 
 }
@@ -0,0 +1,227 @@
+package de.be.thaw.code.syntax.cache;
+
+import de.be.thaw.util.cache.CacheUtil;
+import de.be.thaw.util.cache.exception.CouldNotGetProjectCacheDirectoryException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content-addressed on-disk cache for syntax highlighting results.
+ * Every result is stored in the text format of highlighted code in its own file named by the key of the result.
+ * The least recently used results are removed once the cache exceeds its maximum size.
+ */
+public class HighlightCache {
+
+    /**
+     * The default maximum size of the cache (in bytes).
+     */
+    public static final long DEFAULT_MAX_SIZE = 32 * 1024 * 1024;
+
+    /**
+     * Name of the highlight cache folder in the project-specific cache folder.
+     */
+    private static final String CACHE_LOCATION = "highlight";
+
+    /**
+     * File extension of cached results.
+     */
+    private static final String RESULT_FILE_EXTENSION = ".tokens";
+
+    /**
+     * Caches by their folder, shared by all renders in this JVM.
+     */
+    private static final Map<File, HighlightCache> CACHES = new ConcurrentHashMap<>();
+
+    /**
+     * Folder containing the cached results.
+     */
+    private final File folder;
+
+    /**
+     * Maximum size of the cache (in bytes).
+     */
+    private final long maxSize;
+
+    /**
+     * Size of the cached results (in bytes).
+     * Negative until the folder has been scanned.
+     */
+    private long size = -1;
+
+    /**
+     * Count of results found in the cache.
+     */
+    private long hits;
+
+    /**
+     * Count of results not found in the cache.
+     */
+    private long misses;
+
+    public HighlightCache(File folder, long maxSize) {
+        this.folder = folder;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get the highlight cache of the project with the passed root folder.
+     *
+     * @param projectRootFolder root folder of the project
+     * @return the cache of the project
+     * @throws CouldNotGetProjectCacheDirectoryException in case the project-specific cache folder could not be determined
+     */
+    public static HighlightCache forProject(File projectRootFolder) throws CouldNotGetProjectCacheDirectoryException {
+        File folder = new File(CacheUtil.getProjectSpecificCacheDir(projectRootFolder), CACHE_LOCATION);
+
+        return CACHES.computeIfAbsent(folder, f -> new HighlightCache(f, DEFAULT_MAX_SIZE));
+    }
+
+    /**
+     * Get the cached result for the passed key.
+     *
+     * @param key of the result
+     * @return the cached result or null if there is none
+     */
+    public synchronized String get(String key) {
+        Path file = getResultFile(key);
+        try {
+            String result = Files.readString(file, StandardCharsets.UTF_8);
+
+            // Remember the access for the least recently used eviction
+            file.toFile().setLastModified(System.currentTimeMillis());
+
+            hits++;
+            return result;
+        } catch (IOException e) {
+            misses++;
+            return null; // Not cached yet (unreadable results are highlighted and written again)
+        }
+    }
+
+    /**
+     * Store the passed result.
+     *
+     * @param key    of the result
+     * @param result to store
+     * @throws IOException in case the result could not be stored
+     */
+    public synchronized void put(String key, String result) throws IOException {
+        if (!folder.exists()) {
+            folder.mkdirs();
+        }
+
+        if (size < 0) {
+            size = computeSize();
+        }
+
+        Path file = getResultFile(key);
+        long oldLength = file.toFile().length();
+
+        // Write to a temporary file first to never leave a partially written result behind
+        byte[] bytes = result.getBytes(StandardCharsets.UTF_8);
+        Path tmpFile = Files.createTempFile(folder.toPath(), key, ".tmp");
+        try {
+            Files.write(tmpFile, bytes);
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+
+        size += bytes.length - oldLength;
+        if (size > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * Remove the least recently used results until the cache does not exceed its maximum size anymore.
+     */
+    private void evict() {
+        File[] files = folder.listFiles((dir, name) -> name.endsWith(RESULT_FILE_EXTENSION));
+        if (files == null) {
+            return;
+        }
+
+        List<File> byLastAccess = new ArrayList<>(List.of(files));
+        byLastAccess.sort(Comparator.comparingLong(File::lastModified));
+
+        for (File file : byLastAccess) {
+            if (size <= maxSize) {
+                break;
+            }
+
+            long length = file.length();
+            if (file.delete()) {
+                size -= length;
+            }
+        }
+    }
+
+    /**
+     * Compute the size of all cached results.
+     *
+     * @return size in bytes
+     */
+    private long computeSize() {
+        File[] files = folder.listFiles((dir, name) -> name.endsWith(RESULT_FILE_EXTENSION));
+        if (files == null) {
+            return 0;
+        }
+
+        long result = 0;
+        for (File file : files) {
+            result += file.length();
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the file of the result with the passed key.
+     *
+     * @param key of the result
+     * @return the result file
+     */
+    private Path getResultFile(String key) {
+        return new File(folder, key + RESULT_FILE_EXTENSION).toPath();
+    }
+
+    /**
+     * Get the count of results found in the cache.
+     *
+     * @return cache hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the count of results not found in the cache.
+     *
+     * @return cache misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(
+                "HighlightCache{folder: '%s', hits: %d, misses: %d}",
+                folder.getAbsolutePath(),
+                hits,
+                misses
+        );
+    }
+
+}
@@ -0,0 +1,203 @@
+package de.be.thaw.code.syntax.impl;
+
+import de.be.thaw.code.syntax.HighlightRequest;
+import de.be.thaw.code.syntax.HighlightedCode;
+import de.be.thaw.code.syntax.SyntaxHighlighter;
+import de.be.thaw.code.syntax.exception.HighlightException;
+import de.be.thaw.code.syntax.lexer.Lexer;
+import de.be.thaw.code.syntax.lexer.Token;
+import de.be.thaw.code.syntax.lexer.impl.JavaLexer;
+import de.be.thaw.code.syntax.lexer.impl.JsonLexer;
+import de.be.thaw.code.syntax.lexer.impl.KotlinLexer;
+import de.be.thaw.code.syntax.lexer.impl.PythonLexer;
+import de.be.thaw.code.syntax.lexer.impl.ShellLexer;
+import de.be.thaw.code.syntax.lexer.impl.SqlLexer;
+import de.be.thaw.code.syntax.lexer.impl.ThawLexer;
+import de.be.thaw.code.syntax.lexer.impl.XmlLexer;
+import de.be.thaw.code.syntax.lexer.impl.YamlLexer;
+import de.be.thaw.code.syntax.style.HighlightStyle;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Syntax highlighter using the lexers and styles built into Thaw.
+ * Code in languages (or with styles) that are not built in is passed to a fallback highlighter (for example Pygments).
+ */
+public class BuiltInSyntaxHighlighter implements SyntaxHighlighter {
+
+    /**
+     * How many spaces are to be a tab.
+     */
+    private static final int SPACES_PER_TAB = 4;
+
+    /**
+     * Built-in lexers by their language aliases.
+     */
+    private static final Map<String, Lexer> LEXERS = new HashMap<>();
+
+    static {
+        for (Lexer lexer : new Lexer[]{
+                new JavaLexer(),
+                new KotlinLexer(),
+                new PythonLexer(),
+                new JsonLexer(),
+                new YamlLexer(),
+                new XmlLexer(),
+                new ShellLexer(),
+                new SqlLexer(),
+                new ThawLexer()
+        }) {
+            for (String alias : lexer.getAliases()) {
+                LEXERS.put(alias, lexer);
+            }
+        }
+    }
+
+    /**
+     * Highlighter to use for languages or styles that are not built in (or null if there is none).
+     */
+    @Nullable
+    private final SyntaxHighlighter fallback;
+
+    public BuiltInSyntaxHighlighter(@Nullable SyntaxHighlighter fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public HighlightedCode highlight(String code, String language, String style) throws HighlightException {
+        Lexer lexer = LEXERS.get(language.toLowerCase());
+        HighlightStyle highlightStyle = lexer != null ? HighlightStyle.forName(style) : null;
+        if (highlightStyle == null) {
+            if (fallback == null) {
+                throw new HighlightException(String.format(
+                        "There is no built-in syntax highlighting for the language '%s' with the style '%s'",
+                        language,
+                        style
+                ));
+            }
+
+            return fallback.highlight(code, language, style);
+        }
+
+        return highlight(code, lexer, highlightStyle);
+    }
+
+    @Override
+    public Map<HighlightRequest, HighlightedCode> highlightAll(List<HighlightRequest> requests) throws HighlightException {
+        Map<HighlightRequest, HighlightedCode> results = new HashMap<>();
+
+        List<HighlightRequest> forFallback = new ArrayList<>();
+        for (HighlightRequest request : requests) {
+            Lexer lexer = LEXERS.get(request.getLanguage().toLowerCase());
+            HighlightStyle highlightStyle = lexer != null ? HighlightStyle.forName(request.getStyle()) : null;
+            if (highlightStyle == null) {
+                forFallback.add(request);
+            } else {
+                results.put(request, highlight(request.getCode(), lexer, highlightStyle));
+            }
+        }
+
+        if (fallback != null && !forFallback.isEmpty()) {
+            try {
+                results.putAll(fallback.highlightAll(forFallback));
+            } catch (HighlightException e) {
+                // Keep the built-in results -> the failed requests are missing in the results
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Highlight the passed code using the given lexer and style.
+     * The code is prepared like Pygments does (line endings normalized, leading and trailing line breaks stripped)
+     * so that the results match the fallback highlighter.
+     *
+     * @param code  to highlight
+     * @param lexer to split the code into tokens with
+     * @param style to format the tokens with
+     * @return the highlighted code
+     */
+    private HighlightedCode highlight(String code, Lexer lexer, HighlightStyle style) {
+        String text = code.replace("\r\n", "\n")
+                .replace('\r', '\n')
+                .replace("\t", " ".repeat(SPACES_PER_TAB));
+
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) == '\n') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) == '\n') {
+            end--;
+        }
+        text = text.substring(start, end) + '\n'; // Lexer rules expect the code to end with a line break
+
+        List<HighlightedCode.TokenStyle> styles = new ArrayList<>();
+        Map<HighlightedCode.TokenStyle, Integer> styleIndices = new HashMap<>();
+
+        List<HighlightedCode.Line> lines = new ArrayList<>();
+        List<HighlightedCode.TokenRun> runs = new ArrayList<>();
+        StringBuilder runText = new StringBuilder();
+        int runStyleIndex = -1;
+
+        for (Token token : lexer.tokenize(text)) {
+            HighlightedCode.TokenStyle tokenStyle = style.getTokenStyle(token.getType());
+            int styleIndex = styleIndices.computeIfAbsent(tokenStyle, s -> {
+                styles.add(s);
+                return styles.size() - 1;
+            });
+
+            String value = token.getText();
+            int partStart = 0;
+            while (partStart <= value.length()) {
+                int partEnd = value.indexOf('\n', partStart);
+                boolean lineEnds = partEnd >= 0;
+                if (!lineEnds) {
+                    partEnd = value.length();
+                }
+
+                if (partEnd > partStart) {
+                    if (runStyleIndex != styleIndex && runText.length() > 0) {
+                        runs.add(new HighlightedCode.TokenRun(runText.toString(), runStyleIndex));
+                        runText.setLength(0);
+                    }
+
+                    runText.append(value, partStart, partEnd); // Merge with the previous equally styled run
+                    runStyleIndex = styleIndex;
+                }
+
+                if (!lineEnds) {
+                    break;
+                }
+
+                if (runText.length() > 0) {
+                    runs.add(new HighlightedCode.TokenRun(runText.toString(), runStyleIndex));
+                    runText.setLength(0);
+                }
+                lines.add(new HighlightedCode.Line(runs));
+                runs = new ArrayList<>();
+
+                partStart = partEnd + 1;
+            }
+        }
+
+        // The code always ends with a line break -> there is no unfinished line left
+        return new HighlightedCode(styles, lines);
+    }
+
+    /**
+     * Get the fallback highlighter used for languages or styles that are not built in.
+     *
+     * @return the fallback highlighter or null if there is none
+     */
+    @Nullable
+    public SyntaxHighlighter getFallback() {
+        return fallback;
+    }
+
+}
@@ -0,0 +1,569 @@
+package de.be.thaw.code.syntax.impl;
+
+import de.be.thaw.code.syntax.HighlightRequest;
+import de.be.thaw.code.syntax.HighlightedCode;
+import de.be.thaw.code.syntax.SyntaxHighlighter;
+import de.be.thaw.code.syntax.cache.HighlightCache;
+import de.be.thaw.code.syntax.exception.HighlightException;
+import de.be.thaw.util.cache.CacheUtil;
+import de.be.thaw.util.debug.Debug;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Syntax highlighter using Pygments.
+ * Code is highlighted by a long-running Pygments worker process that is able to highlight many code blocks in a single round trip.
+ * The worker directly outputs the highlighted token runs along with the style palette (see {@link HighlightedCode}).
+ */
+public class PygmentsSyntaxHighlighter implements SyntaxHighlighter {
+
+    /**
+     * Logger of the class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(PygmentsSyntaxHighlighter.class.getSimpleName());
+
+    /**
+     * Aliases the user is able to specify as language when they want to syntax highlight Thaw document text format code.
+     */
+    private static final Set<String> THAW_TEXT_FORMAT_LANGUAGE_ALIASES = Set.of("thaw", "tdt");
+
+    /**
+     * Version of the highlighting results.
+     * Must be increased whenever the worker or the bundled thaw lexer produce different results for the same code
+     * so that results cached on disk are not reused.
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * Path of the python thaw lexer script for Pygments in the resources.
+     */
+    private static final String THAW_LEXER_PATH = "/pygments/lexer/thaw_lexer.py";
+
+    /**
+     * Name of the python tool.
+     */
+    private static final String PYTHON_CMD_NAME = "python3";
+
+    /**
+     * Language the Pygments worker understands as the bundled thaw lexer.
+     */
+    private static final String THAW_WORKER_LANGUAGE = "thaw";
+
+    /**
+     * How many spaces are to be a tab.
+     */
+    private static final int SPACES_PER_TAB = 4;
+
+    /**
+     * Message printed when Python is not available on the command line.
+     */
+    private static final String PYTHON_NOT_INSTALLED_MESSAGE = "In order to syntax highlight code blocks you need to install Python on your machine (https://www.python.org/).\n" +
+            "Afterwards you will need to install Pygments using `pip install pygments`.";
+
+    /**
+     * Message printed when Pygments is not available on the command line.
+     */
+    private static final String PYGMENTS_NOT_INSTALLED_MESSAGE = "In order to syntax highlight code blocks you need to install Pygments using `pip install pygments`.\n" +
+            "Afterwards please try again.";
+
+    /**
+     * Maximum count of highlighting results kept in memory.
+     */
+    private static final int MAX_CACHED_RESULTS = 512;
+
+    /**
+     * Recently produced highlighting results by their cache key, shared by all renders in this JVM.
+     */
+    private static final Map<String, HighlightedCode> RESULT_CACHE = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, HighlightedCode> eldest) {
+            return size() > MAX_CACHED_RESULTS;
+        }
+    });
+
+    /**
+     * Maximum count of Pygments workers running at the same time.
+     * Code blocks are highlighted concurrently by as many workers.
+     */
+    public static final int MAX_WORKERS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    /**
+     * Maximum time a single round trip to a Pygments worker may take (in seconds).
+     * Workers not answering in time are stopped, so that a hung worker does not block the highlighting thread forever.
+     */
+    public static final int MAX_ROUND_TRIP_TIME = 30;
+
+    /**
+     * Scheduler stopping Pygments workers that do not answer within {@link #MAX_ROUND_TRIP_TIME}.
+     */
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "thaw-pygments-watchdog");
+        thread.setDaemon(true); // Must not keep the JVM alive
+        return thread;
+    });
+
+    /**
+     * Python workers currently not highlighting code, shared by all renders in this JVM.
+     * Workers are started lazily (up to {@link #MAX_WORKERS}) and again in case they terminated.
+     */
+    private static final Deque<PygmentsWorker> IDLE_WORKERS = new ArrayDeque<>();
+
+    /**
+     * Count of started workers (idle or busy).
+     * Guarded by {@link #IDLE_WORKERS}.
+     */
+    private static int workerCount;
+
+    /**
+     * All running workers (idle or busy).
+     * Guarded by {@link #IDLE_WORKERS}.
+     * They are stopped when the JVM exits, since a hung worker does not notice its input being closed.
+     */
+    private static final Set<PygmentsWorker> WORKERS = new HashSet<>();
+
+    /**
+     * Whether the shutdown hook stopping all running workers has been registered.
+     * Guarded by {@link #IDLE_WORKERS}.
+     */
+    private static boolean shutdownHookRegistered;
+
+    /**
+     * Whether the user has already been told how to install the missing tools.
+     * Code blocks are highlighted concurrently, so the hint would otherwise be logged once per code block.
+     */
+    private static final AtomicBoolean MISSING_TOOLS_REPORTED = new AtomicBoolean();
+
+    /**
+     * Working directory to resolve custom lexer script files against.
+     */
+    private File workingDirectory = new File(System.getProperty("user.home"));
+
+    /**
+     * On-disk cache to look up highlighting results in before asking the Pygments worker.
+     * May be null in case results are only to be cached in memory.
+     */
+    private HighlightCache cache;
+
+    @Override
+    public HighlightedCode highlight(String code, String language, String style) throws HighlightException {
+        HighlightRequest request = new HighlightRequest(code, language, style);
+
+        String cacheKey = getCacheKey(request);
+        HighlightedCode cached = lookup(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        PygmentsWorker.Result result = process(List.of(request)).get(0);
+        if (!result.isSuccess()) {
+            throw new HighlightException(String.format(
+                    "Syntax highlighting failed. Pygments reported: '%s'",
+                    result.getValue()
+            ));
+        }
+
+        HighlightedCode highlighted = HighlightedCode.read(result.getValue());
+        store(cacheKey, highlighted, result.getValue());
+
+        return highlighted;
+    }
+
+    @Override
+    public Map<HighlightRequest, HighlightedCode> highlightAll(List<HighlightRequest> requests) throws HighlightException {
+        Map<HighlightRequest, HighlightedCode> results = new HashMap<>();
+
+        Map<HighlightRequest, String> pending = new LinkedHashMap<>();
+        for (HighlightRequest request : requests) {
+            if (results.containsKey(request) || pending.containsKey(request)) {
+                continue;
+            }
+
+            String cacheKey = getCacheKey(request);
+            HighlightedCode cached = lookup(cacheKey);
+            if (cached != null) {
+                results.put(request, cached);
+            } else {
+                pending.put(request, cacheKey);
+            }
+        }
+
+        if (Debug.isDebug() && cache != null) {
+            LOGGER.log(Level.INFO, cache.toString());
+        }
+
+        if (pending.isEmpty()) {
+            return results;
+        }
+
+        List<HighlightRequest> toProcess = new ArrayList<>(pending.keySet());
+        List<PygmentsWorker.Result> processed = process(toProcess);
+        for (int i = 0; i < toProcess.size(); i++) {
+            PygmentsWorker.Result result = processed.get(i);
+            if (!result.isSuccess()) {
+                continue;
+            }
+
+            HighlightedCode highlighted;
+            try {
+                highlighted = HighlightedCode.read(result.getValue());
+            } catch (HighlightException e) {
+                continue;
+            }
+
+            HighlightRequest request = toProcess.get(i);
+            results.put(request, highlighted);
+            store(pending.get(request), highlighted, result.getValue());
+        }
+
+        return results;
+    }
+
+    /**
+     * Get the key of the passed request in the result caches.
+     * The key is a hash of everything the result depends on: the code, the language (or the contents of the custom
+     * lexer script file), the style and the version of the highlighter.
+     *
+     * @param request to get key for
+     * @return the key or null in case results of the request are not to be cached
+     */
+    String getCacheKey(HighlightRequest request) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(VERSION).append('\0');
+
+        String language = toWorkerLanguage(request.getLanguage());
+        sb.append(language).append('\0');
+
+        File scriptFile = getCustomLexerScriptFile(request.getLanguage());
+        if (scriptFile != null) {
+            // The results depend on the script which may change between builds
+            try {
+                sb.append(Files.readString(scriptFile.toPath(), StandardCharsets.UTF_8)).append('\0');
+            } catch (IOException e) {
+                return null; // Let the worker report the problem
+            }
+        }
+
+        sb.append(request.getStyle()).append('\0');
+        sb.append(request.getCode());
+
+        try {
+            return CacheUtil.generateHexHash(new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException | IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Look up the result for the passed cache key in memory and afterwards on disk.
+     *
+     * @param cacheKey of the result (may be null)
+     * @return the cached result or null if there is none
+     */
+    private HighlightedCode lookup(String cacheKey) {
+        if (cacheKey == null) {
+            return null;
+        }
+
+        HighlightedCode result = RESULT_CACHE.get(cacheKey);
+        if (result == null && cache != null) {
+            String serialized = cache.get(cacheKey);
+            if (serialized != null) {
+                try {
+                    result = HighlightedCode.read(serialized);
+                    RESULT_CACHE.put(cacheKey, result);
+                } catch (HighlightException e) {
+                    // Malformed cache entry -> highlight again
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Store the passed result in memory and on disk.
+     *
+     * @param cacheKey   of the result (may be null in case the result is not to be cached)
+     * @param result     to store
+     * @param serialized the result in the text format of highlighted code
+     */
+    private void store(String cacheKey, HighlightedCode result, String serialized) {
+        if (cacheKey == null) {
+            return;
+        }
+
+        RESULT_CACHE.put(cacheKey, result);
+
+        if (cache != null) {
+            try {
+                cache.put(cacheKey, serialized);
+            } catch (IOException e) {
+                if (Debug.isDebug()) {
+                    LOGGER.log(Level.WARNING, String.format("Could not cache highlighting result on disk: '%s'", e.getMessage()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Let the Pygments worker process the passed requests in a single round trip.
+     *
+     * @param requests to process
+     * @return the results in the order of the requests
+     * @throws HighlightException in case the worker is not available
+     */
+    private List<PygmentsWorker.Result> process(List<HighlightRequest> requests) throws HighlightException {
+        List<HighlightRequest> workerRequests = new ArrayList<>(requests.size());
+        for (HighlightRequest request : requests) {
+            workerRequests.add(new HighlightRequest(
+                    request.getCode().replaceAll("\t", " ".repeat(SPACES_PER_TAB)), // Tabs are not formatted by Pygments properly
+                    toWorkerLanguage(request.getLanguage()),
+                    request.getStyle()
+            ));
+        }
+
+        PygmentsWorker worker = acquireWorker();
+
+        long start = System.nanoTime();
+        ScheduledFuture<?> watchdog = WATCHDOG.schedule(worker::kill, MAX_ROUND_TRIP_TIME, TimeUnit.SECONDS);
+        List<PygmentsWorker.Result> results;
+        boolean failed = true;
+        try {
+            results = worker.highlight(workerRequests);
+            failed = false;
+        } catch (IOException e) {
+            if (watchdog.isDone()) {
+                throw new HighlightException(String.format(
+                        "The Pygments worker process did not syntax highlight the code within %d seconds",
+                        MAX_ROUND_TRIP_TIME
+                ), e);
+            }
+
+            throw new HighlightException("Could not communicate with the Pygments worker process to syntax highlight the code.", e);
+        } finally {
+            if (!watchdog.cancel(false)) {
+                failed = true; // The worker has been stopped by the watchdog (maybe right after answering)
+            }
+
+            releaseWorker(worker, failed);
+        }
+
+        if (Debug.isDebug()) {
+            LOGGER.log(Level.INFO, String.format(
+                    "Syntax highlighted %d code block(s) in a single round trip to the Pygments worker in %d ms",
+                    requests.size(),
+                    (System.nanoTime() - start) / 1_000_000
+            ));
+        }
+
+        return results;
+    }
+
+    /**
+     * Convert the passed language to the language the Pygments worker understands.
+     *
+     * @param language to convert
+     * @return the language for the worker
+     */
+    private String toWorkerLanguage(String language) {
+        // Check if we have a custom lexer script file specified instead of a language alias
+        File scriptFile = getCustomLexerScriptFile(language);
+        if (scriptFile != null) {
+            String className = language.endsWith(".py") ? "" : language.substring(language.lastIndexOf(':'));
+
+            return scriptFile.getAbsolutePath() + className;
+        }
+
+        // Pygments does not have a lexer for the thaw document text format -> the worker uses the bundled lexer for this
+        if (THAW_TEXT_FORMAT_LANGUAGE_ALIASES.contains(language.toLowerCase())) {
+            return THAW_WORKER_LANGUAGE;
+        }
+
+        return language;
+    }
+
+    /**
+     * Get the custom lexer script file the passed language refers to.
+     *
+     * @param language to get script file for
+     * @return the script file or null in case the language is an alias and not a custom lexer script file
+     */
+    private File getCustomLexerScriptFile(String language) {
+        if (!language.contains(".py")) {
+            return null;
+        }
+
+        String path = language.endsWith(".py") ? language : language.substring(0, language.lastIndexOf(':'));
+
+        // The worker is shared by all projects -> resolve the script file relative to the working directory
+        File scriptFile = new File(path);
+        if (!scriptFile.isAbsolute()) {
+            scriptFile = new File(getWorkingDirectory(), path);
+        }
+
+        return scriptFile;
+    }
+
+    /**
+     * Check if the needed tools are available on the command line.
+     * Starts a Pygments worker in case none is running yet.
+     */
+    public void checkIfToolsAvailable() throws HighlightException {
+        releaseWorker(acquireWorker(), false);
+    }
+
+    /**
+     * Get an idle Pygments worker, start a new one or wait until a worker is released.
+     * The acquired worker must be released afterwards using {@link #releaseWorker(PygmentsWorker, boolean)}.
+     *
+     * @return the worker
+     * @throws HighlightException in case the worker could not be started
+     */
+    private static PygmentsWorker acquireWorker() throws HighlightException {
+        synchronized (IDLE_WORKERS) {
+            while (true) {
+                PygmentsWorker idle = IDLE_WORKERS.pollFirst();
+                if (idle != null) {
+                    if (idle.isAlive()) {
+                        return idle;
+                    }
+
+                    idle.close();
+                    WORKERS.remove(idle);
+                    workerCount--;
+                } else if (workerCount < MAX_WORKERS) {
+                    workerCount++;
+                    break;
+                } else {
+                    try {
+                        IDLE_WORKERS.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new HighlightException("Interrupted while waiting for a Pygments worker", e);
+                    }
+                }
+            }
+        }
+
+        // Start the worker outside the lock to not block other threads from using the idle workers
+        try {
+            PygmentsWorker worker = PygmentsWorker.start(PYTHON_CMD_NAME, THAW_LEXER_PATH);
+            synchronized (IDLE_WORKERS) {
+                WORKERS.add(worker);
+
+                if (!shutdownHookRegistered) {
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                        synchronized (IDLE_WORKERS) {
+                            WORKERS.forEach(PygmentsWorker::kill);
+                        }
+                    }, "thaw-pygments-shutdown"));
+                    shutdownHookRegistered = true;
+                }
+            }
+
+            return worker;
+        } catch (IOException e) {
+            onWorkerStartFailed(PYTHON_NOT_INSTALLED_MESSAGE);
+            throw new HighlightException("Python ('python3') is not available on the command line but needed by the syntax highlighter.", e);
+        } catch (HighlightException e) {
+            onWorkerStartFailed(PYGMENTS_NOT_INSTALLED_MESSAGE);
+            throw e;
+        }
+    }
+
+    /**
+     * Forget the worker that could not be started.
+     *
+     * @param installHint message telling the user how to install the missing tools
+     */
+    private static void onWorkerStartFailed(String installHint) {
+        synchronized (IDLE_WORKERS) {
+            workerCount--;
+            IDLE_WORKERS.notifyAll();
+        }
+
+        if (MISSING_TOOLS_REPORTED.compareAndSet(false, true)) {
+            LOGGER.log(Level.SEVERE, installHint);
+        }
+    }
+
+    /**
+     * Release the passed worker so that it may be used by other threads.
+     * Failed or terminated workers are stopped and forgotten so that the next request starts a new one.
+     *
+     * @param worker to release
+     * @param failed whether the communication with the worker failed
+     */
+    private static void releaseWorker(PygmentsWorker worker, boolean failed) {
+        synchronized (IDLE_WORKERS) {
+            if (!failed && worker.isAlive()) {
+                IDLE_WORKERS.addFirst(worker);
+            } else {
+                worker.close();
+                WORKERS.remove(worker);
+                workerCount--;
+            }
+
+            IDLE_WORKERS.notifyAll();
+        }
+    }
+
+    /**
+     * Get the working directory to resolve custom lexer script files against.
+     *
+     * @return working directory
+     */
+    public File getWorkingDirectory() {
+        return workingDirectory;
+    }
+
+    /**
+     * Set the working directory to resolve custom lexer script files against.
+     *
+     * @param workingDirectory to set
+     */
+    public void setWorkingDirectory(File workingDirectory) {
+        this.workingDirectory = workingDirectory;
+    }
+
+    /**
+     * Get the on-disk cache to look up highlighting results in.
+     *
+     * @return the cache or null if results are only cached in memory
+     */
+    public HighlightCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Set the on-disk cache to look up highlighting results in.
+     *
+     * @param cache to set (or null to only cache results in memory)
+     */
+    public void setCache(HighlightCache cache) {
+        this.cache = cache;
+    }
+
+}
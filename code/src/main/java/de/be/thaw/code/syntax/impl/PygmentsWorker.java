@@ -0,0 +1,219 @@
+package de.be.thaw.code.syntax.impl;
+
+import de.be.thaw.code.syntax.HighlightRequest;
+import de.be.thaw.code.syntax.exception.HighlightException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Long-running Python process highlighting code using the Pygments API.
+ * Requests are streamed in batches over the standard input and output of the process
+ * (see the worker script for the protocol).
+ */
+class PygmentsWorker implements Closeable {
+
+    /**
+     * Path of the python worker script in the resources.
+     */
+    private static final String WORKER_SCRIPT_PATH = "/pygments/worker/thaw_highlight_worker.py";
+
+    /**
+     * Status written by the worker on success.
+     */
+    private static final byte SUCCESS = 0;
+
+    /**
+     * The worker process.
+     */
+    private final Process process;
+
+    /**
+     * Stream to write requests to the worker with.
+     */
+    private final DataOutputStream requestStream;
+
+    /**
+     * Stream to read responses of the worker from.
+     */
+    private final DataInputStream responseStream;
+
+    private PygmentsWorker(Process process) {
+        this.process = process;
+        this.requestStream = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        this.responseStream = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+    }
+
+    /**
+     * Start a new worker.
+     *
+     * @param pythonCommand name of the python tool
+     * @param thawLexerPath path of the python thaw lexer script for Pygments in the resources
+     * @return the started worker ready to highlight code
+     * @throws IOException        in case the worker process could not be started
+     * @throws HighlightException in case the worker is not able to highlight code (for example when Pygments is missing)
+     */
+    static PygmentsWorker start(String pythonCommand, String thawLexerPath) throws IOException, HighlightException {
+        File workerScript = copyResourceToTmpFile(WORKER_SCRIPT_PATH, "-highlight-worker.py");
+        File thawLexer = copyResourceToTmpFile(thawLexerPath, "-thaw-lexer.py");
+
+        Process process = new ProcessBuilder(pythonCommand, workerScript.getAbsolutePath(), thawLexer.getAbsolutePath())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+
+        PygmentsWorker worker = new PygmentsWorker(process);
+        Result readiness = worker.readResult();
+        if (!readiness.isSuccess()) {
+            worker.close();
+            throw new HighlightException(String.format(
+                    "The Pygments worker could not be started: '%s'",
+                    readiness.getValue()
+            ));
+        }
+
+        return worker;
+    }
+
+    /**
+     * Copy the passed resource to a temporary file deleted when the JVM exits.
+     *
+     * @param resourcePath path of the resource
+     * @param suffix       of the temporary file
+     * @return the temporary file
+     * @throws IOException in case the resource could not be copied
+     */
+    private static File copyResourceToTmpFile(String resourcePath, String suffix) throws IOException {
+        File tmpFile = File.createTempFile("thaw-", suffix);
+        tmpFile.deleteOnExit();
+
+        try (InputStream is = PygmentsWorker.class.getResourceAsStream(resourcePath)) {
+            Files.copy(is, tmpFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        return tmpFile;
+    }
+
+    /**
+     * Highlight the passed requests in a single round trip.
+     *
+     * @param requests to highlight (the languages must already be understood by the worker)
+     * @return the results in the order of the requests
+     * @throws IOException in case the communication with the worker failed
+     */
+    synchronized List<Result> highlight(List<HighlightRequest> requests) throws IOException {
+        requestStream.writeInt(requests.size());
+        for (HighlightRequest request : requests) {
+            writeString(request.getLanguage());
+            writeString(request.getStyle());
+            writeString(request.getCode());
+        }
+        requestStream.flush();
+
+        List<Result> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            results.add(readResult());
+        }
+
+        return results;
+    }
+
+    /**
+     * Check whether the worker process is still running.
+     *
+     * @return whether alive
+     */
+    boolean isAlive() {
+        return process.isAlive();
+    }
+
+    /**
+     * Write the passed string length-prefixed and UTF-8 encoded to the worker.
+     *
+     * @param str to write
+     * @throws IOException in case the string could not be written
+     */
+    private void writeString(String str) throws IOException {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        requestStream.writeInt(bytes.length);
+        requestStream.write(bytes);
+    }
+
+    /**
+     * Read the next result from the worker.
+     *
+     * @return the read result
+     * @throws IOException in case the result could not be read
+     */
+    private Result readResult() throws IOException {
+        byte status = responseStream.readByte();
+
+        byte[] bytes = new byte[responseStream.readInt()];
+        responseStream.readFully(bytes);
+
+        return new Result(status == SUCCESS, new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Forcibly stop the worker process, for example when it does not answer anymore.
+     * May be called while another thread is communicating with the worker, which then fails with an {@link IOException}.
+     */
+    void kill() {
+        process.destroyForcibly();
+    }
+
+    /**
+     * Stop the worker.
+     */
+    @Override
+    public void close() {
+        try {
+            requestStream.close(); // Worker exits when its input is closed
+        } catch (IOException e) {
+            // Worker is already gone
+        }
+
+        process.destroy();
+    }
+
+    /**
+     * Result of a highlighting request.
+     */
+    static class Result {
+
+        /**
+         * Whether the code has been highlighted.
+         */
+        private final boolean success;
+
+        /**
+         * The highlighted code or the error message in case of a failure.
+         */
+        private final String value;
+
+        Result(boolean success, String value) {
+            this.success = success;
+            this.value = value;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+    }
+
+}
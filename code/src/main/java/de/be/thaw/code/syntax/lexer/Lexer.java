@@ -0,0 +1,27 @@
+package de.be.thaw.code.syntax.lexer;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lexer splitting code of a language into tokens.
+ * Lexers must be safe to use by multiple threads at the same time.
+ */
+public interface Lexer {
+
+    /**
+     * Get the aliases of the language the lexer is able to tokenize (lower case).
+     *
+     * @return language aliases
+     */
+    Set<String> getAliases();
+
+    /**
+     * Split the passed code into tokens.
+     *
+     * @param code to tokenize
+     * @return the tokens covering the whole code
+     */
+    List<Token> tokenize(String code);
+
+}
@@ -0,0 +1,407 @@
+package de.be.thaw.code.syntax.lexer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Table-driven lexer working like the Pygments RegexLexer.
+ * The lexer is a state machine: every state is a table of rules which are tried in order at the current position.
+ * The first matching rule emits its tokens and may change the state by pushing states to or popping states from a stack.
+ * Lexing starts in the "root" state.
+ * <p>
+ * State changes are written like in Pygments: a state name pushes the state, "#pop" pops the current state,
+ * "#pop:n" pops n states and "#push" pushes the current state again.
+ */
+public abstract class RegexLexer implements Lexer {
+
+    /**
+     * Name of the state lexing starts in.
+     */
+    protected static final String ROOT_STATE = "root";
+
+    /**
+     * State change popping the current state.
+     */
+    protected static final String POP = "#pop";
+
+    /**
+     * State change pushing the current state again.
+     */
+    protected static final String PUSH = "#push";
+
+    /**
+     * Aliases of the language.
+     */
+    private final Set<String> aliases;
+
+    /**
+     * Compiled rules by state name.
+     */
+    private final Map<String, Rule[]> states = new HashMap<>();
+
+    /**
+     * Count of compiled rules (over all states).
+     */
+    private int ruleCount;
+
+    /**
+     * Create the lexer.
+     *
+     * @param aliases of the language
+     * @param flags   the regular expressions are compiled with (see {@link Pattern})
+     * @param states  the state tables (must contain the "root" state)
+     */
+    protected RegexLexer(Set<String> aliases, int flags, State... states) {
+        this.aliases = aliases;
+
+        Map<String, State> definitions = new HashMap<>();
+        for (State state : states) {
+            definitions.put(state.name, state);
+        }
+
+        if (!definitions.containsKey(ROOT_STATE)) {
+            throw new IllegalArgumentException("Lexer is missing the root state");
+        }
+
+        for (State state : states) {
+            List<Rule> rules = new ArrayList<>();
+            compile(state, definitions, flags, rules);
+
+            this.states.put(state.name, rules.toArray(new Rule[0]));
+        }
+    }
+
+    /**
+     * Compile the rules of the passed state (including the rules of included states).
+     *
+     * @param state       to compile
+     * @param definitions all state definitions by name
+     * @param flags       to compile the regular expressions with
+     * @param rules       to add the compiled rules to
+     */
+    private void compile(State state, Map<String, State> definitions, int flags, List<Rule> rules) {
+        for (RuleDefinition definition : state.rules) {
+            if (definition.include != null) {
+                State included = definitions.get(definition.include);
+                if (included == null) {
+                    throw new IllegalArgumentException(String.format("Included state '%s' does not exist", definition.include));
+                }
+
+                compile(included, definitions, flags, rules);
+            } else {
+                for (String next : definition.next) {
+                    if (!next.startsWith("#") && !definitions.containsKey(next)) {
+                        throw new IllegalArgumentException(String.format("State '%s' does not exist", next));
+                    }
+                }
+
+                rules.add(new Rule(ruleCount++, Pattern.compile(definition.regex, flags), definition.types, definition.next));
+            }
+        }
+    }
+
+    @Override
+    public Set<String> getAliases() {
+        return aliases;
+    }
+
+    @Override
+    public List<Token> tokenize(String code) {
+        List<Token> tokens = new ArrayList<>();
+
+        Matcher[] matchers = new Matcher[ruleCount];
+        List<String> stack = new ArrayList<>();
+        stack.add(ROOT_STATE);
+
+        int pos = 0;
+        int length = code.length();
+        while (pos < length) {
+            Rule[] rules = states.get(stack.get(stack.size() - 1));
+
+            boolean matched = false;
+            for (Rule rule : rules) {
+                Matcher matcher = matchers[rule.index];
+                if (matcher == null) {
+                    matcher = rule.pattern.matcher(code);
+                    matcher.useTransparentBounds(true); // Allow look-behinds and word boundaries to see the text before the position
+                    matcher.useAnchoringBounds(false);
+                    matchers[rule.index] = matcher;
+                }
+
+                matcher.region(pos, length);
+                if (!matcher.lookingAt()) {
+                    continue;
+                }
+
+                int end = matcher.end();
+                if (end == pos && rule.next.length == 0) {
+                    continue; // Empty match without state change would never terminate
+                }
+
+                emit(matcher, rule, tokens);
+                changeState(stack, rule.next);
+
+                pos = end;
+                matched = true;
+                break;
+            }
+
+            if (!matched) {
+                // Like Pygments: reset to the root state at the end of a line, otherwise mark the character as error
+                if (code.charAt(pos) == '\n') {
+                    stack.subList(1, stack.size()).clear();
+                    tokens.add(new Token(TokenType.WHITESPACE, "\n"));
+                } else {
+                    tokens.add(new Token(TokenType.ERROR, String.valueOf(code.charAt(pos))));
+                }
+
+                pos++;
+            }
+        }
+
+        return tokens;
+    }
+
+    /**
+     * Emit the tokens for the passed match.
+     *
+     * @param matcher that matched
+     * @param rule    that matched
+     * @param tokens  to add the tokens to
+     */
+    private void emit(Matcher matcher, Rule rule, List<Token> tokens) {
+        if (rule.types.length == 1) {
+            if (matcher.end() > matcher.start()) {
+                tokens.add(new Token(rule.types[0], matcher.group()));
+            }
+        } else {
+            for (int i = 0; i < rule.types.length; i++) {
+                int start = matcher.start(i + 1);
+                int end = matcher.end(i + 1);
+                if (start >= 0 && end > start) {
+                    tokens.add(new Token(rule.types[i], matcher.group(i + 1)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Apply the passed state changes to the state stack.
+     *
+     * @param stack   the state stack
+     * @param changes to apply
+     */
+    private void changeState(List<String> stack, String[] changes) {
+        for (String change : changes) {
+            if (change.equals(POP)) {
+                pop(stack, 1);
+            } else if (change.startsWith(POP + ":")) {
+                pop(stack, Integer.parseInt(change.substring(POP.length() + 1)));
+            } else if (change.equals(PUSH)) {
+                stack.add(stack.get(stack.size() - 1));
+            } else {
+                stack.add(change);
+            }
+        }
+    }
+
+    /**
+     * Pop the passed count of states (the root state is never popped).
+     *
+     * @param stack the state stack
+     * @param count of states to pop
+     */
+    private void pop(List<String> stack, int count) {
+        int newSize = Math.max(1, stack.size() - count);
+        stack.subList(newSize, stack.size()).clear();
+    }
+
+    /**
+     * Define a state.
+     *
+     * @param name  of the state
+     * @param rules of the state (tried in order)
+     * @return the state definition
+     */
+    protected static State state(String name, RuleDefinition... rules) {
+        return new State(name, rules);
+    }
+
+    /**
+     * Define a rule emitting a single token for the whole match.
+     *
+     * @param regex to match
+     * @param type  of the token
+     * @param next  state changes to apply after matching
+     * @return the rule definition
+     */
+    protected static RuleDefinition rule(String regex, TokenType type, String... next) {
+        return new RuleDefinition(regex, new TokenType[]{type}, next, null);
+    }
+
+    /**
+     * Define a rule emitting a token for every group of the match (like bygroups in Pygments).
+     *
+     * @param regex to match (with one group per type)
+     * @param types of the tokens of the groups
+     * @param next  state changes to apply after matching
+     * @return the rule definition
+     */
+    protected static RuleDefinition rule(String regex, TokenType[] types, String... next) {
+        return new RuleDefinition(regex, types, next, null);
+    }
+
+    /**
+     * Define a rule changing the state without consuming anything (like default in Pygments).
+     *
+     * @param next state changes to apply
+     * @return the rule definition
+     */
+    protected static RuleDefinition fallback(String... next) {
+        return new RuleDefinition("", new TokenType[]{TokenType.TEXT}, next, null);
+    }
+
+    /**
+     * Include all rules of the passed state.
+     *
+     * @param state to include the rules of
+     * @return the rule definition
+     */
+    protected static RuleDefinition include(String state) {
+        return new RuleDefinition(null, null, new String[0], state);
+    }
+
+    /**
+     * Create a regular expression matching any of the passed words (longer words are tried first).
+     *
+     * @param suffix to append to the expression (for example a word boundary)
+     * @param words  to match
+     * @return the regular expression
+     */
+    protected static String words(String suffix, String... words) {
+        return Arrays.stream(words)
+                .sorted(Comparator.comparingInt(String::length).reversed())
+                .map(Pattern::quote)
+                .collect(Collectors.joining("|", "(?:", ")" + suffix));
+    }
+
+    /**
+     * Group the passed token types (shorthand for the types of a rule with groups).
+     *
+     * @param types to group
+     * @return the types
+     */
+    protected static TokenType[] groups(TokenType... types) {
+        return types;
+    }
+
+    /**
+     * Create an immutable set of aliases.
+     *
+     * @param aliases of the language
+     * @return the set of aliases
+     */
+    protected static Set<String> aliases(String... aliases) {
+        return Collections.unmodifiableSet(Set.of(aliases));
+    }
+
+    /**
+     * Definition of a lexer state.
+     */
+    protected static class State {
+
+        /**
+         * Name of the state.
+         */
+        private final String name;
+
+        /**
+         * Rules of the state.
+         */
+        private final RuleDefinition[] rules;
+
+        private State(String name, RuleDefinition[] rules) {
+            this.name = name;
+            this.rules = rules;
+        }
+
+    }
+
+    /**
+     * Definition of a rule of a state.
+     */
+    protected static class RuleDefinition {
+
+        /**
+         * Regular expression to match.
+         */
+        private final String regex;
+
+        /**
+         * Types of the emitted tokens.
+         */
+        private final TokenType[] types;
+
+        /**
+         * State changes to apply after matching.
+         */
+        private final String[] next;
+
+        /**
+         * Name of the state whose rules are to be included instead (or null).
+         */
+        private final String include;
+
+        private RuleDefinition(String regex, TokenType[] types, String[] next, String include) {
+            this.regex = regex;
+            this.types = types;
+            this.next = next;
+            this.include = include;
+        }
+
+    }
+
+    /**
+     * Compiled rule.
+     */
+    private static class Rule {
+
+        /**
+         * Index of the rule over all states of the lexer.
+         */
+        private final int index;
+
+        /**
+         * The compiled regular expression.
+         */
+        private final Pattern pattern;
+
+        /**
+         * Types of the emitted tokens.
+         */
+        private final TokenType[] types;
+
+        /**
+         * State changes to apply after matching.
+         */
+        private final String[] next;
+
+        private Rule(int index, Pattern pattern, TokenType[] types, String[] next) {
+            this.index = index;
+            this.pattern = pattern;
+            this.types = types;
+            this.next = next;
+        }
+
+    }
+
+}
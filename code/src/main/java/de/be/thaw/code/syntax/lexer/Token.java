@@ -0,0 +1,31 @@
+package de.be.thaw.code.syntax.lexer;
+
+/**
+ * Token produced by a lexer.
+ */
+public class Token {
+
+    /**
+     * Type of the token.
+     */
+    private final TokenType type;
+
+    /**
+     * Text of the token.
+     */
+    private final String text;
+
+    public Token(TokenType type, String text) {
+        this.type = type;
+        this.text = text;
+    }
+
+    public TokenType getType() {
+        return type;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+}
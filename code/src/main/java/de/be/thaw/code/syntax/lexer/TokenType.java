@@ -0,0 +1,135 @@
+package de.be.thaw.code.syntax.lexer;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Type of a token produced by a lexer.
+ * Types form a hierarchy (named like the Pygments token types) where more specific types
+ * inherit the style of their parent unless they are styled explicitly.
+ */
+public enum TokenType {
+
+    TOKEN(null, "Token"),
+
+    TEXT(TOKEN, "Text"),
+    WHITESPACE(TEXT, "Whitespace"),
+    ERROR(TOKEN, "Error"),
+
+    KEYWORD(TOKEN, "Keyword"),
+    KEYWORD_CONSTANT(KEYWORD, "Keyword.Constant"),
+    KEYWORD_DECLARATION(KEYWORD, "Keyword.Declaration"),
+    KEYWORD_NAMESPACE(KEYWORD, "Keyword.Namespace"),
+    KEYWORD_PSEUDO(KEYWORD, "Keyword.Pseudo"),
+    KEYWORD_RESERVED(KEYWORD, "Keyword.Reserved"),
+    KEYWORD_TYPE(KEYWORD, "Keyword.Type"),
+
+    NAME(TOKEN, "Name"),
+    NAME_ATTRIBUTE(NAME, "Name.Attribute"),
+    NAME_BUILTIN(NAME, "Name.Builtin"),
+    NAME_BUILTIN_PSEUDO(NAME_BUILTIN, "Name.Builtin.Pseudo"),
+    NAME_CLASS(NAME, "Name.Class"),
+    NAME_CONSTANT(NAME, "Name.Constant"),
+    NAME_DECORATOR(NAME, "Name.Decorator"),
+    NAME_ENTITY(NAME, "Name.Entity"),
+    NAME_EXCEPTION(NAME, "Name.Exception"),
+    NAME_FUNCTION(NAME, "Name.Function"),
+    NAME_LABEL(NAME, "Name.Label"),
+    NAME_NAMESPACE(NAME, "Name.Namespace"),
+    NAME_PROPERTY(NAME, "Name.Property"),
+    NAME_TAG(NAME, "Name.Tag"),
+    NAME_VARIABLE(NAME, "Name.Variable"),
+
+    LITERAL(TOKEN, "Literal"),
+    STRING(LITERAL, "String"),
+    STRING_AFFIX(STRING, "String.Affix"),
+    STRING_BACKTICK(STRING, "String.Backtick"),
+    STRING_CHAR(STRING, "String.Char"),
+    STRING_DOC(STRING, "String.Doc"),
+    STRING_DOUBLE(STRING, "String.Double"),
+    STRING_ESCAPE(STRING, "String.Escape"),
+    STRING_INTERPOL(STRING, "String.Interpol"),
+    STRING_OTHER(STRING, "String.Other"),
+    STRING_REGEX(STRING, "String.Regex"),
+    STRING_SINGLE(STRING, "String.Single"),
+    STRING_SYMBOL(STRING, "String.Symbol"),
+    NUMBER(LITERAL, "Number"),
+    NUMBER_BIN(NUMBER, "Number.Bin"),
+    NUMBER_FLOAT(NUMBER, "Number.Float"),
+    NUMBER_HEX(NUMBER, "Number.Hex"),
+    NUMBER_INTEGER(NUMBER, "Number.Integer"),
+    NUMBER_OCT(NUMBER, "Number.Oct"),
+
+    OPERATOR(TOKEN, "Operator"),
+    OPERATOR_WORD(OPERATOR, "Operator.Word"),
+    PUNCTUATION(TOKEN, "Punctuation"),
+
+    COMMENT(TOKEN, "Comment"),
+    COMMENT_HASHBANG(COMMENT, "Comment.Hashbang"),
+    COMMENT_MULTILINE(COMMENT, "Comment.Multiline"),
+    COMMENT_PREPROC(COMMENT, "Comment.Preproc"),
+    COMMENT_SINGLE(COMMENT, "Comment.Single"),
+    COMMENT_SPECIAL(COMMENT, "Comment.Special"),
+
+    GENERIC(TOKEN, "Generic"),
+    GENERIC_DELETED(GENERIC, "Generic.Deleted"),
+    GENERIC_EMPH(GENERIC, "Generic.Emph"),
+    GENERIC_ERROR(GENERIC, "Generic.Error"),
+    GENERIC_HEADING(GENERIC, "Generic.Heading"),
+    GENERIC_INSERTED(GENERIC, "Generic.Inserted"),
+    GENERIC_OUTPUT(GENERIC, "Generic.Output"),
+    GENERIC_PROMPT(GENERIC, "Generic.Prompt"),
+    GENERIC_STRONG(GENERIC, "Generic.Strong"),
+    GENERIC_SUBHEADING(GENERIC, "Generic.Subheading"),
+    GENERIC_TRACEBACK(GENERIC, "Generic.Traceback");
+
+    /**
+     * Lookup of the types by their name.
+     */
+    private static final Map<String, TokenType> BY_NAME = new HashMap<>();
+
+    static {
+        for (TokenType type : values()) {
+            BY_NAME.put(type.getName(), type);
+        }
+    }
+
+    /**
+     * Parent type (null for the root type).
+     */
+    @Nullable
+    private final TokenType parent;
+
+    /**
+     * Name of the type.
+     */
+    private final String name;
+
+    TokenType(@Nullable TokenType parent, String name) {
+        this.parent = parent;
+        this.name = name;
+    }
+
+    /**
+     * Get the type with the passed name.
+     *
+     * @param name of the type (for example "Name.Function")
+     * @return the type or null if there is no type with the name
+     */
+    @Nullable
+    public static TokenType forName(String name) {
+        return BY_NAME.get(name);
+    }
+
+    @Nullable
+    public TokenType getParent() {
+        return parent;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+}
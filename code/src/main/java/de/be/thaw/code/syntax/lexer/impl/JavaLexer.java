@@ -0,0 +1,84 @@
+package de.be.thaw.code.syntax.lexer.impl;
+
+import de.be.thaw.code.syntax.lexer.RegexLexer;
+
+import java.util.regex.Pattern;
+
+import static de.be.thaw.code.syntax.lexer.TokenType.*;
+
+/**
+ * Lexer for Java code (rules follow the Pygments JavaLexer).
+ */
+public class JavaLexer extends RegexLexer {
+
+    /**
+     * Regular expression matching an identifier.
+     */
+    private static final String IDENTIFIER = "(?:[^\\W\\d]|\\$)[\\w$]*";
+
+    public JavaLexer() {
+        super(aliases("java"), Pattern.MULTILINE | Pattern.UNICODE_CHARACTER_CLASS,
+                state(ROOT_STATE,
+                        rule("[^\\S\\n]+", TEXT),
+                        rule("//.*?$", COMMENT_SINGLE),
+                        rule("(?s)/\\*.*?\\*/", COMMENT_MULTILINE),
+                        rule(words("\\b", "assert", "break", "case", "catch", "continue", "default", "do", "else",
+                                "finally", "for", "if", "goto", "instanceof", "new", "return", "switch", "this", "throw",
+                                "try", "while"), KEYWORD),
+                        rule("@[^\\W\\d][\\w.]*", NAME_DECORATOR),
+                        rule(words("\\b", "abstract", "const", "enum", "extends", "final", "implements", "native",
+                                "private", "protected", "public", "sealed", "static", "strictfp", "super",
+                                "synchronized", "throws", "transient", "volatile", "yield"), KEYWORD_DECLARATION),
+                        rule(words("\\b", "boolean", "byte", "char", "double", "float", "int", "long", "short",
+                                "void"), KEYWORD_TYPE),
+                        rule("(package)(\\s+)", groups(KEYWORD_NAMESPACE, TEXT), "import"),
+                        rule(words("\\b", "true", "false", "null"), KEYWORD_CONSTANT),
+                        rule("(class|interface|record)\\b", KEYWORD_DECLARATION, "class"),
+                        rule("(var)(\\s+)", groups(KEYWORD_DECLARATION, TEXT), "var"),
+                        rule("(import(?:\\s+static)?)(\\s+)", groups(KEYWORD_NAMESPACE, TEXT), "import"),
+                        rule("\"\"\"", STRING, "text-block"),
+                        rule("\"", STRING, "string"),
+                        rule("'\\\\.'|'[^\\\\]'|'\\\\u[0-9a-fA-F]{4}'", STRING_CHAR),
+                        rule("(\\.)(" + IDENTIFIER + ")", groups(PUNCTUATION, NAME_ATTRIBUTE)),
+                        rule("^(\\s*)(default)(:)", groups(TEXT, KEYWORD, PUNCTUATION)),
+                        rule("^(\\s*)(" + IDENTIFIER + ")(:)", groups(TEXT, NAME_LABEL, PUNCTUATION)),
+                        // Method declarations: a name preceded by a return type and followed by the parameter list
+                        // (the look-ahead rules out most identifiers before the costly look-behinds are tried)
+                        rule("(?=" + IDENTIFIER + "\\s*\\()(?<=[\\w$\\]>]\\s{1,40})(?<!\\b(?:new|return|throw|else|case|assert)\\s{1,40})(" + IDENTIFIER + ")(\\s*)(\\()",
+                                groups(NAME_FUNCTION, TEXT, PUNCTUATION)),
+                        rule(IDENTIFIER, NAME),
+                        rule("([0-9][0-9_]*\\.([0-9][0-9_]*)?|\\.[0-9][0-9_]*)([eE][+\\-]?[0-9][0-9_]*)?[fFdD]?"
+                                + "|[0-9][eE][+\\-]?[0-9][0-9_]*[fFdD]?"
+                                + "|[0-9]([eE][+\\-]?[0-9][0-9_]*)?[fFdD]", NUMBER_FLOAT),
+                        rule("0[xX][0-9a-fA-F][0-9a-fA-F_]*[lL]?", NUMBER_HEX),
+                        rule("0[bB][01][01_]*[lL]?", NUMBER_BIN),
+                        rule("0[0-7_]+[lL]?", NUMBER_OCT),
+                        rule("(0|[1-9][0-9_]*)[lL]?", NUMBER_INTEGER),
+                        rule("[~^*!%&\\[\\]<>|+=/?-]", OPERATOR),
+                        rule("[{}();:.,]", PUNCTUATION),
+                        rule("\\n", TEXT)
+                ),
+                state("class",
+                        rule("\\s+", TEXT),
+                        rule(IDENTIFIER, NAME_CLASS, POP)
+                ),
+                state("var",
+                        rule(IDENTIFIER, NAME, POP)
+                ),
+                state("import",
+                        rule("[\\w.]+\\*?", NAME_NAMESPACE, POP)
+                ),
+                state("string",
+                        rule("[^\\\\\"\\n]+", STRING),
+                        rule("\\\\.", STRING_ESCAPE),
+                        rule("\"", STRING, POP)
+                ),
+                state("text-block",
+                        rule("\"\"\"", STRING, POP),
+                        rule("\\\\.", STRING_ESCAPE),
+                        rule("[^\\\\\"]+|\"", STRING)
+                )
+        );
+    }
+
+}
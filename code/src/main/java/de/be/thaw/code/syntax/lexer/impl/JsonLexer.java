@@ -0,0 +1,35 @@
+package de.be.thaw.code.syntax.lexer.impl;
+
+import de.be.thaw.code.syntax.lexer.RegexLexer;
+
+import java.util.regex.Pattern;
+
+import static de.be.thaw.code.syntax.lexer.TokenType.*;
+
+/**
+ * Lexer for JSON (tokens follow the Pygments JsonLexer: object keys are tags, values are literals).
+ */
+public class JsonLexer extends RegexLexer {
+
+    /**
+     * Regular expression matching a double quoted string.
+     */
+    private static final String STRING_LITERAL = "\"(?:\\\\.|[^\"\\\\\\n])*\"";
+
+    public JsonLexer() {
+        super(aliases("json", "json-object", "jsonc"), Pattern.MULTILINE,
+                state(ROOT_STATE,
+                        rule("\\s+", WHITESPACE),
+                        rule("//.*?$", COMMENT_SINGLE),
+                        rule("(?s)/\\*.*?\\*/", COMMENT_MULTILINE),
+                        rule(STRING_LITERAL + "(?=\\s*:)", NAME_TAG),
+                        rule(STRING_LITERAL, STRING_DOUBLE),
+                        rule("-?(0|[1-9]\\d*)(\\.\\d+[eE](\\+|-)?\\d+|[eE](\\+|-)?\\d+|\\.\\d+)", NUMBER_FLOAT),
+                        rule("-?(0|[1-9]\\d*)", NUMBER_INTEGER),
+                        rule(words("\\b", "true", "false", "null"), KEYWORD_CONSTANT),
+                        rule("[{}\\[\\],:]", PUNCTUATION)
+                )
+        );
+    }
+
+}
@@ -0,0 +1,107 @@
+package de.be.thaw.code.syntax.lexer.impl;
+
+import de.be.thaw.code.syntax.lexer.RegexLexer;
+
+import java.util.regex.Pattern;
+
+import static de.be.thaw.code.syntax.lexer.TokenType.*;
+
+/**
+ * Lexer for Kotlin code (rules follow the Pygments KotlinLexer).
+ */
+public class KotlinLexer extends RegexLexer {
+
+    /**
+     * Regular expression matching an identifier (including identifiers in backticks).
+     */
+    private static final String IDENTIFIER = "(?:[_\\p{L}][\\w$]*|`[^`\\n]+`)";
+
+    public KotlinLexer() {
+        super(aliases("kotlin", "kt"), Pattern.MULTILINE | Pattern.UNICODE_CHARACTER_CLASS,
+                state(ROOT_STATE,
+                        rule("[^\\S\\n]+", TEXT),
+                        rule("\\s+", TEXT),
+                        rule("\\\\$", TEXT),
+                        rule("//.*?$", COMMENT_SINGLE),
+                        rule("^#!/.+?$", COMMENT_HASHBANG),
+                        rule("(?s)/\\*.*?\\*/", COMMENT_MULTILINE),
+                        rule("@" + IDENTIFIER, NAME_DECORATOR),
+                        rule("\"\"\"", STRING, "multiline-string"),
+                        rule("\"", STRING, "string"),
+                        rule("'\\\\.'|'[^\\\\]'", STRING_CHAR),
+                        rule("0[xX][0-9a-fA-F_]+[uU]?[lL]?|0[bB][01_]+[uU]?[lL]?", NUMBER),
+                        rule("[0-9][0-9_]*(\\.[0-9_]+)?([eE][+-]?[0-9_]+)?[fFuU]?[lL]?", NUMBER),
+                        rule("(companion)(\\s+)(object)", groups(KEYWORD_DECLARATION, TEXT, KEYWORD_DECLARATION)),
+                        rule("(class|interface|object|typealias)(\\s+)", groups(KEYWORD_DECLARATION, TEXT), "class"),
+                        rule("(package|import)(\\s+)", groups(KEYWORD_NAMESPACE, TEXT), "package"),
+                        rule("(val|var)(\\s+)", groups(KEYWORD_DECLARATION, TEXT), "property"),
+                        rule("(fun)(\\s+)", groups(KEYWORD_DECLARATION, TEXT), "function"),
+                        rule(words("\\b", "true", "false", "null"), KEYWORD_CONSTANT),
+                        rule(words("\\b", "abstract", "actual", "annotation", "by", "const", "constructor",
+                                "crossinline", "data", "enum", "expect", "external", "final", "infix", "init", "inline",
+                                "inner", "internal", "lateinit", "noinline", "open", "operator", "out", "override",
+                                "private", "protected", "public", "reified", "sealed", "suspend", "tailrec", "vararg"),
+                                KEYWORD_DECLARATION),
+                        rule("as\\?|" + words("\\b", "as", "break", "catch", "continue", "do", "else", "finally",
+                                "for", "if", "in", "is", "return", "super", "this", "throw", "try", "when", "where",
+                                "while", "get", "set", "field", "it"), KEYWORD),
+                        rule(words("\\b", "Boolean", "Byte", "Char", "Double", "Float", "Int", "Long", "Short",
+                                "String", "Unit", "Any", "Nothing"), KEYWORD_TYPE),
+                        rule(IDENTIFIER, NAME),
+                        rule("::|!!|\\?[:.]", OPERATOR),
+                        rule("[~^*!%&\\[\\]<>|+=/?-]", OPERATOR),
+                        rule("[{}();:.,]", PUNCTUATION)
+                ),
+                state("class",
+                        rule(IDENTIFIER, NAME_CLASS, POP)
+                ),
+                state("package",
+                        rule("\\S+", NAME_NAMESPACE, POP)
+                ),
+                state("property",
+                        rule(IDENTIFIER, NAME_PROPERTY, POP)
+                ),
+                state("function",
+                        rule("\\s+", TEXT),
+                        rule("<", PUNCTUATION, "generic"),
+                        rule(IDENTIFIER + "(?=[<.])", NAME_CLASS), // Receiver type of an extension function
+                        rule("\\.", PUNCTUATION),
+                        rule(IDENTIFIER, NAME_FUNCTION, POP),
+                        fallback(POP)
+                ),
+                state("generic",
+                        rule(">", PUNCTUATION, POP),
+                        rule("<", PUNCTUATION, PUSH),
+                        rule("[^<>]+", NAME)
+                ),
+                state("string",
+                        rule("\"", STRING, POP),
+                        include("string-common"),
+                        rule("[^\\\\\"$\\n]+", STRING)
+                ),
+                state("multiline-string",
+                        rule("\"\"\"", STRING, POP),
+                        rule("\"", STRING),
+                        include("string-common"),
+                        rule("[^\\\\\"$]+", STRING)
+                ),
+                state("string-common",
+                        rule("\\\\[tbnr'\"\\\\$]|\\\\u[0-9a-fA-F]{4}", STRING_ESCAPE),
+                        rule("\\$\\{", STRING_INTERPOL, "interpolation"),
+                        rule("\\$" + IDENTIFIER, STRING_INTERPOL),
+                        rule("[\\\\$]", STRING)
+                ),
+                state("interpolation",
+                        rule("\\}", STRING_INTERPOL, POP),
+                        rule("\\{", PUNCTUATION, "scope"),
+                        include(ROOT_STATE)
+                ),
+                state("scope",
+                        rule("\\}", PUNCTUATION, POP),
+                        rule("\\{", PUNCTUATION, PUSH),
+                        include(ROOT_STATE)
+                )
+        );
+    }
+
+}
@@ -0,0 +1,153 @@
+package de.be.thaw.code.syntax.lexer.impl;
+
+import de.be.thaw.code.syntax.lexer.RegexLexer;
+
+import java.util.regex.Pattern;
+
+import static de.be.thaw.code.syntax.lexer.TokenType.*;
+
+/**
+ * Lexer for Python 3 code (rules follow the Pygments PythonLexer).
+ */
+public class PythonLexer extends RegexLexer {
+
+    /**
+     * Regular expression matching an identifier.
+     */
+    private static final String IDENTIFIER = "[_\\p{L}]\\w*";
+
+    public PythonLexer() {
+        super(aliases("python", "py", "python3", "py3"), Pattern.MULTILINE | Pattern.UNICODE_CHARACTER_CLASS,
+                state(ROOT_STATE,
+                        rule("\\n", TEXT),
+                        rule("^(\\s*)([rRuUbB]{0,2})(\"\"\"(?:.|\\n)*?\"\"\")", groups(TEXT, STRING_AFFIX, STRING_DOC)),
+                        rule("^(\\s*)([rRuUbB]{0,2})('''(?:.|\\n)*?''')", groups(TEXT, STRING_AFFIX, STRING_DOC)),
+                        rule("\\A#!.+$", COMMENT_HASHBANG),
+                        rule("#.*$", COMMENT_SINGLE),
+                        rule("\\\\\\n", TEXT),
+                        rule("\\\\", TEXT),
+                        rule("(def)((?:\\s|\\\\\\s)+)", groups(KEYWORD, TEXT), "funcname"),
+                        rule("(class)((?:\\s|\\\\\\s)+)", groups(KEYWORD, TEXT), "classname"),
+                        rule("(from)((?:\\s|\\\\\\s)+)", groups(KEYWORD_NAMESPACE, TEXT), "fromimport"),
+                        rule("(import)((?:\\s|\\\\\\s)+)", groups(KEYWORD_NAMESPACE, TEXT), "import"),
+                        include("keywords"),
+                        include("expr")
+                ),
+                state("expr",
+                        rule("(?i)(r[bf]?|[bf]r)(\"\"\")", groups(STRING_AFFIX, STRING_DOUBLE), "raw-tdqs"),
+                        rule("(?i)(r[bf]?|[bf]r)(''')", groups(STRING_AFFIX, STRING_SINGLE), "raw-tsqs"),
+                        rule("(?i)(r[bf]?|[bf]r)(\")", groups(STRING_AFFIX, STRING_DOUBLE), "raw-dqs"),
+                        rule("(?i)(r[bf]?|[bf]r)(')", groups(STRING_AFFIX, STRING_SINGLE), "raw-sqs"),
+                        rule("([uUbBfF]?)(\"\"\")", groups(STRING_AFFIX, STRING_DOUBLE), "tdqs"),
+                        rule("([uUbBfF]?)(''')", groups(STRING_AFFIX, STRING_SINGLE), "tsqs"),
+                        rule("([uUbBfF]?)(\")", groups(STRING_AFFIX, STRING_DOUBLE), "dqs"),
+                        rule("([uUbBfF]?)(')", groups(STRING_AFFIX, STRING_SINGLE), "sqs"),
+                        rule("[^\\S\\n]+", TEXT),
+                        rule("(\\d(?:_?\\d)*\\.(?:\\d(?:_?\\d)*)?|(?:\\d(?:_?\\d)*)?\\.\\d(?:_?\\d)*)([eE][+-]?\\d(?:_?\\d)*)?j?", NUMBER_FLOAT),
+                        rule("\\d(?:_?\\d)*[eE][+-]?\\d(?:_?\\d)*j?", NUMBER_FLOAT),
+                        rule("0[oO](?:_?[0-7])+", NUMBER_OCT),
+                        rule("0[bB](?:_?[01])+", NUMBER_BIN),
+                        rule("0[xX](?:_?[a-fA-F0-9])+", NUMBER_HEX),
+                        rule("\\d(?:_?\\d)*j?", NUMBER_INTEGER),
+                        rule("!=|==|<<|>>|:=|[-~+/*%=<>&^|.]", OPERATOR),
+                        rule("[\\]{}:(),;\\[]", PUNCTUATION),
+                        rule(words("\\b", "in", "is", "and", "or", "not"), OPERATOR_WORD),
+                        rule(words("\\b", "async for", "await", "else", "for", "if", "lambda", "yield", "yield from"), KEYWORD),
+                        rule(words("\\b", "True", "False", "None"), KEYWORD_CONSTANT),
+                        rule("(?<!\\.)" + words("\\b", "__import__", "abs", "all", "any", "bin", "bool", "bytearray",
+                                "breakpoint", "bytes", "callable", "chr", "classmethod", "compile", "complex", "delattr",
+                                "dict", "dir", "divmod", "enumerate", "eval", "filter", "float", "format", "frozenset",
+                                "getattr", "globals", "hasattr", "hash", "hex", "id", "input", "int", "isinstance",
+                                "issubclass", "iter", "len", "list", "locals", "map", "max", "memoryview", "min", "next",
+                                "object", "oct", "open", "ord", "pow", "print", "property", "range", "repr", "reversed",
+                                "round", "set", "setattr", "slice", "sorted", "staticmethod", "str", "sum", "super",
+                                "tuple", "type", "vars", "zip"), NAME_BUILTIN),
+                        rule("(?<!\\.)(self|Ellipsis|NotImplemented|cls)\\b", NAME_BUILTIN_PSEUDO),
+                        rule("(?<!\\.)" + words("\\b", "ArithmeticError", "AssertionError", "AttributeError",
+                                "BaseException", "BufferError", "BytesWarning", "DeprecationWarning", "EOFError",
+                                "EnvironmentError", "Exception", "FileExistsError", "FileNotFoundError",
+                                "FloatingPointError", "FutureWarning", "GeneratorExit", "IOError", "ImportError",
+                                "ImportWarning", "IndentationError", "IndexError", "InterruptedError", "KeyError",
+                                "KeyboardInterrupt", "LookupError", "MemoryError", "ModuleNotFoundError", "NameError",
+                                "NotImplementedError", "OSError", "OverflowError", "PermissionError",
+                                "RecursionError", "ReferenceError", "RuntimeError", "RuntimeWarning", "StopIteration",
+                                "StopAsyncIteration", "SyntaxError", "SyntaxWarning", "SystemError", "SystemExit",
+                                "TabError", "TimeoutError", "TypeError", "UnboundLocalError", "UnicodeDecodeError",
+                                "UnicodeEncodeError", "UnicodeError", "UnicodeWarning", "UserWarning", "ValueError",
+                                "Warning", "ZeroDivisionError"), NAME_EXCEPTION),
+                        rule("__\\w+__\\b", NAME_FUNCTION),
+                        rule("@[\\w.]+", NAME_DECORATOR),
+                        rule("@", OPERATOR),
+                        rule(IDENTIFIER, NAME)
+                ),
+                state("keywords",
+                        rule(words("\\b", "assert", "async", "await", "break", "continue", "del", "elif", "else",
+                                "except", "finally", "for", "global", "if", "lambda", "pass", "raise", "nonlocal",
+                                "return", "try", "while", "yield", "yield from", "as", "with"), KEYWORD),
+                        rule(words("\\b", "True", "False", "None"), KEYWORD_CONSTANT)
+                ),
+                state("funcname",
+                        rule("__\\w+__\\b", NAME_FUNCTION, POP),
+                        rule(IDENTIFIER, NAME_FUNCTION, POP),
+                        fallback(POP)
+                ),
+                state("classname",
+                        rule(IDENTIFIER, NAME_CLASS, POP)
+                ),
+                state("import",
+                        rule("(\\s+)(as)(\\s+)", groups(TEXT, KEYWORD, TEXT)),
+                        rule("\\.", NAME_NAMESPACE),
+                        rule(IDENTIFIER, NAME_NAMESPACE),
+                        rule("(\\s*)(,)(\\s*)", groups(TEXT, OPERATOR, TEXT)),
+                        fallback(POP)
+                ),
+                state("fromimport",
+                        rule("(\\s+)(import)\\b", groups(TEXT, KEYWORD_NAMESPACE), POP),
+                        rule("\\.", NAME_NAMESPACE),
+                        rule("None\\b", NAME_BUILTIN_PSEUDO, POP),
+                        rule(IDENTIFIER, NAME_NAMESPACE),
+                        fallback(POP)
+                ),
+                state("escapes",
+                        rule("\\\\([\\\\abfnrtv\"']|\\n|N\\{.*?\\}|u[a-fA-F0-9]{4}|U[a-fA-F0-9]{8}|x[a-fA-F0-9]{2}|[0-7]{1,3})", STRING_ESCAPE)
+                ),
+                state("dqs",
+                        include("escapes"),
+                        rule("\"", STRING_DOUBLE, POP),
+                        rule("[^\\\\\"\\n]+|\\\\", STRING_DOUBLE)
+                ),
+                state("sqs",
+                        include("escapes"),
+                        rule("'", STRING_SINGLE, POP),
+                        rule("[^\\\\'\\n]+|\\\\", STRING_SINGLE)
+                ),
+                state("tdqs",
+                        include("escapes"),
+                        rule("\"\"\"", STRING_DOUBLE, POP),
+                        rule("[^\\\\\"]+|\\\\|\"", STRING_DOUBLE)
+                ),
+                state("tsqs",
+                        include("escapes"),
+                        rule("'''", STRING_SINGLE, POP),
+                        rule("[^\\\\']+|\\\\|'", STRING_SINGLE)
+                ),
+                state("raw-dqs",
+                        rule("\"", STRING_DOUBLE, POP),
+                        rule("\\\\\\\\|\\\\\"|\\\\\\n|[^\\\\\"\\n]+|\\\\", STRING_DOUBLE)
+                ),
+                state("raw-sqs",
+                        rule("'", STRING_SINGLE, POP),
+                        rule("\\\\\\\\|\\\\'|\\\\\\n|[^\\\\'\\n]+|\\\\", STRING_SINGLE)
+                ),
+                state("raw-tdqs",
+                        rule("\"\"\"", STRING_DOUBLE, POP),
+                        rule("\\\\\\\\|\\\\\"|[^\\\\\"]+|\\\\|\"", STRING_DOUBLE)
+                ),
+                state("raw-tsqs",
+                        rule("'''", STRING_SINGLE, POP),
+                        rule("\\\\\\\\|\\\\'|[^\\\\']+|\\\\|'", STRING_SINGLE)
+                )
+        );
+    }
+
+}
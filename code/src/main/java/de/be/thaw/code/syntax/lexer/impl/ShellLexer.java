@@ -0,0 +1,92 @@
+package de.be.thaw.code.syntax.lexer.impl;
+
+import de.be.thaw.code.syntax.lexer.RegexLexer;
+
+import java.util.regex.Pattern;
+
+import static de.be.thaw.code.syntax.lexer.TokenType.*;
+
+/**
+ * Lexer for shell scripts (rules follow the Pygments BashLexer).
+ */
+public class ShellLexer extends RegexLexer {
+
+    public ShellLexer() {
+        super(aliases("bash", "sh", "shell", "zsh", "ksh"), Pattern.MULTILINE,
+                state(ROOT_STATE,
+                        include("basic"),
+                        rule("`", STRING_BACKTICK, "backticks"),
+                        include("data"),
+                        include("interpolation")
+                ),
+                state("interpolation",
+                        rule("\\$\\(\\(", KEYWORD, "math"),
+                        rule("\\$\\(", KEYWORD, "paren"),
+                        rule("\\$\\{#?", STRING_INTERPOL, "curly"),
+                        rule("\\$[a-zA-Z_]\\w*", NAME_VARIABLE),
+                        rule("\\$(?:\\d+|[#$?!_*@-])", NAME_VARIABLE),
+                        rule("\\$", TEXT)
+                ),
+                state("basic",
+                        rule("\\b(if|fi|else|while|in|do|done|for|then|return|function|case|select|break|continue|until|esac|elif)(\\s*)\\b",
+                                groups(KEYWORD, WHITESPACE)),
+                        rule("\\b" + words("(?=[\\s)`])", "alias", "bg", "bind", "builtin", "caller", "cd", "command",
+                                "compgen", "complete", "declare", "dirs", "disown", "echo", "enable", "eval", "exec", "exit",
+                                "export", "false", "fc", "fg", "getopts", "hash", "help", "history", "jobs", "kill", "let",
+                                "local", "logout", "popd", "printf", "pushd", "pwd", "read", "readonly", "set", "shift",
+                                "shopt", "source", "suspend", "test", "time", "times", "trap", "true", "type", "typeset",
+                                "ulimit", "umask", "unalias", "unset", "wait"), NAME_BUILTIN),
+                        rule("\\A#!.+$", COMMENT_HASHBANG),
+                        rule("#.*$", COMMENT_SINGLE),
+                        rule("\\\\[\\w\\W]", STRING_ESCAPE),
+                        rule("(\\b\\w+)(\\s*)(\\+?=)", groups(NAME_VARIABLE, WHITESPACE, OPERATOR)),
+                        rule("[\\[\\]{}()=]", OPERATOR),
+                        rule("<<<", OPERATOR),
+                        rule("<<-?\\s*(['\"]?)\\\\?(\\w+)\\1[\\w\\W]+?\\n\\s*\\2\\b", STRING),
+                        rule("&&|\\|\\|", OPERATOR)
+                ),
+                state("data",
+                        rule("(?s)\\$?\"(\\\\.|[^\"\\\\$])*\"", STRING_DOUBLE),
+                        rule("\"", STRING_DOUBLE, "string"),
+                        rule("(?s)\\$'(\\\\\\\\|\\\\[0-7]+|\\\\.|[^'\\\\])*'", STRING_SINGLE),
+                        rule("(?s)'.*?'", STRING_SINGLE),
+                        rule("[;&|]", PUNCTUATION),
+                        rule("\\s+", WHITESPACE),
+                        rule("\\d+\\b", NUMBER),
+                        rule("[^=\\s\\[\\]{}()$\"'`\\\\<&|;]+", TEXT),
+                        rule("<", TEXT)
+                ),
+                state("string",
+                        rule("\"", STRING_DOUBLE, POP),
+                        rule("(?s)(\\\\\\\\|\\\\[0-7]+|\\\\.|[^\"\\\\$])+", STRING_DOUBLE),
+                        include("interpolation")
+                ),
+                state("curly",
+                        rule("\\}", STRING_INTERPOL, POP),
+                        rule(":-", KEYWORD),
+                        rule("\\w+", NAME_VARIABLE),
+                        rule("[^}:\"'`$\\\\]+", PUNCTUATION),
+                        rule(":", PUNCTUATION),
+                        include(ROOT_STATE)
+                ),
+                state("paren",
+                        rule("\\)", KEYWORD, POP),
+                        include(ROOT_STATE)
+                ),
+                state("math",
+                        rule("\\)\\)", KEYWORD, POP),
+                        rule("\\*\\*|\\|\\||<<|>>|[-+*/%^|&<>]", OPERATOR),
+                        rule("\\d+#[\\da-zA-Z]+", NUMBER),
+                        rule("0[xX][\\da-fA-F]+", NUMBER),
+                        rule("\\d+", NUMBER),
+                        rule("[a-zA-Z_]\\w*", NAME_VARIABLE),
+                        include(ROOT_STATE)
+                ),
+                state("backticks",
+                        rule("`", STRING_BACKTICK, POP),
+                        include(ROOT_STATE)
+                )
+        );
+    }
+
+}
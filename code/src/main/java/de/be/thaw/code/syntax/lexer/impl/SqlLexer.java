@@ -0,0 +1,54 @@
+package de.be.thaw.code.syntax.lexer.impl;
+
+import de.be.thaw.code.syntax.lexer.RegexLexer;
+
+import java.util.regex.Pattern;
+
+import static de.be.thaw.code.syntax.lexer.TokenType.*;
+
+/**
+ * Lexer for SQL (rules follow the Pygments SqlLexer with a smaller set of keywords).
+ */
+public class SqlLexer extends RegexLexer {
+
+    public SqlLexer() {
+        super(aliases("sql"), Pattern.MULTILINE | Pattern.CASE_INSENSITIVE,
+                state(ROOT_STATE,
+                        rule("\\s+", WHITESPACE),
+                        rule("--.*\\n?", COMMENT_SINGLE),
+                        rule("/\\*", COMMENT_MULTILINE, "multiline-comment"),
+                        rule(words("\\b", "ABORT", "ACTION", "ADD", "AFTER", "ALL", "ALTER", "ALWAYS", "ANALYZE", "AND",
+                                "ANY", "AS", "ASC", "AUTOINCREMENT", "AUTO_INCREMENT", "BEFORE", "BEGIN", "BETWEEN", "BY",
+                                "CASCADE", "CASE", "CAST", "CHECK", "COLLATE", "COLUMN", "COMMIT", "CONFLICT",
+                                "CONSTRAINT", "CREATE", "CROSS", "CURRENT_DATE", "CURRENT_TIME", "CURRENT_TIMESTAMP",
+                                "DATABASE", "DEFAULT", "DEFERRABLE", "DEFERRED", "DELETE", "DESC", "DISTINCT", "DROP",
+                                "EACH", "ELSE", "END", "ESCAPE", "EXCEPT", "EXCLUSIVE", "EXISTS", "EXPLAIN", "FALSE",
+                                "FETCH", "FOR", "FOREIGN", "FROM", "FULL", "FUNCTION", "GRANT", "GROUP", "HAVING", "IF",
+                                "IGNORE", "IMMEDIATE", "IN", "INDEX", "INNER", "INSERT", "INSTEAD", "INTERSECT", "INTO",
+                                "IS", "JOIN", "KEY", "LEFT", "LIKE", "LIMIT", "MATCH", "NATURAL", "NO", "NOT", "NULL",
+                                "OF", "OFFSET", "ON", "OR", "ORDER", "OUTER", "OVER", "PARTITION", "PRIMARY", "PROCEDURE",
+                                "REFERENCES", "RENAME", "REPLACE", "RESTRICT", "RETURNING", "RETURNS", "REVOKE", "RIGHT",
+                                "ROLLBACK", "ROW", "ROWS", "SCHEMA", "SELECT", "SEQUENCE", "SET", "TABLE", "TEMP",
+                                "TEMPORARY", "THEN", "TO", "TRANSACTION", "TRIGGER", "TRUE", "TRUNCATE", "UNION",
+                                "UNIQUE", "UPDATE", "USING", "VALUES", "VIEW", "WHEN", "WHERE", "WINDOW", "WITH"), KEYWORD),
+                        rule(words("\\b", "ARRAY", "BIGINT", "BINARY", "BIT", "BLOB", "BOOLEAN", "CHAR", "CHARACTER",
+                                "DATE", "DEC", "DECIMAL", "DOUBLE", "FLOAT", "INT", "INTEGER", "INTERVAL", "NUMBER",
+                                "NUMERIC", "REAL", "SERIAL", "SMALLINT", "TEXT", "TIME", "TIMESTAMP", "TINYINT", "VARCHAR",
+                                "VARYING"), NAME_BUILTIN),
+                        rule("[+*/<>=~!@#%^&|`?-]", OPERATOR),
+                        rule("[0-9]+", NUMBER_INTEGER),
+                        rule("'(''|[^'])*'", STRING_SINGLE),
+                        rule("\"(\"\"|[^\"])*\"", STRING_SYMBOL),
+                        rule("[a-z_][\\w$]*", NAME),
+                        rule("[;:()\\[\\],.]", PUNCTUATION)
+                ),
+                state("multiline-comment",
+                        rule("/\\*", COMMENT_MULTILINE, PUSH),
+                        rule("\\*/", COMMENT_MULTILINE, POP),
+                        rule("[^/*]+", COMMENT_MULTILINE),
+                        rule("[/*]", COMMENT_MULTILINE)
+                )
+        );
+    }
+
+}
@@ -0,0 +1,101 @@
+package de.be.thaw.code.syntax.lexer.impl;
+
+import de.be.thaw.code.syntax.lexer.RegexLexer;
+
+import java.util.regex.Pattern;
+
+import static de.be.thaw.code.syntax.lexer.TokenType.*;
+
+/**
+ * Lexer for the Thaw document text format.
+ * Port of the Pygments lexer script bundled for the Pygments worker ("thaw_lexer.py") which must be kept in sync.
+ */
+public class ThawLexer extends RegexLexer {
+
+    public ThawLexer() {
+        super(aliases("thaw", "tdt"), Pattern.DOTALL,
+                state(ROOT_STATE,
+                        rule("\\\\.", STRING_ESCAPE, "escaped"),
+                        rule("\\*", GENERIC_STRONG, "italic-or-bold-start"),
+                        rule("_", GENERIC_EMPH, "underlined"),
+                        rule("`", STRING_BACKTICK, "inline-code"),
+                        rule("#", KEYWORD, "thingy-start"),
+                        rule(".", TEXT)
+                ),
+                state("italic-or-bold-start",
+                        rule("\\*", GENERIC_STRONG, POP, "bold"),
+                        rule("\\.", KEYWORD, POP, "custom-style-class-name"),
+                        rule(".", GENERIC_EMPH, POP, "italic")
+                ),
+                state("italic-leave-or-bold-start",
+                        rule("\\*", GENERIC_STRONG, POP, "bold"),
+                        rule(".", GENERIC_EMPH, "#pop:2")
+                ),
+                state("italic",
+                        rule("\\\\.", STRING_ESCAPE, "escaped"),
+                        rule("\\*", GENERIC_STRONG, "italic-leave-or-bold-start"),
+                        rule("_", GENERIC_EMPH, "underlined"),
+                        rule("`", STRING_BACKTICK, "inline-code"),
+                        rule("#", KEYWORD, "thingy-start"),
+                        rule(".", GENERIC_EMPH)
+                ),
+                state("custom-style-class-name",
+                        rule("\\*", GENERIC_STRONG, POP, "bold"),
+                        rule(".", KEYWORD)
+                ),
+                state("bold",
+                        rule("\\\\.", STRING_ESCAPE, "escaped"),
+                        rule("\\*", GENERIC_STRONG, "bold-leave-or-italic-start"),
+                        rule("_", GENERIC_EMPH, "underlined"),
+                        rule("`", STRING_BACKTICK, "inline-code"),
+                        rule("#", KEYWORD, "thingy-start"),
+                        rule(".", GENERIC_STRONG)
+                ),
+                state("bold-leave-or-italic-start",
+                        rule("\\*", GENERIC_STRONG, "#pop:2"),
+                        rule(".", GENERIC_STRONG, POP, "italic")
+                ),
+                state("underlined",
+                        rule("\\\\", STRING_ESCAPE, "escaped"),
+                        rule("\\*", GENERIC_STRONG, "italic-or-bold-start"),
+                        rule("`", STRING_BACKTICK, "inline-code"),
+                        rule("_", GENERIC_EMPH, POP),
+                        rule("#", KEYWORD, "thingy-start"),
+                        rule(".", GENERIC_EMPH)
+                ),
+                state("inline-code",
+                        rule("\\\\", STRING_ESCAPE, "escaped"),
+                        rule("`", STRING_BACKTICK, POP),
+                        rule(".", STRING_BACKTICK)
+                ),
+                state("thingy-opt-args",
+                        rule("\\\\", STRING_ESCAPE, "escaped"),
+                        rule("#", KEYWORD, POP),
+                        rule("\"", STRING_DOUBLE, "double-quote-string"),
+                        rule("'", STRING_SINGLE, "single-quote-string"),
+                        rule("=", OPERATOR),
+                        rule(",", OPERATOR),
+                        rule(".", GENERIC_EMPH)
+                ),
+                state("thingy-start",
+                        rule(",", OPERATOR, POP, "thingy-opt-args"),
+                        rule("#", KEYWORD, POP),
+                        rule(".", GENERIC_STRONG)
+                ),
+                state("double-quote-string",
+                        rule("\\\\", STRING_ESCAPE, "escaped"),
+                        rule("\"", STRING_DOUBLE, POP),
+                        rule(".", STRING_DOUBLE)
+                ),
+                state("single-quote-string",
+                        rule("\\\\", STRING_ESCAPE, "escaped"),
+                        rule("'", STRING_SINGLE, POP),
+                        rule(".", STRING_SINGLE)
+                ),
+                state("escaped",
+                        rule(".", STRING_ESCAPE, POP)
+                )
+        );
+    }
+
+}
@@ -0,0 +1,41 @@
+package de.be.thaw.code.syntax.lexer.impl;
+
+import de.be.thaw.code.syntax.lexer.RegexLexer;
+
+import java.util.regex.Pattern;
+
+import static de.be.thaw.code.syntax.lexer.TokenType.*;
+
+/**
+ * Lexer for XML (rules follow the Pygments XmlLexer).
+ */
+public class XmlLexer extends RegexLexer {
+
+    public XmlLexer() {
+        super(aliases("xml", "xsd", "xsl", "xslt", "wsdl"), Pattern.MULTILINE | Pattern.DOTALL | Pattern.UNICODE_CHARACTER_CLASS,
+                state(ROOT_STATE,
+                        rule("[^<&\\s]+", TEXT),
+                        rule("[^<&\\S]+", WHITESPACE),
+                        rule("&\\S*?;", NAME_ENTITY),
+                        rule("<!\\[CDATA\\[.*?\\]\\]>", COMMENT_PREPROC),
+                        rule("<!--.*?-->", COMMENT_MULTILINE),
+                        rule("<\\?.*?\\?>", COMMENT_PREPROC),
+                        rule("<![^>]*>", COMMENT_PREPROC),
+                        rule("<\\s*[\\w:.-]+", NAME_TAG, "tag"),
+                        rule("<\\s*/\\s*[\\w:.-]+\\s*>", NAME_TAG)
+                ),
+                state("tag",
+                        rule("\\s+", WHITESPACE),
+                        rule("[\\w.:-]+\\s*=", NAME_ATTRIBUTE, "attribute"),
+                        rule("/?\\s*>", NAME_TAG, POP)
+                ),
+                state("attribute",
+                        rule("\\s+", WHITESPACE),
+                        rule("\".*?\"", STRING, POP),
+                        rule("'.*?'", STRING, POP),
+                        rule("[^\\s>]+", STRING, POP)
+                )
+        );
+    }
+
+}
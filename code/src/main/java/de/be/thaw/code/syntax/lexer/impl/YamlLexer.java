@@ -0,0 +1,49 @@
+package de.be.thaw.code.syntax.lexer.impl;
+
+import de.be.thaw.code.syntax.lexer.RegexLexer;
+
+import java.util.regex.Pattern;
+
+import static de.be.thaw.code.syntax.lexer.TokenType.*;
+
+/**
+ * Lexer for YAML.
+ * This is a simplified version of the Pygments YamlLexer which does not track indentation:
+ * block scalars are lexed like plain scalars.
+ */
+public class YamlLexer extends RegexLexer {
+
+    /**
+     * Regular expression matching a double quoted scalar.
+     */
+    private static final String DOUBLE_QUOTED = "\"(?:\\\\.|[^\"\\\\])*\"";
+
+    /**
+     * Regular expression matching a single quoted scalar.
+     */
+    private static final String SINGLE_QUOTED = "'(?:''|[^'])*'";
+
+    public YamlLexer() {
+        super(aliases("yaml", "yml"), Pattern.MULTILINE | Pattern.UNICODE_CHARACTER_CLASS,
+                state(ROOT_STATE,
+                        rule("\\s+", TEXT),
+                        rule("#.*$", COMMENT_SINGLE),
+                        rule("^%.*$", NAME_TAG),
+                        rule("^(?:---|\\.\\.\\.)(?=\\s|$)", NAME_NAMESPACE),
+                        rule("[-?](?=\\s|$)", PUNCTUATION),
+                        // Keys end at flow indicators, so that the keys of flow mappings are found as well
+                        rule("([^\\s#:,\\[\\]{}\"'&*!|>%@`-][^#\\n:,\\[\\]{}]*?|-[^\\s#:,\\[\\]{}][^#\\n:,\\[\\]{}]*?|" + DOUBLE_QUOTED + "|" + SINGLE_QUOTED + ")([ \\t]*)(:)(?=\\s|$)",
+                                groups(NAME_TAG, TEXT, PUNCTUATION)),
+                        rule("&[\\w-]+", NAME_LABEL),
+                        rule("\\*[\\w-]+", NAME_VARIABLE),
+                        rule("![\\w!/.-]*", KEYWORD_TYPE),
+                        rule("[|>][+-]?\\d*[+-]?(?=[ \\t]*(?:#.*)?$)", PUNCTUATION),
+                        rule("[\\[\\]{},]", PUNCTUATION),
+                        rule(DOUBLE_QUOTED, STRING),
+                        rule(SINGLE_QUOTED, STRING),
+                        rule("[^\\s#,\\[\\]{}]+(?:[ \\t]+[^\\s#,\\[\\]{}]+)*", LITERAL)
+                )
+        );
+    }
+
+}
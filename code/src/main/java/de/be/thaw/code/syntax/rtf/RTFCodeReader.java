@@ -0,0 +1,316 @@
+package de.be.thaw.code.syntax.rtf;
+
+import com.rtfparserkit.parser.IRtfListener;
+import com.rtfparserkit.parser.IRtfParser;
+import com.rtfparserkit.parser.IRtfSource;
+import com.rtfparserkit.parser.RtfStreamSource;
+import com.rtfparserkit.parser.standard.StandardRtfParser;
+import com.rtfparserkit.rtf.Command;
+import com.rtfparserkit.rtf.CommandType;
+import de.be.thaw.code.syntax.HighlightedCode;
+import de.be.thaw.code.syntax.exception.HighlightException;
+import de.be.thaw.util.color.Color;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Stack;
+
+/**
+ * Reader converting already syntax highlighted code in RTF (Rich-Text-Format) to highlighted code.
+ */
+public class RTFCodeReader {
+
+    /**
+     * Read the passed RTF code.
+     *
+     * @param rtfCode to read
+     * @return the highlighted code
+     * @throws HighlightException in case the RTF code could not be read
+     */
+    public static HighlightedCode read(String rtfCode) throws HighlightException {
+        IRtfSource source = new RtfStreamSource(new ByteArrayInputStream(rtfCode.getBytes(StandardCharsets.UTF_8)));
+        IRtfParser parser = new StandardRtfParser();
+
+        RTFListener listener = new RTFListener();
+        try {
+            parser.parse(source, listener);
+        } catch (IOException | RuntimeException e) {
+            throw new HighlightException("Could not read the syntax highlighted code (RTF)", e);
+        }
+
+        return listener.getResult();
+    }
+
+    /**
+     * Context of a group in an RTF document.
+     */
+    private static class RTFGroupContext {
+
+        /**
+         * Parent context (if any).
+         */
+        @Nullable
+        private final RTFGroupContext parent;
+
+        /**
+         * Whether bold is enabled
+         */
+        @Nullable
+        private Boolean bold;
+
+        /**
+         * Whether italic is enabled.
+         */
+        @Nullable
+        private Boolean italic;
+
+        /**
+         * The currently used font color.
+         */
+        @Nullable
+        private Color color;
+
+        /**
+         * Whether the group contains text of the code.
+         */
+        private Boolean acceptText;
+
+        public RTFGroupContext(@Nullable RTFGroupContext parent) {
+            this.parent = parent;
+        }
+
+        public boolean isBold() {
+            if (bold != null) {
+                return bold;
+            } else if (parent != null) {
+                return parent.isBold();
+            } else {
+                return false;
+            }
+        }
+
+        public void setBold(boolean bold) {
+            this.bold = bold;
+        }
+
+        public boolean isItalic() {
+            if (italic != null) {
+                return italic;
+            } else if (parent != null) {
+                return parent.isItalic();
+            } else {
+                return false;
+            }
+        }
+
+        public void setItalic(boolean italic) {
+            this.italic = italic;
+        }
+
+        @Nullable
+        public Color getColor() {
+            if (color != null) {
+                return color;
+            } else if (parent != null) {
+                return parent.getColor();
+            } else {
+                return null;
+            }
+        }
+
+        public void setColor(@Nullable Color color) {
+            this.color = color;
+        }
+
+        public boolean isAcceptText() {
+            if (acceptText != null) {
+                return acceptText;
+            } else if (parent != null) {
+                return parent.isAcceptText();
+            } else {
+                return true;
+            }
+        }
+
+        public void setAcceptText(boolean acceptText) {
+            this.acceptText = acceptText;
+        }
+
+    }
+
+    /**
+     * Listener collecting the lines of the RTF code.
+     */
+    private static class RTFListener implements IRtfListener {
+
+        /**
+         * Colors listed in the RTF color table.
+         */
+        private final List<Color> colors = new ArrayList<>();
+
+        /**
+         * Stack holding always the current RTF group context (colors, bold, italic, ...).
+         */
+        private final Stack<RTFGroupContext> ctxStack = new Stack<>();
+
+        /**
+         * Whether the color table is currently being parsed.
+         */
+        private boolean isParseColors = false;
+
+        private int tmpRed = -1;
+        private int tmpGreen = -1;
+        private int tmpBlue = -1;
+
+        /**
+         * The style palette.
+         */
+        private final List<HighlightedCode.TokenStyle> styles = new ArrayList<>();
+
+        /**
+         * Lookup of the style palette indices by style.
+         */
+        private final Map<HighlightedCode.TokenStyle, Integer> styleIndices = new HashMap<>();
+
+        /**
+         * Lines read so far.
+         */
+        private final List<HighlightedCode.Line> lines = new ArrayList<>();
+
+        /**
+         * Runs of the current line.
+         */
+        private List<HighlightedCode.TokenRun> currentRuns = new ArrayList<>();
+
+        RTFListener() {
+            // Add the default color (index 0).
+            colors.add(new Color(0.0, 0.0, 0.0));
+        }
+
+        /**
+         * Get the read highlighted code.
+         *
+         * @return highlighted code
+         */
+        HighlightedCode getResult() {
+            return new HighlightedCode(styles, lines);
+        }
+
+        @Override
+        public void processDocumentStart() {
+            // Do nothing.
+        }
+
+        @Override
+        public void processDocumentEnd() {
+            if (!currentRuns.isEmpty()) {
+                breakLine();
+            }
+        }
+
+        @Override
+        public void processGroupStart() {
+            ctxStack.push(new RTFGroupContext(ctxStack.isEmpty() ? null : ctxStack.peek()));
+        }
+
+        @Override
+        public void processGroupEnd() {
+            if (isParseColors) {
+                isParseColors = false;
+            }
+
+            ctxStack.pop();
+        }
+
+        @Override
+        public void processCharacterBytes(byte[] data) {
+            // Do nothing.
+        }
+
+        @Override
+        public void processBinaryBytes(byte[] data) {
+            // Do nothing.
+        }
+
+        @Override
+        public void processString(String string) {
+            if (isParseColors) {
+                if (string.equals(";") && tmpBlue > -1) {
+                    colors.add(new Color(tmpRed / 255.0, tmpGreen / 255.0, tmpBlue / 255.0));
+                }
+            } else if (ctxStack.peek().isAcceptText()) {
+                RTFGroupContext curCtx = ctxStack.peek();
+
+                HighlightedCode.TokenStyle style = new HighlightedCode.TokenStyle(curCtx.getColor(), curCtx.isBold(), curCtx.isItalic());
+                int styleIndex = styleIndices.computeIfAbsent(style, s -> {
+                    styles.add(s);
+                    return styles.size() - 1;
+                });
+
+                currentRuns.add(new HighlightedCode.TokenRun(string, styleIndex));
+            }
+        }
+
+        @Override
+        public void processCommand(Command command, int parameter, boolean hasParameter, boolean optional) {
+            if (command.getCommandType() == CommandType.Destination) {
+                if (!command.getCommandName().equals("rtf")) {
+                    ctxStack.peek().setAcceptText(false);
+                }
+
+                if (command.getCommandName().equals("colortbl")) {
+                    isParseColors = true;
+                }
+            }
+
+            if (isParseColors) {
+                if (command.getCommandType() == CommandType.Value) {
+                    switch (command.getCommandName()) {
+                        case "red" -> tmpRed = parameter;
+                        case "green" -> tmpGreen = parameter;
+                        case "blue" -> tmpBlue = parameter;
+                    }
+                }
+
+                return;
+            }
+
+            switch (command.getCommandType()) {
+                case Symbol -> {
+                    if (command.getCommandName().equals("par") || command.getCommandName().equals("line")) {
+                        breakLine();
+                    }
+                }
+                case Value -> {
+                    if (command.getCommandName().equals("cf")) {
+                        // Set foreground color
+                        ctxStack.peek().setColor(colors.get(parameter));
+                    }
+                }
+                case Toggle -> {
+                    if (command.getCommandName().equals("b")) {
+                        ctxStack.peek().setBold(!hasParameter);
+                    } else if (command.getCommandName().equals("i")) {
+                        ctxStack.peek().setItalic(!hasParameter);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Finish the current line.
+         */
+        private void breakLine() {
+            lines.add(new HighlightedCode.Line(currentRuns));
+            currentRuns = new ArrayList<>();
+        }
+
+    }
+
+}
@@ -0,0 +1,190 @@
+package de.be.thaw.code.syntax.style;
+
+import de.be.thaw.code.syntax.HighlightedCode;
+import de.be.thaw.code.syntax.exception.HighlightException;
+import de.be.thaw.code.syntax.lexer.TokenType;
+import de.be.thaw.util.color.Color;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Style mapping token types to the color and font style they are formatted with.
+ * Styles are bundled as properties files mapping token type names to style definitions in the
+ * Pygments syntax (for example "Keyword=bold #008000").
+ * Token types without a definition inherit the style of their parent type.
+ */
+public class HighlightStyle {
+
+    /**
+     * Path of the bundled style definitions in the resources.
+     */
+    private static final String STYLE_PATH = "/syntax/styles/%s.properties";
+
+    /**
+     * Already loaded styles by their name.
+     */
+    private static final Map<String, HighlightStyle> STYLES = new ConcurrentHashMap<>();
+
+    /**
+     * Name of the style.
+     */
+    private final String name;
+
+    /**
+     * Resolved styles indexed by the token type ordinal.
+     */
+    private final HighlightedCode.TokenStyle[] tokenStyles;
+
+    private HighlightStyle(String name, HighlightedCode.TokenStyle[] tokenStyles) {
+        this.name = name;
+        this.tokenStyles = tokenStyles;
+    }
+
+    /**
+     * Get the bundled style with the passed name.
+     *
+     * @param name of the style (for example "default" or "monokai")
+     * @return the style or null in case the style is not bundled
+     * @throws HighlightException in case the style definition could not be read
+     */
+    @Nullable
+    public static HighlightStyle forName(String name) throws HighlightException {
+        HighlightStyle style = STYLES.get(name);
+        if (style != null) {
+            return style;
+        }
+
+        try (InputStream stream = HighlightStyle.class.getResourceAsStream(String.format(STYLE_PATH, name))) {
+            if (stream == null) {
+                return null;
+            }
+
+            Properties definitions = new Properties();
+            definitions.load(new InputStreamReader(stream, StandardCharsets.UTF_8));
+
+            style = new HighlightStyle(name, resolve(definitions));
+        } catch (IOException e) {
+            throw new HighlightException(String.format("Could not read the highlight style '%s'", name), e);
+        }
+
+        STYLES.putIfAbsent(name, style);
+
+        return style;
+    }
+
+    /**
+     * Resolve the style of every token type from the passed definitions.
+     *
+     * @param definitions by token type name
+     * @return the resolved styles indexed by token type ordinal
+     * @throws HighlightException in case a definition is malformed
+     */
+    private static HighlightedCode.TokenStyle[] resolve(Properties definitions) throws HighlightException {
+        HighlightedCode.TokenStyle[] styles = new HighlightedCode.TokenStyle[TokenType.values().length];
+
+        // Parent types are declared before their children -> the parent style is always resolved already
+        for (TokenType type : TokenType.values()) {
+            HighlightedCode.TokenStyle parentStyle = type.getParent() != null
+                    ? styles[type.getParent().ordinal()]
+                    : new HighlightedCode.TokenStyle(null, false, false);
+
+            String definition = definitions.getProperty(type.getName());
+            styles[type.ordinal()] = definition != null ? apply(parentStyle, definition) : parentStyle;
+        }
+
+        return styles;
+    }
+
+    /**
+     * Apply the passed style definition to the inherited style.
+     *
+     * @param inherited  style of the parent token type
+     * @param definition to apply (Pygments syntax)
+     * @return the resulting style
+     * @throws HighlightException in case the definition is malformed
+     */
+    private static HighlightedCode.TokenStyle apply(HighlightedCode.TokenStyle inherited, String definition) throws HighlightException {
+        Color color = inherited.getColor();
+        boolean bold = inherited.isBold();
+        boolean italic = inherited.isItalic();
+
+        for (String part : definition.trim().split("\\s+")) {
+            switch (part) {
+                case "" -> {
+                    // Empty definition -> keep the inherited style
+                }
+                case "noinherit" -> {
+                    color = null;
+                    bold = false;
+                    italic = false;
+                }
+                case "bold" -> bold = true;
+                case "nobold" -> bold = false;
+                case "italic" -> italic = true;
+                case "noitalic" -> italic = false;
+                default -> {
+                    if (part.startsWith("#")) {
+                        color = parseColor(part);
+                    }
+
+                    // Other attributes (background, border, underline, font family) are not supported when typesetting code
+                }
+            }
+        }
+
+        return new HighlightedCode.TokenStyle(color, bold, italic);
+    }
+
+    /**
+     * Parse the passed color in the form "#rgb" or "#rrggbb".
+     *
+     * @param str to parse
+     * @return the color
+     * @throws HighlightException in case the color is malformed
+     */
+    private static Color parseColor(String str) throws HighlightException {
+        String hex = str.substring(1);
+        if (hex.length() == 3) {
+            hex = new String(new char[]{hex.charAt(0), hex.charAt(0), hex.charAt(1), hex.charAt(1), hex.charAt(2), hex.charAt(2)});
+        }
+
+        if (hex.length() != 6) {
+            throw new HighlightException(String.format("Malformed color '%s' in highlight style", str));
+        }
+
+        int rgb;
+        try {
+            rgb = Integer.parseInt(hex, 16);
+        } catch (NumberFormatException e) {
+            throw new HighlightException(String.format("Malformed color '%s' in highlight style", str), e);
+        }
+
+        return new Color(
+                ((rgb >> 16) & 0xFF) / 255.0,
+                ((rgb >> 8) & 0xFF) / 255.0,
+                (rgb & 0xFF) / 255.0
+        );
+    }
+
+    /**
+     * Get the style tokens of the passed type are formatted with.
+     *
+     * @param type of the token
+     * @return the style
+     */
+    public HighlightedCode.TokenStyle getTokenStyle(TokenType type) {
+        return tokenStyles[type.ordinal()];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+}
@@ -1,7 +1,14 @@
 module de.be.thaw.code {
     exports de.be.thaw.code.syntax;
     exports de.be.thaw.code.syntax.impl;
+    exports de.be.thaw.code.syntax.cache;
     exports de.be.thaw.code.syntax.exception;
+    exports de.be.thaw.code.syntax.lexer;
+    exports de.be.thaw.code.syntax.lexer.impl;
+    exports de.be.thaw.code.syntax.style;
+    exports de.be.thaw.code.syntax.rtf;
     requires de.be.thaw.util;
+    requires org.jetbrains.annotations;
+    requires rtfparserkit;
     requires java.logging;
 }
@@ -0,0 +1,133 @@
+import struct
+import sys
+
+# Long-running worker highlighting code using the Pygments API.
+#
+# Every integer is a 4 byte big-endian signed integer, every string is encoded as
+# its length in bytes (integer) followed by its UTF-8 bytes.
+#
+# On start the worker writes a status byte (0 = ready, 1 = failed followed by an error message string)
+# followed by an empty string when ready.
+# Afterwards the worker reads batches until stdin is closed. A batch is the count of requests (integer)
+# followed by the language, style and code (strings) of every request.
+# For every request of a batch the worker writes a status byte (0 = success followed by the highlighted code string,
+# 1 = failed followed by an error message string) and flushes once the whole batch is answered.
+#
+# Highlighted code is written in the text format read by de.be.thaw.code.syntax.HighlightedCode:
+# the style palette (count followed by one "RRGGBB;flags" row per style) and the lines (count followed by one row per line
+# holding the tab-separated "style index:escaped text" runs).
+#
+# Usage: thaw_highlight_worker.py <path to the thaw lexer script>
+
+THAW_LANGUAGE = 'thaw'
+THAW_LEXER_CLASS_NAME = 'ThawLexer'
+CUSTOM_LEXER_CLASS_NAME = 'CustomLexer'
+
+
+def read_exactly(stream, size):
+    data = stream.read(size)
+    if data is None or len(data) < size:
+        raise EOFError()
+
+    return data
+
+
+def read_int(stream):
+    return struct.unpack('>i', read_exactly(stream, 4))[0]
+
+
+def read_string(stream):
+    return read_exactly(stream, read_int(stream)).decode('utf-8')
+
+
+def escape(text):
+    return text.replace('\\', '\\\\').replace('\t', '\\t').replace('\n', '\\n').replace('\r', '\\r')
+
+
+def format_tokens(tokens, style):
+    palette = {}
+    lines = [[]]
+    for token_type, value in tokens:
+        token_style = style.style_for_token(token_type)
+        key = (token_style['color'] or '', bool(token_style['bold']), bool(token_style['italic']))
+        index = palette.setdefault(key, len(palette))
+
+        for i, part in enumerate(value.split('\n')):
+            if i > 0:
+                lines.append([])
+
+            if part:
+                runs = lines[-1]
+                if runs and runs[-1][0] == index:
+                    runs[-1][1] += part  # Merge with the previous equally styled run
+                else:
+                    runs.append([index, part])
+
+    if not lines[-1]:
+        lines.pop()  # Code ends with a line break
+
+    rows = [str(len(palette))]
+    for color, bold, italic in palette:
+        rows.append('%s;%s%s' % (color.upper(), 'b' if bold else '', 'i' if italic else ''))
+    rows.append(str(len(lines)))
+    for runs in lines:
+        rows.append('\t'.join('%d:%s' % (index, escape(text)) for index, text in runs))
+
+    return '\n'.join(rows) + '\n'
+
+
+def write_result(stream, status, value):
+    data = value.encode('utf-8')
+    stream.write(struct.pack('>bi', status, len(data)))
+    stream.write(data)
+
+
+def main():
+    stdin = sys.stdin.buffer
+    stdout = sys.stdout.buffer
+
+    try:
+        from pygments.lexers import get_lexer_by_name, load_lexer_from_file
+        from pygments.styles import get_style_by_name
+
+        thaw_lexer_class = type(load_lexer_from_file(sys.argv[1], THAW_LEXER_CLASS_NAME))
+    except Exception as e:
+        write_result(stdout, 1, '%s: %s' % (type(e).__name__, e))
+        stdout.flush()
+        return
+
+    def create_lexer(language, style):
+        if language == THAW_LANGUAGE:
+            return thaw_lexer_class(style=style)
+
+        if language.endswith('.py'):
+            return load_lexer_from_file(language, CUSTOM_LEXER_CLASS_NAME, style=style)
+
+        if '.py:' in language:
+            path, name = language.rsplit(':', 1)
+            return load_lexer_from_file(path, name, style=style)
+
+        return get_lexer_by_name(language, style=style)
+
+    write_result(stdout, 0, '')
+    stdout.flush()
+
+    while True:
+        try:
+            count = read_int(stdin)
+            requests = [(read_string(stdin), read_string(stdin), read_string(stdin)) for _ in range(count)]
+        except EOFError:
+            return
+
+        for language, style, code in requests:
+            try:
+                tokens = create_lexer(language, style).get_tokens(code)
+                write_result(stdout, 0, format_tokens(tokens, get_style_by_name(style)))
+            except Exception as e:
+                write_result(stdout, 1, '%s: %s' % (type(e).__name__, e))
+
+        stdout.flush()
+
+
+if __name__ == '__main__':
+    main()
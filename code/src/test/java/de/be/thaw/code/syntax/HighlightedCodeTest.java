@@ -0,0 +1,162 @@
+package de.be.thaw.code.syntax;
+
+import de.be.thaw.code.syntax.exception.HighlightException;
+import de.be.thaw.util.color.Color;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class HighlightedCodeTest {
+
+    @Test
+    public void roundTripSpecialCharacters() throws HighlightException {
+        HighlightedCode code = new HighlightedCode(
+                List.of(
+                        new HighlightedCode.TokenStyle(null, false, false),
+                        new HighlightedCode.TokenStyle(new Color(1.0, 0.0, 0.0), true, false),
+                        new HighlightedCode.TokenStyle(new Color(0.0, 0.5019607843137255, 1.0), false, true),
+                        new HighlightedCode.TokenStyle(new Color(0.2, 0.4, 0.6), true, true)
+                ),
+                List.of(
+                        line(run("\tindented", 0), run("\t\t", 1)),
+                        line(run("C:\\path\\to\\file", 2), run("\\", 3), run("\\t is no tab", 0)),
+                        line(run("line\nfeed", 1), run("carriage\rreturn", 2), run("\r\n", 3)),
+                        line(),
+                        line(run("", 0)),
+                        line(run("", 1), run("between empty runs", 2), run("", 3)),
+                        line(run("colon: 1:2", 1), run("3:", 0)),
+                        line(run("unicode \u00e4\u00f6\u00fc \u4e2d\u6587 \ud83d\ude00", 3))
+                )
+        );
+
+        String written = code.write();
+        HighlightedCode read = HighlightedCode.read(written);
+
+        assertSameCode(code, read);
+        Assertions.assertEquals(written, read.write());
+
+        // Every line of highlighted code is a single row of the text format
+        Assertions.assertEquals(1 + 4 + 1 + 8 + 1, written.split("\n", -1).length);
+    }
+
+    @Test
+    public void roundTripEmptyCode() throws HighlightException {
+        HighlightedCode code = new HighlightedCode(List.of(), List.of());
+
+        assertSameCode(code, HighlightedCode.read(code.write()));
+    }
+
+    @Test
+    public void roundTripRandomText() throws HighlightException {
+        Random random = new Random(42);
+        char[] alphabet = {'a', 'Z', ' ', '\t', '\n', '\r', '\\', ':', ';', '0', '9', '\u00df'};
+
+        List<HighlightedCode.TokenStyle> styles = List.of(
+                new HighlightedCode.TokenStyle(null, false, false),
+                new HighlightedCode.TokenStyle(new Color(0.0, 0.0, 0.0), true, true)
+        );
+
+        for (int run = 0; run < 200; run++) {
+            List<HighlightedCode.Line> lines = new ArrayList<>();
+
+            int lineCount = random.nextInt(10);
+            for (int l = 0; l < lineCount; l++) {
+                List<HighlightedCode.TokenRun> runs = new ArrayList<>();
+
+                int runCount = random.nextInt(6);
+                for (int r = 0; r < runCount; r++) {
+                    StringBuilder sb = new StringBuilder();
+                    int length = random.nextInt(8);
+                    for (int i = 0; i < length; i++) {
+                        sb.append(alphabet[random.nextInt(alphabet.length)]);
+                    }
+
+                    runs.add(new HighlightedCode.TokenRun(sb.toString(), random.nextInt(styles.size())));
+                }
+
+                lines.add(new HighlightedCode.Line(runs));
+            }
+
+            HighlightedCode code = new HighlightedCode(styles, lines);
+            assertSameCode(code, HighlightedCode.read(code.write()));
+        }
+    }
+
+    @Test
+    public void readPygmentsWorkerOutput() throws HighlightException {
+        // Output as written by the Pygments worker script
+        HighlightedCode code = HighlightedCode.read("2\n" +
+                ";\n" +
+                "008000;b\n" +
+                "2\n" +
+                "1:public\t0: \\\\ \\t\n" +
+                "\n");
+
+        Assertions.assertEquals(2, code.getStyles().size());
+        Assertions.assertNull(code.getStyles().get(0).getColor());
+        Assertions.assertTrue(code.getStyles().get(1).isBold());
+        Assertions.assertFalse(code.getStyles().get(1).isItalic());
+        Assertions.assertEquals(new Color(0.0, 128 / 255.0, 0.0), code.getStyles().get(1).getColor());
+
+        Assertions.assertEquals(2, code.getLines().size());
+        Assertions.assertEquals("public", code.getLines().get(0).getRuns().get(0).getText());
+        Assertions.assertEquals(" \\ \t", code.getLines().get(0).getRuns().get(1).getText());
+        Assertions.assertTrue(code.getLines().get(1).getRuns().isEmpty());
+    }
+
+    @Test
+    public void rejectMalformedInput() {
+        Assertions.assertThrows(HighlightException.class, () -> HighlightedCode.read(""));
+        Assertions.assertThrows(HighlightException.class, () -> HighlightedCode.read("1\n;\n2\n"));
+        Assertions.assertThrows(HighlightException.class, () -> HighlightedCode.read("1\n;\n1\n1:out of palette\n"));
+        Assertions.assertThrows(HighlightException.class, () -> HighlightedCode.read("1\n;\n1\nno style index\n"));
+        Assertions.assertThrows(HighlightException.class, () -> HighlightedCode.read("1\nXYZ;\n0\n"));
+    }
+
+    /**
+     * Assert that the passed highlighted code is the same.
+     *
+     * @param expected code
+     * @param actual   code
+     */
+    private static void assertSameCode(HighlightedCode expected, HighlightedCode actual) {
+        Assertions.assertEquals(expected.getStyles(), actual.getStyles());
+
+        Assertions.assertEquals(expected.getLines().size(), actual.getLines().size());
+        for (int l = 0; l < expected.getLines().size(); l++) {
+            List<HighlightedCode.TokenRun> expectedRuns = expected.getLines().get(l).getRuns();
+            List<HighlightedCode.TokenRun> actualRuns = actual.getLines().get(l).getRuns();
+
+            Assertions.assertEquals(expectedRuns.size(), actualRuns.size(), String.format("Run count of line %d", l));
+            for (int r = 0; r < expectedRuns.size(); r++) {
+                Assertions.assertEquals(expectedRuns.get(r).getText(), actualRuns.get(r).getText());
+                Assertions.assertEquals(expectedRuns.get(r).getStyleIndex(), actualRuns.get(r).getStyleIndex());
+            }
+        }
+    }
+
+    /**
+     * Create a line of the passed runs.
+     *
+     * @param runs of the line
+     * @return line
+     */
+    private static HighlightedCode.Line line(HighlightedCode.TokenRun... runs) {
+        return new HighlightedCode.Line(List.of(runs));
+    }
+
+    /**
+     * Create a run.
+     *
+     * @param text       of the run
+     * @param styleIndex of the run
+     * @return run
+     */
+    private static HighlightedCode.TokenRun run(String text, int styleIndex) {
+        return new HighlightedCode.TokenRun(text, styleIndex);
+    }
+
+}
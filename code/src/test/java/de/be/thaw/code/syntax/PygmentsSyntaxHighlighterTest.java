@@ -0,0 +1,46 @@
+package de.be.thaw.code.syntax;
+
+import de.be.thaw.code.syntax.exception.HighlightException;
+import de.be.thaw.code.syntax.impl.PygmentsSyntaxHighlighter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Collectors;
+
+public class PygmentsSyntaxHighlighterTest {
+
+    @Disabled("Depends on environment")
+    @Test
+    public void simpleTest() throws HighlightException {
+        PygmentsSyntaxHighlighter highlighter = new PygmentsSyntaxHighlighter();
+
+        /*
+        TEST IS ONLY TO BE EXECUTED IF PYTHON AND PYGMENTS ARE INSTALLED ON THE MACHINE.
+         */
+
+        boolean executeTest;
+        try {
+            highlighter.checkIfToolsAvailable();
+            executeTest = true;
+        } catch (HighlightException e) {
+            executeTest = false;
+        }
+
+        if (executeTest) {
+            HighlightedCode result = highlighter.highlight("public interface SyntaxHighlighter {\n" +
+                    "   String highlight(String code, String language);\n" +
+                    "}", "java", "colorful");
+
+            Assertions.assertEquals(3, result.getLines().size());
+            Assertions.assertEquals("   String highlight(String code, String language);", result.getLines().get(1).getRuns().stream()
+                    .map(HighlightedCode.TokenRun::getText)
+                    .collect(Collectors.joining()));
+
+            HighlightedCode.TokenRun keyword = result.getLines().get(0).getRuns().get(0);
+            Assertions.assertEquals("public", keyword.getText());
+            Assertions.assertTrue(result.getStyles().get(keyword.getStyleIndex()).isBold());
+        }
+    }
+
+}
@@ -0,0 +1,172 @@
+package de.be.thaw.code.syntax.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class HighlightCacheTest {
+
+    @Test
+    public void hitAndMiss(@TempDir Path dir) throws IOException {
+        HighlightCache cache = new HighlightCache(dir.resolve("highlight").toFile(), HighlightCache.DEFAULT_MAX_SIZE);
+
+        Assertions.assertNull(cache.get("A"));
+        cache.put("A", "result of A");
+        Assertions.assertEquals("result of A", cache.get("A"));
+        Assertions.assertNull(cache.get("B"));
+
+        Assertions.assertEquals(1, cache.getHits());
+        Assertions.assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void resultsSurviveNewCacheInstance(@TempDir Path dir) throws IOException {
+        File folder = dir.resolve("highlight").toFile();
+        new HighlightCache(folder, HighlightCache.DEFAULT_MAX_SIZE).put("A", "result of A");
+
+        Assertions.assertEquals("result of A", new HighlightCache(folder, HighlightCache.DEFAULT_MAX_SIZE).get("A"));
+    }
+
+    @Test
+    public void defaultMaxSizeIs32MB() {
+        Assertions.assertEquals(32 * 1024 * 1024, HighlightCache.DEFAULT_MAX_SIZE);
+    }
+
+    @Test
+    public void leastRecentlyUsedResultsAreEvicted(@TempDir Path dir) throws IOException {
+        File folder = dir.resolve("highlight").toFile();
+        HighlightCache cache = new HighlightCache(folder, 300);
+
+        cache.put("A", "a".repeat(100));
+        cache.put("B", "b".repeat(100));
+        cache.put("C", "c".repeat(100));
+
+        // Make the access order explicit as the file system may only store modification times in seconds
+        setLastAccess(folder, "A", 1000);
+        setLastAccess(folder, "B", 2000);
+        setLastAccess(folder, "C", 3000);
+
+        cache.put("D", "d".repeat(100));
+
+        Assertions.assertNull(cache.get("A"));
+        Assertions.assertNotNull(cache.get("B"));
+        Assertions.assertNotNull(cache.get("C"));
+        Assertions.assertNotNull(cache.get("D"));
+        Assertions.assertTrue(sizeOf(folder) <= 300);
+    }
+
+    @Test
+    public void readingAResultCountsAsUse(@TempDir Path dir) throws IOException {
+        File folder = dir.resolve("highlight").toFile();
+        HighlightCache cache = new HighlightCache(folder, 300);
+
+        cache.put("A", "a".repeat(100));
+        cache.put("B", "b".repeat(100));
+        cache.put("C", "c".repeat(100));
+        setLastAccess(folder, "A", 1000);
+        setLastAccess(folder, "B", 2000);
+        setLastAccess(folder, "C", 3000);
+
+        Assertions.assertNotNull(cache.get("A")); // A is the most recently used result now
+
+        cache.put("D", "d".repeat(100));
+
+        Assertions.assertNotNull(cache.get("A"));
+        Assertions.assertNull(cache.get("B"));
+    }
+
+    @Test
+    public void existingResultsCountTowardsTheMaxSize(@TempDir Path dir) throws IOException {
+        File folder = dir.resolve("highlight").toFile();
+        new HighlightCache(folder, 1000).put("A", "a".repeat(200));
+        setLastAccess(folder, "A", 1000);
+
+        HighlightCache cache = new HighlightCache(folder, 300);
+        cache.put("B", "b".repeat(200));
+
+        Assertions.assertNull(cache.get("A"));
+        Assertions.assertNotNull(cache.get("B"));
+    }
+
+    @Test
+    public void replacingAResultDoesNotCountTwice(@TempDir Path dir) throws IOException {
+        File folder = dir.resolve("highlight").toFile();
+        HighlightCache cache = new HighlightCache(folder, 300);
+
+        cache.put("A", "a".repeat(100));
+        cache.put("B", "b".repeat(100));
+        cache.put("B", "B".repeat(100));
+        cache.put("B", "b".repeat(150));
+
+        Assertions.assertEquals("a".repeat(100), cache.get("A"));
+        Assertions.assertEquals("b".repeat(150), cache.get("B"));
+    }
+
+    @Test
+    public void resultsAreWrittenAtomically(@TempDir Path dir) throws IOException {
+        File folder = dir.resolve("highlight").toFile();
+        HighlightCache cache = new HighlightCache(folder, HighlightCache.DEFAULT_MAX_SIZE);
+
+        cache.put("A", "first");
+        cache.put("A", "second");
+
+        // Only the result file is left, no temporary files
+        String[] names = folder.list();
+        Assertions.assertNotNull(names);
+        Assertions.assertArrayEquals(new String[]{"A.tokens"}, names);
+        Assertions.assertEquals("second", Files.readString(folder.toPath().resolve("A.tokens"), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void failedWriteLeavesNoTemporaryFile(@TempDir Path dir) throws IOException {
+        File folder = dir.resolve("highlight").toFile();
+        HighlightCache cache = new HighlightCache(folder, HighlightCache.DEFAULT_MAX_SIZE);
+        cache.put("A", "first");
+
+        // A non-empty folder in place of the result file cannot be replaced
+        Path blocked = folder.toPath().resolve("B.tokens");
+        Files.createDirectories(blocked.resolve("child"));
+
+        Assertions.assertThrows(IOException.class, () -> cache.put("B", "second"));
+
+        String[] names = folder.list();
+        Assertions.assertNotNull(names);
+        Arrays.sort(names);
+        Assertions.assertArrayEquals(new String[]{"A.tokens", "B.tokens"}, names);
+        Assertions.assertEquals("first", cache.get("A"));
+    }
+
+    /**
+     * Set the time of the last access to the result with the passed key.
+     *
+     * @param folder of the cache
+     * @param key    of the result
+     * @param time   of the last access
+     */
+    private static void setLastAccess(File folder, String key, long time) {
+        Assertions.assertTrue(new File(folder, key + ".tokens").setLastModified(time));
+    }
+
+    /**
+     * Get the size of all files in the passed folder.
+     *
+     * @param folder to get size of
+     * @return size in bytes
+     */
+    private static long sizeOf(File folder) {
+        long size = 0;
+        for (File file : folder.listFiles()) {
+            size += file.length();
+        }
+
+        return size;
+    }
+
+}
@@ -0,0 +1,177 @@
+package de.be.thaw.code.syntax.impl;
+
+import de.be.thaw.code.syntax.HighlightRequest;
+import de.be.thaw.code.syntax.HighlightedCode;
+import de.be.thaw.code.syntax.SyntaxHighlighter;
+import de.be.thaw.code.syntax.exception.HighlightException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BuiltInSyntaxHighlighterTest {
+
+    @Test
+    public void builtInLanguagesAndStylesDoNotUseTheFallback() throws HighlightException {
+        RecordingHighlighter fallback = new RecordingHighlighter(false);
+        BuiltInSyntaxHighlighter highlighter = new BuiltInSyntaxHighlighter(fallback);
+
+        for (String style : new String[]{"default", "colorful", "monokai"}) {
+            for (String language : new String[]{"java", "kotlin", "python", "json", "yaml", "xml", "bash", "sql", "thaw", "JAVA"}) {
+                Assertions.assertNotSame(RecordingHighlighter.RESULT, highlighter.highlight("a = 1", language, style));
+            }
+        }
+
+        Assertions.assertTrue(fallback.getLanguages().isEmpty());
+    }
+
+    @Test
+    public void unknownLanguagesAndStylesUseTheFallback() throws HighlightException {
+        RecordingHighlighter fallback = new RecordingHighlighter(false);
+        BuiltInSyntaxHighlighter highlighter = new BuiltInSyntaxHighlighter(fallback);
+
+        Assertions.assertSame(RecordingHighlighter.RESULT, highlighter.highlight("int a;", "c", "default"));
+        Assertions.assertSame(RecordingHighlighter.RESULT, highlighter.highlight("int a;", "java", "manni"));
+        Assertions.assertEquals(List.of("c", "java"), fallback.getLanguages());
+    }
+
+    @Test
+    public void unknownLanguagesFailWithoutFallback() throws HighlightException {
+        BuiltInSyntaxHighlighter highlighter = new BuiltInSyntaxHighlighter(null);
+
+        Assertions.assertThrows(HighlightException.class, () -> highlighter.highlight("int a;", "c", "default"));
+        Assertions.assertThrows(HighlightException.class, () -> highlighter.highlight("int a;", "java", "manni"));
+        Assertions.assertNotNull(highlighter.highlight("int a;", "java", "default"));
+        Assertions.assertTrue(highlighter.highlightAll(List.of(new HighlightRequest("int a;", "c", "default"))).isEmpty());
+    }
+
+    @Test
+    public void highlightAllOnlyPassesUnknownRequestsToTheFallback() throws HighlightException {
+        RecordingHighlighter fallback = new RecordingHighlighter(false);
+        BuiltInSyntaxHighlighter highlighter = new BuiltInSyntaxHighlighter(fallback);
+
+        HighlightRequest builtIn = new HighlightRequest("int a;", "java", "default");
+        HighlightRequest unknown = new HighlightRequest("int a;", "c", "default");
+        Map<HighlightRequest, HighlightedCode> results = highlighter.highlightAll(List.of(builtIn, unknown));
+
+        Assertions.assertEquals(2, results.size());
+        Assertions.assertNotSame(RecordingHighlighter.RESULT, results.get(builtIn));
+        Assertions.assertSame(RecordingHighlighter.RESULT, results.get(unknown));
+        Assertions.assertEquals(List.of("c"), fallback.getLanguages());
+    }
+
+    @Test
+    public void highlightAllKeepsBuiltInResultsWhenTheFallbackFails() throws HighlightException {
+        BuiltInSyntaxHighlighter highlighter = new BuiltInSyntaxHighlighter(new RecordingHighlighter(true));
+
+        HighlightRequest builtIn = new HighlightRequest("int a;", "java", "default");
+        HighlightRequest unknown = new HighlightRequest("int a;", "c", "default");
+        Map<HighlightRequest, HighlightedCode> results = highlighter.highlightAll(List.of(builtIn, unknown));
+
+        Assertions.assertEquals(1, results.size());
+        Assertions.assertNotNull(results.get(builtIn));
+    }
+
+    @Test
+    public void textIsPreparedLikePygments() throws HighlightException {
+        BuiltInSyntaxHighlighter highlighter = new BuiltInSyntaxHighlighter(null);
+
+        HighlightedCode code = highlighter.highlight("\n\r\nclass A {\r\n\tint a = \"x\";\r\n\n}\n\n", "java", "default");
+        Assertions.assertEquals(List.of("class A {", "    int a = \"x\";", "", "}"), lines(code));
+
+        for (HighlightedCode.Line line : code.getLines()) {
+            for (HighlightedCode.TokenRun run : line.getRuns()) {
+                Assertions.assertFalse(run.getText().isEmpty());
+                Assertions.assertTrue(run.getStyleIndex() >= 0 && run.getStyleIndex() < code.getStyles().size());
+            }
+        }
+    }
+
+    @Test
+    public void textRoundTrip() throws HighlightException {
+        BuiltInSyntaxHighlighter highlighter = new BuiltInSyntaxHighlighter(null);
+
+        String source = "/**\n * Doc\n */\n@Test\npublic void test() {\n    String s = \"\\\"\\u00e4\";\n    /* open\n}";
+        for (String language : new String[]{"java", "kotlin", "python", "json", "yaml", "xml", "bash", "sql", "thaw"}) {
+            Assertions.assertEquals(source, String.join("\n", lines(highlighter.highlight(source, language, "colorful"))), language);
+        }
+    }
+
+    /**
+     * Get the text of the lines of the passed highlighted code.
+     *
+     * @param code to get the lines of
+     * @return text of the lines
+     */
+    private static List<String> lines(HighlightedCode code) {
+        List<String> result = new ArrayList<>();
+        for (HighlightedCode.Line line : code.getLines()) {
+            StringBuilder sb = new StringBuilder();
+            for (HighlightedCode.TokenRun run : line.getRuns()) {
+                sb.append(run.getText());
+            }
+
+            result.add(sb.toString());
+        }
+
+        return result;
+    }
+
+    /**
+     * Fallback highlighter recording the languages it has been asked to highlight.
+     */
+    private static class RecordingHighlighter implements SyntaxHighlighter {
+
+        /**
+         * Result returned for every request.
+         */
+        static final HighlightedCode RESULT = new HighlightedCode(List.of(), List.of());
+
+        /**
+         * Whether to fail all requests.
+         */
+        private final boolean fail;
+
+        /**
+         * Languages of the requests.
+         */
+        private final List<String> languages = new ArrayList<>();
+
+        RecordingHighlighter(boolean fail) {
+            this.fail = fail;
+        }
+
+        @Override
+        public HighlightedCode highlight(String code, String language, String style) throws HighlightException {
+            languages.add(language);
+            if (fail) {
+                throw new HighlightException("Fallback failed");
+            }
+
+            return RESULT;
+        }
+
+        @Override
+        public Map<HighlightRequest, HighlightedCode> highlightAll(List<HighlightRequest> requests) throws HighlightException {
+            if (fail) {
+                throw new HighlightException("Fallback failed");
+            }
+
+            Map<HighlightRequest, HighlightedCode> results = new HashMap<>();
+            for (HighlightRequest request : requests) {
+                results.put(request, highlight(request.getCode(), request.getLanguage(), request.getStyle()));
+            }
+
+            return results;
+        }
+
+        List<String> getLanguages() {
+            return languages;
+        }
+
+    }
+
+}
@@ -0,0 +1,90 @@
+package de.be.thaw.code.syntax.impl;
+
+import de.be.thaw.code.syntax.HighlightRequest;
+import de.be.thaw.code.syntax.HighlightedCode;
+import de.be.thaw.code.syntax.cache.HighlightCache;
+import de.be.thaw.code.syntax.exception.HighlightException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class PygmentsSyntaxHighlighterCacheTest {
+
+    @Test
+    public void keyIsStable() {
+        PygmentsSyntaxHighlighter highlighter = new PygmentsSyntaxHighlighter();
+
+        String key = highlighter.getCacheKey(new HighlightRequest("int a = 1;", "java", "colorful"));
+        Assertions.assertNotNull(key);
+        Assertions.assertEquals(key, highlighter.getCacheKey(new HighlightRequest("int a = 1;", "java", "colorful")));
+        Assertions.assertEquals(key, new PygmentsSyntaxHighlighter().getCacheKey(new HighlightRequest("int a = 1;", "java", "colorful")));
+    }
+
+    @Test
+    public void keyChangesWithSourceLanguageAndStyle() {
+        PygmentsSyntaxHighlighter highlighter = new PygmentsSyntaxHighlighter();
+
+        String key = highlighter.getCacheKey(new HighlightRequest("int a = 1;", "java", "colorful"));
+        Assertions.assertNotEquals(key, highlighter.getCacheKey(new HighlightRequest("int a = 2;", "java", "colorful")));
+        Assertions.assertNotEquals(key, highlighter.getCacheKey(new HighlightRequest("int a = 1;", "c", "colorful")));
+        Assertions.assertNotEquals(key, highlighter.getCacheKey(new HighlightRequest("int a = 1;", "java", "monokai")));
+    }
+
+    @Test
+    public void thawLanguageAliasesShareKey() {
+        PygmentsSyntaxHighlighter highlighter = new PygmentsSyntaxHighlighter();
+
+        Assertions.assertEquals(
+                highlighter.getCacheKey(new HighlightRequest("# Heading", "thaw", "colorful")),
+                highlighter.getCacheKey(new HighlightRequest("# Heading", "tdt", "colorful"))
+        );
+    }
+
+    @Test
+    public void keyChangesWithCustomLexerScript(@TempDir Path dir) throws IOException {
+        PygmentsSyntaxHighlighter highlighter = new PygmentsSyntaxHighlighter();
+        highlighter.setWorkingDirectory(dir.toFile());
+
+        Path script = dir.resolve("lexer.py");
+        Files.writeString(script, "# Version 1");
+        HighlightRequest request = new HighlightRequest("code", "lexer.py:CustomLexer", "colorful");
+        String key = highlighter.getCacheKey(request);
+
+        Files.writeString(script, "# Version 2");
+        Assertions.assertNotEquals(key, highlighter.getCacheKey(request));
+
+        // Missing scripts are not cached at all to let Pygments report the problem
+        Files.delete(script);
+        Assertions.assertNull(highlighter.getCacheKey(request));
+    }
+
+    @Test
+    public void resultsAreTakenFromTheCache(@TempDir Path dir) throws IOException, HighlightException {
+        PygmentsSyntaxHighlighter highlighter = new PygmentsSyntaxHighlighter();
+        HighlightCache cache = new HighlightCache(dir.toFile(), HighlightCache.DEFAULT_MAX_SIZE);
+        highlighter.setCache(cache);
+
+        // Code unique to this test so the in-memory results shared by all highlighters do not answer the request
+        HighlightRequest request = new HighlightRequest("cached " + System.nanoTime(), "java", "colorful");
+        HighlightedCode expected = new HighlightedCode(
+                List.of(new HighlightedCode.TokenStyle(null, true, false)),
+                List.of(new HighlightedCode.Line(List.of(new HighlightedCode.TokenRun(request.getCode(), 0))))
+        );
+        cache.put(highlighter.getCacheKey(request), expected.write());
+
+        // Does not need Pygments as the result is cached
+        HighlightedCode result = highlighter.highlight(request.getCode(), request.getLanguage(), request.getStyle());
+        Assertions.assertEquals(expected.write(), result.write());
+        Assertions.assertEquals(1, cache.getHits());
+
+        // Another style misses the cached result
+        String otherStyleKey = highlighter.getCacheKey(new HighlightRequest(request.getCode(), "java", "monokai"));
+        Assertions.assertNull(cache.get(otherStyleKey));
+    }
+
+}
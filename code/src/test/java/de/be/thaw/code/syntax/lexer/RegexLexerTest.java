@@ -0,0 +1,155 @@
+package de.be.thaw.code.syntax.lexer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static de.be.thaw.code.syntax.lexer.RegexLexer.*;
+
+public class RegexLexerTest {
+
+    @Test
+    public void pushAndPopStates() {
+        // "(" pushes a state that is popped again by ")" -> nested parentheses are counted
+        RegexLexer lexer = new TestLexer(
+                state(ROOT_STATE,
+                        rule("\\(", TokenType.PUNCTUATION, "paren"),
+                        rule("[a-z]+", TokenType.NAME)
+                ),
+                state("paren",
+                        rule("\\(", TokenType.PUNCTUATION, PUSH),
+                        rule("\\)", TokenType.PUNCTUATION, POP),
+                        rule("[a-z]+", TokenType.STRING)
+                )
+        );
+
+        Assertions.assertEquals(List.of(
+                "NAME a", "PUNCTUATION (", "STRING b", "PUNCTUATION (", "STRING c",
+                "PUNCTUATION )", "STRING d", "PUNCTUATION )", "NAME e"
+        ), format(lexer.tokenize("a(b(c)d)e")));
+    }
+
+    @Test
+    public void popMultipleStates() {
+        RegexLexer lexer = new TestLexer(
+                state(ROOT_STATE,
+                        rule("<", TokenType.PUNCTUATION, "first"),
+                        rule("[a-z]", TokenType.NAME)
+                ),
+                state("first",
+                        rule("<", TokenType.PUNCTUATION, "second"),
+                        rule("[a-z]", TokenType.STRING)
+                ),
+                state("second",
+                        rule(">", TokenType.PUNCTUATION, "#pop:2"),
+                        rule("[a-z]", TokenType.NUMBER)
+                )
+        );
+
+        Assertions.assertEquals(List.of(
+                "PUNCTUATION <", "STRING a", "PUNCTUATION <", "NUMBER b", "PUNCTUATION >", "NAME c"
+        ), format(lexer.tokenize("<a<b>c")));
+
+        // The root state is never popped
+        Assertions.assertEquals(List.of(
+                "PUNCTUATION <", "PUNCTUATION <", "PUNCTUATION >", "ERROR >", "NAME a"
+        ), format(lexer.tokenize("<<>>a")));
+    }
+
+    @Test
+    public void groupsAndIncludes() {
+        RegexLexer lexer = new TestLexer(
+                state(ROOT_STATE,
+                        include("common"),
+                        rule("(x)(\\s*)(=)", groups(TokenType.NAME_VARIABLE, TokenType.TEXT, TokenType.OPERATOR))
+                ),
+                state("common",
+                        rule("[0-9]+", TokenType.NUMBER)
+                )
+        );
+
+        // Empty groups do not emit tokens
+        Assertions.assertEquals(List.of(
+                "NUMBER 1", "NAME_VARIABLE x", "TEXT  ", "OPERATOR =", "NAME_VARIABLE x", "OPERATOR =", "NUMBER 2"
+        ), format(lexer.tokenize("1x =x=2")));
+    }
+
+    @Test
+    public void fallbackChangesStateWithoutConsuming() {
+        RegexLexer lexer = new TestLexer(
+                state(ROOT_STATE,
+                        rule("def ", TokenType.KEYWORD, "name"),
+                        rule("[a-z(]", TokenType.TEXT)
+                ),
+                state("name",
+                        rule("[a-z]+", TokenType.NAME_FUNCTION, POP),
+                        fallback(POP)
+                )
+        );
+
+        Assertions.assertEquals(List.of("KEYWORD def ", "NAME_FUNCTION f", "TEXT ("), format(lexer.tokenize("def f(")));
+        Assertions.assertEquals(List.of("KEYWORD def ", "TEXT ("), format(lexer.tokenize("def (")));
+    }
+
+    @Test
+    public void unmatchedCharacters() {
+        RegexLexer lexer = new TestLexer(
+                state(ROOT_STATE,
+                        rule("\"", TokenType.STRING, "string"),
+                        rule("[a-z]+", TokenType.NAME),
+                        rule("", TokenType.TEXT) // Empty match without state change must be skipped
+                ),
+                state("string",
+                        rule("[a-z]+", TokenType.STRING),
+                        rule("\"", TokenType.STRING, POP)
+                )
+        );
+
+        // Unmatched characters are errors, an unmatched line break resets to the root state
+        Assertions.assertEquals(List.of(
+                "STRING \"", "STRING a", "ERROR !", "WHITESPACE \n", "NAME b", "ERROR !"
+        ), format(lexer.tokenize("\"a!\nb!")));
+    }
+
+    @Test
+    public void invalidDefinitions() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TestLexer(
+                state("other", rule("a", TokenType.TEXT))
+        ));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TestLexer(
+                state(ROOT_STATE, include("missing"))
+        ));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TestLexer(
+                state(ROOT_STATE, rule("a", TokenType.TEXT, "missing"))
+        ));
+    }
+
+    /**
+     * Format the passed tokens for comparison.
+     *
+     * @param tokens to format
+     * @return formatted tokens
+     */
+    private static List<String> format(List<Token> tokens) {
+        List<String> result = new ArrayList<>();
+        for (Token token : tokens) {
+            result.add(token.getType() + " " + token.getText());
+        }
+
+        return result;
+    }
+
+    /**
+     * Lexer defined by the passed states.
+     */
+    private static class TestLexer extends RegexLexer {
+
+        TestLexer(State... states) {
+            super(aliases("test"), 0, states);
+        }
+
+    }
+
+}
@@ -0,0 +1,124 @@
+package de.be.thaw.code.syntax.lexer.impl;
+
+import de.be.thaw.code.syntax.lexer.Lexer;
+import de.be.thaw.code.syntax.lexer.Token;
+import de.be.thaw.code.syntax.lexer.TokenType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Base of the lexer tests.
+ * Checks that the tokens of a lexer always cover the whole code, also for incomplete and random code.
+ */
+abstract class AbstractLexerTest {
+
+    /**
+     * Characters random code is made of (mostly characters having a meaning to some lexer).
+     */
+    private static final String RANDOM_CHARS = "aZ_$09 \t\n\r\"'`\\/*#@!?:;,.=+-<>()[]{}&|%^~\u00e4";
+
+    /**
+     * Create the lexer to test.
+     *
+     * @return lexer
+     */
+    abstract Lexer createLexer();
+
+    /**
+     * Get sample code using most rules of the lexer.
+     *
+     * @return sample code
+     */
+    abstract String getSample();
+
+    @Test
+    public void sampleRoundTrip() {
+        tokenize(getSample());
+    }
+
+    @Test
+    public void incompleteSampleRoundTrip() {
+        // Every prefix of the sample contains an unterminated construct at some point
+        String sample = getSample();
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            for (int i = 0; i < sample.length(); i++) {
+                tokenize(sample.substring(0, i));
+            }
+        });
+    }
+
+    @Test
+    public void randomCodeRoundTrip() {
+        Random random = new Random(42);
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            for (int run = 0; run < 500; run++) {
+                StringBuilder code = new StringBuilder();
+                int length = random.nextInt(120);
+                for (int i = 0; i < length; i++) {
+                    code.append(RANDOM_CHARS.charAt(random.nextInt(RANDOM_CHARS.length())));
+                }
+
+                tokenize(code.toString());
+            }
+        });
+    }
+
+    /**
+     * Tokenize the passed code and check that the tokens cover the whole code.
+     *
+     * @param code to tokenize
+     * @return the tokens
+     */
+    List<Token> tokenize(String code) {
+        List<Token> tokens = createLexer().tokenize(code);
+
+        StringBuilder text = new StringBuilder();
+        for (Token token : tokens) {
+            Assertions.assertFalse(token.getText().isEmpty(), "Lexer must not emit empty tokens");
+            text.append(token.getText());
+        }
+        Assertions.assertEquals(code, text.toString(), "Tokens must cover the whole code");
+
+        return tokens;
+    }
+
+    /**
+     * Check that the passed code is split into the expected tokens.
+     * Tokens consisting of whitespace only are ignored.
+     *
+     * @param code     to tokenize
+     * @param expected token type and text pairs
+     */
+    void assertTokens(String code, Object... expected) {
+        List<String> expectedTokens = new ArrayList<>();
+        for (int i = 0; i < expected.length; i += 2) {
+            expectedTokens.add(format((TokenType) expected[i], (String) expected[i + 1]));
+        }
+
+        List<String> actualTokens = new ArrayList<>();
+        for (Token token : tokenize(code)) {
+            if (!token.getText().isBlank()) {
+                actualTokens.add(format(token.getType(), token.getText()));
+            }
+        }
+
+        Assertions.assertEquals(expectedTokens, actualTokens);
+    }
+
+    /**
+     * Format a token for comparison.
+     *
+     * @param type of the token
+     * @param text of the token
+     * @return formatted token
+     */
+    private static String format(TokenType type, String text) {
+        return type + " '" + text + "'";
+    }
+
+}
@@ -0,0 +1,160 @@
+package de.be.thaw.code.syntax.lexer.impl;
+
+import de.be.thaw.code.syntax.lexer.Lexer;
+import org.junit.jupiter.api.Test;
+
+import static de.be.thaw.code.syntax.lexer.TokenType.*;
+
+public class JavaLexerTest extends AbstractLexerTest {
+
+    @Override
+    Lexer createLexer() {
+        return new JavaLexer();
+    }
+
+    @Override
+    String getSample() {
+        return "package a.b;\n" +
+                "import static java.lang.Math.*;\n" +
+                "/* Multi\n   line */\n" +
+                "public class Foo extends Bar<String> {\n" +
+                "    // comment\n" +
+                "    private static final String S = \"a\\\"b\\\\n\";\n" +
+                "    @Override\n" +
+                "    public List<int[]> compute(int x) throws IOException {\n" +
+                "        char c = '\\n';\n" +
+                "        var list = new ArrayList<String>();\n" +
+                "        label: return x + 0x1F + 1_000L + 1.5e3f + 0b101 + 017;\n" +
+                "    }\n" +
+                "    String s = \"\"\"\n        text \"block\" \\t\n        \"\"\";\n" +
+                "}\n";
+    }
+
+    @Test
+    public void keywords() {
+        assertTokens("public static void main() { return null; }",
+                KEYWORD_DECLARATION, "public",
+                KEYWORD_DECLARATION, "static",
+                KEYWORD_TYPE, "void",
+                NAME_FUNCTION, "main",
+                PUNCTUATION, "(",
+                PUNCTUATION, ")",
+                PUNCTUATION, "{",
+                KEYWORD, "return",
+                KEYWORD_CONSTANT, "null",
+                PUNCTUATION, ";",
+                PUNCTUATION, "}"
+        );
+        assertTokens("class Foo",
+                KEYWORD_DECLARATION, "class",
+                NAME_CLASS, "Foo"
+        );
+        assertTokens("import java.util.*;",
+                KEYWORD_NAMESPACE, "import",
+                NAME_NAMESPACE, "java.util.*",
+                PUNCTUATION, ";"
+        );
+    }
+
+    @Test
+    public void methodDeclarationsAndCalls() {
+        assertTokens("List<String> names(int x)",
+                NAME, "List",
+                OPERATOR, "<",
+                NAME, "String",
+                OPERATOR, ">",
+                NAME_FUNCTION, "names",
+                PUNCTUATION, "(",
+                KEYWORD_TYPE, "int",
+                NAME, "x",
+                PUNCTUATION, ")"
+        );
+
+        // Constructor calls and method calls are no declarations
+        assertTokens("return new Foo(); foo(); a.bar()",
+                KEYWORD, "return",
+                KEYWORD, "new",
+                NAME, "Foo",
+                PUNCTUATION, "(",
+                PUNCTUATION, ")",
+                PUNCTUATION, ";",
+                NAME, "foo",
+                PUNCTUATION, "(",
+                PUNCTUATION, ")",
+                PUNCTUATION, ";",
+                NAME, "a",
+                PUNCTUATION, ".",
+                NAME_ATTRIBUTE, "bar",
+                PUNCTUATION, "(",
+                PUNCTUATION, ")"
+        );
+    }
+
+    @Test
+    public void stringsAndEscapes() {
+        assertTokens("\"a\\\"b\\\\\"",
+                STRING, "\"",
+                STRING, "a",
+                STRING_ESCAPE, "\\\"",
+                STRING, "b",
+                STRING_ESCAPE, "\\\\",
+                STRING, "\""
+        );
+        assertTokens("'x' '\\n' '\\u00e4'",
+                STRING_CHAR, "'x'",
+                STRING_CHAR, "'\\n'",
+                STRING_CHAR, "'\\u00e4'"
+        );
+        assertTokens("\"\"\"\nsome \"text\" \"\"\"",
+                STRING, "\"\"\"",
+                STRING, "\nsome ",
+                STRING, "\"",
+                STRING, "text",
+                STRING, "\"",
+                STRING, "\"\"\""
+        );
+    }
+
+    @Test
+    public void comments() {
+        assertTokens("x // rest\n/* a\nb */ y",
+                NAME, "x",
+                COMMENT_SINGLE, "// rest",
+                COMMENT_MULTILINE, "/* a\nb */",
+                NAME, "y"
+        );
+    }
+
+    @Test
+    public void numbers() {
+        assertTokens("42 1_000L 0x1F 0b101 017 1.5e3f .5 2d",
+                NUMBER_INTEGER, "42",
+                NUMBER_INTEGER, "1_000L",
+                NUMBER_HEX, "0x1F",
+                NUMBER_BIN, "0b101",
+                NUMBER_OCT, "017",
+                NUMBER_FLOAT, "1.5e3f",
+                NUMBER_FLOAT, ".5",
+                NUMBER_FLOAT, "2d"
+        );
+    }
+
+    @Test
+    public void unterminatedInput() {
+        // An unterminated string ends at the line break
+        assertTokens("\"open\nint x",
+                STRING, "\"",
+                STRING, "open",
+                KEYWORD_TYPE, "int",
+                NAME, "x"
+        );
+
+        // An unterminated block comment is no comment
+        assertTokens("/* open",
+                OPERATOR, "/",
+                OPERATOR, "*",
+                NAME, "open"
+        );
+    }
+
+}
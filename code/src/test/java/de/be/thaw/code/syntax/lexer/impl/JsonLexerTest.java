@@ -0,0 +1,91 @@
+package de.be.thaw.code.syntax.lexer.impl;
+
+import de.be.thaw.code.syntax.lexer.Lexer;
+import org.junit.jupiter.api.Test;
+
+import static de.be.thaw.code.syntax.lexer.TokenType.*;
+
+public class JsonLexerTest extends AbstractLexerTest {
+
+    @Override
+    Lexer createLexer() {
+        return new JsonLexer();
+    }
+
+    @Override
+    String getSample() {
+        return "{\n" +
+                "  // comment\n" +
+                "  \"key\": \"value \\\"quoted\\\" \u00e4\",\n" +
+                "  \"n\": -1.5e10,\n" +
+                "  \"i\": 42,\n" +
+                "  \"list\": [true, false, null, {}],\n" +
+                "  /* block */\n" +
+                "  \"last\": 0.5\n" +
+                "}\n";
+    }
+
+    @Test
+    public void keywords() {
+        assertTokens("[true, false, null]",
+                PUNCTUATION, "[",
+                KEYWORD_CONSTANT, "true",
+                PUNCTUATION, ",",
+                KEYWORD_CONSTANT, "false",
+                PUNCTUATION, ",",
+                KEYWORD_CONSTANT, "null",
+                PUNCTUATION, "]"
+        );
+    }
+
+    @Test
+    public void stringsAndEscapes() {
+        // Strings followed by a colon are keys
+        assertTokens("{\"a\\\"b\" : \"c\\\\\"}",
+                PUNCTUATION, "{",
+                NAME_TAG, "\"a\\\"b\"",
+                PUNCTUATION, ":",
+                STRING_DOUBLE, "\"c\\\\\"",
+                PUNCTUATION, "}"
+        );
+    }
+
+    @Test
+    public void comments() {
+        assertTokens("1 // rest\n/* a\nb */ 2",
+                NUMBER_INTEGER, "1",
+                COMMENT_SINGLE, "// rest",
+                COMMENT_MULTILINE, "/* a\nb */",
+                NUMBER_INTEGER, "2"
+        );
+    }
+
+    @Test
+    public void numbers() {
+        assertTokens("[0, -42, 1.5, -1.5e10, 2E-3]",
+                PUNCTUATION, "[",
+                NUMBER_INTEGER, "0",
+                PUNCTUATION, ",",
+                NUMBER_INTEGER, "-42",
+                PUNCTUATION, ",",
+                NUMBER_FLOAT, "1.5",
+                PUNCTUATION, ",",
+                NUMBER_FLOAT, "-1.5e10",
+                PUNCTUATION, ",",
+                NUMBER_FLOAT, "2E-3",
+                PUNCTUATION, "]"
+        );
+    }
+
+    @Test
+    public void unterminatedInput() {
+        // Characters of an unterminated string are errors up to the end of the line
+        assertTokens("\"ab\n1",
+                ERROR, "\"",
+                ERROR, "a",
+                ERROR, "b",
+                NUMBER_INTEGER, "1"
+        );
+    }
+
+}
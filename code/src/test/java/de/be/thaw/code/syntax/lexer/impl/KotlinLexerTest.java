@@ -0,0 +1,138 @@
+package de.be.thaw.code.syntax.lexer.impl;
+
+import de.be.thaw.code.syntax.lexer.Lexer;
+import org.junit.jupiter.api.Test;
+
+import static de.be.thaw.code.syntax.lexer.TokenType.*;
+
+public class KotlinLexerTest extends AbstractLexerTest {
+
+    @Override
+    Lexer createLexer() {
+        return new KotlinLexer();
+    }
+
+    @Override
+    String getSample() {
+        return "package a.b\n" +
+                "import kotlin.math.max\n" +
+                "// comment\n/* block */\n" +
+                "data class Point(val x: Int, var y: Double?) {\n" +
+                "    companion object\n" +
+                "    fun <T> List<T>.second(): T = this[1]\n" +
+                "    fun name() = \"x=$x, ${x + { 1 }()}\\nA\"\n" +
+                "    val c = 'c'\n" +
+                "    val n = 0xFF + 1_000L + 2.5e3f + 0b11\n" +
+                "}\n" +
+                "val raw = \"\"\"line \"one\"\n$x\"\"\"\n" +
+                "val z = a?.b ?: c!!::d\n";
+    }
+
+    @Test
+    public void keywords() {
+        assertTokens("override fun run(): Unit = if (it is String) return else null",
+                KEYWORD_DECLARATION, "override",
+                KEYWORD_DECLARATION, "fun",
+                NAME_FUNCTION, "run",
+                PUNCTUATION, "(",
+                PUNCTUATION, ")",
+                PUNCTUATION, ":",
+                KEYWORD_TYPE, "Unit",
+                OPERATOR, "=",
+                KEYWORD, "if",
+                PUNCTUATION, "(",
+                KEYWORD, "it",
+                KEYWORD, "is",
+                KEYWORD_TYPE, "String",
+                PUNCTUATION, ")",
+                KEYWORD, "return",
+                KEYWORD, "else",
+                KEYWORD_CONSTANT, "null"
+        );
+        assertTokens("class Foo val bar",
+                KEYWORD_DECLARATION, "class",
+                NAME_CLASS, "Foo",
+                KEYWORD_DECLARATION, "val",
+                NAME_PROPERTY, "bar"
+        );
+        assertTokens("fun <T> List<T>.second()",
+                KEYWORD_DECLARATION, "fun",
+                PUNCTUATION, "<",
+                NAME, "T",
+                PUNCTUATION, ">",
+                NAME_CLASS, "List",
+                PUNCTUATION, "<",
+                NAME, "T",
+                PUNCTUATION, ">",
+                PUNCTUATION, ".",
+                NAME_FUNCTION, "second",
+                PUNCTUATION, "(",
+                PUNCTUATION, ")"
+        );
+    }
+
+    @Test
+    public void stringsAndEscapes() {
+        assertTokens("\"a\\n\\$ $b ${c}\"",
+                STRING, "\"",
+                STRING, "a",
+                STRING_ESCAPE, "\\n",
+                STRING_ESCAPE, "\\$",
+                STRING_INTERPOL, "$b",
+                STRING_INTERPOL, "${",
+                NAME, "c",
+                STRING_INTERPOL, "}",
+                STRING, "\""
+        );
+        assertTokens("\"\"\"a\n\"b\" \"\"\"",
+                STRING, "\"\"\"",
+                STRING, "a\n",
+                STRING, "\"",
+                STRING, "b",
+                STRING, "\"",
+                STRING, "\"\"\""
+        );
+        assertTokens("'c' '\\t'",
+                STRING_CHAR, "'c'",
+                STRING_CHAR, "'\\t'"
+        );
+    }
+
+    @Test
+    public void comments() {
+        assertTokens("x // rest\n/* a\nb */ y",
+                NAME, "x",
+                COMMENT_SINGLE, "// rest",
+                COMMENT_MULTILINE, "/* a\nb */",
+                NAME, "y"
+        );
+    }
+
+    @Test
+    public void numbers() {
+        assertTokens("42 1_000L 0xFF 0b11 2.5e3f 7u",
+                NUMBER, "42",
+                NUMBER, "1_000L",
+                NUMBER, "0xFF",
+                NUMBER, "0b11",
+                NUMBER, "2.5e3f",
+                NUMBER, "7u"
+        );
+    }
+
+    @Test
+    public void unterminatedInput() {
+        assertTokens("\"open\nval x",
+                STRING, "\"",
+                STRING, "open",
+                KEYWORD_DECLARATION, "val",
+                NAME_PROPERTY, "x"
+        );
+        assertTokens("\"${x",
+                STRING, "\"",
+                STRING_INTERPOL, "${",
+                NAME, "x"
+        );
+    }
+
+}
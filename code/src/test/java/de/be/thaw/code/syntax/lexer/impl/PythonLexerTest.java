@@ -0,0 +1,149 @@
+package de.be.thaw.code.syntax.lexer.impl;
+
+import de.be.thaw.code.syntax.lexer.Lexer;
+import org.junit.jupiter.api.Test;
+
+import static de.be.thaw.code.syntax.lexer.TokenType.*;
+
+public class PythonLexerTest extends AbstractLexerTest {
+
+    @Override
+    Lexer createLexer() {
+        return new PythonLexer();
+    }
+
+    @Override
+    String getSample() {
+        return "#!/usr/bin/env python3\n" +
+                "\"\"\"Module doc.\"\"\"\n" +
+                "import os.path as p\n" +
+                "from a.b import c\n" +
+                "@decorator\n" +
+                "def __init__(self, x=1):\n" +
+                "    # comment\n" +
+                "    s = 'a\\'b\\n' + \"c\" + r\"raw\\d\" + b'bytes' + f\"{x}\" + '''x''' + rb'''y'''\n" +
+                "    t = \"\"\"triple\n\"quoted\" \"\"\"\n" +
+                "    return len(s) is not None and 0x1F + 0o17 + 0b1 + 1.5e-3 + 10j + 1_000\n" +
+                "class Foo(Exception):\n" +
+                "    pass\n";
+    }
+
+    @Test
+    public void keywords() {
+        assertTokens("def f(self):\n    return not None",
+                KEYWORD, "def",
+                NAME_FUNCTION, "f",
+                PUNCTUATION, "(",
+                NAME_BUILTIN_PSEUDO, "self",
+                PUNCTUATION, ")",
+                PUNCTUATION, ":",
+                KEYWORD, "return",
+                OPERATOR_WORD, "not",
+                KEYWORD_CONSTANT, "None"
+        );
+        assertTokens("class Foo(ValueError): print(len)",
+                KEYWORD, "class",
+                NAME_CLASS, "Foo",
+                PUNCTUATION, "(",
+                NAME_EXCEPTION, "ValueError",
+                PUNCTUATION, ")",
+                PUNCTUATION, ":",
+                NAME_BUILTIN, "print",
+                PUNCTUATION, "(",
+                NAME_BUILTIN, "len",
+                PUNCTUATION, ")"
+        );
+
+        // Attributes named like built-ins are no built-ins
+        assertTokens("x.len",
+                NAME, "x",
+                OPERATOR, ".",
+                NAME, "len"
+        );
+        assertTokens("from a.b import c",
+                KEYWORD_NAMESPACE, "from",
+                NAME_NAMESPACE, "a",
+                NAME_NAMESPACE, ".",
+                NAME_NAMESPACE, "b",
+                KEYWORD_NAMESPACE, "import",
+                NAME, "c"
+        );
+    }
+
+    @Test
+    public void stringsAndEscapes() {
+        assertTokens("'a\\'b\\n'",
+                STRING_SINGLE, "'",
+                STRING_SINGLE, "a",
+                STRING_ESCAPE, "\\'",
+                STRING_SINGLE, "b",
+                STRING_ESCAPE, "\\n",
+                STRING_SINGLE, "'"
+        );
+
+        // Raw strings have no escapes
+        assertTokens("r\"\\d\"",
+                STRING_AFFIX, "r",
+                STRING_DOUBLE, "\"",
+                STRING_DOUBLE, "\\",
+                STRING_DOUBLE, "d",
+                STRING_DOUBLE, "\""
+        );
+        assertTokens("x = \"\"\"a\n\"b\" \"\"\"",
+                NAME, "x",
+                OPERATOR, "=",
+                STRING_DOUBLE, "\"\"\"",
+                STRING_DOUBLE, "a\n",
+                STRING_DOUBLE, "\"",
+                STRING_DOUBLE, "b",
+                STRING_DOUBLE, "\"",
+                STRING_DOUBLE, "\"\"\""
+        );
+        assertTokens("\"\"\"Doc.\"\"\"",
+                STRING_DOC, "\"\"\"Doc.\"\"\""
+        );
+    }
+
+    @Test
+    public void comments() {
+        assertTokens("#!/bin/python\nx # rest",
+                COMMENT_HASHBANG, "#!/bin/python",
+                NAME, "x",
+                COMMENT_SINGLE, "# rest"
+        );
+    }
+
+    @Test
+    public void numbers() {
+        assertTokens("42 1_000 0x1F 0o17 0b1 1.5e-3 .5 10j",
+                NUMBER_INTEGER, "42",
+                NUMBER_INTEGER, "1_000",
+                NUMBER_HEX, "0x1F",
+                NUMBER_OCT, "0o17",
+                NUMBER_BIN, "0b1",
+                NUMBER_FLOAT, "1.5e-3",
+                NUMBER_FLOAT, ".5",
+                NUMBER_INTEGER, "10j"
+        );
+    }
+
+    @Test
+    public void unterminatedInput() {
+        assertTokens("x = \"open\ny = 2",
+                NAME, "x",
+                OPERATOR, "=",
+                STRING_DOUBLE, "\"",
+                STRING_DOUBLE, "open",
+                NAME, "y",
+                OPERATOR, "=",
+                NUMBER_INTEGER, "2"
+        );
+        assertTokens("x = '''open\ny",
+                NAME, "x",
+                OPERATOR, "=",
+                STRING_SINGLE, "'''",
+                STRING_SINGLE, "open\ny"
+        );
+    }
+
+}
@@ -0,0 +1,122 @@
+package de.be.thaw.code.syntax.lexer.impl;
+
+import de.be.thaw.code.syntax.lexer.Lexer;
+import org.junit.jupiter.api.Test;
+
+import static de.be.thaw.code.syntax.lexer.TokenType.*;
+
+public class ShellLexerTest extends AbstractLexerTest {
+
+    @Override
+    Lexer createLexer() {
+        return new ShellLexer();
+    }
+
+    @Override
+    String getSample() {
+        return "#!/bin/bash\n" +
+                "# comment\n" +
+                "export NAME=\"world $HOME ${USER:-x} $(pwd)\"\n" +
+                "if [ -f file ]; then echo 'single $x' && cd /tmp; fi\n" +
+                "count=$((1 + 2 * 0x10))\n" +
+                "for i in 1 2 3; do echo \"$i\" `date`; done\n" +
+                "echo \\$escaped $1 $? $'a\\'b'\n" +
+                "cat <<EOF\nheredoc\nEOF\n";
+    }
+
+    @Test
+    public void keywords() {
+        assertTokens("if test -f x; then echo x; fi",
+                KEYWORD, "if",
+                NAME_BUILTIN, "test",
+                TEXT, "-f",
+                TEXT, "x",
+                PUNCTUATION, ";",
+                KEYWORD, "then",
+                NAME_BUILTIN, "echo",
+                TEXT, "x",
+                PUNCTUATION, ";",
+                KEYWORD, "fi"
+        );
+        assertTokens("x=1 && y+=2",
+                NAME_VARIABLE, "x",
+                OPERATOR, "=",
+                NUMBER, "1",
+                OPERATOR, "&&",
+                NAME_VARIABLE, "y",
+                OPERATOR, "+=",
+                NUMBER, "2"
+        );
+    }
+
+    @Test
+    public void stringsAndEscapes() {
+        assertTokens("echo \"a $b ${c}\" 'no $d' \\$e",
+                NAME_BUILTIN, "echo",
+                STRING_DOUBLE, "\"",
+                STRING_DOUBLE, "a ",
+                NAME_VARIABLE, "$b",
+                STRING_INTERPOL, "${",
+                NAME_VARIABLE, "c",
+                STRING_INTERPOL, "}",
+                STRING_DOUBLE, "\"",
+                STRING_SINGLE, "'no $d'",
+                STRING_ESCAPE, "\\$",
+                TEXT, "e"
+        );
+
+        // Strings without interpolation are a single token
+        assertTokens("\"a\\\"b\"",
+                STRING_DOUBLE, "\"a\\\"b\""
+        );
+        assertTokens("x=$(pwd) `date`",
+                NAME_VARIABLE, "x",
+                OPERATOR, "=",
+                KEYWORD, "$(",
+                NAME_BUILTIN, "pwd",
+                KEYWORD, ")",
+                STRING_BACKTICK, "`",
+                TEXT, "date",
+                STRING_BACKTICK, "`"
+        );
+    }
+
+    @Test
+    public void comments() {
+        assertTokens("#!/bin/sh\nls # rest",
+                COMMENT_HASHBANG, "#!/bin/sh",
+                TEXT, "ls",
+                COMMENT_SINGLE, "# rest"
+        );
+    }
+
+    @Test
+    public void numbers() {
+        assertTokens("$((1 + 0x1F * 2#101))",
+                KEYWORD, "$((",
+                NUMBER, "1",
+                OPERATOR, "+",
+                NUMBER, "0x1F",
+                OPERATOR, "*",
+                NUMBER, "2#101",
+                KEYWORD, "))"
+        );
+    }
+
+    @Test
+    public void unterminatedInput() {
+        // Double quoted strings may span multiple lines
+        assertTokens("echo \"open\nls",
+                NAME_BUILTIN, "echo",
+                STRING_DOUBLE, "\"",
+                STRING_DOUBLE, "open\nls"
+        );
+        assertTokens("echo 'open\nls",
+                NAME_BUILTIN, "echo",
+                ERROR, "'",
+                TEXT, "open",
+                TEXT, "ls"
+        );
+    }
+
+}
@@ -0,0 +1,96 @@
+package de.be.thaw.code.syntax.lexer.impl;
+
+import de.be.thaw.code.syntax.lexer.Lexer;
+import org.junit.jupiter.api.Test;
+
+import static de.be.thaw.code.syntax.lexer.TokenType.*;
+
+public class SqlLexerTest extends AbstractLexerTest {
+
+    @Override
+    Lexer createLexer() {
+        return new SqlLexer();
+    }
+
+    @Override
+    String getSample() {
+        return "-- comment\n" +
+                "/* block /* nested */ still */\n" +
+                "SELECT name, COUNT(*) FROM users u WHERE u.age >= 18 AND name LIKE 'O''Brien' GROUP BY name;\n" +
+                "create table \"My Table\" (id INTEGER primary key, v varchar(10));\n";
+    }
+
+    @Test
+    public void keywords() {
+        // Keywords are case insensitive
+        assertTokens("select id from T where x is not null",
+                KEYWORD, "select",
+                NAME, "id",
+                KEYWORD, "from",
+                NAME, "T",
+                KEYWORD, "where",
+                NAME, "x",
+                KEYWORD, "is",
+                KEYWORD, "not",
+                KEYWORD, "null"
+        );
+        assertTokens("CAST(x AS VARCHAR)",
+                KEYWORD, "CAST",
+                PUNCTUATION, "(",
+                NAME, "x",
+                KEYWORD, "AS",
+                NAME_BUILTIN, "VARCHAR",
+                PUNCTUATION, ")"
+        );
+    }
+
+    @Test
+    public void strings() {
+        assertTokens("'O''Brien' \"quoted \"\" name\"",
+                STRING_SINGLE, "'O''Brien'",
+                STRING_SYMBOL, "\"quoted \"\" name\""
+        );
+    }
+
+    @Test
+    public void comments() {
+        assertTokens("x -- rest\n/* a /* b */ c */ y",
+                NAME, "x",
+                COMMENT_SINGLE, "-- rest\n",
+                COMMENT_MULTILINE, "/*",
+                COMMENT_MULTILINE, " a ",
+                COMMENT_MULTILINE, "/*",
+                COMMENT_MULTILINE, " b ",
+                COMMENT_MULTILINE, "*/",
+                COMMENT_MULTILINE, " c ",
+                COMMENT_MULTILINE, "*/",
+                NAME, "y"
+        );
+    }
+
+    @Test
+    public void numbers() {
+        assertTokens("LIMIT 10 OFFSET 20",
+                KEYWORD, "LIMIT",
+                NUMBER_INTEGER, "10",
+                KEYWORD, "OFFSET",
+                NUMBER_INTEGER, "20"
+        );
+    }
+
+    @Test
+    public void unterminatedInput() {
+        assertTokens("select 'open",
+                KEYWORD, "select",
+                ERROR, "'",
+                NAME, "open"
+        );
+
+        // An unterminated comment lasts until the end of the code
+        assertTokens("/* open\nselect",
+                COMMENT_MULTILINE, "/*",
+                COMMENT_MULTILINE, " open\nselect"
+        );
+    }
+
+}
@@ -0,0 +1,112 @@
+package de.be.thaw.code.syntax.lexer.impl;
+
+import de.be.thaw.code.syntax.lexer.Lexer;
+import org.junit.jupiter.api.Test;
+
+import static de.be.thaw.code.syntax.lexer.TokenType.*;
+
+public class ThawLexerTest extends AbstractLexerTest {
+
+    @Override
+    Lexer createLexer() {
+        return new ThawLexer();
+    }
+
+    @Override
+    String getSample() {
+        return "#H1# Title\n" +
+                "Some *italic* and **bold** text with _underline_ and `code`.\n" +
+                "Escaped \\* star and #REF, label=\"a\\\"b\", x='y'# here.\n" +
+                "**bold *and italic* bold** and *.custom styled*\n";
+    }
+
+    @Test
+    public void formatting() {
+        // Like the bundled Pygments lexer: the character after the end of italic text is still italic
+        assertTokens("a*b*c d",
+                TEXT, "a",
+                GENERIC_STRONG, "*",
+                GENERIC_EMPH, "b",
+                GENERIC_STRONG, "*",
+                GENERIC_EMPH, "c",
+                TEXT, "d"
+        );
+        assertTokens("**b**_u_`c`",
+                GENERIC_STRONG, "*",
+                GENERIC_STRONG, "*",
+                GENERIC_STRONG, "b",
+                GENERIC_STRONG, "*",
+                GENERIC_STRONG, "*",
+                GENERIC_EMPH, "_",
+                GENERIC_EMPH, "u",
+                GENERIC_EMPH, "_",
+                STRING_BACKTICK, "`",
+                STRING_BACKTICK, "c",
+                STRING_BACKTICK, "`"
+        );
+    }
+
+    @Test
+    public void thingies() {
+        assertTokens("#R, a=\"b\", c='d'#",
+                KEYWORD, "#",
+                GENERIC_STRONG, "R",
+                OPERATOR, ",",
+                GENERIC_EMPH, "a",
+                OPERATOR, "=",
+                STRING_DOUBLE, "\"",
+                STRING_DOUBLE, "b",
+                STRING_DOUBLE, "\"",
+                OPERATOR, ",",
+                GENERIC_EMPH, "c",
+                OPERATOR, "=",
+                STRING_SINGLE, "'",
+                STRING_SINGLE, "d",
+                STRING_SINGLE, "'",
+                KEYWORD, "#"
+        );
+    }
+
+    @Test
+    public void escapes() {
+        // Like the bundled Pygments lexer: the character after an escape sequence is highlighted as escaped as well
+        assertTokens("\\*ab\\#",
+                STRING_ESCAPE, "\\*",
+                STRING_ESCAPE, "a",
+                TEXT, "b",
+                STRING_ESCAPE, "\\#"
+        );
+        assertTokens("#R, a=\"\\\"\"#",
+                KEYWORD, "#",
+                GENERIC_STRONG, "R",
+                OPERATOR, ",",
+                GENERIC_EMPH, "a",
+                OPERATOR, "=",
+                STRING_DOUBLE, "\"",
+                STRING_ESCAPE, "\\",
+                STRING_ESCAPE, "\"",
+                STRING_DOUBLE, "\"",
+                KEYWORD, "#"
+        );
+    }
+
+    @Test
+    public void unterminatedInput() {
+        // Formatting lasts until the end of the code when not closed
+        assertTokens("*a\nb",
+                GENERIC_STRONG, "*",
+                GENERIC_EMPH, "a",
+                GENERIC_EMPH, "b"
+        );
+        assertTokens("#R, a=\"b",
+                KEYWORD, "#",
+                GENERIC_STRONG, "R",
+                OPERATOR, ",",
+                GENERIC_EMPH, "a",
+                OPERATOR, "=",
+                STRING_DOUBLE, "\"",
+                STRING_DOUBLE, "b"
+        );
+    }
+
+}
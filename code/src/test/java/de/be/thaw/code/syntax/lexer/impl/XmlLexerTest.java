@@ -0,0 +1,72 @@
+package de.be.thaw.code.syntax.lexer.impl;
+
+import de.be.thaw.code.syntax.lexer.Lexer;
+import org.junit.jupiter.api.Test;
+
+import static de.be.thaw.code.syntax.lexer.TokenType.*;
+
+public class XmlLexerTest extends AbstractLexerTest {
+
+    @Override
+    Lexer createLexer() {
+        return new XmlLexer();
+    }
+
+    @Override
+    String getSample() {
+        return "<?xml version=\"1.0\"?>\n" +
+                "<!DOCTYPE note>\n" +
+                "<!-- comment -->\n" +
+                "<note id=\"1\" lang='en' flag=yes>\n" +
+                "  <to>Tove &amp; Jani</to>\n" +
+                "  <![CDATA[ <raw> ]]>\n" +
+                "  <empty/>\n" +
+                "</note>\n";
+    }
+
+    @Test
+    public void tagsAndAttributes() {
+        assertTokens("<a x=\"1\" y='2' z=3>text &lt; more</a>",
+                NAME_TAG, "<a",
+                NAME_ATTRIBUTE, "x=",
+                STRING, "\"1\"",
+                NAME_ATTRIBUTE, "y=",
+                STRING, "'2'",
+                NAME_ATTRIBUTE, "z=",
+                STRING, "3",
+                NAME_TAG, ">",
+                TEXT, "text",
+                NAME_ENTITY, "&lt;",
+                TEXT, "more",
+                NAME_TAG, "</a>"
+        );
+        assertTokens("<empty />",
+                NAME_TAG, "<empty",
+                NAME_TAG, "/>"
+        );
+    }
+
+    @Test
+    public void comments() {
+        assertTokens("<!-- a\nb --><?pi x?><![CDATA[<c>]]>",
+                COMMENT_MULTILINE, "<!-- a\nb -->",
+                COMMENT_PREPROC, "<?pi x?>",
+                COMMENT_PREPROC, "<![CDATA[<c>]]>"
+        );
+    }
+
+    @Test
+    public void unterminatedInput() {
+        assertTokens("<a x=\"open",
+                NAME_TAG, "<a",
+                NAME_ATTRIBUTE, "x=",
+                STRING, "\"open"
+        );
+        assertTokens("<!-- open",
+                ERROR, "<",
+                TEXT, "!--",
+                TEXT, "open"
+        );
+    }
+
+}
@@ -0,0 +1,102 @@
+package de.be.thaw.code.syntax.lexer.impl;
+
+import de.be.thaw.code.syntax.lexer.Lexer;
+import org.junit.jupiter.api.Test;
+
+import static de.be.thaw.code.syntax.lexer.TokenType.*;
+
+public class YamlLexerTest extends AbstractLexerTest {
+
+    @Override
+    Lexer createLexer() {
+        return new YamlLexer();
+    }
+
+    @Override
+    String getSample() {
+        return "%YAML 1.2\n" +
+                "---\n" +
+                "# comment\n" +
+                "key: value\n" +
+                "\"quoted key\": 'single ''quoted'' value'\n" +
+                "list:\n" +
+                "  - item\n" +
+                "  - &anchor 1\n" +
+                "  - *anchor\n" +
+                "tagged: !!str 123\n" +
+                "text: |\n" +
+                "  literal\n" +
+                "flow: {a: 1, b: [x, y]}\n" +
+                "...\n";
+    }
+
+    @Test
+    public void keysAndValues() {
+        assertTokens("key: some value # rest",
+                NAME_TAG, "key",
+                PUNCTUATION, ":",
+                LITERAL, "some value",
+                COMMENT_SINGLE, "# rest"
+        );
+        assertTokens("- &a !!str x\n- *a",
+                PUNCTUATION, "-",
+                NAME_LABEL, "&a",
+                KEYWORD_TYPE, "!!str",
+                LITERAL, "x",
+                PUNCTUATION, "-",
+                NAME_VARIABLE, "*a"
+        );
+    }
+
+    @Test
+    public void flowCollections() {
+        assertTokens("{a: 1, b: [x, y]}",
+                PUNCTUATION, "{",
+                NAME_TAG, "a",
+                PUNCTUATION, ":",
+                LITERAL, "1",
+                PUNCTUATION, ",",
+                NAME_TAG, "b",
+                PUNCTUATION, ":",
+                PUNCTUATION, "[",
+                LITERAL, "x",
+                PUNCTUATION, ",",
+                LITERAL, "y",
+                PUNCTUATION, "]",
+                PUNCTUATION, "}"
+        );
+    }
+
+    @Test
+    public void stringsAndEscapes() {
+        assertTokens("\"a\\\"b\": 'it''s'",
+                NAME_TAG, "\"a\\\"b\"",
+                PUNCTUATION, ":",
+                STRING, "'it''s'"
+        );
+    }
+
+    @Test
+    public void documentMarkers() {
+        assertTokens("%YAML 1.2\n---\nx\n...",
+                NAME_TAG, "%YAML 1.2",
+                NAME_NAMESPACE, "---",
+                LITERAL, "x",
+                NAME_NAMESPACE, "..."
+        );
+    }
+
+    @Test
+    public void unterminatedInput() {
+        // An unterminated quoted scalar is a plain scalar
+        assertTokens("key: \"open\nnext: 1",
+                NAME_TAG, "key",
+                PUNCTUATION, ":",
+                LITERAL, "\"open",
+                NAME_TAG, "next",
+                PUNCTUATION, ":",
+                LITERAL, "1"
+        );
+    }
+
+}
@@ -1,13 +1,14 @@
 package de.be.thaw.core.document;
 
 import de.be.thaw.core.document.node.DocumentNode;
+import de.be.thaw.core.document.node.DocumentNodeIDGenerator;
 import de.be.thaw.core.document.util.PageRange;
 import de.be.thaw.info.ThawInfo;
 import de.be.thaw.reference.ReferenceModel;
 import de.be.thaw.style.model.StyleModel;
+import de.be.thaw.util.IntLookup;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -26,6 +27,11 @@ public class Document {
      */
     private final DocumentNode root;
 
+    /**
+     * Generator of the document node IDs.
+     */
+    private final DocumentNodeIDGenerator nodeIDGenerator;
+
     /**
      * Model managing references.
      */
@@ -39,7 +45,7 @@ public class Document {
     /**
      * Lookup of the document nodes by their ID.
      */
-    private final Map<String, DocumentNode> nodeLookup = new HashMap<>();
+    private final IntLookup<DocumentNode> nodeLookup;
 
     /**
      * Root node for headers (if any).
@@ -55,20 +61,22 @@ public class Document {
      * List of foot notes in the document.
      * Mapping from source document node ID to the foot note document node.
      */
-    private final Map<String, DocumentNode> footNotes;
+    private final Map<Integer, DocumentNode> footNotes;
 
     public Document(
             ThawInfo info,
             DocumentNode root,
+            DocumentNodeIDGenerator nodeIDGenerator,
             ReferenceModel referenceModel,
             StyleModel styleModel,
             Map<PageRange, DocumentNode> headerNodes,
             Map<PageRange, DocumentNode> footerNodes,
-            Map<String, DocumentNode> footNotes
+            Map<Integer, DocumentNode> footNotes
     ) {
         this(
                 info,
                 root,
+                nodeIDGenerator,
                 referenceModel,
                 styleModel,
                 headerNodes,
@@ -81,15 +89,17 @@ public class Document {
     public Document(
             ThawInfo info,
             DocumentNode root,
+            DocumentNodeIDGenerator nodeIDGenerator,
             ReferenceModel referenceModel,
             StyleModel styleModel,
             Map<PageRange, DocumentNode> headerNodes,
             Map<PageRange, DocumentNode> footerNodes,
-            Map<String, DocumentNode> footNotes,
-            @Nullable Map<String, DocumentNode> oldNodeLookup
+            Map<Integer, DocumentNode> footNotes,
+            @Nullable IntLookup<DocumentNode> oldNodeLookup
     ) {
         this.info = info;
         this.root = root;
+        this.nodeIDGenerator = nodeIDGenerator;
         this.referenceModel = referenceModel;
         this.styleModel = styleModel;
 
@@ -98,9 +108,7 @@ public class Document {
 
         this.footNotes = footNotes;
 
-        if (oldNodeLookup != null) {
-            nodeLookup.putAll(oldNodeLookup);
-        }
+        nodeLookup = oldNodeLookup != null ? new IntLookup<>(oldNodeLookup) : new IntLookup<>();
         initLookup(root);
     }
 
@@ -137,6 +145,15 @@ public class Document {
         return root;
     }
 
+    /**
+     * Get the generator of the document node IDs.
+     *
+     * @return node ID generator
+     */
+    public DocumentNodeIDGenerator getNodeIDGenerator() {
+        return nodeIDGenerator;
+    }
+
     /**
      * Get the model managing all document references.
      *
@@ -161,7 +178,7 @@ public class Document {
      * @param nodeID to get node for
      * @return the requested node (or an empty optional)
      */
-    public Optional<DocumentNode> getNodeForId(String nodeID) {
+    public Optional<DocumentNode> getNodeForId(int nodeID) {
         return Optional.ofNullable(nodeLookup.get(nodeID));
     }
 
@@ -188,7 +205,7 @@ public class Document {
      *
      * @return foot notes
      */
-    public Map<String, DocumentNode> getFootNotes() {
+    public Map<Integer, DocumentNode> getFootNotes() {
         return footNotes;
     }
 
@@ -197,7 +214,7 @@ public class Document {
      *
      * @return node lookup
      */
-    public Map<String, DocumentNode> getNodeLookup() {
+    public IntLookup<DocumentNode> getNodeLookup() {
         return nodeLookup;
     }
 
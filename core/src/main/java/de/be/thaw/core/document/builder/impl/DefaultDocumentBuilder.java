@@ -9,7 +9,6 @@ import de.be.thaw.core.document.node.DocumentNode;
 import de.be.thaw.core.document.util.PageRange;
 import de.be.thaw.reference.ReferenceModel;
 import de.be.thaw.reference.impl.InternalReference;
-import de.be.thaw.shared.ThawContext;
 import de.be.thaw.style.model.block.StyleBlock;
 import de.be.thaw.style.model.selector.builder.StyleSelectorBuilder;
 import de.be.thaw.style.model.style.StyleType;
@@ -32,7 +31,7 @@ public class DefaultDocumentBuilder implements DocumentBuilder<DocumentBuildSour
     @Override
     public Document build(DocumentBuildSource source) throws DocumentBuildException {
         ReferenceModel referenceModel = source.getReferenceModel();
-        DocumentBuildContext ctx = new DocumentBuildContext(source.getInfo(), source.getTextModel(), referenceModel, source.getStyleModel());
+        DocumentBuildContext ctx = new DocumentBuildContext(source.getContext(), source.getInfo(), source.getTextModel(), referenceModel, source.getStyleModel());
         if (source.getParentDocument() != null) {
             ctx.setParentDocument(source.getParentDocument());
         }
@@ -43,6 +42,7 @@ public class DefaultDocumentBuilder implements DocumentBuilder<DocumentBuildSour
         Document document = new Document(
                 source.getInfo(),
                 root,
+                ctx.getNodeIDGenerator(),
                 referenceModel,
                 source.getStyleModel(),
                 ctx.getHeaderNodes(),
@@ -153,7 +153,7 @@ public class DefaultDocumentBuilder implements DocumentBuilder<DocumentBuildSour
         }
 
         for (HeaderFooterEntry entry : entries) {
-            File file = new File(ThawContext.getInstance().getCurrentFolder(), entry.folder);
+            File file = new File(ctx.getCurrentFolder(), entry.folder);
             DocumentNode headerFooterNode = ctx.loadHeaderFooterNode(file);
 
             if (entry.isHeader) {
@@ -174,7 +174,7 @@ public class DefaultDocumentBuilder implements DocumentBuilder<DocumentBuildSour
     private void processPotentialReferences(Document document, DocumentBuildContext ctx) throws MissingReferenceTargetException {
         // Add potential targets to reference model if the target has been found, otherwise throw an exception
         for (DocumentBuildContext.PotentialInternalReference potentialReference : ctx.getPotentialReferences()) {
-            String targetID = ctx.getReferenceModel().getNodeIDForLabel(potentialReference.getTargetLabel())
+            int targetID = ctx.getReferenceModel().getNodeIDForLabel(potentialReference.getTargetLabel())
                     .orElseThrow(() -> {
                         if (potentialReference.isFromCitation()) {
                             return new MissingReferenceTargetException(String.format(
@@ -218,7 +218,7 @@ public class DefaultDocumentBuilder implements DocumentBuilder<DocumentBuildSour
      * @return the root document node
      */
     private DocumentNode processRootNode(RootNode node, DocumentBuildContext ctx) throws DocumentBuildException {
-        DocumentNode documentNode = new DocumentNode(node, null, ctx.getStyleModel().select(new StyleSelectorBuilder().build()));
+        DocumentNode documentNode = new DocumentNode(ctx.getNodeIDGenerator().next(), node, null, ctx.getStyleModel().select(new StyleSelectorBuilder().build()));
 
         if (node.hasChildren()) {
             for (Node child : node.children()) {
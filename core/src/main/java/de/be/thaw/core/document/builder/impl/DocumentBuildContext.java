@@ -14,6 +14,7 @@ import de.be.thaw.core.document.builder.impl.thingy.impl.ReferenceListHandler;
 import de.be.thaw.core.document.builder.impl.thingy.impl.TableHandler;
 import de.be.thaw.core.document.builder.impl.thingy.impl.VariableHandler;
 import de.be.thaw.core.document.node.DocumentNode;
+import de.be.thaw.core.document.node.DocumentNodeIDGenerator;
 import de.be.thaw.core.document.util.PageRange;
 import de.be.thaw.info.ThawInfo;
 import de.be.thaw.reference.ReferenceModel;
@@ -83,6 +84,11 @@ public class DocumentBuildContext {
      */
     private final List<Integer> headlineCounter = new ArrayList<>();
 
+    /**
+     * Context of the render the document is built for.
+     */
+    private final ThawContext context;
+
     /**
      * The document info.
      */
@@ -116,7 +122,12 @@ public class DocumentBuildContext {
     /**
      * List of foot notes mapped by document node IDs.
      */
-    private final Map<String, DocumentNode> footNotes = new HashMap<>();
+    private final Map<Integer, DocumentNode> footNotes = new HashMap<>();
+
+    /**
+     * Generator of the document node IDs.
+     */
+    private DocumentNodeIDGenerator nodeIDGenerator = new DocumentNodeIDGenerator();
 
     /**
      * Parent document that is specified when typesetting nested documents.
@@ -124,12 +135,21 @@ public class DocumentBuildContext {
     @Nullable
     private Document parentDocument;
 
+    /**
+     * The currently processed folder.
+     * Relative paths (for example of included files) are resolved against it.
+     */
+    private File currentFolder;
+
     public DocumentBuildContext(
+            ThawContext context,
             ThawInfo info,
             TextModel textModel,
             ReferenceModel referenceModel,
             StyleModel styleModel
     ) {
+        this.context = context;
+        this.currentFolder = context.getRootFolder();
         this.info = info;
         this.textModel = textModel;
         this.referenceModel = referenceModel;
@@ -165,6 +185,18 @@ public class DocumentBuildContext {
         return headlineCounter;
     }
 
+    public ThawContext getContext() {
+        return context;
+    }
+
+    public File getCurrentFolder() {
+        return currentFolder;
+    }
+
+    public void setCurrentFolder(File currentFolder) {
+        this.currentFolder = currentFolder;
+    }
+
     public ThawInfo getInfo() {
         return info;
     }
@@ -193,10 +225,14 @@ public class DocumentBuildContext {
         return footerNodes;
     }
 
-    public Map<String, DocumentNode> getFootNotes() {
+    public Map<Integer, DocumentNode> getFootNotes() {
         return footNotes;
     }
 
+    public DocumentNodeIDGenerator getNodeIDGenerator() {
+        return nodeIDGenerator;
+    }
+
     public CitationManager getCitationManager() {
         return getReferenceModel().getCitationManager();
     }
@@ -288,7 +324,7 @@ public class DocumentBuildContext {
             styles = getStyleModel().select(selectors.toArray(StyleSelector[]::new));
         }
 
-        DocumentNode documentNode = new DocumentNode(node, parent, styles);
+        DocumentNode documentNode = new DocumentNode(getNodeIDGenerator().next(), node, parent, styles);
 
         if (node.hasChildren()) {
             for (Node child : node.children()) {
@@ -360,6 +396,7 @@ public class DocumentBuildContext {
         }
 
         DocumentNode documentNode = new DocumentNode(
+                getNodeIDGenerator().next(),
                 node,
                 parent,
                 styles
@@ -444,8 +481,8 @@ public class DocumentBuildContext {
         File textFile = new File(folder, textFiles[0]);
 
         TextModel textModel;
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(textFile), ThawContext.getInstance().getEncoding()))) {
-            textModel = ThawContext.getInstance().getTextParser().parse(br);
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(textFile), context.getEncoding()))) {
+            textModel = context.getTextParser().parse(br);
         } catch (IOException | ParseException e) {
             throw new DocumentBuildException(String.format(
                     "Could not parse text file at '%s' that should be used as header or footer",
@@ -464,8 +501,8 @@ public class DocumentBuildContext {
         } else if (styleFiles.length == 1) {
             File styleFile = new File(folder, styleFiles[0]);
 
-            try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(styleFile), ThawContext.getInstance().getEncoding()))) {
-                styleModel = ThawContext.getInstance().getStyleParser().parse(br, folder);
+            try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(styleFile), context.getEncoding()))) {
+                styleModel = context.getStyleParser().parse(br, folder);
             } catch (IOException | StyleModelParseException e) {
                 throw new DocumentBuildException(String.format(
                         "Could not parse style file at '%s' that should be included as header or footer",
@@ -478,13 +515,14 @@ public class DocumentBuildContext {
         }
 
         DocumentNode root = new DocumentNode(
+                getNodeIDGenerator().next(),
                 textModel.getRoot(),
                 null,
                 styleModel.select(new StyleSelectorBuilder().build())
         );
 
-        File oldProcessingFolder = ThawContext.getInstance().getCurrentFolder();
-        ThawContext.getInstance().setCurrentFolder(folder); // Set the currently processing folder
+        File oldProcessingFolder = getCurrentFolder();
+        setCurrentFolder(folder); // Set the currently processing folder
         StyleModel oldStyleModel = getStyleModel();
         setStyleModel(styleModel); // Set the new style model
 
@@ -494,7 +532,7 @@ public class DocumentBuildContext {
             }
         }
 
-        ThawContext.getInstance().setCurrentFolder(oldProcessingFolder); // Reset the currently processing folder
+        setCurrentFolder(oldProcessingFolder); // Reset the currently processing folder
         setStyleModel(oldStyleModel); // Reset to the old style model
 
         return root;
@@ -531,6 +569,9 @@ public class DocumentBuildContext {
 
     public void setParentDocument(@Nullable Document parentDocument) {
         this.parentDocument = parentDocument;
+
+        // Nested documents share the node ID space with their parent document
+        nodeIDGenerator = parentDocument != null ? parentDocument.getNodeIDGenerator() : new DocumentNodeIDGenerator();
     }
 
     /**
@@ -541,7 +582,7 @@ public class DocumentBuildContext {
         /**
          * ID of the source node.
          */
-        private final String sourceID;
+        private final int sourceID;
 
         /**
          * Label of the target.
@@ -558,12 +599,12 @@ public class DocumentBuildContext {
          */
         private final boolean fromCitation;
 
-        public PotentialInternalReference(String sourceID, String targetLabel, String prefix) {
+        public PotentialInternalReference(int sourceID, String targetLabel, String prefix) {
             this(sourceID, targetLabel, prefix, false);
         }
 
         public PotentialInternalReference(
-                String sourceID,
+                int sourceID,
                 String targetLabel,
                 String prefix,
                 boolean fromCitation
@@ -574,7 +615,7 @@ public class DocumentBuildContext {
             this.fromCitation = fromCitation;
         }
 
-        public String getSourceID() {
+        public int getSourceID() {
             return sourceID;
         }
 
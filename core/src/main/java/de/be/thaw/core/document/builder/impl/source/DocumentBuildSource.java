@@ -5,6 +5,7 @@ import de.be.thaw.info.ThawInfo;
 import de.be.thaw.reference.ReferenceModel;
 import de.be.thaw.reference.citation.CitationManager;
 import de.be.thaw.reference.impl.DefaultReferenceModel;
+import de.be.thaw.shared.ThawContext;
 import de.be.thaw.style.model.StyleModel;
 import de.be.thaw.style.model.impl.DefaultStyleModel;
 import de.be.thaw.text.model.TextModel;
@@ -15,6 +16,11 @@ import org.jetbrains.annotations.Nullable;
  */
 public class DocumentBuildSource {
 
+    /**
+     * Context of the render the document is built for.
+     */
+    private final ThawContext context;
+
     /**
      * The info model.
      */
@@ -41,11 +47,12 @@ public class DocumentBuildSource {
     @Nullable
     private final Document parentDocument;
 
-    public DocumentBuildSource(ThawInfo info, TextModel textModel, StyleModel styleModel, CitationManager citationManager) {
-        this(info, textModel, styleModel, new DefaultReferenceModel(citationManager), null);
+    public DocumentBuildSource(ThawContext context, ThawInfo info, TextModel textModel, StyleModel styleModel, CitationManager citationManager) {
+        this(context, info, textModel, styleModel, new DefaultReferenceModel(citationManager), null);
     }
 
-    public DocumentBuildSource(ThawInfo info, TextModel textModel, StyleModel styleModel, ReferenceModel referenceModel, @Nullable Document parentDocument) {
+    public DocumentBuildSource(ThawContext context, ThawInfo info, TextModel textModel, StyleModel styleModel, ReferenceModel referenceModel, @Nullable Document parentDocument) {
+        this.context = context;
         this.info = info;
         this.textModel = textModel;
         this.styleModel = styleModel;
@@ -53,6 +60,10 @@ public class DocumentBuildSource {
         this.parentDocument = parentDocument;
     }
 
+    public ThawContext getContext() {
+        return context;
+    }
+
     public ThawInfo getInfo() {
         return info;
     }
@@ -106,6 +106,7 @@ public class CiteHandler implements ThingyHandler {
 
         // Add document node representing the in-text-citation
         DocumentNode inTextCitationNode = new DocumentNode(
+                ctx.getNodeIDGenerator().next(),
                 new TextNode(inTextCitation, null),
                 documentNode.getParent(),
                 documentNode.getStyles()
@@ -5,7 +5,6 @@ import de.be.thaw.core.document.builder.impl.exception.DocumentBuildException;
 import de.be.thaw.core.document.builder.impl.thingy.ThingyHandler;
 import de.be.thaw.core.document.node.DocumentNode;
 import de.be.thaw.font.util.SuperScriptUtil;
-import de.be.thaw.shared.ThawContext;
 import de.be.thaw.style.model.selector.builder.StyleSelectorBuilder;
 import de.be.thaw.text.model.TextModel;
 import de.be.thaw.text.model.tree.Node;
@@ -41,7 +40,7 @@ public class FootNoteHandler implements ThingyHandler {
         String footNoteText = thingyNode.getArguments().iterator().next();
         TextModel textModel;
         try (StringReader sr = new StringReader(footNoteText)) {
-            textModel = ThawContext.getInstance().getTextParser().parse(sr);
+            textModel = ctx.getContext().getTextParser().parse(sr);
         } catch (ParseException e) {
             throw new DocumentBuildException(String.format(
                     "Could not parse foot note text of #FOOTNOTE# Thingy at %s",
@@ -57,6 +56,7 @@ public class FootNoteHandler implements ThingyHandler {
 
         // Create new document root node for the foot note
         DocumentNode footNoteRoot = new DocumentNode(
+                ctx.getNodeIDGenerator().next(),
                 textModel.getRoot(),
                 null,
                 ctx.getStyleModel().select(new StyleSelectorBuilder()
@@ -76,6 +76,7 @@ public class FootNoteHandler implements ThingyHandler {
         DocumentNode firstBoxNode = footNoteRoot.getChildren().get(0);
 
         DocumentNode fakeNumberingNode = new DocumentNode(
+                ctx.getNodeIDGenerator().next(),
                 new TextNode(String.format("%s ", SuperScriptUtil.getSuperScriptCharsForNumber(ctx.getFootNotes().size() + 1)), null),
                 null,
                 footNoteRoot.getStyles()
@@ -4,7 +4,6 @@ import de.be.thaw.core.document.builder.impl.DocumentBuildContext;
 import de.be.thaw.core.document.builder.impl.exception.DocumentBuildException;
 import de.be.thaw.core.document.builder.impl.thingy.ThingyHandler;
 import de.be.thaw.core.document.node.DocumentNode;
-import de.be.thaw.shared.ThawContext;
 import de.be.thaw.style.model.StyleModel;
 import de.be.thaw.style.parser.exception.StyleModelParseException;
 import de.be.thaw.text.model.TextModel;
@@ -55,7 +54,7 @@ public class IncludeHandler implements ThingyHandler {
             ));
         }
 
-        File currentProcessingFolder = ThawContext.getInstance().getCurrentFolder();
+        File currentProcessingFolder = ctx.getCurrentFolder();
 
         String subFolderName = thingyNode.getArguments().iterator().next();
         File subFolder = new File(currentProcessingFolder, subFolderName);
@@ -69,6 +68,8 @@ public class IncludeHandler implements ThingyHandler {
             ));
         }
 
+        ctx.getContext().addIncludedFolder(subFolder); // Even in case the folder is invalid, so that fixes are noticed
+
         // Find and parse text file
         String[] textFiles = subFolder.list((dir, name) -> name.endsWith(".tdt"));
         if (textFiles.length == 0) {
@@ -85,8 +86,8 @@ public class IncludeHandler implements ThingyHandler {
         File textFile = new File(subFolder, textFiles[0]);
 
         TextModel textModel;
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(textFile), ThawContext.getInstance().getEncoding()))) {
-            textModel = ThawContext.getInstance().getTextParser().parse(br);
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(textFile), ctx.getContext().getEncoding()))) {
+            textModel = ctx.getContext().getTextParser().parse(br);
         } catch (IOException | ParseException e) {
             throw new DocumentBuildException(String.format(
                     "Could not parse text file at '%s' included by the #INCLUDE# Thingy at %s",
@@ -106,8 +107,8 @@ public class IncludeHandler implements ThingyHandler {
         } else if (styleFiles.length == 1) {
             File styleFile = new File(subFolder, styleFiles[0]);
 
-            try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(styleFile), ThawContext.getInstance().getEncoding()))) {
-                styleModel = ThawContext.getInstance().getStyleParser().parse(br, subFolder);
+            try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(styleFile), ctx.getContext().getEncoding()))) {
+                styleModel = ctx.getContext().getStyleParser().parse(br, subFolder);
             } catch (IOException | StyleModelParseException e) {
                 throw new DocumentBuildException(String.format(
                         "Could not parse style file at '%s' included by the #INCLUDE# Thingy at %s",
@@ -127,7 +128,7 @@ public class IncludeHandler implements ThingyHandler {
         }
 
         // SET CONTEXT TO THE NEW SETTINGS
-        ThawContext.getInstance().setCurrentFolder(subFolder); // Set the currently processing folder for nested #INCLUDE# Thingies
+        ctx.setCurrentFolder(subFolder); // Set the currently processing folder for nested #INCLUDE# Thingies
         StyleModel oldStyleModel = ctx.getStyleModel();
         ctx.setStyleModel(styleModel); // Set the new style model
 
@@ -139,7 +140,7 @@ public class IncludeHandler implements ThingyHandler {
         }
 
         // RESET TO OLD SETTINGS
-        ThawContext.getInstance().setCurrentFolder(currentProcessingFolder); // Reset the currently processing folder
+        ctx.setCurrentFolder(currentProcessingFolder); // Reset the currently processing folder
         ctx.setStyleModel(oldStyleModel); // Reset to the old style model
     }
 
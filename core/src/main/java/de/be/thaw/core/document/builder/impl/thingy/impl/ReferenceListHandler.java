@@ -7,7 +7,6 @@ import de.be.thaw.core.document.node.DocumentNode;
 import de.be.thaw.reference.citation.exception.CouldNotLoadBibliographyException;
 import de.be.thaw.reference.citation.referencelist.ReferenceList;
 import de.be.thaw.reference.citation.referencelist.ReferenceListEntry;
-import de.be.thaw.shared.ThawContext;
 import de.be.thaw.style.model.selector.builder.StyleSelectorBuilder;
 import de.be.thaw.style.model.style.Styles;
 import de.be.thaw.text.model.TextModel;
@@ -68,7 +67,7 @@ public class ReferenceListHandler implements ThingyHandler {
             // Parse entry to text model
             TextModel textModel;
             try (StringReader sr = new StringReader(entry.getText())) {
-                textModel = ThawContext.getInstance().getTextParser().parse(sr);
+                textModel = ctx.getContext().getTextParser().parse(sr);
             } catch (ParseException e) {
                 throw new DocumentBuildException(String.format(
                         "Could not parse reference list entry '%s' for reference list #REFERENCES# thingy at %s",
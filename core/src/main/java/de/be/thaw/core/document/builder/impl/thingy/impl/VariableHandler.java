@@ -43,6 +43,7 @@ public class VariableHandler implements ThingyHandler {
 
         // Add document node representing the variable value text
         new DocumentNode(
+                ctx.getNodeIDGenerator().next(),
                 new TextNode(value, thingyNode.getTextPosition()),
                 documentNode.getParent(),
                 documentNode.getStyles()
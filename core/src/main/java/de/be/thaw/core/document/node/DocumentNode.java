@@ -5,7 +5,6 @@ import de.be.thaw.text.model.tree.Node;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 /**
  * Node of the document.
@@ -13,9 +12,9 @@ import java.util.UUID;
 public class DocumentNode {
 
     /**
-     * ID of the node.
+     * ID of the node (unique within the document and all its nested documents).
      */
-    private final String id;
+    private final int id;
 
     /**
      * The underlying text model node.
@@ -37,11 +36,7 @@ public class DocumentNode {
      */
     private final DocumentNode parent;
 
-    public DocumentNode(Node node, DocumentNode parent, Styles styles) {
-        this(UUID.randomUUID().toString(), node, parent, styles);
-    }
-
-    public DocumentNode(String id, Node node, DocumentNode parent, Styles styles) {
+    public DocumentNode(int id, Node node, DocumentNode parent, Styles styles) {
         this.id = id;
         this.node = node;
         this.styles = styles;
@@ -57,7 +52,7 @@ public class DocumentNode {
      *
      * @return ID
      */
-    public String getId() {
+    public int getId() {
         return id;
     }
 
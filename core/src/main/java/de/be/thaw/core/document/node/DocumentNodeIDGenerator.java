@@ -0,0 +1,34 @@
+package de.be.thaw.core.document.node;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generator of sequential document node IDs.
+ * Nested documents use the generator of their parent document, so that IDs are unique over all of them.
+ */
+public class DocumentNodeIDGenerator {
+
+    /**
+     * The next ID to hand out.
+     */
+    private final AtomicInteger nextID = new AtomicInteger();
+
+    /**
+     * Get the next free node ID.
+     *
+     * @return node ID
+     */
+    public int next() {
+        return nextID.getAndIncrement();
+    }
+
+    /**
+     * Get the count of IDs handed out so far.
+     *
+     * @return count of IDs
+     */
+    public int count() {
+        return nextID.get();
+    }
+
+}
@@ -0,0 +1,38 @@
+package de.be.thaw.core.document.node;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+public class DocumentNodeIDGeneratorTest {
+
+    @Test
+    public void sequentialIDs() {
+        DocumentNodeIDGenerator generator = new DocumentNodeIDGenerator();
+        Assertions.assertEquals(0, generator.count());
+
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(i, generator.next());
+        }
+        Assertions.assertEquals(100, generator.count());
+    }
+
+    @Test
+    public void uniqueIDsWhenUsedConcurrently() {
+        DocumentNodeIDGenerator generator = new DocumentNodeIDGenerator();
+
+        int[] ids = IntStream.range(0, 100000).parallel().map(i -> generator.next()).toArray();
+
+        BitSet seen = new BitSet();
+        for (int id : ids) {
+            Assertions.assertFalse(seen.get(id), String.format("ID %d handed out twice", id));
+            seen.set(id);
+        }
+        Assertions.assertEquals(100000, seen.cardinality());
+        Assertions.assertEquals(100000, seen.nextClearBit(0));
+        Assertions.assertEquals(100000, generator.count());
+    }
+
+}
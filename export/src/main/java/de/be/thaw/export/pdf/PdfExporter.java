@@ -11,7 +11,8 @@ import de.be.thaw.export.pdf.util.ElementLocator;
 import de.be.thaw.export.pdf.util.ExportContext;
 import de.be.thaw.export.pdf.util.PdfImageSource;
 import de.be.thaw.font.ThawFont;
-import de.be.thaw.font.util.KernedSize;
+import de.be.thaw.font.util.KerningMode;
+import de.be.thaw.font.util.MeasurementBuffer;
 import de.be.thaw.hyphenation.HyphenationDictionaries;
 import de.be.thaw.hyphenation.HyphenationDictionary;
 import de.be.thaw.info.model.language.Language;
@@ -25,12 +26,14 @@ import de.be.thaw.typeset.knuthplass.KnuthPlassTypeSetter;
 import de.be.thaw.typeset.knuthplass.config.KnuthPlassTypeSettingConfig;
 import de.be.thaw.typeset.knuthplass.config.util.FontDetailsSupplier;
 import de.be.thaw.typeset.knuthplass.config.util.GlueConfig;
+import de.be.thaw.typeset.knuthplass.config.util.LineBreakCache;
 import de.be.thaw.typeset.knuthplass.config.util.hyphen.HyphenatedWord;
 import de.be.thaw.typeset.knuthplass.config.util.hyphen.HyphenatedWordPart;
 import de.be.thaw.typeset.knuthplass.config.util.hyphen.Hyphenator;
 import de.be.thaw.typeset.page.Element;
 import de.be.thaw.typeset.page.Page;
 import de.be.thaw.typeset.util.Insets;
+import de.be.thaw.util.IntLookup;
 import de.be.thaw.util.Size;
 import de.be.thaw.util.unit.Unit;
 import org.apache.fontbox.ttf.TTFParser;
@@ -42,6 +45,7 @@ import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -50,7 +54,6 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -61,6 +64,48 @@ import java.util.stream.Collectors;
  */
 public class PdfExporter implements Exporter {
 
+    /**
+     * Context of the render to export for.
+     */
+    private final ThawContext context;
+
+    /**
+     * Cache for the line breaks of text paragraphs.
+     * May be kept between exports of the same project to only break changed paragraphs into lines again
+     * (null in case line breaks are not cached).
+     */
+    @Nullable
+    private final LineBreakCache lineBreakCache;
+
+    public PdfExporter(ThawContext context, @Nullable LineBreakCache lineBreakCache) {
+        this.context = context;
+        this.lineBreakCache = lineBreakCache;
+    }
+
+    public PdfExporter(ThawContext context) {
+        this(context, null);
+    }
+
+    /**
+     * Warm up the resources shared by all exports: the hyphenation dictionaries and the math font.
+     * The hyphenation dictionaries and the math font bytes are kept once loaded.
+     * The parsed math font is bound to the PDF document it is embedded in, so it is parsed again
+     * for every export, which is a lot cheaper once the font classes have been loaded.
+     *
+     * @throws IOException in case the math font could not be loaded
+     */
+    public static void warmUp() throws IOException {
+        for (Language language : Language.values()) {
+            if (language.getCode() != null) {
+                HyphenationDictionaries.getDictionary(language);
+            }
+        }
+
+        try (PDDocument doc = new PDDocument()) {
+            new ThawPdfFont(new TTFParser().parse(MathFont.getMathFontStream()), doc);
+        }
+    }
+
     @Override
     public void export(Document document, Path path) throws ExportException {
         try (PDDocument doc = new PDDocument()) {
@@ -68,20 +113,20 @@ public class PdfExporter implements Exporter {
 
             Styles styles = document.getRoot().getStyles();
 
-            final double width = styles.resolve(StyleType.WIDTH).orElseThrow().doubleValue(Unit.POINTS);
-            final double height = styles.resolve(StyleType.HEIGHT).orElseThrow().doubleValue(Unit.POINTS);
+            final double width = styles.resolvePoints(StyleType.WIDTH);
+            final double height = styles.resolvePoints(StyleType.HEIGHT);
 
             ctx.setPageSize(new Size(width, height));
 
-            final double marginTop = styles.resolve(StyleType.MARGIN_TOP).orElseThrow().doubleValue(Unit.POINTS);
-            final double marginBottom = styles.resolve(StyleType.MARGIN_BOTTOM).orElseThrow().doubleValue(Unit.POINTS);
-            final double marginLeft = styles.resolve(StyleType.MARGIN_LEFT).orElseThrow().doubleValue(Unit.POINTS);
-            final double marginRight = styles.resolve(StyleType.MARGIN_RIGHT).orElseThrow().doubleValue(Unit.POINTS);
+            final double marginTop = styles.resolvePoints(StyleType.MARGIN_TOP);
+            final double marginBottom = styles.resolvePoints(StyleType.MARGIN_BOTTOM);
+            final double marginLeft = styles.resolvePoints(StyleType.MARGIN_LEFT);
+            final double marginRight = styles.resolvePoints(StyleType.MARGIN_RIGHT);
 
-            final double paddingTop = styles.resolve(StyleType.PADDING_TOP).orElseThrow().doubleValue(Unit.POINTS);
-            final double paddingBottom = styles.resolve(StyleType.PADDING_BOTTOM).orElseThrow().doubleValue(Unit.POINTS);
-            final double paddingLeft = styles.resolve(StyleType.PADDING_LEFT).orElseThrow().doubleValue(Unit.POINTS);
-            final double paddingRight = styles.resolve(StyleType.PADDING_RIGHT).orElseThrow().doubleValue(Unit.POINTS);
+            final double paddingTop = styles.resolvePoints(StyleType.PADDING_TOP);
+            final double paddingBottom = styles.resolvePoints(StyleType.PADDING_BOTTOM);
+            final double paddingLeft = styles.resolvePoints(StyleType.PADDING_LEFT);
+            final double paddingRight = styles.resolvePoints(StyleType.PADDING_RIGHT);
 
             ctx.setPageInsets(new Insets(
                     marginTop + paddingTop,
@@ -126,8 +171,8 @@ public class PdfExporter implements Exporter {
      * @param pages to get elements for
      * @return lookup
      */
-    private Map<String, ElementLocator> buildElementLookup(List<Page> pages) {
-        Map<String, ElementLocator> elementLookup = new HashMap<>();
+    private IntLookup<ElementLocator> buildElementLookup(List<Page> pages) {
+        IntLookup<ElementLocator> elementLookup = new IntLookup<>();
 
         for (Page page : pages) {
             for (Element element : page.getElements()) {
@@ -248,27 +293,40 @@ public class PdfExporter implements Exporter {
 
         return new KnuthPlassTypeSetter(KnuthPlassTypeSettingConfig.newBuilder()
                 .setMathFont(ctx.getMathFont())
-                .setWorkingDirectory(ThawContext.getInstance().getCurrentFolder())
-                .setTextParser(ThawContext.getInstance().getTextParser())
+                .setContext(context)
+                .setLineBreakCache(lineBreakCache)
                 .setProperties(properties)
                 .setPageSize(ctx.getPageSize())
                 .setPageInsets(ctx.getPageInsets())
                 .setLooseness(1)
                 .setFontDetailsSupplier(new FontDetailsSupplier() {
+                    /**
+                     * Buffer reused to measure strings.
+                     */
+                    private final MeasurementBuffer buffer = new MeasurementBuffer();
+
                     @Override
                     public StringMetrics measureString(DocumentNode node, int charBefore, String str) throws Exception {
                         double fontSize = ctx.getFontSizeForNode(node);
                         ThawFont font = ctx.getFontForNode(node);
 
-                        KernedSize size = font.getKernedStringSize(charBefore, str, fontSize);
+                        font.measure(charBefore, str, 0, str.length(), fontSize, buffer);
 
-                        return new StringMetrics(size.getWidth(), size.getHeight(), size.getKerningAdjustments(), fontSize, font.getAscent(fontSize));
+                        return new StringMetrics(buffer.getWidth(), buffer.getHeight(), buffer.copyKerningAdjustments(), fontSize, font.getAscent(fontSize));
                     }
 
                     @Override
                     public double getSpaceWidth(DocumentNode node) throws Exception {
                         return ctx.getFontForNode(node).getCharacterSize(' ', ctx.getFontSizeForNode(node)).getWidth(); // TODO Make this adjustable using the style file
                     }
+
+                    @Override
+                    public Object getFontKey(DocumentNode node) throws Exception {
+                        ThawPdfFont font = (ThawPdfFont) ctx.getFontForNode(node);
+
+                        // The kerning mode must be part of the key as it is changed on the shared font instance per node
+                        return new FontKey(font, font.getKerningMode(), ctx.getFontSizeForNode(node));
+                    }
                 })
                 .setGlueConfig(new GlueConfig() {
                     @Override
@@ -294,10 +352,14 @@ public class PdfExporter implements Exporter {
                     public double getExplicitHyphenPenalty() {
                         return HyphenatedWordPart.DEFAULT_PENALTY;
                     }
+
+                    @Override
+                    public Object getKey() {
+                        return language; // The language may change between renders of a project (for example in watch mode)
+                    }
                 })
                 .setImageSourceSupplier(src -> {
-                    File currentProcessingFolder = ThawContext.getInstance().getCurrentFolder();
-                    File imgFile = new File(currentProcessingFolder, src);
+                    File imgFile = new File(context.getRootFolder(), src);
 
                     if (imgFile.getName().endsWith(".pdf")) {
                         PDFormXObject form;
@@ -328,4 +390,52 @@ public class PdfExporter implements Exporter {
                 .build());
     }
 
+    /**
+     * Key identifying a font with all settings that influence measuring strings with it.
+     */
+    private static class FontKey {
+
+        /**
+         * The font instance.
+         */
+        private final ThawFont font;
+
+        /**
+         * Kerning mode the font is used with.
+         */
+        private final KerningMode kerningMode;
+
+        /**
+         * Size of the font.
+         */
+        private final double fontSize;
+
+        FontKey(ThawFont font, KerningMode kerningMode, double fontSize) {
+            this.font = font;
+            this.kerningMode = kerningMode;
+            this.fontSize = fontSize;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            FontKey fontKey = (FontKey) o;
+
+            if (Double.compare(fontKey.fontSize, fontSize) != 0) return false;
+            if (font != fontKey.font) return false;
+            return kerningMode == fontKey.kerningMode;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(font);
+            result = 31 * result + kerningMode.hashCode();
+            result = 31 * result + Double.hashCode(fontSize);
+            return result;
+        }
+
+    }
+
 }
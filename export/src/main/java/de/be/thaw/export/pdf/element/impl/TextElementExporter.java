@@ -6,7 +6,7 @@ import de.be.thaw.export.pdf.element.ElementExporter;
 import de.be.thaw.export.pdf.font.ThawPdfFont;
 import de.be.thaw.export.pdf.util.ElementLocator;
 import de.be.thaw.export.pdf.util.ExportContext;
-import de.be.thaw.font.util.KernedSize;
+import de.be.thaw.font.util.MeasurementBuffer;
 import de.be.thaw.reference.Reference;
 import de.be.thaw.reference.ReferenceType;
 import de.be.thaw.reference.impl.ExternalReference;
@@ -45,6 +45,11 @@ public class TextElementExporter implements ElementExporter {
      */
     private static final Set<ElementType> SUPPORTED_TYPES = Set.of(ElementType.TEXT);
 
+    /**
+     * Buffer reused to measure strings.
+     */
+    private final MeasurementBuffer measurementBuffer = new MeasurementBuffer();
+
     @Override
     public Set<ElementType> supportedElementTypes() {
         return SUPPORTED_TYPES;
@@ -88,17 +93,16 @@ public class TextElementExporter implements ElementExporter {
                 int pageNumber = targetLocator.getPageNumber();
                 String pageNumberStr = String.valueOf(pageNumber);
 
-                KernedSize size;
                 try {
-                    size = font.getKernedStringSize(-1, pageNumberStr, fontSize);
+                    font.measure(-1, pageNumberStr, 0, pageNumberStr.length(), fontSize, measurementBuffer);
                 } catch (Exception e) {
                     throw new ExportException(e);
                 }
 
-                te.setPosition(new Position(te.getPosition().getX() - size.getWidth(), te.getPosition().getY()));
-                te.setSize(new Size(size.getWidth(), size.getHeight()));
+                te.setPosition(new Position(te.getPosition().getX() - measurementBuffer.getWidth(), te.getPosition().getY()));
+                te.setSize(new Size(measurementBuffer.getWidth(), measurementBuffer.getHeight()));
                 te.setText(pageNumberStr);
-                kerningAdjustments = size.getKerningAdjustments();
+                kerningAdjustments = measurementBuffer.copyKerningAdjustments();
             }
 
             double y = ctx.getCurrentPage().getMediaBox().getUpperRightY() - element.getPosition().getY() - baseline;
@@ -0,0 +1,146 @@
+package de.be.thaw.export.pdf.font;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache for the contents of font files bounded by the total size of the cached contents.
+ * The least recently used contents are removed once the cache exceeds its maximum size.
+ * Contents of files that changed since they have been read are dropped and read again.
+ */
+public class FontFileCache {
+
+    /**
+     * The default maximum size of the cache (in bytes).
+     */
+    public static final long DEFAULT_MAX_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Cached contents by the absolute path of their file in access order.
+     */
+    private final Map<String, FontFileData> data = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Maximum size of the cache (in bytes).
+     */
+    private final long maxSize;
+
+    /**
+     * Size of the cached contents (in bytes).
+     */
+    private long size;
+
+    public FontFileCache(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get the contents of the passed font file.
+     * Files are read outside of the lock of the cache, so that reading a large file does not block other fonts.
+     *
+     * @param fontFile to get contents of
+     * @return the font file contents
+     * @throws IOException in case the file could not be read
+     */
+    public byte[] get(File fontFile) throws IOException {
+        String path = fontFile.getAbsolutePath();
+        long lastModified = fontFile.lastModified();
+        long length = fontFile.length();
+
+        synchronized (this) {
+            FontFileData cached = data.get(path);
+            if (cached != null) {
+                if (cached.lastModified == lastModified && cached.bytes.length == length) {
+                    return cached.bytes;
+                }
+
+                remove(path); // Stale -> drop the old contents before reading the file again
+            }
+        }
+
+        byte[] bytes = Files.readAllBytes(fontFile.toPath());
+        if (bytes.length > maxSize) {
+            return bytes; // Would evict everything else -> do not cache
+        }
+
+        synchronized (this) {
+            FontFileData previous = data.put(path, new FontFileData(lastModified, bytes));
+            if (previous != null) {
+                size -= previous.bytes.length;
+            }
+            size += bytes.length;
+
+            evict();
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Remove the least recently used contents until the cache does not exceed its maximum size anymore.
+     */
+    private void evict() {
+        Iterator<FontFileData> iterator = data.values().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            size -= iterator.next().bytes.length;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Remove the contents of the file with the passed path.
+     *
+     * @param path of the file
+     */
+    private void remove(String path) {
+        FontFileData removed = data.remove(path);
+        if (removed != null) {
+            size -= removed.bytes.length;
+        }
+    }
+
+    /**
+     * Get the size of the cached contents.
+     *
+     * @return size in bytes
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Get the count of cached font files.
+     *
+     * @return count of cached files
+     */
+    public synchronized int getCount() {
+        return data.size();
+    }
+
+    /**
+     * Contents of a font file along with the modification time they have been read at.
+     */
+    private static final class FontFileData {
+
+        /**
+         * Last modification time of the file when it has been read.
+         */
+        final long lastModified;
+
+        /**
+         * Contents of the file.
+         */
+        final byte[] bytes;
+
+        FontFileData(long lastModified, byte[] bytes) {
+            this.lastModified = lastModified;
+            this.bytes = bytes;
+        }
+
+    }
+
+}
@@ -5,6 +5,7 @@ import de.be.thaw.font.AbstractFont;
 import de.be.thaw.font.opentype.gpos.GlyphPositioningTable;
 import de.be.thaw.font.util.CharacterSize;
 import de.be.thaw.font.util.KerningMode;
+import de.be.thaw.font.util.MeasurementBuffer;
 import de.be.thaw.typeset.kerning.glyph.Coordinate;
 import de.be.thaw.typeset.kerning.glyph.Glyph;
 import de.be.thaw.typeset.kerning.optical.OpticalKerningTable;
@@ -39,9 +40,22 @@ import java.io.IOException;
 import java.io.InvalidClassException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
-
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Font backed by a PDF font embedded in the exported document.
+ * Glyph metrics and kerning information are loaded lazily into tables of the font instance.
+ * Fonts may be shared by threads (for example when typesetting math in parallel), thus loading glyph metrics and
+ * looking up kerning is synchronized on the font. Pages of the glyph tables are published safely once built,
+ * so that measuring already loaded glyphs does not lock.
+ */
 public class ThawPdfFont extends AbstractFont {
 
     /**
@@ -54,6 +68,56 @@ public class ThawPdfFont extends AbstractFont {
      */
     private static final char[] OPTICAL_KERNING_CHARACTERS = (LATIN_ALPHABET + LATIN_ALPHABET.toUpperCase()).toCharArray();
 
+    /**
+     * Count of bits to shift a code point by to get the index of its page in the glyph ID table.
+     */
+    private static final int CODE_POINT_PAGE_SHIFT = 8;
+
+    /**
+     * Count of code points in a page of the glyph ID table.
+     */
+    private static final int CODE_POINT_PAGE_SIZE = 1 << CODE_POINT_PAGE_SHIFT;
+
+    /**
+     * Count of pages needed to cover all unicode code points.
+     */
+    private static final int CODE_POINT_PAGE_COUNT = (Character.MAX_CODE_POINT >>> CODE_POINT_PAGE_SHIFT) + 1;
+
+    /**
+     * Count of bits to shift a glyph ID by to get the index of its page in the glyph metrics table.
+     */
+    private static final int GLYPH_PAGE_SHIFT = 8;
+
+    /**
+     * Count of glyphs in a page of the glyph metrics table.
+     */
+    private static final int GLYPH_PAGE_SIZE = 1 << GLYPH_PAGE_SHIFT;
+
+    /**
+     * State of a glyph whose metrics have not been loaded yet.
+     */
+    private static final byte GLYPH_NOT_LOADED = 0;
+
+    /**
+     * State of a glyph that has no glyph data (and thus no bounds).
+     */
+    private static final byte GLYPH_WITHOUT_DATA = 1;
+
+    /**
+     * State of a glyph whose metrics have been loaded.
+     */
+    private static final byte GLYPH_WITH_DATA = 2;
+
+    /**
+     * Contents of the font files, shared by all documents exported in this JVM.
+     */
+    private static final FontFileCache FONT_FILES = new FontFileCache(FontFileCache.DEFAULT_MAX_SIZE);
+
+    /**
+     * Optical kerning tables by font name, shared by all documents exported in this JVM.
+     */
+    private static final Map<String, OpticalKerningTable> OPTICAL_KERNING_TABLES = new ConcurrentHashMap<>();
+
     /**
      * The ready to use PDF font.
      */
@@ -84,6 +148,24 @@ public class ThawPdfFont extends AbstractFont {
      */
     private double unitsPerEm;
 
+    /**
+     * Glyph IDs by code point.
+     * The table is split into pages of {@link #CODE_POINT_PAGE_SIZE} code points that are built lazily when first needed.
+     */
+    private AtomicReferenceArray<int[]> glyphIdPages;
+
+    /**
+     * Count of glyphs in the font.
+     */
+    private int glyphCount;
+
+    /**
+     * Metrics per glyph ID.
+     * The table is split into pages of {@link #GLYPH_PAGE_SIZE} glyphs. A published page is never modified,
+     * loading another glyph of the page publishes a copy of the page instead.
+     */
+    private AtomicReferenceArray<GlyphMetricsPage> glyphMetricsPages;
+
     /**
      * Kerning mode to use.
      */
@@ -95,6 +177,12 @@ public class ThawPdfFont extends AbstractFont {
     @Nullable
     private GlyphPositioningTable gposTable;
 
+    /**
+     * OpenType script tags by code point used to look up kerning in the glyph positioning table.
+     * Split into lazily built pages of {@link #CODE_POINT_PAGE_SIZE} code points just like the glyph ID table.
+     */
+    private String[][][] scriptTagPages;
+
     /**
      * Create new PDF font.
      *
@@ -152,7 +240,7 @@ public class ThawPdfFont extends AbstractFont {
      */
     private void parseTrueTypeFont(String fontName, File fontFile, PDDocument document) throws FontParseException {
         try {
-            TrueTypeFont ttf = new TTFParser().parse(new FileInputStream(fontFile));
+            TrueTypeFont ttf = new TTFParser().parse(new ByteArrayInputStream(FONT_FILES.get(fontFile)));
 
             pdFont = PDType0Font.load(document, ttf, true);
 
@@ -172,7 +260,7 @@ public class ThawPdfFont extends AbstractFont {
      */
     private void parseTrueTypeFontCollection(String fontName, File fontFile, PDDocument document) throws FontParseException {
         try {
-            TrueTypeCollection collection = new TrueTypeCollection(fontFile);
+            TrueTypeCollection collection = new TrueTypeCollection(new ByteArrayInputStream(FONT_FILES.get(fontFile)));
             TrueTypeFont ttf = collection.getFontByName(fontName);
 
             pdFont = PDType0Font.load(document, ttf, true);
@@ -193,11 +281,16 @@ public class ThawPdfFont extends AbstractFont {
         glyphTable = ttf.getGlyph();
         unitsPerEm = ttf.getUnitsPerEm();
 
+        glyphCount = ttf.getNumberOfGlyphs();
+        glyphIdPages = new AtomicReferenceArray<>(CODE_POINT_PAGE_COUNT);
+        glyphMetricsPages = new AtomicReferenceArray<>((glyphCount + GLYPH_PAGE_SIZE - 1) >>> GLYPH_PAGE_SHIFT);
+
         // Fetch GPOS table for getting kerning information
         TTFTable gpos = ttf.getTableMap().get(GlyphPositioningTable.TAG);
         if (gpos != null) {
             // Parse GPOS table to fetch pair positioning (kerning) information
             gposTable = new GlyphPositioningTable(new ByteArrayInputStream(ttf.getTableBytes(gpos)));
+            scriptTagPages = new String[CODE_POINT_PAGE_COUNT][][];
         } else {
             // Fallback to the older KERN table
             KerningTable kerningTable = ttf.getKerning();
@@ -206,37 +299,62 @@ public class ThawPdfFont extends AbstractFont {
             }
         }
 
-        // Load or calculate optical kerning table
+        // Load or calculate optical kerning table (shared by all documents exported in this JVM)
+        String fontName = ttf.getName();
+        opticalKerningTable = OPTICAL_KERNING_TABLES.get(fontName);
+        if (opticalKerningTable == null) {
+            opticalKerningTable = loadOpticalKerningTable(fontName);
+
+            OpticalKerningTable existing = OPTICAL_KERNING_TABLES.putIfAbsent(fontName, opticalKerningTable);
+            if (existing != null) {
+                opticalKerningTable = existing;
+            }
+        }
+    }
+
+    /**
+     * Load the optical kerning table for the font with the passed name from the cache directory
+     * or calculate it when it has not been cached yet.
+     *
+     * @param fontName name of the font to load optical kerning table for
+     * @return the optical kerning table
+     * @throws IOException in case the table could not be loaded or cached
+     */
+    private OpticalKerningTable loadOpticalKerningTable(String fontName) throws IOException {
         File rootCacheDir = CacheUtil.getCacheRootDir();
         File opticalKerningCacheDir = new File(rootCacheDir, "optical-kerning");
         if (!opticalKerningCacheDir.exists()) {
             opticalKerningCacheDir.mkdirs();
         }
 
-        File[] cacheFiles = opticalKerningCacheDir.listFiles();
-        for (File cacheFile : cacheFiles) {
-            if (cacheFile.getName().equals(ttf.getName())) {
-                // Found cached optical kerning table for the font -> load it
-                try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
-                    opticalKerningTable = (OpticalKerningTable) ois.readObject();
-                } catch (ClassNotFoundException e) {
-                    throw new IOException(e);
-                } catch (InvalidClassException e) {
-                    // Recalculate optical kerning table
-                }
+        File cacheFile = new File(opticalKerningCacheDir, fontName);
+        if (cacheFile.isFile()) {
+            // Found cached optical kerning table for the font -> load it
+            try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+                return (OpticalKerningTable) ois.readObject();
+            } catch (ClassNotFoundException e) {
+                throw new IOException(e);
+            } catch (InvalidClassException e) {
+                // Recalculate optical kerning table
             }
         }
 
-        if (opticalKerningTable == null) {
-            // Calculate the optical kerning table
-            opticalKerningTable = calculateOpticalKerningTable();
+        // Calculate the optical kerning table
+        OpticalKerningTable table = calculateOpticalKerningTable();
 
-            // Write kerning table to cache file
-            File outFile = new File(opticalKerningCacheDir, ttf.getName());
-            try (ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(outFile)))) {
-                oos.writeObject(opticalKerningTable);
+        // Write kerning table to a temporary file first, so that concurrent exports never read a partially written table
+        Path tmpFile = Files.createTempFile(opticalKerningCacheDir.toPath(), fontName, ".tmp");
+        try {
+            try (ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                oos.writeObject(table);
             }
+
+            Files.move(tmpFile, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmpFile);
         }
+
+        return table;
     }
 
     /**
@@ -293,8 +411,77 @@ public class ThawPdfFont extends AbstractFont {
 
     @Override
     public CharacterSize getCharacterSize(int character, double fontSize) throws Exception {
-        int glyphID = characterMap.getGlyphId(character);
+        int glyphID = getGlyphId(character);
+        if (glyphID >= glyphCount) {
+            return getCharacterSizeFromGlyphData(glyphID, fontSize); // Glyph ID out of range -> cannot use the tables
+        }
+
+        GlyphMetricsPage page = loadGlyph(glyphID);
+        int index = glyphID & (GLYPH_PAGE_SIZE - 1);
+
+        double width = page.advanceWidths[index] * fontSize / 1000;
+        double height = 0;
+
+        double descent = 0;
+        double ascent = 0;
+        if (page.states[index] == GLYPH_WITH_DATA) {
+            height = (page.yMaximums[index] - page.yMinimums[index]) * fontSize / unitsPerEm;
+            ascent = page.yMaximums[index] * fontSize / unitsPerEm;
+            descent = -page.yMinimums[index] * fontSize / unitsPerEm;
+        }
+
+        return new CharacterSize(width, height, ascent, descent);
+    }
+
+    @Override
+    public void measure(int charBefore, CharSequence text, int start, int end, double fontSize, MeasurementBuffer buffer) throws Exception {
+        buffer.clear();
+
+        for (int i = start; i < end; ) {
+            int character = Character.codePointAt(text, i);
+            i += Character.charCount(character);
 
+            double kerningAdjustment = 0;
+            if (charBefore != -1) {
+                kerningAdjustment = getKerningAdjustment(charBefore, character, fontSize);
+            }
+
+            int glyphID = getGlyphId(character);
+            if (glyphID >= glyphCount) {
+                // Glyph ID out of range -> cannot use the tables
+                CharacterSize size = getCharacterSizeFromGlyphData(glyphID, fontSize);
+                buffer.add(size.getWidth(), kerningAdjustment, size.getHeight(), size.getAscent(), size.getDescent());
+            } else {
+                GlyphMetricsPage page = loadGlyph(glyphID);
+                int index = glyphID & (GLYPH_PAGE_SIZE - 1);
+
+                if (page.states[index] == GLYPH_WITH_DATA) {
+                    buffer.add(
+                            page.advanceWidths[index] * fontSize / 1000,
+                            kerningAdjustment,
+                            (page.yMaximums[index] - page.yMinimums[index]) * fontSize / unitsPerEm,
+                            page.yMaximums[index] * fontSize / unitsPerEm,
+                            -page.yMinimums[index] * fontSize / unitsPerEm
+                    );
+                } else {
+                    buffer.add(page.advanceWidths[index] * fontSize / 1000, kerningAdjustment, 0, 0, 0);
+                }
+            }
+
+            charBefore = character;
+        }
+    }
+
+    /**
+     * Get the character size for the passed glyph ID directly from the glyph data of the font.
+     * Synchronized as the PDF font is not thread-safe.
+     *
+     * @param glyphID  to get size for
+     * @param fontSize the font size
+     * @return character size
+     * @throws IOException in case the glyph data could not be read
+     */
+    private synchronized CharacterSize getCharacterSizeFromGlyphData(int glyphID, double fontSize) throws IOException {
         double width = pdFont.getWidth(glyphID) * fontSize / 1000;
         double height = 0;
 
@@ -310,19 +497,118 @@ public class ThawPdfFont extends AbstractFont {
         return new CharacterSize(width, height, ascent, descent);
     }
 
+    /**
+     * Get the glyph ID for the passed code point.
+     *
+     * @param codePoint to get glyph ID for
+     * @return glyph ID
+     */
+    private int getGlyphId(int codePoint) {
+        int pageIndex = codePoint >>> CODE_POINT_PAGE_SHIFT;
+        if (pageIndex >= CODE_POINT_PAGE_COUNT) {
+            return characterMap.getGlyphId(codePoint); // Not a valid code point
+        }
+
+        int[] page = glyphIdPages.get(pageIndex);
+        if (page == null) {
+            // Build the page of glyph IDs (threads building the same page at once build equal pages)
+            page = new int[CODE_POINT_PAGE_SIZE];
+
+            int firstCodePoint = pageIndex << CODE_POINT_PAGE_SHIFT;
+            for (int i = 0; i < CODE_POINT_PAGE_SIZE; i++) {
+                page[i] = characterMap.getGlyphId(firstCodePoint + i);
+            }
+
+            glyphIdPages.set(pageIndex, page);
+        }
+
+        return page[codePoint & (CODE_POINT_PAGE_SIZE - 1)];
+    }
+
+    /**
+     * Get the OpenType script tags for the passed code point.
+     * Only called while looking up kerning, which is synchronized on the font.
+     *
+     * @param codePoint to get script tags for
+     * @return script tags
+     */
+    private String[] getScriptTags(int codePoint) {
+        int pageIndex = codePoint >>> CODE_POINT_PAGE_SHIFT;
+        if (pageIndex >= CODE_POINT_PAGE_COUNT) {
+            return OpenTypeScript.getScriptTags(codePoint); // Not a valid code point
+        }
+
+        String[][] page = scriptTagPages[pageIndex];
+        if (page == null) {
+            // Build the page of script tags
+            page = new String[CODE_POINT_PAGE_SIZE][];
+
+            int firstCodePoint = pageIndex << CODE_POINT_PAGE_SHIFT;
+            for (int i = 0; i < CODE_POINT_PAGE_SIZE; i++) {
+                page[i] = OpenTypeScript.getScriptTags(firstCodePoint + i);
+            }
+
+            scriptTagPages[pageIndex] = page;
+        }
+
+        return page[codePoint & (CODE_POINT_PAGE_SIZE - 1)];
+    }
+
+    /**
+     * Load the metrics of the passed glyph into the glyph tables (if not already loaded).
+     *
+     * @param glyphID to load metrics for
+     * @return the page of the glyph metrics table containing the loaded glyph
+     * @throws IOException in case the glyph data could not be read
+     */
+    private GlyphMetricsPage loadGlyph(int glyphID) throws IOException {
+        int pageIndex = glyphID >>> GLYPH_PAGE_SHIFT;
+        int index = glyphID & (GLYPH_PAGE_SIZE - 1);
+
+        GlyphMetricsPage page = glyphMetricsPages.get(pageIndex);
+        if (page != null && page.states[index] != GLYPH_NOT_LOADED) {
+            return page;
+        }
+
+        synchronized (this) { // The PDF font is not thread-safe
+            page = glyphMetricsPages.get(pageIndex);
+            if (page != null && page.states[index] != GLYPH_NOT_LOADED) {
+                return page; // Loaded by another thread in the meantime
+            }
+
+            page = page != null ? new GlyphMetricsPage(page) : new GlyphMetricsPage();
+
+            page.advanceWidths[index] = pdFont.getWidth(glyphID);
+
+            GlyphData data = glyphTable.getGlyph(glyphID);
+            if (data != null) {
+                page.yMinimums[index] = data.getYMinimum();
+                page.yMaximums[index] = data.getYMaximum();
+
+                page.states[index] = GLYPH_WITH_DATA;
+            } else {
+                page.states[index] = GLYPH_WITHOUT_DATA;
+            }
+
+            glyphMetricsPages.set(pageIndex, page);
+        }
+
+        return page;
+    }
+
     @Override
-    public double getKerningAdjustment(int leftChar, int rightChar, double fontSize) {
+    public synchronized double getKerningAdjustment(int leftChar, int rightChar, double fontSize) {
         switch (kerningMode) {
             case NATIVE -> {
                 if (gposTable != null) {
-                    return gposTable.getKerning(characterMap.getGlyphId(leftChar), characterMap.getGlyphId(rightChar), OpenTypeScript.getScriptTags(leftChar), null) * fontSize / unitsPerEm;
+                    return gposTable.getKerning(getGlyphId(leftChar), getGlyphId(rightChar), getScriptTags(leftChar), null) * fontSize / unitsPerEm;
                 } else if (kerningSubtable != null) {
-                    return kerningSubtable.getKerning(characterMap.getGlyphId(leftChar), characterMap.getGlyphId(rightChar)) * fontSize / unitsPerEm;
+                    return kerningSubtable.getKerning(getGlyphId(leftChar), getGlyphId(rightChar)) * fontSize / unitsPerEm;
                 }
             }
             case OPTICAL -> {
                 if (opticalKerningTable != null) {
-                    return opticalKerningTable.getKerning(characterMap.getGlyphId(leftChar), characterMap.getGlyphId(rightChar)) * fontSize / unitsPerEm;
+                    return opticalKerningTable.getKerning(getGlyphId(leftChar), getGlyphId(rightChar)) * fontSize / unitsPerEm;
                 }
             }
         }
@@ -404,4 +690,45 @@ public class ThawPdfFont extends AbstractFont {
         this.kerningMode = kerningMode;
     }
 
+    /**
+     * Page of the glyph metrics table.
+     */
+    private static final class GlyphMetricsPage {
+
+        /**
+         * Load state of the metrics per glyph of the page.
+         */
+        final byte[] states;
+
+        /**
+         * Advance width per glyph of the page (in thousandths of the font size as reported by the PDF font).
+         */
+        final float[] advanceWidths;
+
+        /**
+         * Minimum y-coordinate of the glyph bounds per glyph of the page (in font units).
+         */
+        final short[] yMinimums;
+
+        /**
+         * Maximum y-coordinate of the glyph bounds per glyph of the page (in font units).
+         */
+        final short[] yMaximums;
+
+        GlyphMetricsPage() {
+            states = new byte[GLYPH_PAGE_SIZE];
+            advanceWidths = new float[GLYPH_PAGE_SIZE];
+            yMinimums = new short[GLYPH_PAGE_SIZE];
+            yMaximums = new short[GLYPH_PAGE_SIZE];
+        }
+
+        GlyphMetricsPage(GlyphMetricsPage page) {
+            states = page.states.clone();
+            advanceWidths = page.advanceWidths.clone();
+            yMinimums = page.yMinimums.clone();
+            yMaximums = page.yMaximums.clone();
+        }
+
+    }
+
 }
@@ -22,8 +22,8 @@ import de.be.thaw.text.model.emphasis.TextEmphasis;
 import de.be.thaw.text.model.tree.impl.FormattedNode;
 import de.be.thaw.typeset.page.Page;
 import de.be.thaw.typeset.util.Insets;
+import de.be.thaw.util.IntLookup;
 import de.be.thaw.util.Size;
-import de.be.thaw.util.unit.Unit;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
@@ -32,7 +32,7 @@ import java.io.File;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
 import java.util.Set;
 import java.util.logging.Logger;
 
@@ -51,6 +51,22 @@ public class ExportContext {
      */
     private final Map<FontVariantLocator, ThawFont> fontCache = new HashMap<>();
 
+    /**
+     * Cache for already resolved fonts by the font family style value and the preferred variant.
+     */
+    private final Map<FontResolutionKey, ResolvedFont> fontResolutionCache = new HashMap<>();
+
+    /**
+     * Locators of the fonts in already read font folders of the project by the folder.
+     * Kept for this render only as the fonts are not part of the fonts installed in the OS.
+     */
+    private final Map<File, List<FontVariantLocator>> projectFontFolders = new HashMap<>();
+
+    /**
+     * Locators of already read font files of the project by the file.
+     */
+    private final Map<File, FontVariantLocator> projectFontFiles = new HashMap<>();
+
     /**
      * The PDF document to export to.
      */
@@ -121,7 +137,7 @@ public class ExportContext {
     /**
      * Lookup of elements by their original DocumentNode ID.
      */
-    private Map<String, ElementLocator> elementLookup;
+    private IntLookup<ElementLocator> elementLookup;
 
     /**
      * The math font to use.
@@ -273,47 +289,73 @@ public class ExportContext {
     }
 
     /**
-     * Get the font variant locator for the passed style value (FontStyleValue)
-     * and the preferred font variant.
+     * Resolve the font for the passed style value (FontStyleValue) and the preferred font variant.
+     * Resolved fonts are cached so that every combination is only resolved once per document.
      *
-     * @param value   to get locator for
+     * @param value   to resolve font for
      * @param variant the preferred variant
-     * @param node    of the style value
-     * @param allowRecursion whether recursive calls of the same method are allowed
-     * @return locator
-     * @throws ExportException in case the variant locator could not be resolved
+     * @return the resolved font or null if the font family does not provide the variant
+     * @throws ExportException in case the font could not be resolved
      */
-    private FontVariantLocator getFontVariantLocatorForStyleValue(StyleValue value, FontVariant variant, DocumentNode node, boolean allowRecursion) throws ExportException {
+    private ResolvedFont resolveFont(StyleValue value, FontVariant variant) throws ExportException {
         if (!(value instanceof FontFamilyStyleValue)) {
             throw new ExportException("Expected style value to fetch font from to be of type FontStyleValue");
         }
 
-        String familyName = value.value();
+        FontResolutionKey key = new FontResolutionKey(value.value(), value.file(), variant);
+        if (fontResolutionCache.containsKey(key)) {
+            return fontResolutionCache.get(key);
+        }
 
-        FontVariantLocator locator = null;
-        boolean overrideVariant = false;
-        if (value.file() != null) {
-            // Is font family folder or file
-            File fontFile = value.file();
+        ResolvedFont resolved = null;
+        FontVariantLocator locator = getFontVariantLocator(value.value(), value.file(), variant);
+        if (locator != null) {
+            resolved = new ResolvedFont(locator, loadFont(locator));
+        }
+
+        fontResolutionCache.put(key, resolved);
 
+        return resolved;
+    }
+
+    /**
+     * Get the font variant locator for the passed font family and the preferred font variant.
+     *
+     * @param familyName of the font family
+     * @param file       the font family is located in or null if the family is installed in the OS
+     * @param variant    the preferred variant
+     * @return locator or null if the font family does not provide the variant
+     * @throws ExportException in case the variant locator could not be resolved
+     */
+    private FontVariantLocator getFontVariantLocator(String familyName, File file, FontVariant variant) throws ExportException {
+        if (file != null) {
+            // Is font family folder or file
             try {
-                if (fontFile.isDirectory()) {
+                if (file.isDirectory()) {
                     // Is a folder of font files (multiple font variants)
-                    List<FontVariantLocator> locators = FontManager.getInstance().registerFontFolder(fontFile);
+                    List<FontVariantLocator> locators = projectFontFolders.get(file);
+                    if (locators == null) {
+                        locators = FontManager.getInstance().readFontFolder(file);
+                        projectFontFolders.put(file, locators);
+                    }
 
                     // Find locator for preferred font variant and family name
                     for (FontVariantLocator l : locators) {
                         if (l.getFamilyName().equals(familyName) && l.getVariant() == variant) {
-                            locator = l;
-                            break;
+                            return l;
                         }
                     }
+
+                    return null;
                 } else {
                     // Is only one font file (one font variant) -> we ignore the wanted font variant and just use the font specified
-                    locator = FontManager.getInstance().registerFont(fontFile).get(0);
+                    FontVariantLocator locator = projectFontFiles.get(file);
+                    if (locator == null) {
+                        locator = FontManager.getInstance().readFont(file).get(0);
+                        projectFontFiles.put(file, locator);
+                    }
 
-                    // Ignore the set font variant
-                    overrideVariant = true;
+                    return locator;
                 }
             } catch (FontRegisterException e) {
                 throw new ExportException(e);
@@ -326,48 +368,18 @@ public class ExportContext {
                     familyName
             )));
 
-            Optional<FontVariantLocator> optionalLocator = family.getVariantFont(variant);
-            if (optionalLocator.isPresent()) {
-                locator = optionalLocator.get();
-            }
-        }
-
-        if (locator == null && variant == FontVariant.MONOSPACE && allowRecursion) {
-            StyleValue monospacedFontFamilyStyleValue = node.getStyles().resolve(StyleType.INLINE_CODE_FONT_FAMILY).orElseThrow();
-            return getFontVariantLocatorForStyleValue(monospacedFontFamilyStyleValue, FontVariant.MONOSPACE, node, false);
-        }
-
-        if (locator != null) {
-            if (locator.getVariant() != variant) {
-                if (overrideVariant) {
-                    return locator;
-                }
-            } else {
-                return locator;
-            }
+            return family.getVariantFont(variant).orElse(null);
         }
-
-        throw new ExportException(String.format(
-                "Could not find font of family '%s' for variant '%s'",
-                familyName,
-                variant.name()
-        ));
     }
 
     /**
-     * Get the font for the passed node.
+     * Load the font for the passed locator (if not already loaded).
      *
-     * @param node to get font for
-     * @return font
+     * @param locator to load font for
+     * @return the loaded font
+     * @throws ExportException in case the font could not be loaded
      */
-    public ThawFont getFontForNode(DocumentNode node) throws ExportException {
-        FontVariantLocator locator = getFontVariantLocatorForStyleValue(
-                node.getStyles().resolve(StyleType.FONT_FAMILY).orElseThrow(),
-                getFontVariantFromNode(node),
-                node,
-                true
-        );
-
+    private ThawPdfFont loadFont(FontVariantLocator locator) throws ExportException {
         ThawPdfFont font = (ThawPdfFont) fontCache.get(locator);
         if (font == null) {
             // Load the font
@@ -380,7 +392,36 @@ public class ExportContext {
             }
         }
 
-        if (locator.getVariant() != FontVariant.MONOSPACE) { // Monospaced fonts should not be optically kerned
+        return font;
+    }
+
+    /**
+     * Get the font for the passed node.
+     *
+     * @param node to get font for
+     * @return font
+     */
+    public ThawFont getFontForNode(DocumentNode node) throws ExportException {
+        StyleValue familyValue = node.getStyles().resolve(StyleType.FONT_FAMILY).orElseThrow();
+        FontVariant variant = getFontVariantFromNode(node);
+
+        ResolvedFont resolved = resolveFont(familyValue, variant);
+        if (resolved == null && variant == FontVariant.MONOSPACE) {
+            // Fall back to the font family for inline code
+            familyValue = node.getStyles().resolve(StyleType.INLINE_CODE_FONT_FAMILY).orElseThrow();
+            resolved = resolveFont(familyValue, FontVariant.MONOSPACE);
+        }
+
+        if (resolved == null) {
+            throw new ExportException(String.format(
+                    "Could not find font of family '%s' for variant '%s'",
+                    familyValue.value(),
+                    variant.name()
+            ));
+        }
+
+        ThawPdfFont font = resolved.getFont();
+        if (resolved.getLocator().getVariant() != FontVariant.MONOSPACE) { // Monospaced fonts should not be optically kerned
             font.setKerningMode(node.getStyles()
                     .resolve(StyleType.FONT_KERNING)
                     .orElse(new KerningModeStyleValue(KerningMode.NATIVE))
@@ -397,9 +438,7 @@ public class ExportContext {
      * @return font size
      */
     public double getFontSizeForNode(DocumentNode node) {
-        return node.getStyles().resolve(StyleType.FONT_SIZE)
-                .orElseThrow()
-                .doubleValue(Unit.POINTS);
+        return node.getStyles().resolvePoints(StyleType.FONT_SIZE);
     }
 
     /**
@@ -407,7 +446,7 @@ public class ExportContext {
      *
      * @return element lookup
      */
-    public Map<String, ElementLocator> getElementLookup() {
+    public IntLookup<ElementLocator> getElementLookup() {
         return elementLookup;
     }
 
@@ -416,7 +455,7 @@ public class ExportContext {
      *
      * @param elementLookup to set
      */
-    public void setElementLookup(Map<String, ElementLocator> elementLookup) {
+    public void setElementLookup(IntLookup<ElementLocator> elementLookup) {
         this.elementLookup = elementLookup;
     }
 
@@ -438,4 +477,82 @@ public class ExportContext {
         return mathFont;
     }
 
+    /**
+     * Key of a resolved font.
+     */
+    private static final class FontResolutionKey {
+
+        /**
+         * Name of the font family.
+         */
+        private final String familyName;
+
+        /**
+         * File or folder the font family is located in (null if installed in the OS).
+         */
+        private final File file;
+
+        /**
+         * The preferred font variant.
+         */
+        private final FontVariant variant;
+
+        public FontResolutionKey(String familyName, File file, FontVariant variant) {
+            this.familyName = familyName;
+            this.file = file;
+            this.variant = variant;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            FontResolutionKey that = (FontResolutionKey) o;
+
+            if (!familyName.equals(that.familyName)) return false;
+            if (!Objects.equals(file, that.file)) return false;
+            return variant == that.variant;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = familyName.hashCode();
+            result = 31 * result + (file != null ? file.hashCode() : 0);
+            result = 31 * result + variant.hashCode();
+            return result;
+        }
+
+    }
+
+    /**
+     * A resolved font along with its locator.
+     */
+    private static final class ResolvedFont {
+
+        /**
+         * Locator of the font.
+         */
+        private final FontVariantLocator locator;
+
+        /**
+         * The loaded font.
+         */
+        private final ThawPdfFont font;
+
+        public ResolvedFont(FontVariantLocator locator, ThawPdfFont font) {
+            this.locator = locator;
+            this.font = font;
+        }
+
+        public FontVariantLocator getLocator() {
+            return locator;
+        }
+
+        public ThawPdfFont getFont() {
+            return font;
+        }
+
+    }
+
 }
@@ -0,0 +1,93 @@
+package de.be.thaw.export.pdf.font;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class FontFileCacheTest {
+
+    @Test
+    public void contentsAreShared(@TempDir Path dir) throws IOException {
+        File file = writeFile(dir, "a.ttf", 100, (byte) 1);
+        FontFileCache cache = new FontFileCache(1000);
+
+        byte[] first = cache.get(file);
+        Assertions.assertEquals(100, first.length);
+        Assertions.assertSame(first, cache.get(file));
+        Assertions.assertEquals(100, cache.getSize());
+    }
+
+    @Test
+    public void leastRecentlyUsedContentsAreEvicted(@TempDir Path dir) throws IOException {
+        File a = writeFile(dir, "a.ttf", 400, (byte) 1);
+        File b = writeFile(dir, "b.ttf", 400, (byte) 2);
+        File c = writeFile(dir, "c.ttf", 400, (byte) 3);
+        FontFileCache cache = new FontFileCache(1000);
+
+        byte[] aBytes = cache.get(a);
+        byte[] bBytes = cache.get(b);
+        Assertions.assertSame(aBytes, cache.get(a)); // a is now more recently used than b
+
+        cache.get(c);
+        Assertions.assertEquals(2, cache.getCount());
+        Assertions.assertEquals(800, cache.getSize());
+
+        Assertions.assertSame(aBytes, cache.get(a));
+        Assertions.assertNotSame(bBytes, cache.get(b)); // Evicted -> read again
+        Assertions.assertTrue(cache.getSize() <= 1000);
+    }
+
+    @Test
+    public void filesLargerThanTheCacheAreNotCached(@TempDir Path dir) throws IOException {
+        File file = writeFile(dir, "huge.ttf", 2000, (byte) 1);
+        FontFileCache cache = new FontFileCache(1000);
+
+        Assertions.assertEquals(2000, cache.get(file).length);
+        Assertions.assertEquals(0, cache.getCount());
+        Assertions.assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void staleContentsAreReplaced(@TempDir Path dir) throws IOException {
+        File file = writeFile(dir, "a.ttf", 100, (byte) 1);
+        FontFileCache cache = new FontFileCache(1000);
+        cache.get(file);
+
+        writeFile(dir, "a.ttf", 300, (byte) 2);
+        byte[] changed = cache.get(file);
+        Assertions.assertEquals(300, changed.length);
+        Assertions.assertEquals(2, changed[0]);
+        Assertions.assertEquals(1, cache.getCount());
+        Assertions.assertEquals(300, cache.getSize());
+
+        // Same size but another modification time
+        writeFile(dir, "a.ttf", 300, (byte) 3);
+        Assertions.assertTrue(file.setLastModified(file.lastModified() + 10000));
+        Assertions.assertEquals(3, cache.get(file)[0]);
+        Assertions.assertEquals(300, cache.getSize());
+    }
+
+    /**
+     * Write a file filled with the passed byte.
+     *
+     * @param dir    to write file to
+     * @param name   of the file
+     * @param length of the file
+     * @param value  to fill the file with
+     * @return the written file
+     * @throws IOException in case the file could not be written
+     */
+    private static File writeFile(Path dir, String name, int length, byte value) throws IOException {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, value);
+
+        return Files.write(dir.resolve(name), bytes).toFile();
+    }
+
+}
@@ -2,11 +2,9 @@ package de.be.thaw.font;
 
 import de.be.thaw.font.util.CharacterSize;
 import de.be.thaw.font.util.KernedSize;
+import de.be.thaw.font.util.MeasurementBuffer;
 import de.be.thaw.font.util.StringSize;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Abstract font representation.
  */
@@ -42,45 +40,42 @@ public abstract class AbstractFont implements ThawFont {
 
     @Override
     public KernedSize getKernedStringSize(int charBefore, String str, double fontSize) throws Exception {
-        double width = 0;
-        double height = 0;
+        MeasurementBuffer buffer = new MeasurementBuffer();
+        measure(charBefore, str, 0, str.length(), fontSize, buffer);
 
-        double maxAscent = Double.MIN_VALUE;
-        double maxDescent = Double.MIN_VALUE;
+        return new KernedSize(
+                buffer.getWidth(),
+                buffer.getHeight(),
+                buffer.getMaxAscent(),
+                buffer.getMaxDescent(),
+                buffer.copyKerningAdjustments()
+        );
+    }
 
-        int len = str.length();
-        List<Double> kerningAdjustments = new ArrayList<>(len);
-        for (int i = 0; i < len; i++) {
-            int character = str.codePointAt(i);
+    @Override
+    public void measure(int charBefore, CharSequence text, int start, int end, double fontSize, MeasurementBuffer buffer) throws Exception {
+        buffer.clear();
 
-            int charCount = Character.charCount(character);
-            if (charCount > 1) {
-                i += charCount - 1;
-            }
+        for (int i = start; i < end; ) {
+            int character = Character.codePointAt(text, i);
+            i += Character.charCount(character);
 
             double kerningAdjustment = 0;
             if (charBefore != -1) {
                 kerningAdjustment = getKerningAdjustment(charBefore, character, fontSize);
             }
-            kerningAdjustments.add(kerningAdjustment);
 
             CharacterSize characterSize = getCharacterSize(character, fontSize);
-            width += characterSize.getWidth() + kerningAdjustment;
-            height = Math.max(characterSize.getHeight(), height);
-
-            maxAscent = Math.max(characterSize.getAscent(), maxAscent);
-            maxDescent = Math.max(characterSize.getDescent(), maxDescent);
+            buffer.add(
+                    characterSize.getWidth(),
+                    kerningAdjustment,
+                    characterSize.getHeight(),
+                    characterSize.getAscent(),
+                    characterSize.getDescent()
+            );
 
             charBefore = character;
         }
-
-        return new KernedSize(
-                width,
-                height,
-                maxAscent,
-                maxDescent,
-                kerningAdjustments.stream().mapToDouble(i -> i).toArray()
-        );
     }
 
 }
@@ -2,6 +2,7 @@ package de.be.thaw.font;
 
 import de.be.thaw.font.util.CharacterSize;
 import de.be.thaw.font.util.KernedSize;
+import de.be.thaw.font.util.MeasurementBuffer;
 import de.be.thaw.font.util.StringSize;
 
 /**
@@ -54,6 +55,20 @@ public interface ThawFont {
      */
     KernedSize getKernedStringSize(int charBefore, String str, double fontSize) throws Exception;
 
+    /**
+     * Measure the code points in the passed range of the given text with kerning adjustments applied.
+     * The results are written to the passed buffer (which is cleared first), so no objects need to be allocated.
+     *
+     * @param charBefore the character before the range (if any), else pass -1
+     * @param text       containing the range to measure
+     * @param start      index of the first char of the range (inclusive)
+     * @param end        index of the last char of the range (exclusive)
+     * @param fontSize   the font size
+     * @param buffer     to write the measurement to
+     * @throws Exception in case the range could not be measured
+     */
+    void measure(int charBefore, CharSequence text, int start, int end, double fontSize, MeasurementBuffer buffer) throws Exception;
+
     /**
      * Get the kerning adjustment between the passed left and right character.
      *
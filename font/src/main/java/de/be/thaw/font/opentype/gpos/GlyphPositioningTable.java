@@ -1,5 +1,6 @@
 package de.be.thaw.font.opentype.gpos;
 
+import de.be.thaw.font.opentype.gpos.kerning.KerningPlan;
 import de.be.thaw.font.opentype.gpos.subtable.ValueRecord;
 import de.be.thaw.font.opentype.gpos.subtable.classdef.ClassDefTable;
 import de.be.thaw.font.opentype.gpos.subtable.classdef.format1.ClassDefTableFormat1;
@@ -30,7 +31,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
 import java.util.Set;
 import java.util.logging.Logger;
 
@@ -76,9 +77,24 @@ public class GlyphPositioningTable {
     private LookupTable[] lookupTables;
 
     /**
-     * Cache for already fetched kerning pairs.
+     * Already compiled kerning plans by the script tag and the enabled features they have been compiled for.
      */
-    private Map<Long, Integer> kerningCache = new HashMap<>();
+    private final Map<KerningPlanKey, KerningPlan> kerningPlans = new HashMap<>();
+
+    /**
+     * Script tags the last kerning plan has been requested for.
+     */
+    private String[] lastScriptTags;
+
+    /**
+     * Enabled features the last kerning plan has been requested for.
+     */
+    private Set<String> lastEnabledFeatures;
+
+    /**
+     * The last requested kerning plan.
+     */
+    private KerningPlan lastKerningPlan;
 
     /**
      * Create the GPOS table from the passed bytes.
@@ -100,16 +116,43 @@ public class GlyphPositioningTable {
      * @return kerning (in design units)
      */
     public int getKerning(int leftGlyphID, int rightGlyphID, String[] scriptTags, Set<String> enabledFeatures) {
-        long cacheKey = Integer.toUnsignedLong(leftGlyphID) | Integer.toUnsignedLong(rightGlyphID) << 32;
+        return getKerningPlan(scriptTags, enabledFeatures).getKerning(leftGlyphID, rightGlyphID);
+    }
 
-        Integer cachedKerningValue = kerningCache.get(cacheKey);
-        if (cachedKerningValue != null) {
-            return cachedKerningValue;
+    /**
+     * Get the kerning plan for the passed script tags and enabled features.
+     * The plan is compiled the first time it is requested.
+     *
+     * @param scriptTags      script tags applicable to the glyphs to kern
+     * @param enabledFeatures set of enabled features
+     * @return the kerning plan
+     */
+    private KerningPlan getKerningPlan(String[] scriptTags, Set<String> enabledFeatures) {
+        // Subsequent requests usually come from the same script -> check the last plan first
+        if (lastKerningPlan != null && scriptTags == lastScriptTags && enabledFeatures == lastEnabledFeatures) {
+            return lastKerningPlan;
         }
 
-        int kerningValue = 0;
+        KerningPlanKey key = new KerningPlanKey(chooseScriptTag(scriptTags), enabledFeatures != null ? Set.copyOf(enabledFeatures) : null);
+        KerningPlan plan = kerningPlans.computeIfAbsent(key, k -> compileKerningPlan(k.getScriptTag(), k.getEnabledFeatures()));
+
+        lastScriptTags = scriptTags;
+        lastEnabledFeatures = enabledFeatures;
+        lastKerningPlan = plan;
+
+        return plan;
+    }
+
+    /**
+     * Compile the kerning plan for the passed script tag and enabled features.
+     *
+     * @param scriptTag       to compile plan for
+     * @param enabledFeatures set of enabled features
+     * @return the compiled kerning plan
+     */
+    private KerningPlan compileKerningPlan(String scriptTag, Set<String> enabledFeatures) {
+        List<PairPosSubTable> subTables = new ArrayList<>();
 
-        String scriptTag = chooseScriptTag(scriptTags);
         ScriptTable scriptTable = scriptTableLookup.get(scriptTag);
         if (scriptTable != null) {
             List<LangSysTable> langSysTables = fetchLangSysTables(scriptTable);
@@ -122,23 +165,14 @@ public class GlyphPositioningTable {
 
                     if (type == LookupType.PAIR_ADJUSTMENT_POSITIONING) {
                         for (LookupSubTable subTable : lookupTable.getSubTables()) {
-                            PairPosSubTable pairPosSubTable = (PairPosSubTable) subTable;
-
-                            Optional<PairPosSubTable.PairPosAdjustment> optionalAdjustment = pairPosSubTable.getAdjustment(leftGlyphID, rightGlyphID);
-                            if (optionalAdjustment.isPresent()) {
-                                PairPosSubTable.PairPosAdjustment adjustment = optionalAdjustment.orElseThrow();
-
-                                kerningValue += adjustment.getLeft().getXAdvance();
-                            }
+                            subTables.add((PairPosSubTable) subTable);
                         }
                     }
                 }
             }
         }
 
-        kerningCache.put(cacheKey, kerningValue);
-
-        return kerningValue;
+        return KerningPlan.compile(subTables);
     }
 
     /**
@@ -1076,6 +1110,54 @@ public class GlyphPositioningTable {
 
     }
 
+    /**
+     * Key of a compiled kerning plan.
+     */
+    private static final class KerningPlanKey {
+
+        /**
+         * Script tag the plan is compiled for.
+         */
+        private final String scriptTag;
+
+        /**
+         * Enabled features the plan is compiled for (null if all features are enabled).
+         */
+        private final Set<String> enabledFeatures;
+
+        public KerningPlanKey(String scriptTag, Set<String> enabledFeatures) {
+            this.scriptTag = scriptTag;
+            this.enabledFeatures = enabledFeatures;
+        }
+
+        public String getScriptTag() {
+            return scriptTag;
+        }
+
+        public Set<String> getEnabledFeatures() {
+            return enabledFeatures;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            KerningPlanKey that = (KerningPlanKey) o;
+
+            if (!scriptTag.equals(that.scriptTag)) return false;
+            return Objects.equals(enabledFeatures, that.enabledFeatures);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = scriptTag.hashCode();
+            result = 31 * result + (enabledFeatures != null ? enabledFeatures.hashCode() : 0);
+            return result;
+        }
+
+    }
+
     /**
      * A feature record in a GPOS table.
      * It specifies a tag and offset of the actual feature table to read.
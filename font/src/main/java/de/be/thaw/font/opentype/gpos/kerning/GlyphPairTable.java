@@ -0,0 +1,149 @@
+package de.be.thaw.font.opentype.gpos.kerning;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash table mapping a pair of glyph IDs to a short value.
+ * Keys and values are stored in primitive arrays so that neither lookups nor insertions box any values.
+ */
+public class GlyphPairTable {
+
+    /**
+     * Marker for an empty slot in the key array.
+     * Glyph IDs are never negative so that no valid pair key can be equal to it.
+     */
+    private static final long EMPTY_KEY = -1L;
+
+    /**
+     * Minimum capacity of the table.
+     */
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * Keys of the table (or {@link #EMPTY_KEY}).
+     */
+    private long[] keys;
+
+    /**
+     * Values of the table.
+     */
+    private short[] values;
+
+    /**
+     * Count of entries in the table.
+     */
+    private int size;
+
+    public GlyphPairTable() {
+        this(MIN_CAPACITY);
+    }
+
+    public GlyphPairTable(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+
+        keys = new long[capacity];
+        values = new short[capacity];
+        Arrays.fill(keys, EMPTY_KEY);
+    }
+
+    /**
+     * Build the key for the passed glyph pair.
+     *
+     * @param leftGlyphID  left glyph ID
+     * @param rightGlyphID right glyph ID
+     * @return key of the pair
+     */
+    public static long key(int leftGlyphID, int rightGlyphID) {
+        return Integer.toUnsignedLong(leftGlyphID) << 32 | Integer.toUnsignedLong(rightGlyphID);
+    }
+
+    /**
+     * Get the slot the passed key is stored in or the empty slot where it would be stored.
+     *
+     * @param key to find slot for
+     * @return slot index
+     */
+    private int findSlot(long key) {
+        int mask = keys.length - 1;
+
+        long hash = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (keys[slot] != EMPTY_KEY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    /**
+     * Get the value of the passed glyph pair.
+     *
+     * @param leftGlyphID  left glyph ID
+     * @param rightGlyphID right glyph ID
+     * @param defaultValue to return when the pair is not contained
+     * @return the value or the default value
+     */
+    public int get(int leftGlyphID, int rightGlyphID, int defaultValue) {
+        int slot = findSlot(key(leftGlyphID, rightGlyphID));
+
+        return keys[slot] != EMPTY_KEY ? values[slot] : defaultValue;
+    }
+
+    /**
+     * Put a value for the passed glyph pair (overwriting any previous value).
+     *
+     * @param leftGlyphID  left glyph ID
+     * @param rightGlyphID right glyph ID
+     * @param value        to put
+     */
+    public void put(int leftGlyphID, int rightGlyphID, short value) {
+        long key = key(leftGlyphID, rightGlyphID);
+
+        int slot = findSlot(key);
+        if (keys[slot] == EMPTY_KEY) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+                slot = findSlot(key);
+            }
+
+            keys[slot] = key;
+            size++;
+        }
+
+        values[slot] = value;
+    }
+
+    /**
+     * Get the count of entries in the table.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Double the capacity of the table.
+     */
+    private void grow() {
+        long[] oldKeys = keys;
+        short[] oldValues = values;
+
+        keys = new long[oldKeys.length * 2];
+        values = new short[oldValues.length * 2];
+        Arrays.fill(keys, EMPTY_KEY);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY_KEY) {
+                int slot = findSlot(oldKeys[i]);
+
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,278 @@
+package de.be.thaw.font.opentype.gpos.kerning;
+
+import de.be.thaw.font.opentype.gpos.subtable.classdef.ClassDefTable;
+import de.be.thaw.font.opentype.gpos.subtable.classdef.format2.ClassDefTableFormat2;
+import de.be.thaw.font.opentype.gpos.subtable.classdef.format2.ClassRangeRecord;
+import de.be.thaw.font.opentype.gpos.subtable.coverage.CoverageTable;
+import de.be.thaw.font.opentype.gpos.subtable.coverage.format1.CoverageTableFormat1;
+import de.be.thaw.font.opentype.gpos.subtable.coverage.format2.CoverageTableFormat2;
+import de.be.thaw.font.opentype.gpos.subtable.coverage.format2.RangeRecord;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.PairPosSubTable;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.format1.PairPosFormat1SubTable;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.format1.PairSetTable;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.format1.PairValueRecord;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.format2.Class2Record;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.format2.PairPosFormat2SubTable;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Kerning plan compiled from the pair adjustment positioning sub tables that apply for a script and a set of features.
+ * The sub tables are compiled to primitive lookups once so that fetching the kerning for a glyph pair
+ * does neither need to walk the feature and lookup lists nor allocate any objects.
+ * Resolved kerning values are additionally cached per glyph pair.
+ */
+public class KerningPlan {
+
+    /**
+     * Value returned by the cache for glyph pairs not resolved yet.
+     */
+    private static final int NOT_CACHED = Integer.MIN_VALUE;
+
+    /**
+     * Compiled pair adjustments in the order of the original sub tables.
+     */
+    private final PairAdjustments[] adjustments;
+
+    /**
+     * Cache of already resolved kerning values per glyph pair.
+     */
+    private final GlyphPairTable cache = new GlyphPairTable();
+
+    private KerningPlan(PairAdjustments[] adjustments) {
+        this.adjustments = adjustments;
+    }
+
+    /**
+     * Compile a kerning plan from the passed pair adjustment positioning sub tables.
+     * The adjustments of all sub tables are summed up for a glyph pair.
+     *
+     * @param subTables to compile
+     * @return the compiled plan
+     */
+    public static KerningPlan compile(List<PairPosSubTable> subTables) {
+        PairAdjustments[] adjustments = new PairAdjustments[subTables.size()];
+        for (int i = 0; i < adjustments.length; i++) {
+            PairPosSubTable subTable = subTables.get(i);
+
+            if (subTable instanceof PairPosFormat1SubTable) {
+                adjustments[i] = compileFormat1((PairPosFormat1SubTable) subTable);
+            } else if (subTable instanceof PairPosFormat2SubTable) {
+                adjustments[i] = compileFormat2((PairPosFormat2SubTable) subTable);
+            } else {
+                adjustments[i] = wrap(subTable); // Unknown format -> use the sub table as is
+            }
+        }
+
+        return new KerningPlan(adjustments);
+    }
+
+    /**
+     * Get the kerning for the passed glyph pair.
+     *
+     * @param leftGlyphID  left glyph ID
+     * @param rightGlyphID right glyph ID
+     * @return kerning (in design units)
+     */
+    public int getKerning(int leftGlyphID, int rightGlyphID) {
+        int kerning = cache.get(leftGlyphID, rightGlyphID, NOT_CACHED);
+        if (kerning != NOT_CACHED) {
+            return kerning;
+        }
+
+        kerning = 0;
+        for (PairAdjustments adjustment : adjustments) {
+            kerning += adjustment.getXAdvance(leftGlyphID, rightGlyphID);
+        }
+
+        if (kerning == (short) kerning) {
+            cache.put(leftGlyphID, rightGlyphID, (short) kerning);
+        }
+
+        return kerning;
+    }
+
+    /**
+     * Wrap the passed sub table without compiling it.
+     *
+     * @param subTable to wrap
+     * @return adjustments delegating to the sub table
+     */
+    private static PairAdjustments wrap(PairPosSubTable subTable) {
+        return (leftGlyphID, rightGlyphID) -> subTable.getAdjustment(leftGlyphID, rightGlyphID)
+                .map(adjustment -> adjustment.getLeft().getXAdvance())
+                .orElse(0);
+    }
+
+    /**
+     * Compile a pair adjustment sub table of format 1 (individual glyph pairs) to a glyph pair table.
+     *
+     * @param subTable to compile
+     * @return the compiled adjustments
+     */
+    private static PairAdjustments compileFormat1(PairPosFormat1SubTable subTable) {
+        CoverageTable coverageTable = subTable.getCoverageTable();
+        PairSetTable[] pairSetTables = subTable.getPairSetTables();
+
+        GlyphPairTable table = new GlyphPairTable();
+        if (coverageTable instanceof CoverageTableFormat1) {
+            int[] glyphIDs = ((CoverageTableFormat1) coverageTable).getGlyphIDs();
+            for (int i = 0; i < glyphIDs.length; i++) {
+                addPairs(table, coverageTable, pairSetTables, glyphIDs[i], i);
+            }
+        } else if (coverageTable instanceof CoverageTableFormat2) {
+            for (RangeRecord record : ((CoverageTableFormat2) coverageTable).getRangeRecords()) {
+                for (int glyphID = record.getStartGlyphID(); glyphID <= record.getEndGlpyhID(); glyphID++) {
+                    addPairs(table, coverageTable, pairSetTables, glyphID, record.getStartCoverageIndex() + (glyphID - record.getStartGlyphID()));
+                }
+            }
+        } else {
+            return wrap(subTable); // Unknown coverage format -> use the sub table as is
+        }
+
+        return (leftGlyphID, rightGlyphID) -> table.get(leftGlyphID, rightGlyphID, 0);
+    }
+
+    /**
+     * Add the pairs of the pair set table with the given coverage index to the passed glyph pair table.
+     *
+     * @param table         to add pairs to
+     * @param coverageTable of the sub table
+     * @param pairSetTables of the sub table
+     * @param leftGlyphID   the left glyph ID of the pairs
+     * @param coverageIndex of the left glyph
+     */
+    private static void addPairs(
+            GlyphPairTable table,
+            CoverageTable coverageTable,
+            PairSetTable[] pairSetTables,
+            int leftGlyphID,
+            int coverageIndex
+    ) {
+        if (coverageTable.getIndex(leftGlyphID) != coverageIndex || coverageIndex >= pairSetTables.length) {
+            return; // Glyph is covered more than once -> only the index found by the coverage table applies
+        }
+
+        for (PairValueRecord record : pairSetTables[coverageIndex].getRecords()) {
+            table.put(leftGlyphID, record.getSecondGlyph(), (short) record.getValueRecord1().getXAdvance());
+        }
+    }
+
+    /**
+     * Compile a pair adjustment sub table of format 2 (glyph classes) to a class matrix.
+     *
+     * @param subTable to compile
+     * @return the compiled adjustments
+     */
+    private static PairAdjustments compileFormat2(PairPosFormat2SubTable subTable) {
+        ClassDefTable classDef1Table = compileClassDefTable(subTable.getClassDef1Table());
+        ClassDefTable classDef2Table = compileClassDefTable(subTable.getClassDef2Table());
+
+        int class1Count = subTable.getClass1Records().length;
+        int class2Count = subTable.getClass2Count();
+
+        short[] xAdvances = new short[class1Count * class2Count];
+        for (int class1 = 0; class1 < class1Count; class1++) {
+            Class2Record[] class2Records = subTable.getClass1Records()[class1].getClass2Records();
+            for (int class2 = 0; class2 < class2Count && class2 < class2Records.length; class2++) {
+                xAdvances[class1 * class2Count + class2] = (short) class2Records[class2].getValueRecord1().getXAdvance();
+            }
+        }
+
+        return (leftGlyphID, rightGlyphID) -> {
+            int leftClass = classDef1Table.getClass(leftGlyphID);
+            int rightClass = classDef2Table.getClass(rightGlyphID);
+
+            if (leftClass > -1 && leftClass < class1Count && rightClass > -1 && rightClass < class2Count) {
+                return xAdvances[leftClass * class2Count + rightClass];
+            }
+
+            return 0;
+        };
+    }
+
+    /**
+     * Compile the passed class def table to a table that can be searched faster (if necessary).
+     *
+     * @param classDefTable to compile
+     * @return the compiled table
+     */
+    private static ClassDefTable compileClassDefTable(ClassDefTable classDefTable) {
+        if (classDefTable instanceof ClassDefTableFormat2) {
+            return new SortedRangeClassDefTable(((ClassDefTableFormat2) classDefTable).getRecords());
+        }
+
+        return classDefTable; // Format 1 is already a direct array lookup
+    }
+
+    /**
+     * Compiled adjustments of a pair adjustment positioning sub table.
+     */
+    @FunctionalInterface
+    private interface PairAdjustments {
+
+        /**
+         * Get the x-advance adjustment of the left glyph for the passed glyph pair.
+         *
+         * @param leftGlyphID  left glyph ID
+         * @param rightGlyphID right glyph ID
+         * @return the adjustment or 0 if there is none
+         */
+        int getXAdvance(int leftGlyphID, int rightGlyphID);
+
+    }
+
+    /**
+     * Class def table with its class ranges stored in arrays sorted by start glyph ID
+     * so that the class of a glyph can be found using a binary search.
+     */
+    private static class SortedRangeClassDefTable implements ClassDefTable {
+
+        /**
+         * Start glyph IDs of the ranges.
+         */
+        private final int[] startGlyphIDs;
+
+        /**
+         * End glyph IDs (inclusive) of the ranges.
+         */
+        private final int[] endGlyphIDs;
+
+        /**
+         * Class values of the ranges.
+         */
+        private final int[] classValues;
+
+        SortedRangeClassDefTable(ClassRangeRecord[] records) {
+            ClassRangeRecord[] sorted = records.clone();
+            Arrays.sort(sorted, Comparator.comparingInt(ClassRangeRecord::getStartGlyphID));
+
+            startGlyphIDs = new int[sorted.length];
+            endGlyphIDs = new int[sorted.length];
+            classValues = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                startGlyphIDs[i] = sorted[i].getStartGlyphID();
+                endGlyphIDs[i] = sorted[i].getEndGlyphID();
+                classValues[i] = sorted[i].getClassValue();
+            }
+        }
+
+        @Override
+        public int getClass(int glyphID) {
+            int index = Arrays.binarySearch(startGlyphIDs, glyphID);
+            if (index < 0) {
+                index = -index - 2; // Range starting before the glyph ID
+            }
+
+            if (index >= 0 && glyphID <= endGlyphIDs[index]) {
+                return classValues[index];
+            }
+
+            return -1;
+        }
+
+    }
+
+}
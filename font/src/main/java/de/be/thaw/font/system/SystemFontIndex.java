@@ -0,0 +1,129 @@
+package de.be.thaw.font.system;
+
+import de.be.thaw.font.util.file.FontDescriptor;
+import de.be.thaw.font.util.file.IndexedFontFile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistent index of the system font files.
+ * A font file only needs to be read again when its modification time or size changed since it has been indexed.
+ */
+public class SystemFontIndex implements Serializable {
+
+    /**
+     * Indexed font files by their location.
+     */
+    private final Map<String, IndexedFontFile> files = new HashMap<>();
+
+    /**
+     * Whether the index changed since it has been loaded.
+     */
+    private transient boolean changed;
+
+    /**
+     * Load the index from the passed file.
+     * An empty index is returned when the file does not exist or could not be read.
+     *
+     * @param indexFile to load index from
+     * @return the loaded index
+     */
+    public static SystemFontIndex load(File indexFile) {
+        if (indexFile.isFile()) {
+            try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(indexFile.toPath())))) {
+                return (SystemFontIndex) ois.readObject();
+            } catch (IOException | ClassNotFoundException | ClassCastException e) {
+                // Index is outdated or corrupt -> rebuild it
+            }
+        }
+
+        SystemFontIndex index = new SystemFontIndex();
+        index.changed = true;
+
+        return index;
+    }
+
+    /**
+     * Update the index with the passed font files.
+     * Files no longer present are removed from the index and new or changed files are read.
+     *
+     * @param fontFiles all currently available font files
+     * @return the indexed font files
+     * @throws IOException in case a font file could not be read
+     */
+    public IndexedFontFile[] update(List<File> fontFiles) throws IOException {
+        Map<String, IndexedFontFile> oldFiles = new HashMap<>(files);
+        files.clear();
+
+        IndexedFontFile[] result = new IndexedFontFile[fontFiles.size()];
+        for (int i = 0; i < result.length; i++) {
+            File file = fontFiles.get(i);
+            String location = file.getAbsolutePath();
+
+            IndexedFontFile indexed = oldFiles.remove(location);
+            if (indexed == null || !indexed.isUpToDate(file)) {
+                indexed = IndexedFontFile.read(file);
+                changed = true;
+
+                for (FontDescriptor font : indexed.getFonts()) {
+                    if (font.getVariant() == null) {
+                        System.out.println(String.format("[WARN] The variant of font '%s' is not supported", font.getFontName()));
+                    }
+                }
+            }
+
+            files.put(location, indexed);
+            result[i] = indexed;
+        }
+
+        if (!oldFiles.isEmpty()) {
+            changed = true; // Some files have been removed
+        }
+
+        return result;
+    }
+
+    /**
+     * Check whether the index changed since it has been loaded.
+     *
+     * @return whether changed
+     */
+    public boolean isChanged() {
+        return changed;
+    }
+
+    /**
+     * Save the index to the passed file.
+     *
+     * @param indexFile to save index to
+     * @throws IOException in case the index could not be saved
+     */
+    public void save(File indexFile) throws IOException {
+        // Write to a temporary file first to never leave a partially written index behind
+        Path tmpFile = Files.createTempFile(indexFile.getParentFile().toPath(), indexFile.getName(), ".tmp");
+        try {
+            try (ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                oos.writeObject(this);
+            }
+
+            Files.move(tmpFile, indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+
+        changed = false;
+    }
+
+}
@@ -1,27 +1,40 @@
 package de.be.thaw.font.system;
 
 import de.be.thaw.font.util.exception.CouldNotGetFontsException;
-import de.be.thaw.font.util.file.FontCollectionFile;
-import de.be.thaw.font.util.file.FontFile;
-import de.be.thaw.font.util.file.SingleFontFile;
+import de.be.thaw.font.util.file.IndexedFontFile;
+import de.be.thaw.util.cache.CacheUtil;
+import de.be.thaw.util.debug.Debug;
 import de.be.thaw.util.os.OperatingSystem;
 import de.be.thaw.util.os.exception.CouldNotDetermineOperatingSystemException;
 
-import java.awt.FontFormatException;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Manager providing access to fonts installed to the current system.
+ * The fonts are described by a persistent index in the cache directory so that only
+ * new or changed font files need to be read on startup.
  */
 public class SystemFontManager {
 
     /**
-     * Available system fonts as mapping from the font name to its description.
+     * Logger of the class.
      */
-    private static FontFile[] SYSTEM_FONTS;
+    private static final Logger LOGGER = Logger.getLogger(SystemFontManager.class.getSimpleName());
+
+    /**
+     * Name of the system font index file in the cache root directory.
+     */
+    private static final String INDEX_FILE_NAME = "system-font-index";
+
+    /**
+     * Available system font files.
+     */
+    private static IndexedFontFile[] SYSTEM_FONTS;
 
     /**
      * Get all available fonts in the system.
@@ -29,44 +42,66 @@ public class SystemFontManager {
      * @return available fonts
      * @throws CouldNotGetFontsException in case fonts could not be retrieved from the system
      */
-    public static FontFile[] getAvailableFonts() throws CouldNotGetFontsException {
+    public static IndexedFontFile[] getAvailableFonts() throws CouldNotGetFontsException {
         if (SYSTEM_FONTS == null) {
-            List<FontFile> descriptorList = new ArrayList<>();
+            List<File> fontFiles = new ArrayList<>();
 
             try {
                 for (String location : SystemFontLocations.getLocations(OperatingSystem.current())) {
                     File fontsFolder = new File(location);
 
                     if (fontsFolder.isDirectory()) {
-                        findFontsInFolder(fontsFolder, descriptorList);
+                        findFontsInFolder(fontsFolder, fontFiles);
                     }
                 }
-            } catch (CouldNotDetermineOperatingSystemException | FontFormatException | IOException e) {
+            } catch (CouldNotDetermineOperatingSystemException e) {
                 throw new CouldNotGetFontsException(e);
             }
 
-            SYSTEM_FONTS = descriptorList.toArray(new FontFile[0]);
+            File indexFile = new File(CacheUtil.getCacheRootDir(), INDEX_FILE_NAME);
+            SystemFontIndex index = SystemFontIndex.load(indexFile);
+
+            try {
+                SYSTEM_FONTS = index.update(fontFiles);
+            } catch (IOException e) {
+                throw new CouldNotGetFontsException(e);
+            }
+
+            boolean indexChanged = index.isChanged();
+            if (indexChanged) {
+                try {
+                    index.save(indexFile);
+                } catch (IOException e) {
+                    // The index is just a cache -> fonts are read again next time
+                    LOGGER.log(Level.WARNING, "Could not save the system font index", e);
+                }
+            }
+
+            if (Debug.isDebug()) {
+                LOGGER.log(Level.INFO, String.format("Loaded %d system font files (index changed: %b)", SYSTEM_FONTS.length, indexChanged));
+            }
         }
 
         return SYSTEM_FONTS;
     }
 
     /**
-     * Find fonts in the passed folder file.
+     * Find font files in the passed folder file.
      *
      * @param folder to search for fonts in
-     * @param result the result list to add found fonts to
-     * @throws IOException         in case a font could not be read
-     * @throws FontFormatException in case a font format is incorrect
+     * @param result the result list to add found font files to
      */
-    private static void findFontsInFolder(File folder, List<FontFile> result) throws IOException, FontFormatException {
-        for (File file : folder.listFiles()) {
+    private static void findFontsInFolder(File folder, List<File> result) {
+        File[] files = folder.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        for (File file : files) {
             if (file.isDirectory()) {
                 findFontsInFolder(file, result);
-            } else if (file.getName().toLowerCase().endsWith(".ttf")) {
-                result.add(new SingleFontFile(file.getAbsolutePath()));
-            } else if (file.getName().toLowerCase().endsWith(".ttc")) {
-                result.add(new FontCollectionFile(file.getAbsolutePath()));
+            } else if (file.getName().toLowerCase().endsWith(".ttf") || file.getName().toLowerCase().endsWith(".ttc")) {
+                result.add(file);
             }
         }
     }
@@ -1,18 +1,12 @@
 package de.be.thaw.font.util;
 
 import de.be.thaw.font.system.SystemFontManager;
-import de.be.thaw.font.util.exception.CouldNotDetermineFontVariantException;
 import de.be.thaw.font.util.exception.CouldNotGetFontsException;
 import de.be.thaw.font.util.exception.FontRegisterException;
-import de.be.thaw.font.util.file.FontCollectionFile;
+import de.be.thaw.font.util.file.FontDescriptor;
 import de.be.thaw.font.util.file.FontFile;
-import de.be.thaw.font.util.file.SingleFontFile;
+import de.be.thaw.font.util.file.IndexedFontFile;
 
-import java.awt.Font;
-import java.awt.FontFormatException;
-import java.awt.RenderingHints;
-import java.awt.font.FontRenderContext;
-import java.awt.geom.Rectangle2D;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -29,7 +23,8 @@ import java.util.Set;
 public class FontManager {
 
     /**
-     * Mapping of font families to their font files.
+     * Mapping of font families installed in the OS to their font files.
+     * Only filled when initializing as the manager is shared by all renders in the JVM.
      */
     private final Map<String, FontFamily> families = new HashMap<>();
 
@@ -86,18 +81,20 @@ public class FontManager {
     }
 
     /**
-     * Register a whole font folder.
+     * Read the fonts in a whole font folder (for example of a project).
+     * The fonts are not added to the font families installed in the OS, so they are only
+     * available to the caller (and do not leak into other renders in this JVM).
      *
-     * @param fontFolder to register fonts in
-     * @return a list of font locators that have been registered
-     * @throws FontRegisterException in case one or multiple of the fonts could not be registered
+     * @param fontFolder to read fonts in
+     * @return a list of font locators of the read fonts
+     * @throws FontRegisterException in case one or multiple of the fonts could not be read
      */
-    public List<FontVariantLocator> registerFontFolder(File fontFolder) throws FontRegisterException {
+    public List<FontVariantLocator> readFontFolder(File fontFolder) throws FontRegisterException {
         List<FontVariantLocator> locators = new ArrayList<>();
 
         for (File file : fontFolder.listFiles()) {
             try {
-                locators.addAll(registerFont(file));
+                locators.addAll(readFont(file));
             } catch (FontRegisterException e) {
                 // Should not stop the application, will happen because we do not support all possible font variants like 'Medium', 'Black', etc.
             }
@@ -107,31 +104,16 @@ public class FontManager {
     }
 
     /**
-     * Register another font.
+     * Read another font (for example of a project).
+     * Like {@link #readFontFolder(File)} the font is not added to the font families installed in the OS.
      *
-     * @param fontFile file of the font to register
-     * @return the font variant locators that has been registered for the font file
-     * @throws FontRegisterException in case the font could not be registered
+     * @param fontFile file of the font to read
+     * @return the font variant locators of the fonts in the font file
+     * @throws FontRegisterException in case the font could not be read
      */
-    public List<FontVariantLocator> registerFont(File fontFile) throws FontRegisterException {
+    public List<FontVariantLocator> readFont(File fontFile) throws FontRegisterException {
         String fileName = fontFile.getName().toLowerCase();
-
-        FontFile file;
-        if (fileName.endsWith(".ttf")) {
-            // Is normal OpenType font with TTF-flavoured glyph outlines
-            try {
-                file = new SingleFontFile(fontFile.getAbsolutePath());
-            } catch (IOException | FontFormatException e) {
-                throw new FontRegisterException(e);
-            }
-        } else if (fileName.endsWith(".ttc")) {
-            // Is collection of OpenType fonts with TTF-flavoured glyph outlines
-            try {
-                file = new FontCollectionFile(fontFile.getAbsolutePath());
-            } catch (IOException | FontFormatException e) {
-                throw new FontRegisterException(e);
-            }
-        } else {
+        if (!fileName.endsWith(".ttf") && !fileName.endsWith(".ttc")) {
             throw new FontRegisterException(String.format(
                     "Could not register font with path '%s' as we currently only support OpenType fonts with file endings '*.ttf' and '*.ttc'." +
                             "If you want to use a font file with ending '*.otf' please consider converting it to a '*.ttf' file (This is a mostly loseless process!).",
@@ -139,58 +121,44 @@ public class FontManager {
             ));
         }
 
-        if (file.isCollection()) {
-            List<FontVariantLocator> locators = new ArrayList<>();
-            for (Font font : ((FontCollectionFile) file).getFonts()) {
-                locators.add(registerFontInternal(file, font));
-            }
+        // Is normal OpenType font or collection of OpenType fonts with TTF-flavoured glyph outlines
+        IndexedFontFile file;
+        try {
+            file = IndexedFontFile.read(fontFile);
+        } catch (IOException e) {
+            throw new FontRegisterException(e);
+        }
 
-            return locators;
-        } else {
-            return Collections.singletonList(registerFontInternal(file, ((SingleFontFile) file).getFont()));
+        List<FontVariantLocator> locators = new ArrayList<>();
+        for (FontDescriptor font : file.getFonts()) {
+            locators.add(createLocator(file, font));
         }
+
+        return locators;
     }
 
     /**
-     * Register a font file internally.
+     * Create the font variant locator for the passed font.
      *
-     * @param file to register font of
-     * @param font to register
-     * @return the font variant locator of the font that has been registered
-     * @throws FontRegisterException in case the font could not be registered in the manager
+     * @param file containing the font
+     * @param font to create locator for
+     * @return the font variant locator of the font
+     * @throws FontRegisterException in case the variant of the font is not supported
      */
-    private FontVariantLocator registerFontInternal(FontFile file, Font font) throws FontRegisterException {
-        FontVariant variant;
-        try {
-            variant = getVariantForFont(font);
-        } catch (CouldNotDetermineFontVariantException e) {
-            throw new FontRegisterException(e);
-        }
-
-        FontVariantLocator locator = new FontVariantLocator(file, font.getFontName(), font.getFamily(), variant);
-
-        // Check if font family already exists
-        FontFamily family = families.get(font.getFamily());
-        if (family != null) {
-            // Add font to family
-            family.addVariant(variant, locator);
-        } else {
-            // Create font family
-            Map<FontVariant, FontVariantLocator> mapping = new HashMap<>();
-            mapping.put(variant, locator);
-            family = new FontFamily(font.getFamily(), mapping);
-
-            families.put(family.getName(), family);
+    private FontVariantLocator createLocator(FontFile file, FontDescriptor font) throws FontRegisterException {
+        FontVariant variant = font.getVariant();
+        if (variant == null) {
+            throw new FontRegisterException(String.format("The variant of font '%s' is not supported", font.getFontName()));
         }
 
-        return locator;
+        return new FontVariantLocator(file, font.getPostScriptName(), font.getFamilyName(), variant);
     }
 
     /**
      * Initialize the available font families.
      */
     private void initFamilies() {
-        FontFile[] fontFiles;
+        IndexedFontFile[] fontFiles;
         try {
             fontFiles = SystemFontManager.getAvailableFonts();
         } catch (CouldNotGetFontsException e) {
@@ -198,17 +166,9 @@ public class FontManager {
         }
 
         Map<String, Map<FontVariant, FontVariantLocator>> familyMapping = new HashMap<>();
-        for (FontFile file : fontFiles) {
-            if (file.isCollection()) {
-                FontCollectionFile fcf = (FontCollectionFile) file;
-
-                for (Font font : fcf.getFonts()) {
-                    addFontToMapping(font, fcf, familyMapping);
-                }
-            } else {
-                SingleFontFile sff = (SingleFontFile) file;
-
-                addFontToMapping(sff.getFont(), sff, familyMapping);
+        for (IndexedFontFile file : fontFiles) {
+            for (FontDescriptor font : file.getFonts()) {
+                addFontToMapping(font, file, familyMapping);
             }
         }
 
@@ -230,91 +190,19 @@ public class FontManager {
      * @param file          the font belongs to
      * @param familyMapping to add font to
      */
-    private void addFontToMapping(Font font, FontFile file, Map<String, Map<FontVariant, FontVariantLocator>> familyMapping) {
-        String familyName = font.getFamily();
-
-        try {
-            FontVariant variant = getVariantForFont(font);
-
-            Map<FontVariant, FontVariantLocator> currentMapping = familyMapping.computeIfAbsent(familyName, (k) -> new HashMap<>());
-            if (!currentMapping.containsKey(variant)) {
-                // Do not overwrite existing variants
-                currentMapping.put(variant, new FontVariantLocator(file, font.getFontName(), familyName, variant));
-            }
-        } catch (CouldNotDetermineFontVariantException e) {
-            System.out.println(String.format("[WARN] '%s'", e.getMessage()));
+    private void addFontToMapping(FontDescriptor font, FontFile file, Map<String, Map<FontVariant, FontVariantLocator>> familyMapping) {
+        FontVariant variant = font.getVariant();
+        if (variant == null) {
+            return; // Variant not supported
         }
-    }
 
-    /**
-     * Check if the passed font is monospaced.
-     *
-     * @param font to check
-     * @return whether monospaced
-     */
-    private boolean isMonospaced(Font font) {
-        FontRenderContext frc = new FontRenderContext(null, RenderingHints.VALUE_TEXT_ANTIALIAS_DEFAULT, RenderingHints.VALUE_FRACTIONALMETRICS_DEFAULT);
-
-        Rectangle2D iBounds = font.getStringBounds("i", frc);
-        Rectangle2D mBounds = font.getStringBounds("m", frc);
-
-        return iBounds.getWidth() == mBounds.getWidth();
-    }
-
-    /**
-     * Get the font variant for the passed font.
-     *
-     * @param font to get variant for
-     * @return the font variant
-     * @throws CouldNotDetermineFontVariantException in case the font variant could not be determined
-     */
-    private FontVariant getVariantForFont(Font font) throws CouldNotDetermineFontVariantException {
-        // Try to guess the variant by the font name
-        String name = font.getFontName();
-        if (name.startsWith(font.getFamily())) {
-            name = name.substring(font.getFamily().length());
-        }
-
-        boolean isMonospaced = isMonospaced(font);
+        String familyName = font.getFamilyName();
 
-        if (name.isBlank()) {
-            return isMonospaced ? FontVariant.MONOSPACE : FontVariant.PLAIN;
+        Map<FontVariant, FontVariantLocator> currentMapping = familyMapping.computeIfAbsent(familyName, (k) -> new HashMap<>());
+        if (!currentMapping.containsKey(variant)) {
+            // Do not overwrite existing variants
+            currentMapping.put(variant, new FontVariantLocator(file, font.getPostScriptName(), familyName, variant));
         }
-
-        String originalFontVariant = name.trim();
-
-        name = name.toLowerCase();
-
-        int regularIndex = name.indexOf("regular");
-        if (regularIndex != -1) {
-            return FontVariant.PLAIN;
-        }
-
-        int boldIndex = name.indexOf("bold");
-        if (boldIndex != -1) {
-            name = name.substring(0, boldIndex) + name.substring(boldIndex + "bold".length());
-        }
-
-        int italicIndex = name.indexOf("italic");
-        if (italicIndex != -1) {
-            name = name.substring(0, italicIndex) + name.substring(italicIndex + "italic".length());
-        }
-
-        if (name.isBlank()) {
-            // There are no more font variants we do not support (yet) -> valid font variant for our uses!
-            if (boldIndex != -1 && italicIndex != -1) {
-                return FontVariant.BOLD_ITALIC;
-            } else if (boldIndex != -1) {
-                return FontVariant.BOLD;
-            } else if (italicIndex != -1) {
-                return FontVariant.ITALIC;
-            }
-        }
-
-        throw new CouldNotDetermineFontVariantException(String.format(
-                "The font variant string '%s' could not be mapped to a known font variant",
-                originalFontVariant
-        ));
     }
 
     /**
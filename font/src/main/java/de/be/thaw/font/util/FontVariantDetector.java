@@ -0,0 +1,67 @@
+package de.be.thaw.font.util;
+
+import de.be.thaw.font.util.exception.CouldNotDetermineFontVariantException;
+
+/**
+ * Utility class detecting the font variant of a font.
+ */
+public class FontVariantDetector {
+
+    /**
+     * Detect the font variant of a font.
+     * The variant is guessed by the part of the full font name following the family name.
+     *
+     * @param fontName   full name of the font
+     * @param familyName name of the font family
+     * @param monospaced whether the font is monospaced
+     * @return the font variant
+     * @throws CouldNotDetermineFontVariantException in case the font variant could not be determined
+     */
+    public static FontVariant detect(String fontName, String familyName, boolean monospaced) throws CouldNotDetermineFontVariantException {
+        // Try to guess the variant by the font name
+        String name = fontName;
+        if (name.startsWith(familyName)) {
+            name = name.substring(familyName.length());
+        }
+
+        if (name.isBlank()) {
+            return monospaced ? FontVariant.MONOSPACE : FontVariant.PLAIN;
+        }
+
+        String originalFontVariant = name.trim();
+
+        name = name.toLowerCase();
+
+        int regularIndex = name.indexOf("regular");
+        if (regularIndex != -1) {
+            return FontVariant.PLAIN;
+        }
+
+        int boldIndex = name.indexOf("bold");
+        if (boldIndex != -1) {
+            name = name.substring(0, boldIndex) + name.substring(boldIndex + "bold".length());
+        }
+
+        int italicIndex = name.indexOf("italic");
+        if (italicIndex != -1) {
+            name = name.substring(0, italicIndex) + name.substring(italicIndex + "italic".length());
+        }
+
+        if (name.isBlank()) {
+            // There are no more font variants we do not support (yet) -> valid font variant for our uses!
+            if (boldIndex != -1 && italicIndex != -1) {
+                return FontVariant.BOLD_ITALIC;
+            } else if (boldIndex != -1) {
+                return FontVariant.BOLD;
+            } else if (italicIndex != -1) {
+                return FontVariant.ITALIC;
+            }
+        }
+
+        throw new CouldNotDetermineFontVariantException(String.format(
+                "The font variant string '%s' could not be mapped to a known font variant",
+                originalFontVariant
+        ));
+    }
+
+}
@@ -0,0 +1,169 @@
+package de.be.thaw.font.util;
+
+import java.util.Arrays;
+
+/**
+ * Reusable buffer a string is measured into (see {@link de.be.thaw.font.ThawFont#measure(int, CharSequence, int, int, double, MeasurementBuffer)}).
+ * Holds the advance and kerning adjustment per code point as well as the collective metrics of the measured string
+ * in primitive arrays and fields, so that measuring does not need to allocate any objects.
+ */
+public class MeasurementBuffer {
+
+    /**
+     * The initial capacity of the buffer (count of code points).
+     */
+    private static final int INITIAL_CAPACITY = 32;
+
+    /**
+     * Advance width per code point.
+     */
+    private double[] advances = new double[INITIAL_CAPACITY];
+
+    /**
+     * Kerning adjustment per code point (applied before the code point).
+     */
+    private double[] kerningAdjustments = new double[INITIAL_CAPACITY];
+
+    /**
+     * Count of measured code points.
+     */
+    private int count;
+
+    /**
+     * Total width of the measured string (including kerning adjustments).
+     */
+    private double width;
+
+    /**
+     * Maximum height of the measured code points.
+     */
+    private double height;
+
+    /**
+     * Maximum ascent of the measured code points.
+     */
+    private double maxAscent;
+
+    /**
+     * Maximum descent of the measured code points.
+     */
+    private double maxDescent;
+
+    public MeasurementBuffer() {
+        clear();
+    }
+
+    /**
+     * Clear the buffer to measure a new string.
+     */
+    public void clear() {
+        count = 0;
+
+        width = 0;
+        height = 0;
+
+        maxAscent = Double.MIN_VALUE;
+        maxDescent = Double.MIN_VALUE;
+    }
+
+    /**
+     * Add the metrics of the next code point.
+     *
+     * @param advance           advance width of the code point
+     * @param kerningAdjustment kerning adjustment before the code point
+     * @param height            of the code point
+     * @param ascent            of the code point
+     * @param descent           of the code point
+     */
+    public void add(double advance, double kerningAdjustment, double height, double ascent, double descent) {
+        if (count == advances.length) {
+            advances = Arrays.copyOf(advances, count * 2);
+            kerningAdjustments = Arrays.copyOf(kerningAdjustments, count * 2);
+        }
+
+        advances[count] = advance;
+        kerningAdjustments[count] = kerningAdjustment;
+        count++;
+
+        width += advance + kerningAdjustment;
+        this.height = Math.max(height, this.height);
+
+        maxAscent = Math.max(ascent, maxAscent);
+        maxDescent = Math.max(descent, maxDescent);
+    }
+
+    /**
+     * Get the count of measured code points.
+     *
+     * @return code point count
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Get the advance width of the code point at the passed index.
+     *
+     * @param index of the code point
+     * @return advance width
+     */
+    public double getAdvance(int index) {
+        return advances[index];
+    }
+
+    /**
+     * Get the kerning adjustment before the code point at the passed index.
+     *
+     * @param index of the code point
+     * @return kerning adjustment
+     */
+    public double getKerningAdjustment(int index) {
+        return kerningAdjustments[index];
+    }
+
+    /**
+     * Copy the kerning adjustments of all measured code points to a new array.
+     *
+     * @return kerning adjustments
+     */
+    public double[] copyKerningAdjustments() {
+        return Arrays.copyOf(kerningAdjustments, count);
+    }
+
+    /**
+     * Get the total width of the measured string (including kerning adjustments).
+     *
+     * @return width
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * Get the maximum height of the measured code points.
+     *
+     * @return height
+     */
+    public double getHeight() {
+        return height;
+    }
+
+    /**
+     * Get the maximum ascent of the measured code points.
+     *
+     * @return maximum ascent
+     */
+    public double getMaxAscent() {
+        return maxAscent;
+    }
+
+    /**
+     * Get the maximum descent of the measured code points.
+     *
+     * @return maximum descent
+     */
+    public double getMaxDescent() {
+        return maxDescent;
+    }
+
+}
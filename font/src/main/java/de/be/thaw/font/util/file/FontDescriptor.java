@@ -0,0 +1,94 @@
+package de.be.thaw.font.util.file;
+
+import de.be.thaw.font.util.FontVariant;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Serializable;
+
+/**
+ * Description of a font contained in a font file.
+ */
+public class FontDescriptor implements Serializable {
+
+    /**
+     * Name of the font family.
+     */
+    private final String familyName;
+
+    /**
+     * Full name of the font.
+     */
+    private final String fontName;
+
+    /**
+     * PostScript name of the font.
+     * Used to identify the font in a font collection file.
+     */
+    private final String postScriptName;
+
+    /**
+     * Whether the font is monospaced.
+     */
+    private final boolean monospaced;
+
+    /**
+     * Variant of the font or null if the variant is not supported.
+     */
+    @Nullable
+    private final FontVariant variant;
+
+    public FontDescriptor(String familyName, String fontName, String postScriptName, boolean monospaced, @Nullable FontVariant variant) {
+        this.familyName = familyName;
+        this.fontName = fontName;
+        this.postScriptName = postScriptName;
+        this.monospaced = monospaced;
+        this.variant = variant;
+    }
+
+    /**
+     * Get the name of the font family.
+     *
+     * @return family name
+     */
+    public String getFamilyName() {
+        return familyName;
+    }
+
+    /**
+     * Get the full name of the font.
+     *
+     * @return font name
+     */
+    public String getFontName() {
+        return fontName;
+    }
+
+    /**
+     * Get the PostScript name of the font.
+     *
+     * @return PostScript name
+     */
+    public String getPostScriptName() {
+        return postScriptName;
+    }
+
+    /**
+     * Check whether the font is monospaced.
+     *
+     * @return whether monospaced
+     */
+    public boolean isMonospaced() {
+        return monospaced;
+    }
+
+    /**
+     * Get the variant of the font.
+     *
+     * @return variant or null if the variant is not supported
+     */
+    @Nullable
+    public FontVariant getVariant() {
+        return variant;
+    }
+
+}
@@ -0,0 +1,102 @@
+package de.be.thaw.font.util.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Font file along with the descriptions of the fonts it contains.
+ * Remembers the modification time and size of the file to be able to tell whether the descriptions are outdated.
+ */
+public class IndexedFontFile implements FontFile, Serializable {
+
+    /**
+     * Location of the file.
+     */
+    private final String location;
+
+    /**
+     * Last modification time of the file when it has been read.
+     */
+    private final long lastModified;
+
+    /**
+     * Size of the file (in bytes) when it has been read.
+     */
+    private final long size;
+
+    /**
+     * Descriptions of the fonts in the file.
+     */
+    private final List<FontDescriptor> fonts;
+
+    public IndexedFontFile(String location, long lastModified, long size, List<FontDescriptor> fonts) {
+        this.location = location;
+        this.lastModified = lastModified;
+        this.size = size;
+        this.fonts = fonts;
+    }
+
+    /**
+     * Read the passed font file.
+     *
+     * @param file to read
+     * @return the read font file
+     * @throws IOException in case the file could not be read
+     */
+    public static IndexedFontFile read(File file) throws IOException {
+        long lastModified = file.lastModified();
+        long size = file.length();
+
+        return new IndexedFontFile(file.getAbsolutePath(), lastModified, size, OpenTypeFontFileReader.read(file));
+    }
+
+    /**
+     * Check whether the passed file has not changed since this file has been read.
+     *
+     * @param file to check
+     * @return whether the file is unchanged
+     */
+    public boolean isUpToDate(File file) {
+        return file.lastModified() == lastModified && file.length() == size;
+    }
+
+    @Override
+    public boolean isCollection() {
+        return fonts.size() > 1 || location.toLowerCase().endsWith(".ttc");
+    }
+
+    @Override
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Get the last modification time of the file when it has been read.
+     *
+     * @return last modification time
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Get the size of the file when it has been read.
+     *
+     * @return size in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Get the descriptions of the fonts in the file.
+     *
+     * @return font descriptions
+     */
+    public List<FontDescriptor> getFonts() {
+        return fonts;
+    }
+
+}
@@ -0,0 +1,288 @@
+package de.be.thaw.font.util.file;
+
+import de.be.thaw.font.util.FontVariant;
+import de.be.thaw.font.util.FontVariantDetector;
+import de.be.thaw.font.util.exception.CouldNotDetermineFontVariantException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reader for the descriptions of the fonts in an OpenType font file (*.ttf) or collection (*.ttc).
+ * Only the name, OS/2 and post tables are read directly from the file, the glyph data is never touched.
+ */
+public class OpenTypeFontFileReader {
+
+    /**
+     * Tag of a font collection file header.
+     */
+    private static final int COLLECTION_TAG = 0x74746366; // 'ttcf'
+
+    /**
+     * Tag of the naming table.
+     */
+    private static final int NAME_TABLE_TAG = 0x6E616D65; // 'name'
+
+    /**
+     * Tag of the OS/2 and Windows metrics table.
+     */
+    private static final int OS2_TABLE_TAG = 0x4F532F32; // 'OS/2'
+
+    /**
+     * Tag of the PostScript table.
+     */
+    private static final int POST_TABLE_TAG = 0x706F7374; // 'post'
+
+    /**
+     * Name ID of the font family name.
+     */
+    private static final int FAMILY_NAME_ID = 1;
+
+    /**
+     * Name ID of the full font name.
+     */
+    private static final int FULL_NAME_ID = 4;
+
+    /**
+     * Name ID of the PostScript name.
+     */
+    private static final int POSTSCRIPT_NAME_ID = 6;
+
+    /**
+     * Unicode platform ID of a name record.
+     */
+    private static final int UNICODE_PLATFORM_ID = 0;
+
+    /**
+     * Macintosh platform ID of a name record.
+     */
+    private static final int MACINTOSH_PLATFORM_ID = 1;
+
+    /**
+     * Windows platform ID of a name record.
+     */
+    private static final int WINDOWS_PLATFORM_ID = 3;
+
+    /**
+     * Windows language ID for english (United States).
+     */
+    private static final int ENGLISH_LANGUAGE_ID = 0x0409;
+
+    /**
+     * Offset of the PANOSE classification in the OS/2 table.
+     */
+    private static final int OS2_PANOSE_OFFSET = 32;
+
+    /**
+     * PANOSE family kind of latin text fonts.
+     */
+    private static final int PANOSE_LATIN_TEXT = 2;
+
+    /**
+     * PANOSE proportion of monospaced latin text fonts.
+     */
+    private static final int PANOSE_MONOSPACED = 9;
+
+    /**
+     * Offset of the isFixedPitch field in the post table.
+     */
+    private static final int POST_IS_FIXED_PITCH_OFFSET = 12;
+
+    /**
+     * Read the descriptions of all fonts in the passed file.
+     *
+     * @param file to read
+     * @return descriptions of the contained fonts
+     * @throws IOException in case the file could not be read or is no valid OpenType font file
+     */
+    public static List<FontDescriptor> read(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            List<FontDescriptor> result = new ArrayList<>();
+
+            if (readBuffer(channel, 0, 4).getInt() == COLLECTION_TAG) {
+                int fontCount = readBuffer(channel, 8, 4).getInt();
+
+                ByteBuffer offsets = readBuffer(channel, 12, fontCount * 4);
+                for (int i = 0; i < fontCount; i++) {
+                    result.add(readFont(channel, Integer.toUnsignedLong(offsets.getInt())));
+                }
+            } else {
+                result.add(readFont(channel, 0));
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * Read the description of the font whose offset table starts at the passed offset.
+     *
+     * @param channel to read from
+     * @param offset  of the font offset table
+     * @return description of the font
+     * @throws IOException in case the font could not be read
+     */
+    private static FontDescriptor readFont(FileChannel channel, long offset) throws IOException {
+        int tableCount = readBuffer(channel, offset + 4, 2).getShort() & 0xFFFF;
+
+        ByteBuffer nameTable = null;
+        ByteBuffer os2Table = null;
+        ByteBuffer postTable = null;
+
+        ByteBuffer tableRecords = readBuffer(channel, offset + 12, tableCount * 16);
+        for (int i = 0; i < tableCount; i++) {
+            int tag = tableRecords.getInt();
+            tableRecords.getInt(); // Skip checksum
+            long tableOffset = Integer.toUnsignedLong(tableRecords.getInt());
+            int tableLength = tableRecords.getInt();
+
+            switch (tag) {
+                case NAME_TABLE_TAG -> nameTable = readBuffer(channel, tableOffset, tableLength);
+                case OS2_TABLE_TAG -> os2Table = readBuffer(channel, tableOffset, tableLength);
+                case POST_TABLE_TAG -> postTable = readBuffer(channel, tableOffset, tableLength);
+            }
+        }
+
+        if (nameTable == null) {
+            throw new IOException("Font does not contain a naming table");
+        }
+
+        String familyName = readName(nameTable, FAMILY_NAME_ID);
+        if (familyName == null) {
+            throw new IOException("Font does not specify a family name");
+        }
+
+        String fontName = readName(nameTable, FULL_NAME_ID);
+        if (fontName == null) {
+            fontName = familyName;
+        }
+
+        String postScriptName = readName(nameTable, POSTSCRIPT_NAME_ID);
+        if (postScriptName == null) {
+            postScriptName = fontName.replace(" ", "");
+        }
+
+        boolean monospaced = isMonospaced(os2Table, postTable);
+
+        FontVariant variant;
+        try {
+            variant = FontVariantDetector.detect(fontName, familyName, monospaced);
+        } catch (CouldNotDetermineFontVariantException e) {
+            variant = null; // Variant not supported (yet)
+        }
+
+        return new FontDescriptor(familyName, fontName, postScriptName, monospaced, variant);
+    }
+
+    /**
+     * Check whether the font is monospaced.
+     * This is the case when the post table marks the font as fixed pitch
+     * or the PANOSE classification in the OS/2 table says so.
+     *
+     * @param os2Table  the OS/2 table (may be null)
+     * @param postTable the post table (may be null)
+     * @return whether monospaced
+     */
+    private static boolean isMonospaced(ByteBuffer os2Table, ByteBuffer postTable) {
+        if (postTable != null && postTable.limit() >= POST_IS_FIXED_PITCH_OFFSET + 4 && postTable.getInt(POST_IS_FIXED_PITCH_OFFSET) != 0) {
+            return true;
+        }
+
+        if (os2Table != null && os2Table.limit() >= OS2_PANOSE_OFFSET + 4) {
+            int familyKind = os2Table.get(OS2_PANOSE_OFFSET);
+            int proportion = os2Table.get(OS2_PANOSE_OFFSET + 3);
+
+            return familyKind == PANOSE_LATIN_TEXT && proportion == PANOSE_MONOSPACED;
+        }
+
+        return false;
+    }
+
+    /**
+     * Read the name with the passed ID from the naming table.
+     * Windows names in english are preferred, followed by any other Windows name, Unicode names and english Macintosh names.
+     *
+     * @param nameTable to read from
+     * @param nameID    of the name to read
+     * @return the name or null if the table does not contain it
+     */
+    private static String readName(ByteBuffer nameTable, int nameID) {
+        int count = nameTable.getShort(2) & 0xFFFF;
+        int storageOffset = nameTable.getShort(4) & 0xFFFF;
+
+        int bestRank = 0;
+        int bestOffset = 0;
+        int bestLength = 0;
+        Charset bestCharset = null;
+        for (int i = 0; i < count; i++) {
+            int recordOffset = 6 + i * 12;
+            if (recordOffset + 12 > nameTable.limit() || (nameTable.getShort(recordOffset + 6) & 0xFFFF) != nameID) {
+                continue;
+            }
+
+            int platformID = nameTable.getShort(recordOffset) & 0xFFFF;
+            int languageID = nameTable.getShort(recordOffset + 4) & 0xFFFF;
+
+            int rank;
+            Charset charset = StandardCharsets.UTF_16BE;
+            if (platformID == WINDOWS_PLATFORM_ID) {
+                rank = languageID == ENGLISH_LANGUAGE_ID ? 4 : 3;
+            } else if (platformID == UNICODE_PLATFORM_ID) {
+                rank = 2;
+            } else if (platformID == MACINTOSH_PLATFORM_ID && languageID == 0) {
+                rank = 1;
+                charset = StandardCharsets.ISO_8859_1;
+            } else {
+                continue;
+            }
+
+            if (rank > bestRank) {
+                bestRank = rank;
+                bestLength = nameTable.getShort(recordOffset + 8) & 0xFFFF;
+                bestOffset = storageOffset + (nameTable.getShort(recordOffset + 10) & 0xFFFF);
+                bestCharset = charset;
+            }
+        }
+
+        if (bestCharset == null || bestOffset + bestLength > nameTable.limit()) {
+            return null;
+        }
+
+        byte[] bytes = new byte[bestLength];
+        nameTable.get(bestOffset, bytes);
+
+        return new String(bytes, bestCharset);
+    }
+
+    /**
+     * Read the given count of bytes at the passed position of the channel.
+     *
+     * @param channel  to read from
+     * @param position to start reading at
+     * @param length   count of bytes to read
+     * @return buffer containing the read bytes
+     * @throws IOException in case the bytes could not be read
+     */
+    private static ByteBuffer readBuffer(FileChannel channel, long position, int length) throws IOException {
+        if (length < 0 || position + length > channel.size()) {
+            throw new IOException("Unexpected end of font file");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) == -1) {
+                throw new IOException("Unexpected end of font file");
+            }
+        }
+
+        return buffer.flip();
+    }
+
+}
@@ -0,0 +1,257 @@
+package de.be.thaw.font.opentype.gpos.kerning;
+
+import de.be.thaw.font.opentype.gpos.subtable.ValueRecord;
+import de.be.thaw.font.opentype.gpos.subtable.classdef.ClassDefTable;
+import de.be.thaw.font.opentype.gpos.subtable.classdef.format1.ClassDefTableFormat1;
+import de.be.thaw.font.opentype.gpos.subtable.classdef.format2.ClassDefTableFormat2;
+import de.be.thaw.font.opentype.gpos.subtable.classdef.format2.ClassRangeRecord;
+import de.be.thaw.font.opentype.gpos.subtable.coverage.CoverageTable;
+import de.be.thaw.font.opentype.gpos.subtable.coverage.format1.CoverageTableFormat1;
+import de.be.thaw.font.opentype.gpos.subtable.coverage.format2.CoverageTableFormat2;
+import de.be.thaw.font.opentype.gpos.subtable.coverage.format2.RangeRecord;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.PairPosSubTable;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.format1.PairPosFormat1SubTable;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.format1.PairSetTable;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.format1.PairValueRecord;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.format2.Class1Record;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.format2.Class2Record;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.format2.PairPosFormat2SubTable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+public class KerningPlanTest {
+
+    /**
+     * Glyph IDs checked are in the range from 0 (inclusive) to this value (exclusive).
+     */
+    private static final int GLYPH_COUNT = 80;
+
+    private static ValueRecord valueRecord(int xAdvance) {
+        return new ValueRecord(0, 0, xAdvance, 0, null, null, null, null);
+    }
+
+    /**
+     * Get the kerning for the passed glyph pair by asking each sub table for its adjustment
+     * (the way kerning has been looked up before compiling the sub tables).
+     *
+     * @param subTables    to look up kerning in
+     * @param leftGlyphID  the left glyph ID
+     * @param rightGlyphID the right glyph ID
+     * @return the summed up kerning
+     */
+    private static int getPairwiseKerning(List<PairPosSubTable> subTables, int leftGlyphID, int rightGlyphID) {
+        int kerning = 0;
+        for (PairPosSubTable subTable : subTables) {
+            kerning += subTable.getAdjustment(leftGlyphID, rightGlyphID)
+                    .map(adjustment -> adjustment.getLeft().getXAdvance())
+                    .orElse(0);
+        }
+
+        return kerning;
+    }
+
+    /**
+     * Create a random sorted set of distinct glyph IDs.
+     *
+     * @param random to use
+     * @param count  of glyph IDs
+     * @return the glyph IDs
+     */
+    private static int[] randomGlyphIDs(Random random, int count) {
+        TreeSet<Integer> glyphIDs = new TreeSet<>();
+        while (glyphIDs.size() < count) {
+            glyphIDs.add(random.nextInt(GLYPH_COUNT));
+        }
+
+        return glyphIDs.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static PairSetTable randomPairSet(Random random) {
+        int[] secondGlyphs = randomGlyphIDs(random, 1 + random.nextInt(10));
+
+        PairValueRecord[] records = new PairValueRecord[secondGlyphs.length];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = new PairValueRecord(secondGlyphs[i], valueRecord(random.nextInt(401) - 200), valueRecord(0));
+        }
+
+        return new PairSetTable(records);
+    }
+
+    private static PairPosSubTable randomFormat1SubTable(Random random, boolean rangeCoverage) {
+        int[] glyphIDs = randomGlyphIDs(random, 1 + random.nextInt(20));
+
+        CoverageTable coverageTable;
+        if (rangeCoverage) {
+            // Cover each glyph with its own range so that the coverage indices are consecutive
+            RangeRecord[] ranges = new RangeRecord[glyphIDs.length];
+            for (int i = 0; i < glyphIDs.length; i++) {
+                ranges[i] = new RangeRecord(glyphIDs[i], glyphIDs[i], i);
+            }
+            coverageTable = new CoverageTableFormat2(ranges);
+        } else {
+            coverageTable = new CoverageTableFormat1(glyphIDs);
+        }
+
+        PairSetTable[] pairSets = new PairSetTable[glyphIDs.length];
+        for (int i = 0; i < pairSets.length; i++) {
+            pairSets[i] = randomPairSet(random);
+        }
+
+        return new PairPosFormat1SubTable(coverageTable, 4, 0, pairSets);
+    }
+
+    private static ClassDefTable randomClassDefTable(Random random, int classCount, boolean ranges) {
+        if (ranges) {
+            List<ClassRangeRecord> records = new ArrayList<>();
+            int glyphID = random.nextInt(5);
+            while (glyphID < GLYPH_COUNT - 10) {
+                int end = glyphID + random.nextInt(8);
+                records.add(new ClassRangeRecord(glyphID, end, random.nextInt(classCount)));
+
+                glyphID = end + 1 + random.nextInt(5); // Leave gaps of glyphs without class
+            }
+
+            // Ranges are not sorted in the table
+            Collections.shuffle(records, random);
+            return new ClassDefTableFormat2(records.toArray(ClassRangeRecord[]::new));
+        }
+
+        int startGlyphID = random.nextInt(10);
+        int[] classValues = new int[30 + random.nextInt(30)];
+        for (int i = 0; i < classValues.length; i++) {
+            classValues[i] = random.nextInt(classCount);
+        }
+
+        return new ClassDefTableFormat1(startGlyphID, classValues);
+    }
+
+    private static PairPosSubTable randomFormat2SubTable(Random random, boolean rangeClassDefs) {
+        int class1Count = 1 + random.nextInt(6);
+        int class2Count = 1 + random.nextInt(6);
+
+        Class1Record[] class1Records = new Class1Record[class1Count];
+        for (int c1 = 0; c1 < class1Count; c1++) {
+            Class2Record[] class2Records = new Class2Record[class2Count];
+            for (int c2 = 0; c2 < class2Count; c2++) {
+                class2Records[c2] = new Class2Record(valueRecord(random.nextInt(401) - 200), valueRecord(0));
+            }
+            class1Records[c1] = new Class1Record(class2Records);
+        }
+
+        return new PairPosFormat2SubTable(
+                new CoverageTableFormat1(randomGlyphIDs(random, 10)),
+                4,
+                0,
+                randomClassDefTable(random, class1Count, rangeClassDefs),
+                randomClassDefTable(random, class2Count, rangeClassDefs),
+                class1Count,
+                class2Count,
+                class1Records
+        );
+    }
+
+    /**
+     * Check the kerning of all glyph pairs (including pairs not in any table) against the pairwise lookup.
+     *
+     * @param subTables to check
+     */
+    private static void assertSameAsPairwise(List<PairPosSubTable> subTables) {
+        KerningPlan plan = KerningPlan.compile(subTables);
+
+        // Query twice to check the cached values as well
+        for (int pass = 0; pass < 2; pass++) {
+            for (int left = 0; left < GLYPH_COUNT; left++) {
+                for (int right = 0; right < GLYPH_COUNT; right++) {
+                    Assertions.assertEquals(
+                            getPairwiseKerning(subTables, left, right),
+                            plan.getKerning(left, right),
+                            String.format("Kerning of pair (%d, %d)", left, right)
+                    );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void format1SubTables() {
+        Random random = new Random(1);
+        for (int i = 0; i < 20; i++) {
+            assertSameAsPairwise(List.of(randomFormat1SubTable(random, false)));
+            assertSameAsPairwise(List.of(randomFormat1SubTable(random, true)));
+        }
+    }
+
+    @Test
+    public void format2SubTables() {
+        Random random = new Random(2);
+        for (int i = 0; i < 20; i++) {
+            assertSameAsPairwise(List.of(randomFormat2SubTable(random, false)));
+            assertSameAsPairwise(List.of(randomFormat2SubTable(random, true)));
+        }
+    }
+
+    @Test
+    public void mixedSubTablesAreSummedUp() {
+        Random random = new Random(3);
+        for (int i = 0; i < 20; i++) {
+            assertSameAsPairwise(List.of(
+                    randomFormat1SubTable(random, random.nextBoolean()),
+                    randomFormat2SubTable(random, random.nextBoolean()),
+                    randomFormat1SubTable(random, random.nextBoolean())
+            ));
+        }
+    }
+
+    @Test
+    public void pairsNotInTableHaveNoKerning() {
+        PairPosSubTable subTable = new PairPosFormat1SubTable(
+                new CoverageTableFormat1(new int[]{5}),
+                4,
+                0,
+                new PairSetTable[]{new PairSetTable(new PairValueRecord[]{new PairValueRecord(7, valueRecord(-42), valueRecord(0))})}
+        );
+
+        KerningPlan plan = KerningPlan.compile(List.of(subTable));
+
+        Assertions.assertEquals(-42, plan.getKerning(5, 7));
+        Assertions.assertEquals(0, plan.getKerning(7, 5));
+        Assertions.assertEquals(0, plan.getKerning(5, 8));
+        Assertions.assertEquals(0, plan.getKerning(6, 7));
+        Assertions.assertEquals(0, KerningPlan.compile(List.of()).getKerning(5, 7));
+    }
+
+    @Test
+    public void glyphPairTable() {
+        GlyphPairTable table = new GlyphPairTable();
+
+        // Grow far beyond the initial capacity
+        for (int left = 0; left < 300; left++) {
+            for (int right = 0; right < 10; right++) {
+                table.put(left, right * 1000, (short) (left - right));
+            }
+        }
+        Assertions.assertEquals(3000, table.size());
+
+        for (int left = 0; left < 300; left++) {
+            for (int right = 0; right < 10; right++) {
+                Assertions.assertEquals(left - right, table.get(left, right * 1000, Integer.MIN_VALUE));
+            }
+        }
+
+        // Missing pairs (including swapped ones)
+        Assertions.assertEquals(Integer.MIN_VALUE, table.get(1000, 1, Integer.MIN_VALUE));
+        Assertions.assertEquals(Integer.MIN_VALUE, table.get(0, 1, Integer.MIN_VALUE));
+
+        // Overwrite an existing pair
+        table.put(3, 2000, (short) 77);
+        Assertions.assertEquals(77, table.get(3, 2000, 0));
+        Assertions.assertEquals(3000, table.size());
+    }
+
+}
@@ -1,6 +1,7 @@
 package de.be.thaw.hyphenation;
 
 import de.be.thaw.hyphenation.loader.exception.HyphenationDictionaryLoadException;
+import de.be.thaw.hyphenation.loader.impl.BinaryHyphenationDictionaryLoader;
 import de.be.thaw.hyphenation.loader.impl.FileHyphenationDictionaryLoader;
 import de.be.thaw.info.model.language.Language;
 
@@ -8,26 +9,27 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Collection of available hyphenation dictionaries.
+ * Dictionaries are loaded lazily the first time they are requested.
  */
 public class HyphenationDictionaries {
 
     /**
-     * Available dictionaries.
+     * Already requested dictionaries (empty if there is no dictionary for a language).
      */
-    private static final Map<Language, HyphenationDictionary> DICTIONARIES = new HashMap<>();
-
-    static {
-        for (Language language : Language.values()) {
-            addDictionaryForLanguage(language);
-        }
-    }
+    private static final Map<Language, Optional<HyphenationDictionary>> DICTIONARIES = new ConcurrentHashMap<>();
 
     /**
      * Get a hyphenation dictionary by the passed language.
@@ -36,24 +38,55 @@ public class HyphenationDictionaries {
      * @return dictionary
      */
     public static Optional<HyphenationDictionary> getDictionary(Language language) {
-        return Optional.ofNullable(DICTIONARIES.get(language));
+        return DICTIONARIES.computeIfAbsent(language, HyphenationDictionaries::loadDictionaryForLanguage);
     }
 
     /**
-     * Add a dictionary for the passed language.
+     * Load the dictionary for the passed language.
+     * The precompiled binary dictionary is preferred over the text pattern file.
      *
-     * @param language to add dictionary for
+     * @param language to load dictionary for
+     * @return the loaded dictionary or an empty optional if there is none for the language
      */
-    private static void addDictionaryForLanguage(Language language) {
-        String path = String.format("/hyphenation/%s/dictionary.dic", language.getCode());
-
-        InputStream stream = HyphenationDictionaries.class.getResourceAsStream(path);
-        if (stream != null) { // If the resource has been found
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
-                DICTIONARIES.put(language, new FileHyphenationDictionaryLoader().load(reader));
-            } catch (HyphenationDictionaryLoadException | IOException e) {
-                throw new RuntimeException(e); // Must not happen!
+    private static Optional<HyphenationDictionary> loadDictionaryForLanguage(Language language) {
+        try {
+            URL binaryResource = HyphenationDictionaries.class.getResource(String.format("/hyphenation/%s/dictionary.bin", language.getCode()));
+            if (binaryResource != null) {
+                return Optional.of(new BinaryHyphenationDictionaryLoader().load(readResource(binaryResource)));
+            }
+
+            InputStream stream = HyphenationDictionaries.class.getResourceAsStream(String.format("/hyphenation/%s/dictionary.dic", language.getCode()));
+            if (stream != null) { // If the resource has been found
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+                    return Optional.of(new FileHyphenationDictionaryLoader().load(reader));
+                }
             }
+        } catch (HyphenationDictionaryLoadException | IOException e) {
+            throw new RuntimeException(e); // Must not happen!
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Read the passed resource into a buffer.
+     * Resources on the file system are memory-mapped, all others (for example in a JAR) are read completely.
+     *
+     * @param resource to read
+     * @return buffer containing the resource
+     * @throws IOException in case the resource could not be read
+     */
+    private static ByteBuffer readResource(URL resource) throws IOException {
+        if (resource.getProtocol().equals("file")) {
+            try (FileChannel channel = FileChannel.open(Path.of(resource.toURI()), StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+        }
+
+        try (InputStream stream = resource.openStream()) {
+            return ByteBuffer.wrap(stream.readAllBytes());
         }
     }
 
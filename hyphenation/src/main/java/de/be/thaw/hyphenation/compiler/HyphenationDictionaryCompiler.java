@@ -0,0 +1,83 @@
+package de.be.thaw.hyphenation.compiler;
+
+import de.be.thaw.hyphenation.impl.DefaultHyphenationDictionary;
+import de.be.thaw.hyphenation.loader.exception.HyphenationDictionaryLoadException;
+import de.be.thaw.hyphenation.loader.impl.BinaryHyphenationDictionaryLoader;
+import de.be.thaw.hyphenation.loader.impl.FileHyphenationDictionaryLoader;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Build-time tool compiling the text hyphenation pattern files to the binary format
+ * loaded by the {@link BinaryHyphenationDictionaryLoader}.
+ * <p>
+ * Expects the directory containing a folder with a {@code dictionary.dic} file per language
+ * and the directory to write the compiled {@code dictionary.bin} files to (using the same folder structure).
+ */
+public class HyphenationDictionaryCompiler {
+
+    /**
+     * Name of the text pattern file in each language folder.
+     */
+    public static final String SOURCE_FILE_NAME = "dictionary.dic";
+
+    /**
+     * Name of the compiled file in each language folder.
+     */
+    public static final String COMPILED_FILE_NAME = "dictionary.bin";
+
+    public static void main(String[] args) throws IOException, HyphenationDictionaryLoadException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Expected the source and target directory as arguments");
+        }
+
+        File sourceDir = new File(args[0]);
+        File targetDir = new File(args[1]);
+
+        File[] languageDirs = sourceDir.listFiles(File::isDirectory);
+        if (languageDirs == null) {
+            throw new IOException(String.format("Source directory '%s' could not be read", sourceDir.getAbsolutePath()));
+        }
+
+        for (File languageDir : languageDirs) {
+            File sourceFile = new File(languageDir, SOURCE_FILE_NAME);
+            if (sourceFile.isFile()) {
+                File targetFile = new File(new File(targetDir, languageDir.getName()), COMPILED_FILE_NAME);
+
+                compile(sourceFile, targetFile);
+            }
+        }
+    }
+
+    /**
+     * Compile the passed text pattern file to the binary format.
+     *
+     * @param sourceFile the text pattern file
+     * @param targetFile to write the binary dictionary to
+     * @throws IOException                        in case the files could not be read or written
+     * @throws HyphenationDictionaryLoadException in case the text pattern file could not be parsed
+     */
+    public static void compile(File sourceFile, File targetFile) throws IOException, HyphenationDictionaryLoadException {
+        DefaultHyphenationDictionary dictionary;
+        try (BufferedReader reader = Files.newBufferedReader(sourceFile.toPath(), StandardCharsets.UTF_8)) {
+            dictionary = (DefaultHyphenationDictionary) new FileHyphenationDictionaryLoader().load(reader);
+        }
+
+        File parent = targetFile.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException(String.format("Could not create directory '%s'", parent.getAbsolutePath()));
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(targetFile)))) {
+            BinaryHyphenationDictionaryLoader.write(dictionary, out);
+        }
+    }
+
+}
@@ -3,10 +3,8 @@ package de.be.thaw.hyphenation.impl;
 import de.be.thaw.hyphenation.HyphenationDictionary;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 /**
  * The default hyphenation dictionary.
@@ -14,9 +12,9 @@ import java.util.Map;
 public class DefaultHyphenationDictionary implements HyphenationDictionary {
 
     /**
-     * Points for the individual hyphenation keys.
+     * Compiled hyphenation patterns.
      */
-    private final Map<String, int[]> source;
+    private final HyphenationPatternTrie patterns;
 
     /**
      * Minimum characters to hyphenate on the left.
@@ -28,12 +26,21 @@ public class DefaultHyphenationDictionary implements HyphenationDictionary {
      */
     private final int rightHyphenMin;
 
-    public DefaultHyphenationDictionary(Map<String, int[]> source, int leftHyphenMin, int rightHyphenMin) {
-        this.source = source;
+    public DefaultHyphenationDictionary(HyphenationPatternTrie patterns, int leftHyphenMin, int rightHyphenMin) {
+        this.patterns = patterns;
         this.leftHyphenMin = leftHyphenMin;
         this.rightHyphenMin = rightHyphenMin;
     }
 
+    /**
+     * Get the compiled hyphenation patterns.
+     *
+     * @return patterns
+     */
+    public HyphenationPatternTrie getPatterns() {
+        return patterns;
+    }
+
     @Override
     public int getLeftHyphenMin() {
         return leftHyphenMin;
@@ -51,23 +58,21 @@ public class DefaultHyphenationDictionary implements HyphenationDictionary {
             return Collections.singletonList(word);
         }
 
-        // Prepare the word for the hyphenation algorithm
-        word = '.' + word + '.';
-
-        int[] points = new int[word.length() + 1];
-        Arrays.fill(points, 0);
-
-        int len = word.length();
-        for (int partLength = 1; partLength < len; partLength++) {
-            for (int start = 0; start <= word.length() - partLength; start++) {
-                String part = word.substring(start, start + partLength).toLowerCase();
-
-                int[] curPoints = source.get(part);
-                if (curPoints != null) {
-                    for (int p = 0; p < curPoints.length; p++) {
-                        points[start + p] = Math.max(points[start + p], curPoints[p]);
-                    }
+        // Match the patterns against the word surrounded by periods.
+        // The patterns are matched by walking the trie once for each start position.
+        int len = word.length() + 2;
+        int[] points = new int[len + 1];
+        for (int start = 0; start < len; start++) {
+            int end = start == 0 ? len - 1 : len; // The whole word including both periods is never matched
+            int node = HyphenationPatternTrie.ROOT;
+
+            for (int i = start; i < end; i++) {
+                node = patterns.getChild(node, getLowerCaseCharInPeriods(word, i, len));
+                if (node == HyphenationPatternTrie.NO_NODE) {
+                    break;
                 }
+
+                patterns.applyPoints(node, points, start);
             }
         }
 
@@ -79,9 +84,6 @@ public class DefaultHyphenationDictionary implements HyphenationDictionary {
             points[i] = 0;
         }
 
-        // Removing periods again
-        word = word.substring(1, word.length() - 1);
-
         // Build the list of word parts
         List<String> parts = new ArrayList<>();
 
@@ -104,4 +106,20 @@ public class DefaultHyphenationDictionary implements HyphenationDictionary {
         return parts;
     }
 
+    /**
+     * Get the lower case character at the passed index of the word surrounded by periods.
+     *
+     * @param word  to get character of
+     * @param index of the character in the word surrounded by periods
+     * @param len   length of the word surrounded by periods
+     * @return the lower case character
+     */
+    private static char getLowerCaseCharInPeriods(String word, int index, int len) {
+        if (index == 0 || index == len - 1) {
+            return '.';
+        }
+
+        return Character.toLowerCase(word.charAt(index - 1));
+    }
+
 }
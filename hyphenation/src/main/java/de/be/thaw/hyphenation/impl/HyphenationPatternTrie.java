@@ -0,0 +1,293 @@
+package de.be.thaw.hyphenation.impl;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compiled trie of hyphenation patterns packed into flat buffers.
+ * The nodes are numbered in breadth-first order and the outgoing edges of a node are stored consecutively
+ * sorted by their character so that a child can be found using a binary search without any allocation.
+ * <p>
+ * Since the trie consists of flat buffers only it can be written to a binary file
+ * (see {@link #write(DataOutput)}) and used directly from a memory-mapped buffer later (see {@link #read(ByteBuffer)}).
+ */
+public class HyphenationPatternTrie {
+
+    /**
+     * Index of the root node.
+     */
+    public static final int ROOT = 0;
+
+    /**
+     * Value returned when a node does not have a child for a character.
+     */
+    public static final int NO_NODE = -1;
+
+    /**
+     * Offsets into the edge characters per node.
+     * The edges of node n are stored in the range from offset n (inclusive) to offset n + 1 (exclusive).
+     * Since every node except the root has exactly one incoming edge and the nodes are numbered in
+     * breadth-first order, the edge with index e always leads to the node with index e + 1.
+     */
+    private final IntBuffer edgeOffsets;
+
+    /**
+     * Characters of all edges.
+     */
+    private final CharBuffer edgeChars;
+
+    /**
+     * Offsets into the points per node or -1 if no pattern ends in the node.
+     */
+    private final IntBuffer pointOffsets;
+
+    /**
+     * Count of points per node.
+     */
+    private final ByteBuffer pointLengths;
+
+    /**
+     * Points of all patterns.
+     */
+    private final ByteBuffer points;
+
+    private HyphenationPatternTrie(
+            IntBuffer edgeOffsets,
+            CharBuffer edgeChars,
+            IntBuffer pointOffsets,
+            ByteBuffer pointLengths,
+            ByteBuffer points
+    ) {
+        this.edgeOffsets = edgeOffsets;
+        this.edgeChars = edgeChars;
+        this.pointOffsets = pointOffsets;
+        this.pointLengths = pointLengths;
+        this.points = points;
+    }
+
+    /**
+     * Compile the passed patterns to a trie.
+     *
+     * @param patterns mapping the pattern characters (without digits) to the points of the pattern
+     * @return the compiled trie
+     */
+    public static HyphenationPatternTrie compile(Map<String, int[]> patterns) {
+        // Build a temporary linked trie first
+        BuildNode root = new BuildNode();
+        int nodeCount = 1;
+        int pointCount = 0;
+        for (Map.Entry<String, int[]> entry : patterns.entrySet()) {
+            String key = entry.getKey();
+            if (key.isEmpty()) {
+                continue; // Empty patterns never match
+            }
+
+            BuildNode node = root;
+            for (int i = 0; i < key.length(); i++) {
+                BuildNode child = node.children.get(key.charAt(i));
+                if (child == null) {
+                    child = new BuildNode();
+                    node.children.put(key.charAt(i), child);
+                    nodeCount++;
+                }
+
+                node = child;
+            }
+
+            if (node.points != null) {
+                pointCount -= node.points.length;
+            }
+            node.points = entry.getValue();
+            pointCount += node.points.length;
+        }
+
+        // Pack the nodes in breadth-first order
+        int[] edgeOffsets = new int[nodeCount + 1];
+        char[] edgeChars = new char[nodeCount - 1];
+        int[] pointOffsets = new int[nodeCount];
+        byte[] pointLengths = new byte[nodeCount];
+        byte[] points = new byte[pointCount];
+        Arrays.fill(pointOffsets, -1);
+
+        Deque<BuildNode> queue = new ArrayDeque<>();
+        queue.add(root);
+
+        int nodeIndex = 0;
+        int edgeIndex = 0;
+        int pointIndex = 0;
+        while (!queue.isEmpty()) {
+            BuildNode node = queue.poll();
+
+            edgeOffsets[nodeIndex] = edgeIndex;
+            for (Map.Entry<Character, BuildNode> child : node.children.entrySet()) {
+                edgeChars[edgeIndex++] = child.getKey();
+
+                queue.add(child.getValue());
+            }
+
+            if (node.points != null) {
+                pointOffsets[nodeIndex] = pointIndex;
+                pointLengths[nodeIndex] = (byte) node.points.length;
+
+                for (int point : node.points) {
+                    points[pointIndex++] = (byte) point;
+                }
+            }
+
+            nodeIndex++;
+        }
+        edgeOffsets[nodeCount] = edgeIndex;
+
+        return new HyphenationPatternTrie(
+                IntBuffer.wrap(edgeOffsets),
+                CharBuffer.wrap(edgeChars),
+                IntBuffer.wrap(pointOffsets),
+                ByteBuffer.wrap(pointLengths),
+                ByteBuffer.wrap(points)
+        );
+    }
+
+    /**
+     * Read a trie previously written using {@link #write(DataOutput)} from the passed buffer.
+     * The returned trie is backed by the buffer (no data is copied).
+     * The position of the buffer is moved behind the trie.
+     *
+     * @param buffer to read trie from
+     * @return the read trie
+     */
+    public static HyphenationPatternTrie read(ByteBuffer buffer) {
+        int nodeCount = buffer.getInt();
+        int pointCount = buffer.getInt();
+
+        IntBuffer edgeOffsets = slice(buffer, (nodeCount + 1) * Integer.BYTES).asIntBuffer();
+        IntBuffer pointOffsets = slice(buffer, nodeCount * Integer.BYTES).asIntBuffer();
+        CharBuffer edgeChars = slice(buffer, (nodeCount - 1) * Character.BYTES).asCharBuffer();
+        ByteBuffer pointLengths = slice(buffer, nodeCount);
+        ByteBuffer points = slice(buffer, pointCount);
+
+        return new HyphenationPatternTrie(edgeOffsets, edgeChars, pointOffsets, pointLengths, points);
+    }
+
+    /**
+     * Slice the given count of bytes from the current position of the passed buffer
+     * and move the position behind them.
+     *
+     * @param buffer to slice from
+     * @param length count of bytes to slice
+     * @return the sliced buffer
+     */
+    private static ByteBuffer slice(ByteBuffer buffer, int length) {
+        ByteBuffer result = buffer.slice();
+        result.limit(length);
+
+        buffer.position(buffer.position() + length);
+
+        return result;
+    }
+
+    /**
+     * Write the trie in a binary format that can be read using {@link #read(ByteBuffer)}.
+     *
+     * @param out to write to
+     * @throws IOException in case the trie could not be written
+     */
+    public void write(DataOutput out) throws IOException {
+        int nodeCount = pointOffsets.limit();
+        int pointCount = points.limit();
+
+        out.writeInt(nodeCount);
+        out.writeInt(pointCount);
+
+        for (int i = 0; i <= nodeCount; i++) {
+            out.writeInt(edgeOffsets.get(i));
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            out.writeInt(pointOffsets.get(i));
+        }
+        for (int i = 0; i < nodeCount - 1; i++) {
+            out.writeChar(edgeChars.get(i));
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            out.writeByte(pointLengths.get(i));
+        }
+        for (int i = 0; i < pointCount; i++) {
+            out.writeByte(points.get(i));
+        }
+    }
+
+    /**
+     * Get the child of the passed node for the given character.
+     *
+     * @param node to get child of
+     * @param c    character of the edge to the child
+     * @return the child node or {@link #NO_NODE} if there is none
+     */
+    public int getChild(int node, char c) {
+        int low = edgeOffsets.get(node);
+        int high = edgeOffsets.get(node + 1) - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midChar = edgeChars.get(mid);
+
+            if (midChar < c) {
+                low = mid + 1;
+            } else if (midChar > c) {
+                high = mid - 1;
+            } else {
+                return mid + 1;
+            }
+        }
+
+        return NO_NODE;
+    }
+
+    /**
+     * Apply the points of the pattern ending in the passed node (if any) to the given points array.
+     * Each point is only applied if it is greater than the current value.
+     *
+     * @param node   the pattern ends in
+     * @param target points array to apply the points to
+     * @param offset in the target array where the pattern starts
+     */
+    public void applyPoints(int node, int[] target, int offset) {
+        int pointOffset = pointOffsets.get(node);
+        if (pointOffset == -1) {
+            return;
+        }
+
+        int length = pointLengths.get(node);
+        for (int p = 0; p < length; p++) {
+            int point = points.get(pointOffset + p);
+            if (point > target[offset + p]) {
+                target[offset + p] = point;
+            }
+        }
+    }
+
+    /**
+     * Node of the trie used while compiling.
+     */
+    private static class BuildNode {
+
+        /**
+         * Children of the node sorted by character.
+         */
+        private final Map<Character, BuildNode> children = new TreeMap<>();
+
+        /**
+         * Points of the pattern ending in this node or null if there is none.
+         */
+        private int[] points;
+
+    }
+
+}
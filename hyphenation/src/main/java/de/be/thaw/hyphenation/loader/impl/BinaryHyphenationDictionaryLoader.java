@@ -0,0 +1,77 @@
+package de.be.thaw.hyphenation.loader.impl;
+
+import de.be.thaw.hyphenation.HyphenationDictionary;
+import de.be.thaw.hyphenation.impl.DefaultHyphenationDictionary;
+import de.be.thaw.hyphenation.impl.HyphenationPatternTrie;
+import de.be.thaw.hyphenation.loader.exception.HyphenationDictionaryLoadException;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Hyphenation dictionary loader loading a dictionary precompiled to a binary format.
+ * The loaded dictionary is backed by the passed buffer, which may be memory-mapped.
+ */
+public class BinaryHyphenationDictionaryLoader {
+
+    /**
+     * Magic number at the start of each binary hyphenation dictionary ("THYP").
+     */
+    private static final int MAGIC_NUMBER = 0x54485950;
+
+    /**
+     * Version of the binary format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Load a hyphenation dictionary from the passed buffer.
+     *
+     * @param buffer to load dictionary from
+     * @return the loaded hyphenation dictionary
+     * @throws HyphenationDictionaryLoadException in case the dictionary could not be loaded
+     */
+    public HyphenationDictionary load(ByteBuffer buffer) throws HyphenationDictionaryLoadException {
+        try {
+            if (buffer.getInt() != MAGIC_NUMBER) {
+                throw new HyphenationDictionaryLoadException("Buffer does not contain a binary hyphenation dictionary", null);
+            }
+
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new HyphenationDictionaryLoadException(String.format(
+                        "Binary hyphenation dictionary has version %d but only version %d is supported",
+                        version,
+                        VERSION
+                ), null);
+            }
+
+            int leftHyphenMin = buffer.getInt();
+            int rightHyphenMin = buffer.getInt();
+
+            return new DefaultHyphenationDictionary(HyphenationPatternTrie.read(buffer), leftHyphenMin, rightHyphenMin);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new HyphenationDictionaryLoadException("Binary hyphenation dictionary is truncated or corrupt", e);
+        }
+    }
+
+    /**
+     * Write the passed dictionary in the binary format that can be loaded using {@link #load(ByteBuffer)}.
+     *
+     * @param dictionary to write
+     * @param out        to write to
+     * @throws IOException in case the dictionary could not be written
+     */
+    public static void write(DefaultHyphenationDictionary dictionary, DataOutput out) throws IOException {
+        out.writeInt(MAGIC_NUMBER);
+        out.writeInt(VERSION);
+
+        out.writeInt(dictionary.getLeftHyphenMin());
+        out.writeInt(dictionary.getRightHyphenMin());
+
+        dictionary.getPatterns().write(out);
+    }
+
+}
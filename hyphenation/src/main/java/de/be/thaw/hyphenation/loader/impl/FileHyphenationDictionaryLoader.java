@@ -2,6 +2,7 @@ package de.be.thaw.hyphenation.loader.impl;
 
 import de.be.thaw.hyphenation.HyphenationDictionary;
 import de.be.thaw.hyphenation.impl.DefaultHyphenationDictionary;
+import de.be.thaw.hyphenation.impl.HyphenationPatternTrie;
 import de.be.thaw.hyphenation.loader.HyphenationDictionaryLoader;
 import de.be.thaw.hyphenation.loader.exception.HyphenationDictionaryLoadException;
 
@@ -84,7 +85,7 @@ public class FileHyphenationDictionaryLoader implements HyphenationDictionaryLoa
             throw new HyphenationDictionaryLoadException("Could not load hyphenation dictionary from file", e);
         }
 
-        return new DefaultHyphenationDictionary(source, leftHyphenMin, rightHyphenMin);
+        return new DefaultHyphenationDictionary(HyphenationPatternTrie.compile(source), leftHyphenMin, rightHyphenMin);
     }
 
     /**
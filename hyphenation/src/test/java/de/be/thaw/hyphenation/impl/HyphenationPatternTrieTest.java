@@ -0,0 +1,233 @@
+package de.be.thaw.hyphenation.impl;
+
+import de.be.thaw.hyphenation.loader.exception.HyphenationDictionaryLoadException;
+import de.be.thaw.hyphenation.loader.impl.FileHyphenationDictionaryLoader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+public class HyphenationPatternTrieTest {
+
+    /**
+     * Words to hyphenate in addition to the randomly generated ones.
+     */
+    private static final List<String> WORDS = List.of(
+            "hyphenation", "Hyphenation", "algorithm", "typesetting", "paragraph", "dictionary", "concatenation",
+            "supercalifragilisticexpialidocious", "a", "ab", "abc", "university", "computer", "Silbentrennung",
+            "Donaudampfschifffahrtsgesellschaft", "Stra\u00dfe", "M\u00e4dchen", "\u00fcberm\u00e4\u00dfig", "Rindfleischetikettierung"
+    );
+
+    /**
+     * Read the pattern map of the dictionary for the passed language the same way the file loader does.
+     *
+     * @param language code of the dictionary
+     * @return the patterns mapping the pattern characters to their points
+     */
+    private static Map<String, int[]> readPatterns(String language) throws IOException {
+        Pattern digits = Pattern.compile("[0-9]");
+        Pattern pointsSplit = Pattern.compile("[.a-z]");
+
+        Map<String, int[]> patterns = new HashMap<>();
+        try (BufferedReader reader = openDictionary(language)) {
+            boolean data = false;
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.startsWith("%")) {
+                    continue;
+                }
+
+                String[] parts = line.split(" ");
+                if (!data && (parts.length != 1 || parts[0].equalsIgnoreCase("utf-8"))) {
+                    continue; // Meta data
+                }
+                data = true;
+
+                patterns.put(digits.matcher(line).replaceAll(""), pointsSplit.splitAsStream(line)
+                        .mapToInt(s -> s.isEmpty() ? 0 : Character.getNumericValue(s.charAt(0)))
+                        .toArray());
+            }
+        }
+
+        return patterns;
+    }
+
+    private static BufferedReader openDictionary(String language) {
+        return new BufferedReader(new InputStreamReader(
+                HyphenationPatternTrieTest.class.getResourceAsStream(String.format("/hyphenation/%s/dictionary.dic", language)),
+                StandardCharsets.UTF_8
+        ));
+    }
+
+    /**
+     * Hyphenate the passed word by looking up every substring of the word in the pattern map.
+     * This is the matching used before the patterns were compiled to a trie.
+     *
+     * @param patterns       the pattern map
+     * @param leftHyphenMin  minimum characters to hyphenate on the left
+     * @param rightHyphenMin minimum characters to hyphenate on the right
+     * @param word           to hyphenate
+     * @return the word parts
+     */
+    private static List<String> hyphenateBySubstrings(Map<String, int[]> patterns, int leftHyphenMin, int rightHyphenMin, String word) {
+        if (word.length() <= leftHyphenMin + rightHyphenMin) {
+            return Collections.singletonList(word);
+        }
+
+        String periodWord = '.' + word + '.';
+        int[] points = new int[periodWord.length() + 1];
+
+        int len = periodWord.length();
+        for (int partLength = 1; partLength < len; partLength++) {
+            for (int start = 0; start <= len - partLength; start++) {
+                int[] curPoints = patterns.get(periodWord.substring(start, start + partLength).toLowerCase());
+                if (curPoints != null) {
+                    for (int p = 0; p < curPoints.length; p++) {
+                        points[start + p] = Math.max(points[start + p], curPoints[p]);
+                    }
+                }
+            }
+        }
+
+        Arrays.fill(points, 0, leftHyphenMin, 0);
+        Arrays.fill(points, points.length - rightHyphenMin, points.length, 0);
+
+        List<String> parts = new ArrayList<>();
+        int startIndex = 0;
+        for (int i = leftHyphenMin; i < word.length() - rightHyphenMin + 1; i++) {
+            if (points[i + 1] % 2 != 0) {
+                parts.add(word.substring(startIndex, i));
+                startIndex = i;
+            }
+        }
+        if (startIndex < word.length()) {
+            parts.add(word.substring(startIndex));
+        }
+
+        return parts;
+    }
+
+    /**
+     * Generate random words by concatenating pattern characters, so that lots of patterns match.
+     *
+     * @param patterns to generate words from
+     * @param count    of words to generate
+     * @return the generated words
+     */
+    private static List<String> generateWords(Map<String, int[]> patterns, int count) {
+        List<String> keys = new ArrayList<>(patterns.keySet());
+        Collections.sort(keys);
+
+        Random random = new Random(42);
+        List<String> words = new ArrayList<>(WORDS);
+        for (int i = 0; i < count; i++) {
+            StringBuilder sb = new StringBuilder();
+            int parts = 1 + random.nextInt(4);
+            for (int p = 0; p < parts; p++) {
+                sb.append(keys.get(random.nextInt(keys.size())).replace(".", ""));
+            }
+
+            if (random.nextBoolean()) {
+                sb.setCharAt(0, Character.toUpperCase(sb.charAt(0)));
+            }
+
+            words.add(sb.toString());
+        }
+
+        return words;
+    }
+
+    /**
+     * Check that the trie hyphenates all words exactly like the substring matcher.
+     *
+     * @param language of the dictionary to check
+     */
+    private static void assertSameAsSubstringMatcher(String language) throws IOException, HyphenationDictionaryLoadException {
+        Map<String, int[]> patterns = readPatterns(language);
+
+        DefaultHyphenationDictionary dictionary;
+        try (BufferedReader reader = openDictionary(language)) {
+            dictionary = (DefaultHyphenationDictionary) new FileHyphenationDictionaryLoader().load(reader);
+        }
+
+        for (String word : generateWords(patterns, 5000)) {
+            Assertions.assertEquals(
+                    hyphenateBySubstrings(patterns, dictionary.getLeftHyphenMin(), dictionary.getRightHyphenMin(), word),
+                    dictionary.hyphenate(word),
+                    word
+            );
+        }
+    }
+
+    @Test
+    public void liangExample() {
+        Map<String, int[]> patterns = new HashMap<>();
+        patterns.put("hyph", new int[]{0, 0, 3, 0, 0});
+        patterns.put("hen", new int[]{0, 0, 2, 0});
+        patterns.put("hena", new int[]{0, 0, 0, 0, 4});
+        patterns.put("henat", new int[]{0, 0, 0, 5, 0, 0});
+        patterns.put("na", new int[]{1, 0, 0});
+        patterns.put("nat", new int[]{0, 2, 0, 0});
+        patterns.put("tio", new int[]{1, 0, 0, 0});
+        patterns.put("io", new int[]{2, 0, 0});
+        patterns.put("on", new int[]{0, 2, 0});
+
+        DefaultHyphenationDictionary dictionary = new DefaultHyphenationDictionary(HyphenationPatternTrie.compile(patterns), 2, 3);
+
+        Assertions.assertEquals(List.of("hy", "phen", "ation"), dictionary.hyphenate("hyphenation"));
+        Assertions.assertEquals(hyphenateBySubstrings(patterns, 2, 3, "hyphenation"), dictionary.hyphenate("hyphenation"));
+    }
+
+    @Test
+    public void missingChildren() {
+        Map<String, int[]> patterns = new HashMap<>();
+        patterns.put("ab", new int[]{0, 1, 0});
+        patterns.put("ac", new int[]{0, 3, 0});
+
+        HyphenationPatternTrie trie = HyphenationPatternTrie.compile(patterns);
+
+        int a = trie.getChild(HyphenationPatternTrie.ROOT, 'a');
+        Assertions.assertNotEquals(HyphenationPatternTrie.NO_NODE, a);
+        Assertions.assertNotEquals(HyphenationPatternTrie.NO_NODE, trie.getChild(a, 'b'));
+        Assertions.assertNotEquals(HyphenationPatternTrie.NO_NODE, trie.getChild(a, 'c'));
+        Assertions.assertEquals(HyphenationPatternTrie.NO_NODE, trie.getChild(a, 'd'));
+        Assertions.assertEquals(HyphenationPatternTrie.NO_NODE, trie.getChild(a, 'a'));
+        Assertions.assertEquals(HyphenationPatternTrie.NO_NODE, trie.getChild(HyphenationPatternTrie.ROOT, 'b'));
+
+        // No pattern ends in the inner node -> points are left untouched
+        int[] points = new int[]{7, 7, 7};
+        trie.applyPoints(a, points, 0);
+        Assertions.assertArrayEquals(new int[]{7, 7, 7}, points);
+
+        // Points are only raised
+        points = new int[]{0, 2, 0};
+        trie.applyPoints(trie.getChild(a, 'b'), points, 0);
+        Assertions.assertArrayEquals(new int[]{0, 2, 0}, points);
+        trie.applyPoints(trie.getChild(a, 'c'), points, 0);
+        Assertions.assertArrayEquals(new int[]{0, 3, 0}, points);
+    }
+
+    @Test
+    public void sameAsSubstringMatcherEnglish() throws IOException, HyphenationDictionaryLoadException {
+        assertSameAsSubstringMatcher("en");
+    }
+
+    @Test
+    public void sameAsSubstringMatcherGerman() throws IOException, HyphenationDictionaryLoadException {
+        assertSameAsSubstringMatcher("de");
+    }
+
+}
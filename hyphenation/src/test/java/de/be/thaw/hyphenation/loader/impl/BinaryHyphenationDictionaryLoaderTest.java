@@ -0,0 +1,139 @@
+package de.be.thaw.hyphenation.loader.impl;
+
+import de.be.thaw.hyphenation.HyphenationDictionary;
+import de.be.thaw.hyphenation.compiler.HyphenationDictionaryCompiler;
+import de.be.thaw.hyphenation.impl.DefaultHyphenationDictionary;
+import de.be.thaw.hyphenation.loader.exception.HyphenationDictionaryLoadException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+public class BinaryHyphenationDictionaryLoaderTest {
+
+    /**
+     * Words to compare the hyphenation of.
+     */
+    private static final List<String> WORDS = List.of(
+            "hyphenation", "algorithm", "typesetting", "paragraph", "dictionary", "concatenation", "university",
+            "supercalifragilisticexpialidocious", "Computer", "ab", "x", "Internationalization"
+    );
+
+    /**
+     * Load the text dictionary for the passed language.
+     *
+     * @param language code of the dictionary
+     * @return the loaded dictionary
+     */
+    private static DefaultHyphenationDictionary loadTextDictionary(String language) throws IOException, HyphenationDictionaryLoadException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                BinaryHyphenationDictionaryLoaderTest.class.getResourceAsStream(String.format("/hyphenation/%s/dictionary.dic", language)),
+                StandardCharsets.UTF_8
+        ))) {
+            return (DefaultHyphenationDictionary) new FileHyphenationDictionaryLoader().load(reader);
+        }
+    }
+
+    /**
+     * Write the passed dictionary in the binary format.
+     *
+     * @param dictionary to write
+     * @return the written bytes
+     */
+    private static byte[] write(DefaultHyphenationDictionary dictionary) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            BinaryHyphenationDictionaryLoader.write(dictionary, out);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void writeThenMemoryMap(@TempDir Path tempDir) throws IOException, HyphenationDictionaryLoadException {
+        DefaultHyphenationDictionary dictionary = loadTextDictionary("en");
+
+        Path file = tempDir.resolve("dictionary.bin");
+        Files.write(file, write(dictionary));
+
+        HyphenationDictionary loaded;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            loaded = new BinaryHyphenationDictionaryLoader().load(buffer);
+
+            Assertions.assertFalse(buffer.hasRemaining()); // The whole file has been consumed
+        }
+
+        Assertions.assertEquals(dictionary.getLeftHyphenMin(), loaded.getLeftHyphenMin());
+        Assertions.assertEquals(dictionary.getRightHyphenMin(), loaded.getRightHyphenMin());
+        for (String word : WORDS) {
+            Assertions.assertEquals(dictionary.hyphenate(word), loaded.hyphenate(word), word);
+        }
+    }
+
+    @Test
+    public void compilerOutputIsLoadable(@TempDir Path tempDir) throws IOException, HyphenationDictionaryLoadException {
+        Path source = tempDir.resolve("dictionary.dic");
+        Files.writeString(source, "UTF-8\nLEFTHYPHENMIN 2\nRIGHTHYPHENMIN 3\nhy3ph\nhe2n\nhena4\nhen5at\n1na\nn2at\n1tio\n2io\no2n\n");
+
+        File target = tempDir.resolve("en").resolve("dictionary.bin").toFile();
+        HyphenationDictionaryCompiler.compile(source.toFile(), target);
+
+        HyphenationDictionary loaded = new BinaryHyphenationDictionaryLoader().load(ByteBuffer.wrap(Files.readAllBytes(target.toPath())));
+
+        Assertions.assertEquals(2, loaded.getLeftHyphenMin());
+        Assertions.assertEquals(3, loaded.getRightHyphenMin());
+        Assertions.assertEquals(List.of("hy", "phen", "ation"), loaded.hyphenate("hyphenation"));
+    }
+
+    @Test
+    public void rejectWrongMagicNumber() throws IOException, HyphenationDictionaryLoadException {
+        byte[] bytes = write((DefaultHyphenationDictionary) new FileHyphenationDictionaryLoader().load(new StringReader("a1b\n")));
+        bytes[0] ^= 0xFF;
+
+        Assertions.assertThrows(HyphenationDictionaryLoadException.class, () -> new BinaryHyphenationDictionaryLoader().load(ByteBuffer.wrap(bytes)));
+    }
+
+    @Test
+    public void rejectUnsupportedVersion() throws IOException, HyphenationDictionaryLoadException {
+        byte[] bytes = write((DefaultHyphenationDictionary) new FileHyphenationDictionaryLoader().load(new StringReader("a1b\n")));
+        ByteBuffer.wrap(bytes).putInt(Integer.BYTES, 2); // Version follows the magic number
+
+        HyphenationDictionaryLoadException e = Assertions.assertThrows(
+                HyphenationDictionaryLoadException.class,
+                () -> new BinaryHyphenationDictionaryLoader().load(ByteBuffer.wrap(bytes))
+        );
+        Assertions.assertTrue(e.getMessage().contains("version 2"));
+    }
+
+    @Test
+    public void rejectTruncatedFile() throws IOException, HyphenationDictionaryLoadException {
+        byte[] bytes = write(loadTextDictionary("en"));
+
+        for (int length : new int[]{0, 3, 8, 15, 24, bytes.length / 2, bytes.length - 1}) {
+            ByteBuffer truncated = ByteBuffer.wrap(bytes, 0, length).slice();
+
+            Assertions.assertThrows(
+                    HyphenationDictionaryLoadException.class,
+                    () -> new BinaryHyphenationDictionaryLoader().load(truncated),
+                    "Truncated to " + length + " bytes"
+            );
+        }
+    }
+
+}
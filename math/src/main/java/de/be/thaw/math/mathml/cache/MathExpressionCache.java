@@ -0,0 +1,260 @@
+package de.be.thaw.math.mathml.cache;
+
+import de.be.thaw.font.ThawFont;
+import de.be.thaw.math.mathml.parser.MathMLParser;
+import de.be.thaw.math.mathml.parser.MathMLParserConfig;
+import de.be.thaw.math.mathml.parser.exception.ParseException;
+import de.be.thaw.math.mathml.parser.impl.DefaultMathMLParser;
+import de.be.thaw.math.mathml.tree.MathMLTree;
+import de.be.thaw.math.mathml.typeset.MathExpression;
+import de.be.thaw.math.mathml.typeset.MathMLTypesetter;
+import de.be.thaw.math.mathml.typeset.config.MathTypesetConfig;
+import de.be.thaw.math.mathml.typeset.exception.TypesetException;
+import de.be.thaw.math.mathml.typeset.impl.DefaultMathMLTypesetter;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache for parsed and typeset math expressions.
+ * Parsing and typesetting a MathML expression only depends on the expression text, the font size and the math font,
+ * so expressions repeating in a document (symbols, in-line formulas) only need to be parsed and typeset once.
+ * Expressions may be typeset concurrently (see {@link #getAsync(String, ThawFont, double, double, Executor)}),
+ * the math font used must thus be safe for concurrent use.
+ * <p>
+ * Cached expressions are shared by all places they are used at and must thus not be modified afterwards.
+ */
+public class MathExpressionCache {
+
+    /**
+     * Factor to calculate the default line thickness (for example of fraction lines) from the font size with.
+     */
+    private static final double DEFAULT_LINE_THICKNESS_FACTOR = 0.05;
+
+    /**
+     * Parser to parse MathML expressions with.
+     */
+    private final MathMLParser parser = new DefaultMathMLParser();
+
+    /**
+     * Typesetter to typeset the parsed MathML trees with.
+     */
+    private final MathMLTypesetter typesetter = new DefaultMathMLTypesetter();
+
+    /**
+     * Cached (or currently typeset) expressions by their key.
+     */
+    private final Map<Key, CompletableFuture<MathExpression>> expressions = new ConcurrentHashMap<>();
+
+    /**
+     * Count of expressions that have been found in the cache.
+     */
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * Count of expressions that had to be parsed and typeset.
+     */
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Get the typeset math expression for the passed MathML expression text.
+     * The expression is parsed and typeset in the calling thread in case it is not cached yet.
+     * In case the expression is currently being typeset by another thread the method waits for the result.
+     *
+     * @param expression MathML expression text
+     * @param font       the math font
+     * @param fontSize   the font size to typeset with
+     * @param maxHeight  maximum height of the expression, it is scaled down to the height in case it is higher
+     *                   (pass {@link Double#POSITIVE_INFINITY} to never scale the expression)
+     * @return the typeset math expression (must not be modified)
+     * @throws ParseException   in case the expression could not be parsed
+     * @throws TypesetException in case the expression could not be typeset
+     */
+    public MathExpression get(String expression, ThawFont font, double fontSize, double maxHeight) throws ParseException, TypesetException {
+        try {
+            return getAsync(expression, font, fontSize, maxHeight, Runnable::run).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ParseException) {
+                throw (ParseException) cause;
+            } else if (cause instanceof TypesetException) {
+                throw (TypesetException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw new TypesetException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TypesetException(e);
+        }
+    }
+
+    /**
+     * Get the typeset math expression for the passed MathML expression text asynchronously.
+     * The expression is parsed and typeset using the passed executor in case it is not cached or scheduled yet.
+     * <p>
+     * The unscaled expression is always cached as well, so that an expression fitting the maximum height
+     * is shared with places that do not restrict the height (for example math paragraphs).
+     *
+     * @param expression MathML expression text
+     * @param font       the math font
+     * @param fontSize   the font size to typeset with
+     * @param maxHeight  maximum height of the expression, it is scaled down to the height in case it is higher
+     *                   (pass {@link Double#POSITIVE_INFINITY} to never scale the expression)
+     * @param executor   to parse and typeset the expression with
+     * @return future of the typeset math expression (must not be modified), completed exceptionally with a
+     * {@link ParseException} or {@link TypesetException} in case the expression could not be parsed or typeset
+     */
+    public CompletableFuture<MathExpression> getAsync(String expression, ThawFont font, double fontSize, double maxHeight, Executor executor) {
+        CompletableFuture<MathExpression> unscaled = lookup(new Key(expression, font, fontSize, Double.POSITIVE_INFINITY), executor);
+        if (maxHeight == Double.POSITIVE_INFINITY) {
+            return unscaled;
+        }
+
+        return unscaled.thenCompose(result -> result.getSize().getHeight() <= maxHeight
+                ? CompletableFuture.completedFuture(result)
+                : lookup(new Key(expression, font, fontSize, maxHeight), executor));
+    }
+
+    /**
+     * Look up the math expression for the passed key.
+     * In case it is neither cached nor scheduled yet it is parsed and typeset using the passed executor.
+     *
+     * @param key      to look up expression for
+     * @param executor to parse and typeset the expression with
+     * @return future of the typeset math expression
+     */
+    private CompletableFuture<MathExpression> lookup(Key key, Executor executor) {
+        CompletableFuture<MathExpression> future = new CompletableFuture<>();
+
+        // Only the thread that manages to register the future typesets the expression -> all others share the result
+        CompletableFuture<MathExpression> existing = expressions.putIfAbsent(key, future);
+        if (existing != null) {
+            hits.incrementAndGet();
+            return existing;
+        }
+
+        misses.incrementAndGet();
+        executor.execute(() -> {
+            try {
+                future.complete(create(key));
+            } catch (Throwable e) {
+                future.completeExceptionally(e); // Never leave the future incomplete, others may be waiting for it
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Parse and typeset the math expression for the passed key.
+     *
+     * @param key to parse and typeset expression for
+     * @return the typeset math expression
+     * @throws ParseException   in case the expression could not be parsed
+     * @throws TypesetException in case the expression could not be typeset
+     */
+    private MathExpression create(Key key) throws ParseException, TypesetException {
+        MathMLTree tree = parser.parse(key.expression, new MathMLParserConfig(key.fontSize * DEFAULT_LINE_THICKNESS_FACTOR));
+        MathExpression result = typesetter.typeset(tree, new MathTypesetConfig(key.font, key.fontSize));
+
+        // Fetching the size calculates the lazily calculated sizes of the elements before the expression is shared
+        double height = result.getSize().getHeight();
+        if (height > key.maxHeight) {
+            result.getRoot().scale(key.maxHeight / height);
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the count of expressions that have been found in the cache.
+     *
+     * @return cache hits
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Get the count of expressions that had to be parsed and typeset.
+     *
+     * @return cache misses
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MathExpressionCache{hits: %d, misses: %d}", getHits(), getMisses());
+    }
+
+    /**
+     * Key of a cached math expression.
+     */
+    private static class Key {
+
+        /**
+         * MathML expression text.
+         */
+        private final String expression;
+
+        /**
+         * The math font.
+         */
+        private final ThawFont font;
+
+        /**
+         * Font size to typeset with.
+         */
+        private final double fontSize;
+
+        /**
+         * Maximum height of the typeset expression.
+         */
+        private final double maxHeight;
+
+        Key(String expression, ThawFont font, double fontSize, double maxHeight) {
+            this.expression = expression;
+            this.font = font;
+            this.fontSize = fontSize;
+            this.maxHeight = maxHeight;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key key = (Key) o;
+
+            if (Double.compare(key.fontSize, fontSize) != 0) return false;
+            if (Double.compare(key.maxHeight, maxHeight) != 0) return false;
+            if (!expression.equals(key.expression)) return false;
+            return font.equals(key.font);
+        }
+
+        @Override
+        public int hashCode() {
+            int result;
+            long temp;
+            result = expression.hashCode();
+            result = 31 * result + font.hashCode();
+            temp = Double.doubleToLongBits(fontSize);
+            result = 31 * result + (int) (temp ^ (temp >>> 32));
+            temp = Double.doubleToLongBits(maxHeight);
+            result = 31 * result + (int) (temp ^ (temp >>> 32));
+            return result;
+        }
+
+    }
+
+}
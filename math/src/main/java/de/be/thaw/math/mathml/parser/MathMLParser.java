@@ -22,4 +22,14 @@ public interface MathMLParser {
      */
     MathMLTree parse(InputStream stream, Charset charset, MathMLParserConfig config) throws ParseException;
 
+    /**
+     * Parse the passed MathML source text.
+     *
+     * @param source MathML source text to parse
+     * @param config to use during parsing
+     * @return the parsed MathML tree
+     * @throws ParseException in case the MathML tree could not be parsed
+     */
+    MathMLTree parse(String source, MathMLParserConfig config) throws ParseException;
+
 }
@@ -23,28 +23,46 @@ public class DefaultMathMLParser implements MathMLParser {
 
     @Override
     public MathMLTree parse(InputStream stream, Charset charset, MathMLParserConfig config) throws ParseException {
+        Document document;
         try {
-            Document document = Jsoup.parse(stream, charset.name(), "");
-
-            Element bodyElement = document.body();
-            if (bodyElement.childrenSize() != 1) {
-                throw new ParseException("Expected exactly 1 <math> element as root node of the MathML source text");
-            }
+            document = Jsoup.parse(stream, charset.name(), "");
+        } catch (IOException e) {
+            throw new ParseException(e);
+        }
 
-            Element rootElement = bodyElement.children().get(0);
-            if (!rootElement.nodeName().equals("math")) {
-                throw new ParseException("Expected the root node to have the name 'math'");
-            }
+        return parse(document, config);
+    }
 
-            MathMLParseContext ctx = new MathMLParseContext(config);
+    @Override
+    public MathMLTree parse(String source, MathMLParserConfig config) throws ParseException {
+        return parse(Jsoup.parse(source), config);
+    }
 
-            MathMLNodeParseHandler parseHandler = MathMLNodeParseHandlers.getParseHandler(rootElement.nodeName());
-            MathMLNode root = parseHandler.parse(rootElement, ctx);
+    /**
+     * Parse the MathML tree from the passed HTML document.
+     *
+     * @param document containing the math element
+     * @param config   to use during parsing
+     * @return the parsed MathML tree
+     * @throws ParseException in case the MathML tree could not be parsed
+     */
+    private MathMLTree parse(Document document, MathMLParserConfig config) throws ParseException {
+        Element bodyElement = document.body();
+        if (bodyElement.childrenSize() != 1) {
+            throw new ParseException("Expected exactly 1 <math> element as root node of the MathML source text");
+        }
 
-            return new MathMLTree(root);
-        } catch (IOException e) {
-            throw new ParseException(e);
+        Element rootElement = bodyElement.children().get(0);
+        if (!rootElement.nodeName().equals("math")) {
+            throw new ParseException("Expected the root node to have the name 'math'");
         }
+
+        MathMLParseContext ctx = new MathMLParseContext(config);
+
+        MathMLNodeParseHandler parseHandler = MathMLNodeParseHandlers.getParseHandler(rootElement.nodeName());
+        MathMLNode root = parseHandler.parse(rootElement, ctx);
+
+        return new MathMLTree(root);
     }
 
 }
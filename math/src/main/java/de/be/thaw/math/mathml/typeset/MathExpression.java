@@ -5,6 +5,8 @@ import de.be.thaw.util.Size;
 
 /**
  * A typeset math expression.
+ * The positions of the elements are relative to the expression, so the same expression may be placed
+ * at several positions in a document (see {@link de.be.thaw.math.mathml.cache.MathExpressionCache}).
  */
 public class MathExpression {
 
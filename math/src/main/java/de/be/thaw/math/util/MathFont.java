@@ -1,5 +1,7 @@
 package de.be.thaw.math.util;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 
 /**
@@ -12,13 +14,29 @@ public class MathFont {
      */
     private static final String MATH_FONT_LOCATION = "/font/stix/STIX2Math.ttf";
 
+    /**
+     * Bytes of the math font, read lazily once per JVM.
+     */
+    private static volatile byte[] mathFontData;
+
     /**
      * Get the math font stream.
+     * The font is read from the resources only once and kept in memory afterwards.
      *
      * @return math font stream
+     * @throws IOException in case the math font could not be read
      */
-    public static InputStream getMathFontStream() {
-        return MathFont.class.getResourceAsStream(MATH_FONT_LOCATION);
+    public static InputStream getMathFontStream() throws IOException {
+        byte[] data = mathFontData;
+        if (data == null) {
+            try (InputStream stream = MathFont.class.getResourceAsStream(MATH_FONT_LOCATION)) {
+                data = stream.readAllBytes();
+            }
+
+            mathFontData = data;
+        }
+
+        return new ByteArrayInputStream(data);
     }
 
 }
@@ -1,4 +1,5 @@
 module de.be.thaw.math {
+    exports de.be.thaw.math.mathml.cache;
     exports de.be.thaw.math.mathml.parser.impl;
     exports de.be.thaw.math.mathml.parser;
     exports de.be.thaw.math.util;
@@ -0,0 +1,177 @@
+package de.be.thaw.math.mathml.cache;
+
+import de.be.thaw.font.AbstractFont;
+import de.be.thaw.font.ThawFont;
+import de.be.thaw.font.util.CharacterSize;
+import de.be.thaw.math.mathml.parser.exception.ParseException;
+import de.be.thaw.math.mathml.typeset.MathExpression;
+import de.be.thaw.math.mathml.typeset.element.MathElement;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class MathExpressionCacheTest {
+
+    /**
+     * Expressions to typeset.
+     */
+    private static final String[] EXPRESSIONS = {
+            "<math><mi>a</mi><mo>+</mo><mi>b</mi></math>",
+            "<math><msqrt><mi>x</mi></msqrt></math>",
+            "<math><mfrac><mn>1</mn><mn>2</mn></mfrac></math>",
+            "<math><msup><mi>e</mi><mrow><mi>i</mi><mi>\u03c0</mi></mrow></msup><mo>=</mo><mn>-1</mn></math>",
+            "<math><msubsup><mo>\u222b</mo><mn>0</mn><mn>1</mn></msubsup><mi>x</mi><mi>dx</mi></math>",
+            "<math><mrow><mo>(</mo><mfrac><mi>a</mi><mi>b</mi></mfrac><mo>)</mo></mrow></math>"
+    };
+
+    /**
+     * Font measuring every character differently (with kerning) so that typesetting results depend on the text.
+     */
+    private static final ThawFont FONT = new AbstractFont() {
+
+        @Override
+        public double getAscent(double fontSize) {
+            return fontSize * 0.8;
+        }
+
+        @Override
+        public double getDescent(double fontSize) {
+            return fontSize * 0.2;
+        }
+
+        @Override
+        public CharacterSize getCharacterSize(int character, double fontSize) {
+            double ascent = fontSize * (0.5 + character % 4 * 0.1);
+            double descent = fontSize * (character % 3 * 0.1);
+
+            return new CharacterSize(fontSize * (0.4 + character % 5 * 0.1), ascent + descent, ascent, descent);
+        }
+
+        @Override
+        public double getKerningAdjustment(int leftChar, int rightChar, double fontSize) {
+            return -fontSize * ((leftChar + rightChar) % 3) * 0.01;
+        }
+
+    };
+
+    @Test
+    public void expressionsAreReused() throws Exception {
+        MathExpressionCache cache = new MathExpressionCache();
+
+        MathExpression expression = cache.get(EXPRESSIONS[0], FONT, 10, Double.POSITIVE_INFINITY);
+        Assertions.assertSame(expression, cache.get(EXPRESSIONS[0], FONT, 10, Double.POSITIVE_INFINITY));
+        Assertions.assertSame(expression, cache.getAsync(EXPRESSIONS[0], FONT, 10, Double.POSITIVE_INFINITY, Runnable::run).get());
+        Assertions.assertEquals(1, cache.getMisses());
+        Assertions.assertEquals(2, cache.getHits());
+
+        // Another font size or expression needs to be typeset again
+        Assertions.assertNotSame(expression, cache.get(EXPRESSIONS[0], FONT, 12, Double.POSITIVE_INFINITY));
+        Assertions.assertNotSame(expression, cache.get(EXPRESSIONS[1], FONT, 10, Double.POSITIVE_INFINITY));
+        Assertions.assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    public void expressionsAreScaledToTheMaximumHeight() throws Exception {
+        MathExpressionCache cache = new MathExpressionCache();
+
+        MathExpression unscaled = cache.get(EXPRESSIONS[2], FONT, 10, Double.POSITIVE_INFINITY);
+        double height = unscaled.getSize().getHeight();
+
+        // Expressions fitting the maximum height share the unscaled expression
+        Assertions.assertSame(unscaled, cache.get(EXPRESSIONS[2], FONT, 10, height * 2));
+
+        MathExpression scaled = cache.get(EXPRESSIONS[2], FONT, 10, height / 2);
+        Assertions.assertNotSame(unscaled, scaled);
+        Assertions.assertSame(scaled, cache.get(EXPRESSIONS[2], FONT, 10, height / 2));
+        Assertions.assertEquals(height / 2, scaled.getSize().getHeight(), 0.0001);
+
+        // The cached unscaled expression is not modified by scaling
+        Assertions.assertEquals(height, unscaled.getSize().getHeight());
+        Assertions.assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void failuresAreCachedAsWell() {
+        MathExpressionCache cache = new MathExpressionCache();
+
+        Assertions.assertThrows(ParseException.class, () -> cache.get("<math><msup><mi>a</mi></msup></math>", FONT, 10, Double.POSITIVE_INFINITY));
+        Assertions.assertThrows(ParseException.class, () -> cache.get("<math><msup><mi>a</mi></msup></math>", FONT, 10, Double.POSITIVE_INFINITY));
+        Assertions.assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void parallelResultEqualsSequentialResult() throws Exception {
+        List<String> sequential = new ArrayList<>();
+        MathExpressionCache sequentialCache = new MathExpressionCache();
+        for (int i = 0; i < 20; i++) {
+            for (String expression : EXPRESSIONS) {
+                sequential.add(describe(sequentialCache.get(expression, FONT, 8 + i, 8 + i)));
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            MathExpressionCache parallelCache = new MathExpressionCache();
+
+            List<CompletableFuture<MathExpression>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                for (String expression : EXPRESSIONS) {
+                    futures.add(parallelCache.getAsync(expression, FONT, 8 + i, 8 + i, executor));
+                }
+            }
+
+            List<String> parallel = new ArrayList<>();
+            for (CompletableFuture<MathExpression> future : futures) {
+                parallel.add(describe(future.get()));
+            }
+
+            Assertions.assertEquals(sequential, parallel);
+            Assertions.assertEquals(sequentialCache.getMisses(), parallelCache.getMisses());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Describe the layout of the passed expression.
+     *
+     * @param expression to describe
+     * @return description of the layout of all elements
+     */
+    private static String describe(MathExpression expression) {
+        StringBuilder sb = new StringBuilder();
+        describe(expression.getRoot(), sb);
+
+        return sb.toString();
+    }
+
+    /**
+     * Describe the layout of the passed element and its children.
+     *
+     * @param element to describe
+     * @param sb      to append the description to
+     */
+    private static void describe(MathElement element, StringBuilder sb) {
+        sb.append(element.getType())
+                .append('[').append(element.getSize().getWidth())
+                .append('x').append(element.getSize().getHeight())
+                .append(" at ").append(element.getPosition(true).getX())
+                .append(',').append(element.getPosition(true).getY())
+                .append(" baseline ").append(element.getBaseline())
+                .append(']');
+
+        element.getChildren().ifPresent(children -> {
+            sb.append('(');
+            for (MathElement child : children) {
+                describe(child, sb);
+            }
+            sb.append(')');
+        });
+    }
+
+}
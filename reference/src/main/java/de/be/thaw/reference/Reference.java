@@ -13,10 +13,10 @@ public interface Reference {
     ReferenceType getType();
 
     /**
-     * Get the ID of the source.
+     * Get the ID of the source node.
      *
-     * @return source ID
+     * @return source node ID
      */
-    String getSourceID();
+    int getSourceID();
 
 }
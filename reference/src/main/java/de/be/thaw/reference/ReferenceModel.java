@@ -4,6 +4,7 @@ import de.be.thaw.reference.citation.CitationManager;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
 
 /**
  * Model holding references (internal and external to a document).
@@ -33,7 +34,7 @@ public interface ReferenceModel {
      * @param sourceID to get reference for
      * @return reference (or empty optional)
      */
-    Optional<Reference> getReference(String sourceID);
+    Optional<Reference> getReference(int sourceID);
 
     /**
      * Add a label to node ID mapping.
@@ -41,7 +42,7 @@ public interface ReferenceModel {
      * @param label  to add
      * @param nodeID of the label
      */
-    void addLabel(String label, String nodeID);
+    void addLabel(String label, int nodeID);
 
     /**
      * Get the node ID for the passed label (if there is any node ID assigned to the label).
@@ -49,7 +50,7 @@ public interface ReferenceModel {
      * @param label to get node ID for
      * @return node ID (or an empty Optional).
      */
-    Optional<String> getNodeIDForLabel(String label);
+    OptionalInt getNodeIDForLabel(String label);
 
     /**
      * Set the reference number for the passed node ID and counter.
@@ -58,7 +59,7 @@ public interface ReferenceModel {
      * @param nodeID      to set reference number for
      * @return the set number
      */
-    int setReferenceNumber(String counterName, String nodeID);
+    int setReferenceNumber(String counterName, int nodeID);
 
     /**
      * Get the reference number for the passed nodeID.
@@ -66,7 +67,7 @@ public interface ReferenceModel {
      * @param nodeID id of the node to get the reference number for
      * @return the reference number for the passed node ID (or -1 if not found).
      */
-    int getReferenceNumber(String nodeID);
+    int getReferenceNumber(int nodeID);
 
     /**
      * Get the citation manager to use.
@@ -7,9 +7,11 @@ import de.be.thaw.reference.citation.exception.CitationManagerCreationException;
 import de.be.thaw.reference.citation.exception.CouldNotLoadBibliographyException;
 import de.be.thaw.reference.citation.exception.UnsupportedBibliographyFormatException;
 import de.be.thaw.reference.citation.exception.UnsupportedCitationStyleException;
+import de.be.thaw.shared.ThawContext;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
+import java.io.IOException;
 
 /**
  * Factory for citation managers.
@@ -28,17 +30,18 @@ public class CitationManagerFactory {
     /**
      * Produce a citation manager for the passed bibliography file and settings.
      *
+     * @param context           of the render to produce the citation manager for
      * @param bibliographyFile  to use
      * @param citationStyleName name of the citation style to use
      * @param language          to use for localizations
      * @return the citation manager
      */
-    public CitationManager create(@Nullable File bibliographyFile, String citationStyleName, Language language) throws CitationManagerCreationException {
+    public CitationManager create(ThawContext context, @Nullable File bibliographyFile, String citationStyleName, Language language) throws CitationManagerCreationException {
         if (bibliographyFile == null) {
             return new EmptyCitationManager();
         } else {
             try {
-                return new CSLCitationManager(bibliographyFile, citationStyleName, language);
+                return new CSLCitationManager(context, bibliographyFile, citationStyleName, language);
             } catch (UnsupportedBibliographyFormatException | CouldNotLoadBibliographyException | UnsupportedCitationStyleException e) {
                 throw new CitationManagerCreationException(String.format(
                         "Citation manager could not be created for bibliography file at '%s', citation style '%s' and language '%s'. Exception was: '%s'",
@@ -51,6 +54,15 @@ public class CitationManagerFactory {
         }
     }
 
+    /**
+     * Warm up the citation engine so that the first render using a bibliography does not have to load it.
+     *
+     * @throws IOException in case the citation engine could not be loaded
+     */
+    public void warmUp() throws IOException {
+        CSLCitationManager.warmUp();
+    }
+
     /**
      * Holder of the citation manager factory singleton instance.
      */
@@ -15,13 +15,17 @@ import de.be.thaw.util.cache.exception.CouldNotGetProjectCacheDirectoryException
 import de.be.thaw.util.debug.Debug;
 import de.undercouch.citeproc.CSL;
 import de.undercouch.citeproc.ItemDataProvider;
+import de.undercouch.citeproc.ListItemDataProvider;
 import de.undercouch.citeproc.bibtex.BibTeXConverter;
 import de.undercouch.citeproc.bibtex.BibTeXItemDataProvider;
 import de.undercouch.citeproc.csl.CSLCitation;
 import de.undercouch.citeproc.csl.CSLCitationItem;
 import de.undercouch.citeproc.csl.CSLCitationItemBuilder;
+import de.undercouch.citeproc.csl.CSLItemData;
+import de.undercouch.citeproc.csl.CSLItemDataBuilder;
 import de.undercouch.citeproc.csl.CSLLabel;
 import de.undercouch.citeproc.csl.CSLProperties;
+import de.undercouch.citeproc.csl.CSLType;
 import de.undercouch.citeproc.endnote.EndNoteConverter;
 import de.undercouch.citeproc.endnote.EndNoteItemDataProvider;
 import de.undercouch.citeproc.endnote.EndNoteLibrary;
@@ -100,12 +104,28 @@ public class CSLCitationManager implements CitationManager {
      */
     private static final String BIBLIOGRAPHY_SOURCE_IDS_KEY = "source-ids";
 
+    /**
+     * Name of the citation style used to warm up the citation engine.
+     */
+    private static final String WARM_UP_STYLE_NAME = "apa";
+
+    /**
+     * Names of the supported citation styles, loaded lazily once per JVM using the getSupportedStyles() method.
+     */
+    @Nullable
+    private static volatile Set<String> supportedStyles;
+
     /**
      * The citation style to use, loaded lazily using the getCsl() method.
      */
     @Nullable
     private CSL csl;
 
+    /**
+     * Context of the render the citations are managed for.
+     */
+    private final ThawContext context;
+
     /**
      * Citation style name to use.
      */
@@ -159,6 +179,7 @@ public class CSLCitationManager implements CitationManager {
     /**
      * Create new CSL citation manager.
      *
+     * @param context           of the render to manage citations for
      * @param bibliography      file to use
      * @param citationStyleName the citation style name (e. g. "ieee", "apa", ...)
      * @param language          used for localization
@@ -166,8 +187,9 @@ public class CSLCitationManager implements CitationManager {
      * @throws CouldNotLoadBibliographyException      in case the bibliography could not be loaded from file
      * @throws UnsupportedCitationStyleException      in case the given citation style is not supported
      */
-    public CSLCitationManager(File bibliography, String citationStyleName, Language language)
+    public CSLCitationManager(ThawContext context, File bibliography, String citationStyleName, Language language)
             throws UnsupportedBibliographyFormatException, CouldNotLoadBibliographyException, UnsupportedCitationStyleException {
+        this.context = context;
         citationStyleName = citationStyleName.toLowerCase();
         this.citationStyleName = citationStyleName;
         this.citationStyleLanguageCode = language.getLocale().toString().replace("_", "-");
@@ -175,11 +197,11 @@ public class CSLCitationManager implements CitationManager {
 
         // Check if the citation style specified is supported
         try {
-            if (!CSL.getSupportedStyles().contains(citationStyleName)) {
+            if (!getSupportedStyles().contains(citationStyleName)) {
                 throw new UnsupportedCitationStyleException(String.format(
                         "Citation style '%s' is not supported. Pick one of the following:%n%s",
                         citationStyleName,
-                        CSL.getSupportedStyles().stream()
+                        getSupportedStyles().stream()
                                 .sorted()
                                 .collect(Collectors.joining("\n"))
                 ));
@@ -214,6 +236,47 @@ public class CSLCitationManager implements CitationManager {
         }
     }
 
+    /**
+     * Get the names of the supported citation styles.
+     * Looking the styles up scans the classpath, so the result is shared by all citation managers.
+     *
+     * @return supported citation style names
+     * @throws IOException in case the styles could not be looked up
+     */
+    private static Set<String> getSupportedStyles() throws IOException {
+        Set<String> styles = supportedStyles;
+        if (styles == null) {
+            styles = Set.copyOf(CSL.getSupportedStyles());
+            supportedStyles = styles;
+        }
+
+        return styles;
+    }
+
+    /**
+     * Warm up the citation engine by loading the supported styles and formatting a single citation.
+     * Loading the script engine of citeproc-java the first time takes seconds, afterwards
+     * creating the CSL for a bibliography is a lot cheaper.
+     * The CSL itself is bound to a bibliography and not thread-safe, so it is not kept.
+     *
+     * @throws IOException in case the citation engine could not be loaded
+     */
+    public static void warmUp() throws IOException {
+        getSupportedStyles();
+
+        CSLItemData item = new CSLItemDataBuilder()
+                .id("warm-up")
+                .type(CSLType.BOOK)
+                .title("Warm-up")
+                .author("Thaw", "Thaw")
+                .issued(2020)
+                .build();
+
+        CSL csl = new CSL(new ListItemDataProvider(item), WARM_UP_STYLE_NAME, Language.ENGLISH.getLocale().toString());
+        csl.setOutputFormat("text");
+        csl.makeCitation(item.getId());
+    }
+
     /**
      * Get the CSL to generate citations and bibliographies.
      *
@@ -326,7 +389,7 @@ public class CSLCitationManager implements CitationManager {
         // Load a project-specific cache directory.
         File projectCacheDir;
         try {
-            projectCacheDir = CacheUtil.getProjectSpecificCacheDir(ThawContext.getInstance().getRootFolder());
+            projectCacheDir = CacheUtil.getProjectSpecificCacheDir(context.getRootFolder());
         } catch (CouldNotGetProjectCacheDirectoryException e) {
             throw new IOException(e);
         }
@@ -3,12 +3,15 @@ package de.be.thaw.reference.impl;
 import de.be.thaw.reference.Reference;
 import de.be.thaw.reference.ReferenceModel;
 import de.be.thaw.reference.citation.CitationManager;
+import de.be.thaw.util.IntLookup;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
 
 /**
  * The default reference model implementation.
@@ -21,19 +24,19 @@ public class DefaultReferenceModel implements ReferenceModel {
     private final List<Reference> references = new ArrayList<>();
 
     /**
-     * Reference lookup by source ID.
+     * Reference lookup by source node ID.
      */
-    private final Map<String, Reference> referenceLookup = new HashMap<>();
+    private final IntLookup<Reference> referenceLookup = new IntLookup<>();
 
     /**
      * Lookup from labels to their node ID.
      */
-    private final Map<String, String> labelToNodeID = new HashMap<>();
+    private final Map<String, Integer> labelToNodeID = new HashMap<>();
 
     /**
-     * Reference number lookup by node ID.
+     * Reference numbers indexed by node ID (-1 if a node has no reference number).
      */
-    private final Map<String, Integer> referenceNumberLookup = new HashMap<>();
+    private int[] referenceNumberLookup = new int[0];
 
     /**
      * Reference counter lookup.
@@ -61,35 +64,42 @@ public class DefaultReferenceModel implements ReferenceModel {
     }
 
     @Override
-    public Optional<Reference> getReference(String sourceID) {
+    public Optional<Reference> getReference(int sourceID) {
         return Optional.ofNullable(referenceLookup.get(sourceID));
     }
 
     @Override
-    public void addLabel(String label, String nodeID) {
+    public void addLabel(String label, int nodeID) {
         labelToNodeID.put(label, nodeID);
     }
 
     @Override
-    public Optional<String> getNodeIDForLabel(String label) {
-        return Optional.ofNullable(labelToNodeID.get(label));
+    public OptionalInt getNodeIDForLabel(String label) {
+        Integer nodeID = labelToNodeID.get(label);
+
+        return nodeID != null ? OptionalInt.of(nodeID) : OptionalInt.empty();
     }
 
     @Override
-    public int setReferenceNumber(String counterName, String nodeID) {
+    public int setReferenceNumber(String counterName, int nodeID) {
         // Increase reference counter by 1 first
         referenceCounterLookup.put(counterName, referenceCounterLookup.computeIfAbsent(counterName, k -> 0) + 1);
 
         // Set reference number for the node ID to the new counter value
         int counter = referenceCounterLookup.get(counterName);
-        referenceNumberLookup.put(nodeID, counter);
+        if (nodeID >= referenceNumberLookup.length) {
+            int oldLength = referenceNumberLookup.length;
+            referenceNumberLookup = Arrays.copyOf(referenceNumberLookup, Math.max(oldLength * 2, nodeID + 1));
+            Arrays.fill(referenceNumberLookup, oldLength, referenceNumberLookup.length, -1);
+        }
+        referenceNumberLookup[nodeID] = counter;
 
         return counter;
     }
 
     @Override
-    public int getReferenceNumber(String nodeID) {
-        return referenceNumberLookup.getOrDefault(nodeID, -1);
+    public int getReferenceNumber(int nodeID) {
+        return nodeID >= 0 && nodeID < referenceNumberLookup.length ? referenceNumberLookup[nodeID] : -1;
     }
 
     @Override
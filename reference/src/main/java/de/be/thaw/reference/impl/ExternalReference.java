@@ -16,18 +16,18 @@ public class ExternalReference implements Reference {
     /**
      * ID of the source of the reference.
      */
-    private final String sourceID;
+    private final int sourceID;
 
     /**
      * Display name of the URL.
      */
     private final String displayName;
 
-    public ExternalReference(String targetUrl, String sourceID) {
+    public ExternalReference(String targetUrl, int sourceID) {
         this(targetUrl, sourceID, targetUrl);
     }
 
-    public ExternalReference(String targetUrl, String sourceID, String displayName) {
+    public ExternalReference(String targetUrl, int sourceID, String displayName) {
         this.targetUrl = targetUrl;
         this.sourceID = sourceID;
         this.displayName = displayName;
@@ -39,7 +39,7 @@ public class ExternalReference implements Reference {
     }
 
     @Override
-    public String getSourceID() {
+    public int getSourceID() {
         return sourceID;
     }
 
@@ -13,23 +13,23 @@ public class InternalReference implements Reference {
     /**
      * ID of the source of the reference.
      */
-    private final String sourceID;
+    private final int sourceID;
 
     /**
      * ID of the target of the reference.
      */
-    private final String targetID;
+    private final int targetID;
 
     /**
      * String to prefix the reference number with.
      */
     private final String prefix;
 
-    public InternalReference(String sourceID, String targetID) {
+    public InternalReference(int sourceID, int targetID) {
         this(sourceID, targetID, null);
     }
 
-    public InternalReference(String sourceID, String targetID, String prefix) {
+    public InternalReference(int sourceID, int targetID, String prefix) {
         this.sourceID = sourceID;
         this.targetID = targetID;
         this.prefix = prefix;
@@ -41,7 +41,7 @@ public class InternalReference implements Reference {
     }
 
     @Override
-    public String getSourceID() {
+    public int getSourceID() {
         return sourceID;
     }
 
@@ -50,7 +50,7 @@ public class InternalReference implements Reference {
      *
      * @return target ID
      */
-    public String getTargetID() {
+    public int getTargetID() {
         return targetID;
     }
 
@@ -7,57 +7,65 @@ import de.be.thaw.text.parser.TextParser;
 
 import java.io.File;
 import java.nio.charset.Charset;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Context of the currently running application.
+ * Context of a single render of a Thaw project.
+ * A context is passed along the render pipeline, so that several projects may be rendered concurrently.
+ * Apart from the folders included while building the document it is immutable.
  */
 public class ThawContext {
 
     /**
      * Get the root folder of the Thaw project.
      */
-    private File rootFolder;
-
-    /**
-     * The currently processing folder.
-     */
-    private File currentFolder;
+    private final File rootFolder;
 
     /**
      * The info parser to use.
      */
-    private InfoParser infoParser;
+    private final InfoParser infoParser;
 
     /**
      * The text parser to use.
      */
-    private TextParser textParser;
+    private final TextParser textParser;
 
     /**
      * Style parser to use.
      */
-    private StyleFormatParser styleFormatParser;
+    private final StyleFormatParser styleFormatParser;
 
     /**
      * The encoding of the current Thaw project.
      */
-    private Charset encoding;
+    private final Charset encoding;
 
     /**
      * The current locale to use.
      */
-    private Language language = Language.OTHER;
+    private final Language language;
 
     /**
-     * Get the current instance of the thaw context.
-     *
-     * @return instance
+     * Folders included using the #INCLUDE# Thingy during the render.
      */
-    public static ThawContext getInstance() {
-        return InstanceHolder.INSTANCE;
-    }
+    private final Set<File> includedFolders = ConcurrentHashMap.newKeySet();
 
-    private ThawContext() {
+    public ThawContext(
+            File rootFolder,
+            InfoParser infoParser,
+            TextParser textParser,
+            StyleFormatParser styleFormatParser,
+            Charset encoding,
+            Language language
+    ) {
+        this.rootFolder = rootFolder;
+        this.infoParser = infoParser;
+        this.textParser = textParser;
+        this.styleFormatParser = styleFormatParser;
+        this.encoding = encoding;
+        this.language = language;
     }
 
     /**
@@ -69,33 +77,6 @@ public class ThawContext {
         return rootFolder;
     }
 
-    /**
-     * Set the root folder of the Thaw project.
-     *
-     * @param rootFolder to set
-     */
-    public void setRootFolder(File rootFolder) {
-        this.rootFolder = rootFolder;
-    }
-
-    /**
-     * Get the currently processing folder.
-     *
-     * @return currently processing folder
-     */
-    public File getCurrentFolder() {
-        return currentFolder;
-    }
-
-    /**
-     * Set the currently processing folder.
-     *
-     * @param currentFolder to set
-     */
-    public void setCurrentFolder(File currentFolder) {
-        this.currentFolder = currentFolder;
-    }
-
     /**
      * Get the info parser to use.
      *
@@ -105,15 +86,6 @@ public class ThawContext {
         return infoParser;
     }
 
-    /**
-     * Set the info parser to use.
-     *
-     * @param infoParser to set
-     */
-    public void setInfoParser(InfoParser infoParser) {
-        this.infoParser = infoParser;
-    }
-
     /**
      * Get the text parser to use.
      *
@@ -123,15 +95,6 @@ public class ThawContext {
         return textParser;
     }
 
-    /**
-     * Set the text parser to use.
-     *
-     * @param textParser to set
-     */
-    public void setTextParser(TextParser textParser) {
-        this.textParser = textParser;
-    }
-
     /**
      * Get the style parser to use.
      *
@@ -141,15 +104,6 @@ public class ThawContext {
         return styleFormatParser;
     }
 
-    /**
-     * Set the style parser to use.
-     *
-     * @param styleFormatParser to set
-     */
-    public void setStyleParser(StyleFormatParser styleFormatParser) {
-        this.styleFormatParser = styleFormatParser;
-    }
-
     /**
      * Get the language to use.
      *
@@ -159,15 +113,6 @@ public class ThawContext {
         return language;
     }
 
-    /**
-     * Set the language to use.
-     *
-     * @param language to set
-     */
-    public void setLanguage(Language language) {
-        this.language = language;
-    }
-
     /**
      * Get the current Thaw project encoding.
      *
@@ -178,24 +123,21 @@ public class ThawContext {
     }
 
     /**
-     * Set the current Thaw project encoding.
+     * Remember the passed folder to be included in the project.
      *
-     * @param encoding to set
+     * @param folder included
      */
-    public void setEncoding(Charset encoding) {
-        this.encoding = encoding;
+    public void addIncludedFolder(File folder) {
+        includedFolders.add(folder.getAbsoluteFile());
     }
 
     /**
-     * Holder of the font manager singleton instance.
+     * Get the folders included in the project so far.
+     *
+     * @return included folders
      */
-    private static final class InstanceHolder {
-
-        /**
-         * Instance of the thaw context.
-         */
-        static final ThawContext INSTANCE = new ThawContext();
-
+    public Set<File> getIncludedFolders() {
+        return Set.copyOf(includedFolders);
     }
 
 }
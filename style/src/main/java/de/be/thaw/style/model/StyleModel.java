@@ -40,6 +40,7 @@ public interface StyleModel {
      * For example when you select a code and a paragraph block, with the code selector first,
      * then the styles of the code style block will be applied with higher priority than the styles
      * of the paragraph style block.
+     * The returned styles may be shared between selections, so copy them before overriding any style.
      *
      * @param selectors to select styles with
      * @return styles that apply on the passed settings in the selector
@@ -62,6 +62,17 @@ public class DefaultStyleModel implements StyleModel {
      */
     private final Map<String, StyleBlock> blockLookup = new HashMap<>();
 
+    /**
+     * Already selected styles by the selectors they have been selected with.
+     */
+    private final Map<List<String>, Styles> selectionCache = new HashMap<>();
+
+    /**
+     * Interned styles by their style block chain.
+     * Selections resulting in the same style block chain share a styles instance.
+     */
+    private final Map<List<StyleBlock>, Styles> internedStyles = new HashMap<>();
+
     public DefaultStyleModel() {
         this.blocks = new ArrayList<>();
     }
@@ -394,6 +405,10 @@ public class DefaultStyleModel implements StyleModel {
 
         blocks.add(block);
         blockLookup.put(block.getSelector().toString(), block);
+
+        // Selections may resolve to other style blocks now
+        selectionCache.clear();
+        internedStyles.clear();
     }
 
     @Override
@@ -418,8 +433,28 @@ public class DefaultStyleModel implements StyleModel {
 
     @Override
     public Styles select(StyleSelector... selectors) {
-        List<StyleBlock> styleBlocks = new ArrayList<>();
+        List<String> key = new ArrayList<>(selectors.length);
+        for (StyleSelector selector : selectors) {
+            key.add(selector.toString());
+        }
+
+        Styles styles = selectionCache.get(key);
+        if (styles == null) {
+            styles = internedStyles.computeIfAbsent(selectBlocks(selectors), Styles::new);
+            selectionCache.put(key, styles);
+        }
+
+        return styles;
+    }
 
+    /**
+     * Select the style block chain for the passed selectors.
+     *
+     * @param selectors to select style blocks with (in descending priority)
+     * @return the selected style blocks
+     */
+    private List<StyleBlock> selectBlocks(StyleSelector... selectors) {
+        List<StyleBlock> styleBlocks = new ArrayList<>();
         // Add style blocks for selectors in descending priority (latter added are less important)
         for (StyleSelector selector : selectors) {
             boolean hasClassName = selector.className().isPresent();
@@ -459,7 +494,7 @@ public class DefaultStyleModel implements StyleModel {
         // Add document styles as the last block anyway (contains defaults for everything)
         styleBlocks.add(getBlock(new StyleSelectorBuilder().setTargetName("document").build()).orElseThrow());
 
-        return new Styles(styleBlocks);
+        return List.copyOf(styleBlocks);
     }
 
 }
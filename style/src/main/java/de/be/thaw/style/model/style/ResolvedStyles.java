@@ -0,0 +1,116 @@
+package de.be.thaw.style.model.style;
+
+import de.be.thaw.style.model.block.StyleBlock;
+import de.be.thaw.style.model.style.value.StyleValue;
+import de.be.thaw.util.unit.Unit;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of resolved styles.
+ * Holds the resolved value of every style type in an array indexed by the style types ordinal,
+ * so that resolving a style does neither need to walk the style blocks nor allocate anything.
+ */
+public final class ResolvedStyles {
+
+    /**
+     * All available style types.
+     */
+    private static final StyleType[] TYPES = StyleType.values();
+
+    /**
+     * Resolved style values by the ordinal of their style type (null if there is no value for a style type).
+     */
+    private final StyleValue[] values;
+
+    /**
+     * Style values converted to points by the ordinal of their style type (NaN if not yet converted).
+     */
+    private final double[] pointValues;
+
+    private ResolvedStyles(StyleValue[] resolved) {
+        values = resolved;
+
+        pointValues = new double[resolved.length];
+        Arrays.fill(pointValues, Double.NaN);
+    }
+
+    /**
+     * Resolve all styles of the passed style blocks and overridden styles.
+     *
+     * @param blocks            to resolve styles from (the first block to contain a style type wins)
+     * @param overriddenStyles  styles taking precedence over the blocks (may be null)
+     * @return the resolved styles
+     */
+    public static ResolvedStyles of(List<StyleBlock> blocks, Map<StyleType, StyleValue> overriddenStyles) {
+        StyleValue[] resolved = new StyleValue[TYPES.length];
+
+        if (overriddenStyles != null) {
+            for (Map.Entry<StyleType, StyleValue> entry : overriddenStyles.entrySet()) {
+                resolved[entry.getKey().ordinal()] = entry.getValue();
+            }
+        }
+
+        for (StyleBlock block : blocks) {
+            for (Map.Entry<StyleType, StyleValue> entry : block.getStyles().entrySet()) {
+                int index = entry.getKey().ordinal();
+                if (resolved[index] == null) {
+                    resolved[index] = entry.getValue();
+                }
+            }
+        }
+
+        return new ResolvedStyles(resolved);
+    }
+
+    /**
+     * Resolve the given style type.
+     *
+     * @param type to resolve value for
+     * @return style value
+     */
+    public Optional<StyleValue> resolve(StyleType type) {
+        return Optional.ofNullable(values[type.ordinal()]);
+    }
+
+    /**
+     * Resolve the given style type as a value in points.
+     * The converted value is cached.
+     *
+     * @param type to resolve value for
+     * @return the value in points
+     * @throws NoSuchElementException in case there is no value for the style type
+     */
+    public double resolvePoints(StyleType type) {
+        int index = type.ordinal();
+
+        double result = pointValues[index];
+        if (Double.isNaN(result)) {
+            StyleValue value = values[index];
+            if (value == null) {
+                throw new NoSuchElementException(String.format("No value present for style type '%s'", type));
+            }
+
+            result = value.doubleValue(Unit.POINTS);
+            pointValues[index] = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Resolve the given style type as a value in points.
+     *
+     * @param type         to resolve value for
+     * @param defaultValue to return in case there is no value for the style type
+     * @return the value in points or the default value
+     */
+    public double resolvePoints(StyleType type, double defaultValue) {
+        return values[type.ordinal()] != null ? resolvePoints(type) : defaultValue;
+    }
+
+}
@@ -25,17 +25,28 @@ public class Styles {
      */
     private Map<StyleType, StyleValue> overriddenStyles;
 
+    /**
+     * Snapshot of the resolved styles (built lazily when first needed).
+     */
+    private ResolvedStyles resolved;
+
     public Styles(List<StyleBlock> blocks) {
         this.blocks = blocks;
     }
 
     /**
      * Copy constructor.
+     * Only the style blocks are copied, styles overridden for the passed instance are not.
      *
      * @param styles to copy
      */
     public Styles(Styles styles) {
         blocks = styles.getBlocks();
+
+        // Without overridden styles the snapshot only depends on the blocks -> share it instead of resolving again
+        if (styles.overriddenStyles == null) {
+            resolved = styles.getResolved();
+        }
     }
 
     /**
@@ -45,21 +56,44 @@ public class Styles {
      * @return style value
      */
     public Optional<StyleValue> resolve(StyleType type) {
-        if (overriddenStyles != null) {
-            StyleValue value = overriddenStyles.get(type);
-            if (value != null) {
-                return Optional.of(value);
-            }
-        }
+        return getResolved().resolve(type);
+    }
 
-        for (StyleBlock block : blocks) {
-            StyleValue value = block.getStyles().get(type);
-            if (value != null) {
-                return Optional.of(value);
-            }
+    /**
+     * Resolve the given style type as a value in points.
+     *
+     * @param type to resolve value for
+     * @return the value in points
+     * @throws java.util.NoSuchElementException in case there is no value for the style type
+     */
+    public double resolvePoints(StyleType type) {
+        return getResolved().resolvePoints(type);
+    }
+
+    /**
+     * Resolve the given style type as a value in points.
+     *
+     * @param type         to resolve value for
+     * @param defaultValue to return in case there is no value for the style type
+     * @return the value in points or the default value
+     */
+    public double resolvePoints(StyleType type, double defaultValue) {
+        return getResolved().resolvePoints(type, defaultValue);
+    }
+
+    /**
+     * Get the snapshot of the resolved styles.
+     *
+     * @return resolved styles
+     */
+    public ResolvedStyles getResolved() {
+        ResolvedStyles result = resolved;
+        if (result == null) {
+            result = ResolvedStyles.of(blocks, overriddenStyles);
+            resolved = result;
         }
 
-        return Optional.empty();
+        return result;
     }
 
     /**
@@ -74,6 +108,7 @@ public class Styles {
         }
 
         overriddenStyles.put(type, value);
+        resolved = null; // Resolve a new snapshot the next time
     }
 
     /**
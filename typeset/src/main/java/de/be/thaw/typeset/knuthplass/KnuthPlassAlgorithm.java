@@ -9,6 +9,7 @@ import de.be.thaw.typeset.knuthplass.paragraph.impl.TextParagraph;
 import de.be.thaw.typeset.knuthplass.util.BreakPoint;
 import de.be.thaw.typeset.knuthplass.util.LineBreakingContext;
 import de.be.thaw.typeset.knuthplass.util.LineFit;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -354,10 +355,12 @@ public class KnuthPlassAlgorithm {
 
         /**
          * The line breaking context used during the algorithm.
+         * Null when the algorithm did not use a line breaking context.
          */
+        @Nullable
         private final LineBreakingContext context;
 
-        public LineBreakingResult(List<BreakPoint> breakPoints, LineBreakingContext context) {
+        public LineBreakingResult(List<BreakPoint> breakPoints, @Nullable LineBreakingContext context) {
             this.breakPoints = breakPoints;
             this.context = context;
         }
@@ -366,6 +369,7 @@ public class KnuthPlassAlgorithm {
             return breakPoints;
         }
 
+        @Nullable
         public LineBreakingContext getContext() {
             return context;
         }
@@ -18,12 +18,15 @@ import de.be.thaw.typeset.knuthplass.paragraph.handler.impl.table.TableParagraph
 import de.be.thaw.typeset.knuthplass.paragraph.handler.impl.tableofcontents.TableOfContentsItemParagraphHandler;
 import de.be.thaw.typeset.knuthplass.paragraph.handler.impl.text.TextParagraphHandler;
 import de.be.thaw.typeset.page.Page;
+import de.be.thaw.util.debug.Debug;
 
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Implementation of the Knuth-Plass line breaking algorithm.
@@ -35,6 +38,11 @@ public class KnuthPlassTypeSetter implements TypeSetter {
      */
     private static final Map<ParagraphType, ParagraphTypesetHandler> PARAGRAPH_HANDLER_MAP = new EnumMap<>(ParagraphType.class);
 
+    /**
+     * Logger for the class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(KnuthPlassTypeSetter.class.getSimpleName());
+
     static {
         initParagraphTypesetHandler(new TextParagraphHandler());
         initParagraphTypesetHandler(new ImageParagraphHandler());
@@ -74,7 +82,13 @@ public class KnuthPlassTypeSetter implements TypeSetter {
 
     @Override
     public List<Page> typeset(Document document) throws TypeSettingException {
-        return typesetWithConfig(document, config);
+        List<Page> pages = typesetWithConfig(document, config);
+
+        if (Debug.isDebug()) {
+            LOGGER.log(Level.INFO, String.format("Typesetting finished using %s", config.getWordCache()));
+        }
+
+        return pages;
     }
 
     /**
@@ -97,8 +111,8 @@ public class KnuthPlassTypeSetter implements TypeSetter {
         }
 
         // Convert foot notes to paragraph lists for later use during the typesetting
-        Map<String, List<List<Paragraph>>> footNoteParagraphs = new HashMap<>();
-        for (Map.Entry<String, DocumentNode> entry : document.getFootNotes().entrySet()) {
+        Map<Integer, List<List<Paragraph>>> footNoteParagraphs = new HashMap<>();
+        for (Map.Entry<Integer, DocumentNode> entry : document.getFootNotes().entrySet()) {
             footNoteParagraphs.put(entry.getKey(), convertToParagraphs(document, entry.getValue(), configuration));
         }
 
@@ -0,0 +1,828 @@
+package de.be.thaw.typeset.knuthplass;
+
+import de.be.thaw.typeset.knuthplass.config.KnuthPlassTypeSettingConfig;
+import de.be.thaw.typeset.knuthplass.exception.CouldNotFindFeasibleSolutionException;
+import de.be.thaw.typeset.knuthplass.item.Item;
+import de.be.thaw.typeset.knuthplass.item.ItemType;
+import de.be.thaw.typeset.knuthplass.item.impl.Penalty;
+import de.be.thaw.typeset.knuthplass.paragraph.impl.TextParagraph;
+import de.be.thaw.typeset.knuthplass.util.BreakPoint;
+import de.be.thaw.typeset.knuthplass.util.LineFit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Implementation of the Knuth-Plass algorithm operating on primitive arrays.
+ * <p>
+ * The paragraph items are copied into a struct-of-arrays representation once per call
+ * and break nodes are taken from a pool that is reused for every paragraph
+ * passed to the same instance.
+ * Active break nodes are kept in an index-linked list that is additionally bucketed by
+ * line number and fitness class, so activating a node does not need to scan the list.
+ * <p>
+ * Several line breaking quality levels may be tracked in a single sweep over the items
+ * (see {@link #findBestBreakPoints(TextParagraph, int)}), each level having its own active list.
+ * <p>
+ * The found break points are identical to the ones found by the {@link KnuthPlassAlgorithm}.
+ * <p>
+ * Instances are not thread-safe, as they keep the pooled arrays between calls.
+ */
+public class PrimitiveKnuthPlassAlgorithm {
+
+    /**
+     * Flag marking a box item.
+     */
+    private static final byte FLAG_BOX = 1;
+
+    /**
+     * Flag marking a glue item.
+     */
+    private static final byte FLAG_GLUE = 1 << 1;
+
+    /**
+     * Flag marking a penalty item.
+     */
+    private static final byte FLAG_PENALTY = 1 << 2;
+
+    /**
+     * Flag marking a flagged item (for example a hyphen penalty).
+     */
+    private static final byte FLAG_FLAGGED = 1 << 3;
+
+    /**
+     * Flag marking an item the paragraph may be broken at.
+     */
+    private static final byte FLAG_LEGAL_BREAK = 1 << 4;
+
+    /**
+     * Flag marking an item the paragraph must be broken at.
+     */
+    private static final byte FLAG_MANDATORY_BREAK = 1 << 5;
+
+    /**
+     * Count of available fitness classes.
+     */
+    private static final int FITNESS_CLASS_COUNT = LineFit.values().length;
+
+    /**
+     * Line fits indexed by their fitness class.
+     */
+    private static final LineFit[] LINE_FITS = new LineFit[FITNESS_CLASS_COUNT];
+
+    /**
+     * Index used to mark a missing node.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Initial capacity of the pooled arrays.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    static {
+        for (LineFit lineFit : LineFit.values()) {
+            LINE_FITS[lineFit.getFitnessClass()] = lineFit;
+        }
+    }
+
+    /**
+     * Configuration of the line breaking algorithm.
+     */
+    private final KnuthPlassTypeSettingConfig config;
+
+    /**
+     * Count of items of the currently processed paragraph.
+     */
+    private int itemCount;
+
+    /**
+     * Width of every item.
+     */
+    private double[] widths = new double[INITIAL_CAPACITY];
+
+    /**
+     * Penalty of every item.
+     */
+    private double[] penalties = new double[INITIAL_CAPACITY];
+
+    /**
+     * Flags of every item (see the FLAG_* constants).
+     */
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+
+    /**
+     * Cumulative widths until (and including) an item.
+     */
+    private double[] totalWidths = new double[INITIAL_CAPACITY];
+
+    /**
+     * Cumulative stretchabilities until (and including) an item.
+     */
+    private double[] totalStretches = new double[INITIAL_CAPACITY];
+
+    /**
+     * Cumulative shrinkabilities until (and including) an item.
+     */
+    private double[] totalShrinks = new double[INITIAL_CAPACITY];
+
+    /**
+     * Required line widths per line number (NaN when not yet requested from the paragraph).
+     */
+    private double[] lineWidths = new double[INITIAL_CAPACITY];
+
+    /**
+     * Count of nodes currently taken from the pool.
+     */
+    private int nodeCount;
+
+    /**
+     * Item index of every break node.
+     */
+    private int[] nodeItemIndices = new int[INITIAL_CAPACITY];
+
+    /**
+     * Number of the line ending at every break node.
+     */
+    private int[] nodeLineNumbers = new int[INITIAL_CAPACITY];
+
+    /**
+     * Fitness class of the line ending at every break node.
+     */
+    private byte[] nodeFitnessClasses = new byte[INITIAL_CAPACITY];
+
+    /**
+     * Demerits of every break node.
+     */
+    private double[] nodeDemerits = new double[INITIAL_CAPACITY];
+
+    /**
+     * The currently best previous break node of every break node.
+     */
+    private int[] nodePrevious = new int[INITIAL_CAPACITY];
+
+    /**
+     * Next node in the active list (only valid for active nodes).
+     */
+    private int[] nodeNextActive = new int[INITIAL_CAPACITY];
+
+    /**
+     * Previous node in the active list (only valid for active nodes).
+     */
+    private int[] nodePreviousActive = new int[INITIAL_CAPACITY];
+
+    /**
+     * Count of quality levels tracked during the current sweep.
+     */
+    private int levelCount;
+
+    /**
+     * Active nodes of every tracked quality level bucketed by line number and fitness class.
+     * The bucket of a node is found at index {@code lineNumber * FITNESS_CLASS_COUNT + fitnessClass}.
+     */
+    private int[][] activeBuckets = new int[0][];
+
+    /**
+     * First node of the active list (sorted by line number) of every tracked quality level.
+     */
+    private int[] activeHeads = new int[0];
+
+    /**
+     * Last node of the active list (sorted by line number) of every tracked quality level.
+     */
+    private int[] activeTails = new int[0];
+
+    /**
+     * Nodes to deactivate after processing the current legal break.
+     */
+    private int[] deactivateLater = new int[INITIAL_CAPACITY];
+
+    public PrimitiveKnuthPlassAlgorithm(KnuthPlassTypeSettingConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Find break points for the given paragraph.
+     *
+     * @param paragraph           to find break points for
+     * @param lineBreakingQuality quality level used to let the line breaking algorithm succeed eventually when
+     *                            it cannot find a solution with best quality
+     * @return the found break points
+     * @throws CouldNotFindFeasibleSolutionException in case the algorithm could not find a feasible solution
+     */
+    public KnuthPlassAlgorithm.LineBreakingResult findBreakPoints(TextParagraph paragraph, int lineBreakingQuality) throws CouldNotFindFeasibleSolutionException {
+        return sweep(paragraph, lineBreakingQuality, 1);
+    }
+
+    /**
+     * Find break points for the given paragraph using the best quality level that leads to a feasible solution.
+     * All quality levels from 0 (best) to {@code qualityLevels - 1} (worst) are tracked in a single sweep
+     * over the paragraph items.
+     * The result is the same as trying {@link #findBreakPoints(TextParagraph, int)} for every quality level
+     * in order until the first one succeeds.
+     *
+     * @param paragraph     to find break points for
+     * @param qualityLevels count of quality levels to track
+     * @return the found break points of the best quality level that succeeded
+     * @throws CouldNotFindFeasibleSolutionException in case no quality level leads to a feasible solution
+     */
+    public KnuthPlassAlgorithm.LineBreakingResult findBestBreakPoints(TextParagraph paragraph, int qualityLevels) throws CouldNotFindFeasibleSolutionException {
+        return sweep(paragraph, 0, qualityLevels);
+    }
+
+    /**
+     * Sweep once over the items of the passed paragraph tracking the given quality levels.
+     *
+     * @param paragraph    to find break points for
+     * @param firstQuality the first (best) quality level to track
+     * @param levels       count of quality levels to track starting with the first quality level
+     * @return the found break points of the best quality level that succeeded
+     * @throws CouldNotFindFeasibleSolutionException in case no tracked quality level leads to a feasible solution
+     */
+    private KnuthPlassAlgorithm.LineBreakingResult sweep(TextParagraph paragraph, int firstQuality, int levels) throws CouldNotFindFeasibleSolutionException {
+        loadItems(paragraph.items());
+        resetNodes(levels);
+
+        final double tolerance = config.getTolerance();
+        final double fitnessDemerit = config.getFitnessDemerit();
+
+        double[] stretchFactors = new double[levels];
+        for (int level = 0; level < levels; level++) {
+            stretchFactors[level] = Math.pow(2, firstQuality + level);
+
+            // Adding initial active break node representing the beginning of the paragraph
+            appendActive(level, createNode(0, 0, LineFit.NORMAL.getFitnessClass(), 0, NONE));
+        }
+        int aliveLevels = levels;
+
+        for (int i = 0; i < itemCount; i++) {
+            byte itemFlags = flags[i];
+            if ((itemFlags & FLAG_LEGAL_BREAK) == 0) {
+                continue;
+            }
+
+            boolean isMandatoryBreak = (itemFlags & FLAG_MANDATORY_BREAK) != 0;
+
+            for (int level = 0; level < levels; level++) {
+                if (activeHeads[level] == NONE) {
+                    continue; // Quality level already failed
+                }
+
+                // State of the current break (b in the original paper)
+                boolean isFeasible = false;
+                int currentLineNumber = 0;
+                int currentFitnessClass = LineFit.NORMAL.getFitnessClass();
+                double currentDemerits = 0;
+                int currentPrevious = NONE;
+
+                int deactivateCount = 0;
+
+                // Iterate over all currently active nodes to find the best fitting ones (a in the original paper)
+                for (int active = activeHeads[level]; active != NONE; active = nodeNextActive[active]) {
+                    double adjustmentRatio = computeAdjustmentRatio(paragraph, active, i, stretchFactors[level]);
+
+                    if (adjustmentRatio < -1 || isMandatoryBreak) {
+                        if (deactivateCount == deactivateLater.length) {
+                            deactivateLater = Arrays.copyOf(deactivateLater, deactivateCount * 2);
+                        }
+                        deactivateLater[deactivateCount++] = active;
+                    }
+
+                    if (adjustmentRatio >= -1 && adjustmentRatio <= tolerance) {
+                        double demerits = computeDemerits(i, nodeItemIndices[active], adjustmentRatio);
+
+                        // Add demerits if two consecutive lines have different fitness classes
+                        if (Math.abs(currentFitnessClass - nodeFitnessClasses[active]) > 1) {
+                            demerits += fitnessDemerit;
+                        }
+
+                        // Save the current break as a potential break
+                        isFeasible = true;
+                        currentLineNumber = nodeLineNumbers[active] + 1;
+                        currentFitnessClass = getFitnessClass(adjustmentRatio);
+                        currentDemerits = demerits;
+                        currentPrevious = active;
+                    }
+                }
+
+                for (int d = 0; d < deactivateCount; d++) {
+                    removeActive(level, deactivateLater[d]);
+                }
+
+                if (isFeasible) {
+                    activate(level, createNode(i, currentLineNumber, currentFitnessClass, currentDemerits, currentPrevious));
+                } else if (activeHeads[level] == NONE) {
+                    aliveLevels--;
+                }
+            }
+
+            if (aliveLevels == 0) {
+                break; // No tracked quality level is able to find a solution anymore
+            }
+        }
+
+        for (int level = 0; level < levels; level++) {
+            if (activeHeads[level] != NONE) {
+                return new KnuthPlassAlgorithm.LineBreakingResult(buildBreakPoints(getLastNode(level, firstQuality + level)), null);
+            }
+        }
+
+        throw new CouldNotFindFeasibleSolutionException();
+    }
+
+    /**
+     * Copy the passed items into the primitive item arrays and compute the cumulative metrics.
+     *
+     * @param items to load
+     */
+    private void loadItems(List<Item> items) {
+        itemCount = items.size();
+        ensureItemCapacity(itemCount);
+
+        double totalWidth = 0;
+        double totalStretch = 0;
+        double totalShrink = 0;
+
+        byte previousFlags = 0;
+        for (int i = 0; i < itemCount; i++) {
+            Item item = items.get(i);
+
+            double width = item.getWidth();
+            double stretch = item.getStretchability();
+            double shrink = item.getShrinkability();
+            double penalty = item.getPenalty();
+
+            byte itemFlags = 0;
+            ItemType type = item.getType();
+            if (type == ItemType.BOX) {
+                itemFlags |= FLAG_BOX;
+            } else if (type == ItemType.GLUE) {
+                itemFlags |= FLAG_GLUE;
+
+                if ((previousFlags & FLAG_BOX) != 0) {
+                    itemFlags |= FLAG_LEGAL_BREAK;
+                }
+            } else if (type == ItemType.PENALTY) {
+                itemFlags |= FLAG_PENALTY;
+
+                Penalty p = (Penalty) item;
+                if (!p.isImpossibleLineBreak()) {
+                    itemFlags |= FLAG_LEGAL_BREAK;
+                }
+                if (p.isMandatoryLineBreak()) {
+                    itemFlags |= FLAG_MANDATORY_BREAK;
+                }
+            }
+
+            if (item.isFlagged()) {
+                itemFlags |= FLAG_FLAGGED;
+            }
+
+            totalWidth += width;
+            totalStretch += stretch;
+            totalShrink += shrink;
+
+            widths[i] = width;
+            penalties[i] = penalty;
+            flags[i] = itemFlags;
+
+            totalWidths[i] = totalWidth;
+            totalStretches[i] = totalStretch;
+            totalShrinks[i] = totalShrink;
+
+            previousFlags = itemFlags;
+        }
+
+        Arrays.fill(lineWidths, Double.NaN);
+    }
+
+    /**
+     * Make sure the item arrays are able to hold the passed amount of items.
+     *
+     * @param capacity the needed capacity
+     */
+    private void ensureItemCapacity(int capacity) {
+        if (capacity <= widths.length) {
+            return;
+        }
+
+        int newCapacity = Math.max(capacity, widths.length * 2);
+
+        widths = new double[newCapacity];
+        penalties = new double[newCapacity];
+        flags = new byte[newCapacity];
+        totalWidths = new double[newCapacity];
+        totalStretches = new double[newCapacity];
+        totalShrinks = new double[newCapacity];
+    }
+
+    /**
+     * Return all nodes to the pool and clear the active lists.
+     *
+     * @param levels count of quality levels to track next
+     */
+    private void resetNodes(int levels) {
+        for (int level = 0; level < levelCount; level++) {
+            for (int node = activeHeads[level]; node != NONE; node = nodeNextActive[node]) {
+                activeBuckets[level][getBucketIndex(node)] = NONE;
+            }
+        }
+
+        if (levels > activeBuckets.length) {
+            int oldLength = activeBuckets.length;
+
+            activeBuckets = Arrays.copyOf(activeBuckets, levels);
+            for (int level = oldLength; level < levels; level++) {
+                activeBuckets[level] = new int[INITIAL_CAPACITY * FITNESS_CLASS_COUNT];
+                Arrays.fill(activeBuckets[level], NONE);
+            }
+
+            activeHeads = new int[levels];
+            activeTails = new int[levels];
+        }
+
+        levelCount = levels;
+        Arrays.fill(activeHeads, NONE);
+        Arrays.fill(activeTails, NONE);
+
+        nodeCount = 0;
+    }
+
+    /**
+     * Take a new break node from the pool.
+     *
+     * @param itemIndex    index of the item the node breaks at
+     * @param lineNumber   number of the line ending at the node
+     * @param fitnessClass fitness class of the line ending at the node
+     * @param demerits     of the node
+     * @param previous     best previous node
+     * @return the new node
+     */
+    private int createNode(int itemIndex, int lineNumber, int fitnessClass, double demerits, int previous) {
+        if (nodeCount == nodeItemIndices.length) {
+            int newCapacity = nodeCount * 2;
+
+            nodeItemIndices = Arrays.copyOf(nodeItemIndices, newCapacity);
+            nodeLineNumbers = Arrays.copyOf(nodeLineNumbers, newCapacity);
+            nodeFitnessClasses = Arrays.copyOf(nodeFitnessClasses, newCapacity);
+            nodeDemerits = Arrays.copyOf(nodeDemerits, newCapacity);
+            nodePrevious = Arrays.copyOf(nodePrevious, newCapacity);
+            nodeNextActive = Arrays.copyOf(nodeNextActive, newCapacity);
+            nodePreviousActive = Arrays.copyOf(nodePreviousActive, newCapacity);
+        }
+
+        int node = nodeCount++;
+
+        nodeItemIndices[node] = itemIndex;
+        nodeLineNumbers[node] = lineNumber;
+        nodeFitnessClasses[node] = (byte) fitnessClass;
+        nodeDemerits[node] = demerits;
+        nodePrevious[node] = previous;
+        nodeNextActive[node] = NONE;
+        nodePreviousActive[node] = NONE;
+
+        return node;
+    }
+
+    /**
+     * Activate the passed node.
+     * <p>
+     * The active list is kept sorted by line number and holds at most one node per line.
+     * A new node replaces the first active node with an equal or greater line number,
+     * or is appended when there is no such node.
+     *
+     * @param level quality level to activate the node for
+     * @param node  to activate
+     */
+    private void activate(int level, int node) {
+        int lineNumber = nodeLineNumbers[node];
+        int activeTail = activeTails[level];
+        if (activeTail == NONE || nodeLineNumbers[activeTail] < lineNumber) {
+            appendActive(level, node);
+            return;
+        }
+
+        // Find the first active node with an equal or greater line number using the buckets
+        int[] buckets = activeBuckets[level];
+        int lastLineNumber = nodeLineNumbers[activeTail];
+        for (int line = lineNumber; line <= lastLineNumber; line++) {
+            int bucketStart = line * FITNESS_CLASS_COUNT;
+            for (int fitnessClass = 0; fitnessClass < FITNESS_CLASS_COUNT; fitnessClass++) {
+                int other = buckets[bucketStart + fitnessClass];
+                if (other == NONE) {
+                    continue;
+                }
+
+                // Checking whether the node to insert is unique in terms of line number, position and fitness
+                if (line == lineNumber
+                        && nodeItemIndices[other] == nodeItemIndices[node]
+                        && nodeFitnessClasses[other] == nodeFitnessClasses[node]) {
+                    return; // Already having the active node
+                }
+
+                replaceActive(level, other, node);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Append the passed node to the end of the active list.
+     *
+     * @param level quality level of the active list
+     * @param node  to append
+     */
+    private void appendActive(int level, int node) {
+        int activeTail = activeTails[level];
+
+        nodePreviousActive[node] = activeTail;
+        nodeNextActive[node] = NONE;
+
+        if (activeTail == NONE) {
+            activeHeads[level] = node;
+        } else {
+            nodeNextActive[activeTail] = node;
+        }
+        activeTails[level] = node;
+
+        putInBucket(level, node);
+    }
+
+    /**
+     * Replace the passed active node by another node at the same position in the active list.
+     *
+     * @param level quality level of the active list
+     * @param old   the active node to replace
+     * @param node  the node to insert instead
+     */
+    private void replaceActive(int level, int old, int node) {
+        int previous = nodePreviousActive[old];
+        int next = nodeNextActive[old];
+
+        nodePreviousActive[node] = previous;
+        nodeNextActive[node] = next;
+
+        if (previous == NONE) {
+            activeHeads[level] = node;
+        } else {
+            nodeNextActive[previous] = node;
+        }
+
+        if (next == NONE) {
+            activeTails[level] = node;
+        } else {
+            nodePreviousActive[next] = node;
+        }
+
+        activeBuckets[level][getBucketIndex(old)] = NONE;
+        putInBucket(level, node);
+    }
+
+    /**
+     * Remove the passed node from the active list.
+     *
+     * @param level quality level of the active list
+     * @param node  to remove
+     */
+    private void removeActive(int level, int node) {
+        int previous = nodePreviousActive[node];
+        int next = nodeNextActive[node];
+
+        if (previous == NONE) {
+            activeHeads[level] = next;
+        } else {
+            nodeNextActive[previous] = next;
+        }
+
+        if (next == NONE) {
+            activeTails[level] = previous;
+        } else {
+            nodePreviousActive[next] = previous;
+        }
+
+        activeBuckets[level][getBucketIndex(node)] = NONE;
+    }
+
+    /**
+     * Register the passed active node in its bucket.
+     *
+     * @param level quality level of the active list
+     * @param node  to register
+     */
+    private void putInBucket(int level, int node) {
+        int bucketIndex = getBucketIndex(node);
+        if (bucketIndex >= activeBuckets[level].length) {
+            int oldLength = activeBuckets[level].length;
+            activeBuckets[level] = Arrays.copyOf(activeBuckets[level], Math.max(bucketIndex + FITNESS_CLASS_COUNT, oldLength * 2));
+            Arrays.fill(activeBuckets[level], oldLength, activeBuckets[level].length, NONE);
+        }
+
+        activeBuckets[level][bucketIndex] = node;
+    }
+
+    /**
+     * Get the bucket index of the passed node.
+     *
+     * @param node to get bucket index for
+     * @return bucket index
+     */
+    private int getBucketIndex(int node) {
+        return nodeLineNumbers[node] * FITNESS_CLASS_COUNT + nodeFitnessClasses[node];
+    }
+
+    /**
+     * Get the last node to build the final list of break points with.
+     *
+     * @param level               the tracked quality level to get the last node of
+     * @param lineBreakingQuality the quality level of the tracked level
+     * @return the last node
+     */
+    private int getLastNode(int level, int lineBreakingQuality) {
+        int activeHead = activeHeads[level];
+
+        // Find the active node with fewest demerits
+        int lastNode = activeHead;
+        for (int node = nodeNextActive[activeHead]; node != NONE; node = nodeNextActive[node]) {
+            if (nodeDemerits[node] < nodeDemerits[lastNode]) {
+                lastNode = node;
+            }
+        }
+
+        int looseness = config.getLooseness();
+        if (looseness != 0) {
+            double bestLineDiff = 0;
+            double demerits = Double.POSITIVE_INFINITY;
+            int newLastNode = lastNode;
+
+            for (int node = activeHead; node != NONE; node = nodeNextActive[node]) {
+                int lineDiff = nodeLineNumbers[node] - nodeLineNumbers[lastNode];
+
+                if ((lineDiff >= looseness + lineBreakingQuality && lineDiff < bestLineDiff)
+                        || (lineDiff > bestLineDiff && lineDiff <= looseness)) {
+                    bestLineDiff = lineDiff;
+                    demerits = nodeDemerits[node];
+                    newLastNode = node;
+                } else if (lineDiff == bestLineDiff && nodeDemerits[node] < demerits) {
+                    demerits = nodeDemerits[node];
+                    newLastNode = node;
+                }
+            }
+
+            lastNode = newLastNode;
+        }
+
+        return lastNode;
+    }
+
+    /**
+     * Build the list of break points ending with the passed node.
+     *
+     * @param lastNode the last node of the chain
+     * @return break points (in paragraph order)
+     */
+    private List<BreakPoint> buildBreakPoints(int lastNode) {
+        int count = 0;
+        for (int node = lastNode; node != NONE; node = nodePrevious[node]) {
+            // Don't add the first node we introduce to represent the beginning of the paragraph with index = 0
+            if (nodeItemIndices[node] != 0) {
+                count++;
+            }
+        }
+
+        BreakPoint[] breakPoints = new BreakPoint[count];
+        int index = count - 1;
+        for (int node = lastNode; node != NONE; node = nodePrevious[node]) {
+            if (nodeItemIndices[node] == 0) {
+                continue;
+            }
+
+            BreakPoint breakPoint = new BreakPoint(nodeItemIndices[node]);
+            breakPoint.setLineNumber(nodeLineNumbers[node]);
+            breakPoint.setLineFit(LINE_FITS[nodeFitnessClasses[node]]);
+            breakPoint.setDemerits(nodeDemerits[node]);
+
+            breakPoints[index--] = breakPoint;
+        }
+
+        List<BreakPoint> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                breakPoints[i].setPrevious(breakPoints[i - 1]);
+            }
+
+            result.add(breakPoints[i]);
+        }
+
+        return result;
+    }
+
+    /**
+     * Compute the demerits for the passed current and active break.
+     *
+     * @param currentIndex    item index of the current break
+     * @param activeIndex     item index of the active break
+     * @param adjustmentRatio the calculated adjustment ratio
+     * @return demerits
+     */
+    private double computeDemerits(int currentIndex, int activeIndex, double adjustmentRatio) {
+        double penalty = penalties[currentIndex];
+
+        double demerits;
+        double demeritsBase = 1 + 100 * Math.pow(Math.abs(adjustmentRatio), 3);
+        if (penalty >= 0) {
+            demerits = Math.pow(demeritsBase + penalty, 2);
+        } else if (penalty > Penalty.MIN_PENALTY) {
+            demerits = Math.pow(demeritsBase, 2) - Math.pow(penalty, 2);
+        } else {
+            demerits = Math.pow(demeritsBase, 2);
+        }
+
+        boolean areBothBreaksFlagged = (flags[currentIndex] & FLAG_FLAGGED) != 0 && (flags[activeIndex] & FLAG_FLAGGED) != 0;
+        if (areBothBreaksFlagged) {
+            return demerits + config.getFlaggedDemerit(); // Add a "penalty" because we don't want two consecutive flagged breaks
+        } else {
+            return demerits;
+        }
+    }
+
+    /**
+     * Get the fitness class for the passed adjustment ratio.
+     *
+     * @param adjustmentRatio to get fitness class for
+     * @return fitness class
+     */
+    private static int getFitnessClass(double adjustmentRatio) {
+        if (adjustmentRatio < -0.5) {
+            return LineFit.TIGHT.getFitnessClass();
+        } else if (adjustmentRatio <= 0.5) {
+            return LineFit.NORMAL.getFitnessClass();
+        } else if (adjustmentRatio <= 1) {
+            return LineFit.LOOSE.getFitnessClass();
+        } else {
+            return LineFit.VERY_LOOSE.getFitnessClass();
+        }
+    }
+
+    /**
+     * Compute the adjustment ratio of the line starting at the passed active node
+     * and ending at the item with the given index.
+     *
+     * @param paragraph     the paragraph to fetch line widths from
+     * @param start         the starting node
+     * @param end           index of the ending item
+     * @param stretchFactor factor to multiply the stretchability with (depends on the line breaking quality)
+     * @return the adjustment ratio
+     */
+    private double computeAdjustmentRatio(TextParagraph paragraph, int start, int end, double stretchFactor) {
+        int startIndex = nodeItemIndices[start];
+
+        double lineWidth = totalWidths[end] - totalWidths[startIndex];
+
+        // Adding penalty width (if any) for example for a hyphen character '-'.
+        if ((flags[end] & FLAG_PENALTY) != 0) {
+            lineWidth += widths[end];
+        }
+
+        double requiredLineWidth = getLineWidth(paragraph, nodeLineNumbers[start] + 1);
+
+        if (lineWidth < requiredLineWidth) {
+            // Line width is too small. We need to stretch it!
+            double lineStretchability = (totalStretches[end] - totalStretches[startIndex]) * stretchFactor;
+
+            return lineStretchability > 0 ? (requiredLineWidth - lineWidth) / lineStretchability : Double.POSITIVE_INFINITY;
+        } else if (lineWidth > requiredLineWidth) {
+            // Line width is too big. We need to shrink it!
+            double lineShrinkability = totalShrinks[end] - totalShrinks[startIndex];
+
+            return lineShrinkability > 0 ? (requiredLineWidth - lineWidth) / lineShrinkability : Double.POSITIVE_INFINITY;
+        } else {
+            return 0; // Line width fits the required line width exactly!
+        }
+    }
+
+    /**
+     * Get the required line width for the passed line number.
+     * The line widths are requested only once per paragraph.
+     *
+     * @param paragraph  to get line width of
+     * @param lineNumber to get line width for
+     * @return required line width
+     */
+    private double getLineWidth(TextParagraph paragraph, int lineNumber) {
+        if (lineNumber >= lineWidths.length) {
+            int oldLength = lineWidths.length;
+            lineWidths = Arrays.copyOf(lineWidths, Math.max(lineNumber + 1, oldLength * 2));
+            Arrays.fill(lineWidths, oldLength, lineWidths.length, Double.NaN);
+        }
+
+        double lineWidth = lineWidths[lineNumber];
+        if (Double.isNaN(lineWidth)) {
+            lineWidth = paragraph.getLineWidth(lineNumber);
+            lineWidths[lineNumber] = lineWidth;
+        }
+
+        return lineWidth;
+    }
+
+}
@@ -119,7 +119,7 @@ public class TypeSettingContext {
     /**
      * Foot note paragraphs in the document to typeset.
      */
-    private final Map<String, List<List<Paragraph>>> footNoteParagraphs;
+    private final Map<Integer, List<List<Paragraph>>> footNoteParagraphs;
 
     /**
      * Current foot note index.
@@ -156,13 +156,20 @@ public class TypeSettingContext {
      */
     private final Color footNoteLineColor;
 
+    /**
+     * Line breaking algorithm reusing its pooled arrays for all paragraphs typeset with this context.
+     * Created lazily on first use.
+     */
+    @Nullable
+    private PrimitiveKnuthPlassAlgorithm primitiveKnuthPlassAlgorithm;
+
     public TypeSettingContext(
             KnuthPlassTypeSettingConfig config,
             Document document,
             List<List<Paragraph>> consecutiveParagraphLists,
             @Nullable Map<PageRange, List<List<Paragraph>>> headerParagraphs,
             @Nullable Map<PageRange, List<List<Paragraph>>> footerParagraphs,
-            @Nullable Map<String, List<List<Paragraph>>> footNoteParagraphs,
+            @Nullable Map<Integer, List<List<Paragraph>>> footNoteParagraphs,
             @Nullable RethrowingBiFunction<List<List<Paragraph>>, TypeSettingContext, List<Page>, TypeSettingException> typesettingFunction,
             @Nullable RethrowingBiFunction<Document, KnuthPlassTypeSettingConfig, List<Page>, TypeSettingException> typesetDocumentFunction
     ) {
@@ -242,6 +249,19 @@ public class TypeSettingContext {
         return positionContext;
     }
 
+    /**
+     * Get the primitive array based line breaking algorithm of this context.
+     *
+     * @return line breaking algorithm
+     */
+    public PrimitiveKnuthPlassAlgorithm getPrimitiveKnuthPlassAlgorithm() {
+        if (primitiveKnuthPlassAlgorithm == null) {
+            primitiveKnuthPlassAlgorithm = new PrimitiveKnuthPlassAlgorithm(config);
+        }
+
+        return primitiveKnuthPlassAlgorithm;
+    }
+
     /**
      * Get the offset added to the page number.
      *
@@ -548,7 +568,7 @@ public class TypeSettingContext {
         // Parse Thaw document text format.
         TextModel textModel;
         try {
-            textModel = getConfig().getTextParser().parse(new StringReader(text));
+            textModel = getConfig().getContext().getTextParser().parse(new StringReader(text));
         } catch (ParseException e) {
             throw new TypeSettingException(String.format(
                     "Could not parse the following string written in the Thaw document text format: '%s'. Exception message was: %s",
@@ -579,6 +599,7 @@ public class TypeSettingContext {
         Document newDocument;
         try {
             newDocument = new DefaultDocumentBuilder().build(new DocumentBuildSource(
+                    getConfig().getContext(),
                     getDocument().getInfo(),
                     textModel,
                     styleModel,
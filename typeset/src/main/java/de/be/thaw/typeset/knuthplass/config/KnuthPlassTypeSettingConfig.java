@@ -1,15 +1,18 @@
 package de.be.thaw.typeset.knuthplass.config;
 
 import de.be.thaw.font.ThawFont;
-import de.be.thaw.text.parser.TextParser;
+import de.be.thaw.shared.ThawContext;
 import de.be.thaw.typeset.knuthplass.config.util.FontDetailsSupplier;
 import de.be.thaw.typeset.knuthplass.config.util.GlueConfig;
+import de.be.thaw.typeset.knuthplass.config.util.LineBreakCache;
+import de.be.thaw.typeset.knuthplass.config.util.LineBreakingEngine;
+import de.be.thaw.typeset.knuthplass.config.util.WordCache;
 import de.be.thaw.typeset.knuthplass.config.util.hyphen.Hyphenator;
 import de.be.thaw.typeset.knuthplass.config.util.image.ImageSourceSupplier;
 import de.be.thaw.typeset.util.Insets;
 import de.be.thaw.util.Size;
+import org.jetbrains.annotations.Nullable;
 
-import java.io.File;
 import java.util.Properties;
 
 /**
@@ -55,6 +58,11 @@ public class KnuthPlassTypeSettingConfig {
      */
     private final double fitnessDemerit;
 
+    /**
+     * Implementation of the line breaking algorithm to use.
+     */
+    private final LineBreakingEngine lineBreakingEngine;
+
     /**
      * Supplier for font details.
      */
@@ -65,6 +73,22 @@ public class KnuthPlassTypeSettingConfig {
      */
     private final Hyphenator hyphenator;
 
+    /**
+     * Whether words are only hyphenated when a paragraph cannot be broken into lines without hyphenation.
+     */
+    private final boolean lazyHyphenation;
+
+    /**
+     * Cache for hyphenated words and measured strings.
+     */
+    private final WordCache wordCache;
+
+    /**
+     * Cache for the line breaks of text paragraphs (null in case line breaks are not cached).
+     */
+    @Nullable
+    private final LineBreakCache lineBreakCache;
+
     /**
      * Configuration for the used glue.
      */
@@ -81,14 +105,10 @@ public class KnuthPlassTypeSettingConfig {
     private final ThawFont mathFont;
 
     /**
-     * The working directory.
+     * Context of the render to typeset for.
+     * Provides the project root folder and the text parser for nested Thaw document text strings (for example captions).
      */
-    private final File workingDirectory;
-
-    /**
-     * Text parser to use for parsing nested Thaw document text strings (for example captions).
-     */
-    private final TextParser textParser;
+    private final ThawContext context;
 
     /**
      * Offset to add to the page number.
@@ -113,13 +133,16 @@ public class KnuthPlassTypeSettingConfig {
             double tolerance,
             double flaggedDemerit,
             double fitnessDemerit,
+            LineBreakingEngine lineBreakingEngine,
             FontDetailsSupplier fontDetailsSupplier,
             Hyphenator hyphenator,
+            boolean lazyHyphenation,
+            WordCache wordCache,
+            LineBreakCache lineBreakCache,
             GlueConfig glueConfig,
             ImageSourceSupplier imageSourceSupplier,
             ThawFont mathFont,
-            File workingDirectory,
-            TextParser textParser,
+            ThawContext context,
             int pageNumberOffset,
             Properties properties,
             boolean allowHeadersAndFooters
@@ -128,20 +151,24 @@ public class KnuthPlassTypeSettingConfig {
             throw new NullPointerException("Cannot build line breaking configuration as the font details supplier is null which is required to properly typeset");
         }
 
+        if (lineBreakingEngine == null) {
+            throw new NullPointerException("Cannot build line breaking configuration as the line breaking engine is null which is required");
+        }
+
         if (hyphenator == null) {
             throw new NullPointerException("Cannot build line breaking configuration as the hyphenator is null which is required");
         }
 
-        if (glueConfig == null) {
-            throw new NullPointerException("Cannot build line breaking configuration as the glue configuration is null which is required");
+        if (wordCache == null) {
+            throw new NullPointerException("Cannot build line breaking configuration as the word cache is null which is required");
         }
 
-        if (workingDirectory == null) {
-            throw new NullPointerException("Cannot build line breaking configuration as the working directory is null which is required");
+        if (glueConfig == null) {
+            throw new NullPointerException("Cannot build line breaking configuration as the glue configuration is null which is required");
         }
 
-        if (textParser == null) {
-            throw new NullPointerException("Cannot build line breaking configuration as a thaw document text parser needs to be specified (for example to parse nested captions for image paragraphs).");
+        if (context == null) {
+            throw new NullPointerException("Cannot build line breaking configuration as the render context is null which is required (for example to parse nested captions for image paragraphs)");
         }
 
         if (properties == null) {
@@ -159,9 +186,14 @@ public class KnuthPlassTypeSettingConfig {
         this.flaggedDemerit = flaggedDemerit;
         this.fitnessDemerit = fitnessDemerit;
 
+        this.lineBreakingEngine = lineBreakingEngine;
+
         this.fontDetailsSupplier = fontDetailsSupplier;
 
         this.hyphenator = hyphenator;
+        this.lazyHyphenation = lazyHyphenation;
+        this.wordCache = wordCache;
+        this.lineBreakCache = lineBreakCache;
 
         this.glueConfig = glueConfig;
 
@@ -169,8 +201,7 @@ public class KnuthPlassTypeSettingConfig {
 
         this.mathFont = mathFont;
 
-        this.workingDirectory = workingDirectory;
-        this.textParser = textParser;
+        this.context = context;
 
         this.pageNumberOffset = pageNumberOffset;
 
@@ -207,6 +238,34 @@ public class KnuthPlassTypeSettingConfig {
         return hyphenator;
     }
 
+    /**
+     * Check whether words are only hyphenated when a paragraph cannot be broken into lines without hyphenation.
+     *
+     * @return whether to hyphenate lazily
+     */
+    public boolean isLazyHyphenation() {
+        return lazyHyphenation;
+    }
+
+    /**
+     * Get the cache for hyphenated words and measured strings.
+     *
+     * @return word cache
+     */
+    public WordCache getWordCache() {
+        return wordCache;
+    }
+
+    /**
+     * Get the cache for the line breaks of text paragraphs.
+     *
+     * @return line break cache or null in case line breaks are not cached
+     */
+    @Nullable
+    public LineBreakCache getLineBreakCache() {
+        return lineBreakCache;
+    }
+
     /**
      * Get the configuration for the used glue.
      *
@@ -255,6 +314,15 @@ public class KnuthPlassTypeSettingConfig {
         return fitnessDemerit;
     }
 
+    /**
+     * Get the implementation of the line breaking algorithm to use.
+     *
+     * @return line breaking engine
+     */
+    public LineBreakingEngine getLineBreakingEngine() {
+        return lineBreakingEngine;
+    }
+
     /**
      * Get insets for the pages to typeset.
      *
@@ -292,21 +360,12 @@ public class KnuthPlassTypeSettingConfig {
     }
 
     /**
-     * Get the working directory.
-     *
-     * @return working directory
-     */
-    public File getWorkingDirectory() {
-        return workingDirectory;
-    }
-
-    /**
-     * Get the text parser to use to parse for example captions for image paragraphs.
+     * Get the context of the render to typeset for.
      *
-     * @return text parser
+     * @return context
      */
-    public TextParser getTextParser() {
-        return textParser;
+    public ThawContext getContext() {
+        return context;
     }
 
     /**
@@ -353,13 +412,16 @@ public class KnuthPlassTypeSettingConfig {
      */
     public static KnuthPlassTypeSettingConfigBuilder newBuilder(KnuthPlassTypeSettingConfig config) {
         return new KnuthPlassTypeSettingConfigBuilder()
-                .setTextParser(config.getTextParser())
-                .setWorkingDirectory(config.getWorkingDirectory())
+                .setContext(config.getContext())
                 .setFitnessDemerit(config.getFitnessDemerit())
                 .setFlaggedDemerit(config.getFlaggedDemerit())
+                .setLineBreakingEngine(config.getLineBreakingEngine())
                 .setFontDetailsSupplier(config.getFontDetailsSupplier())
                 .setGlueConfig(config.getGlueConfig())
                 .setHyphenator(config.getHyphenator())
+                .setLazyHyphenation(config.isLazyHyphenation())
+                .setWordCache(config.getWordCache())
+                .setLineBreakCache(config.getLineBreakCache())
                 .setImageSourceSupplier(config.getImageSourceSupplier())
                 .setIndentWidth(config.getIndentWidth())
                 .setLooseness(config.getLooseness())
@@ -1,15 +1,17 @@
 package de.be.thaw.typeset.knuthplass.config;
 
 import de.be.thaw.font.ThawFont;
-import de.be.thaw.text.parser.TextParser;
+import de.be.thaw.shared.ThawContext;
 import de.be.thaw.typeset.knuthplass.config.util.FontDetailsSupplier;
 import de.be.thaw.typeset.knuthplass.config.util.GlueConfig;
+import de.be.thaw.typeset.knuthplass.config.util.LineBreakCache;
+import de.be.thaw.typeset.knuthplass.config.util.LineBreakingEngine;
+import de.be.thaw.typeset.knuthplass.config.util.WordCache;
 import de.be.thaw.typeset.knuthplass.config.util.hyphen.Hyphenator;
 import de.be.thaw.typeset.knuthplass.config.util.image.ImageSourceSupplier;
 import de.be.thaw.typeset.util.Insets;
 import de.be.thaw.util.Size;
 
-import java.io.File;
 import java.util.Properties;
 
 /**
@@ -50,6 +52,16 @@ public class KnuthPlassTypeSettingConfigBuilder {
      */
     private static final double DEFAULT_FITNESS_DEMERIT = 100;
 
+    /**
+     * The default implementation of the line breaking algorithm.
+     */
+    private static final LineBreakingEngine DEFAULT_LINE_BREAKING_ENGINE = LineBreakingEngine.MULTI_TOLERANCE_KNUTH_PLASS;
+
+    /**
+     * Whether to hyphenate words only when a paragraph cannot be broken into lines without hyphenation by default.
+     */
+    private static final boolean DEFAULT_LAZY_HYPHENATION = true;
+
     /**
      * Size of the page to typeset on.
      */
@@ -83,6 +95,11 @@ public class KnuthPlassTypeSettingConfigBuilder {
      */
     private double fitnessDemerit = DEFAULT_FITNESS_DEMERIT;
 
+    /**
+     * Implementation of the line breaking algorithm to use.
+     */
+    private LineBreakingEngine lineBreakingEngine = DEFAULT_LINE_BREAKING_ENGINE;
+
     /**
      * Width of indentation.
      */
@@ -98,6 +115,23 @@ public class KnuthPlassTypeSettingConfigBuilder {
      */
     private Hyphenator hyphenator;
 
+    /**
+     * Whether words are only hyphenated when a paragraph cannot be broken into lines without hyphenation.
+     */
+    private boolean lazyHyphenation = DEFAULT_LAZY_HYPHENATION;
+
+    /**
+     * Cache for hyphenated words and measured strings.
+     * A new cache is created when building the configuration in case none is set.
+     */
+    private WordCache wordCache;
+
+    /**
+     * Cache for the line breaks of text paragraphs.
+     * Line breaks are not cached in case none is set.
+     */
+    private LineBreakCache lineBreakCache;
+
     /**
      * Configuration for the used glue.
      */
@@ -114,14 +148,9 @@ public class KnuthPlassTypeSettingConfigBuilder {
     private ThawFont mathFont;
 
     /**
-     * The working directory.
-     */
-    private File workingDirectory;
-
-    /**
-     * Text parser to use for parsing nested Thaw document text strings (for example captions).
+     * Context of the render to typeset for.
      */
-    private TextParser textParser;
+    private ThawContext context;
 
     /**
      * Offset added to the page number.
@@ -219,6 +248,69 @@ public class KnuthPlassTypeSettingConfigBuilder {
         return this;
     }
 
+    /**
+     * Check whether words are only hyphenated when a paragraph cannot be broken into lines without hyphenation.
+     *
+     * @return whether to hyphenate lazily
+     */
+    public boolean isLazyHyphenation() {
+        return lazyHyphenation;
+    }
+
+    /**
+     * Set whether words are only hyphenated when a paragraph cannot be broken into lines without hyphenation.
+     *
+     * @param lazyHyphenation whether to hyphenate lazily
+     */
+    public KnuthPlassTypeSettingConfigBuilder setLazyHyphenation(boolean lazyHyphenation) {
+        this.lazyHyphenation = lazyHyphenation;
+
+        return this;
+    }
+
+    /**
+     * Get the cache for hyphenated words and measured strings.
+     *
+     * @return word cache
+     */
+    public WordCache getWordCache() {
+        return wordCache;
+    }
+
+    /**
+     * Set the cache for hyphenated words and measured strings.
+     * Configurations sharing the same cache share hyphenated words and measured strings.
+     *
+     * @param wordCache to set
+     */
+    public KnuthPlassTypeSettingConfigBuilder setWordCache(WordCache wordCache) {
+        this.wordCache = wordCache;
+
+        return this;
+    }
+
+    /**
+     * Get the cache for the line breaks of text paragraphs.
+     *
+     * @return line break cache
+     */
+    public LineBreakCache getLineBreakCache() {
+        return lineBreakCache;
+    }
+
+    /**
+     * Set the cache for the line breaks of text paragraphs.
+     * Keeping the cache between renders avoids breaking unchanged paragraphs into lines again.
+     * As paragraphs only repeat between renders, no cache should be set for a single render.
+     *
+     * @param lineBreakCache to set
+     */
+    public KnuthPlassTypeSettingConfigBuilder setLineBreakCache(LineBreakCache lineBreakCache) {
+        this.lineBreakCache = lineBreakCache;
+
+        return this;
+    }
+
     /**
      * Get the configuration for the used glue.
      *
@@ -325,6 +417,27 @@ public class KnuthPlassTypeSettingConfigBuilder {
         return this;
     }
 
+    /**
+     * Get the implementation of the line breaking algorithm to use.
+     *
+     * @return line breaking engine
+     */
+    public LineBreakingEngine getLineBreakingEngine() {
+        return lineBreakingEngine;
+    }
+
+    /**
+     * Set the implementation of the line breaking algorithm to use.
+     *
+     * @param lineBreakingEngine to set
+     * @return the builder
+     */
+    public KnuthPlassTypeSettingConfigBuilder setLineBreakingEngine(LineBreakingEngine lineBreakingEngine) {
+        this.lineBreakingEngine = lineBreakingEngine;
+
+        return this;
+    }
+
     /**
      * Get the width of indentation.
      *
@@ -391,41 +504,21 @@ public class KnuthPlassTypeSettingConfigBuilder {
     }
 
     /**
-     * Get the working directory.
-     *
-     * @return working directory
-     */
-    public File getWorkingDirectory() {
-        return workingDirectory;
-    }
-
-    /**
-     * Set the working directory.
-     *
-     * @param workingDirectory to set
-     */
-    public KnuthPlassTypeSettingConfigBuilder setWorkingDirectory(File workingDirectory) {
-        this.workingDirectory = workingDirectory;
-
-        return this;
-    }
-
-    /**
-     * Get the text parser to use to parse for example captions for image paragraphs.
+     * Get the context of the render to typeset for.
      *
-     * @return text parser
+     * @return context
      */
-    public TextParser getTextParser() {
-        return textParser;
+    public ThawContext getContext() {
+        return context;
     }
 
     /**
-     * Set the text parser to use.
+     * Set the context of the render to typeset for.
      *
-     * @param textParser to set
+     * @param context to set
      */
-    public KnuthPlassTypeSettingConfigBuilder setTextParser(TextParser textParser) {
-        this.textParser = textParser;
+    public KnuthPlassTypeSettingConfigBuilder setContext(ThawContext context) {
+        this.context = context;
 
         return this;
     }
@@ -508,13 +601,16 @@ public class KnuthPlassTypeSettingConfigBuilder {
                 getTolerance(),
                 getFlaggedDemerit(),
                 getFitnessDemerit(),
+                getLineBreakingEngine(),
                 getFontDetailsSupplier(),
                 getHyphenator(),
+                isLazyHyphenation(),
+                getWordCache() != null ? getWordCache() : new WordCache(),
+                getLineBreakCache(),
                 getGlueConfig(),
                 getImageSourceSupplier(),
                 getMathFont(),
-                getWorkingDirectory(),
-                getTextParser(),
+                getContext(),
                 getPageNumberOffset(),
                 getProperties(),
                 isAllowHeadersAndFooters()
@@ -27,6 +27,19 @@ public interface FontDetailsSupplier {
      */
     double getSpaceWidth(DocumentNode node) throws Exception;
 
+    /**
+     * Get a key identifying the font, font size and all other font settings used to measure strings for the passed node.
+     * Strings measured for nodes with equal font keys must have equal metrics, so they may be cached
+     * (see {@link WordCache}).
+     *
+     * @param node to get font key for
+     * @return the font key or null if strings measured for the node must not be cached
+     * @throws Exception in case the font key could not be determined
+     */
+    default Object getFontKey(DocumentNode node) throws Exception {
+        return null;
+    }
+
     /**
      * Collective metrics when measuring a string.
      */
@@ -0,0 +1,30 @@
+package de.be.thaw.typeset.knuthplass.config.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Map evicting the least recently used entry when exceeding its capacity.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+class LeastRecentlyUsedMap<K, V> extends LinkedHashMap<K, V> {
+
+    /**
+     * Maximum count of entries in the map.
+     */
+    private final int capacity;
+
+    LeastRecentlyUsedMap(int capacity) {
+        super(16, 0.75f, true);
+
+        this.capacity = capacity;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > capacity;
+    }
+
+}
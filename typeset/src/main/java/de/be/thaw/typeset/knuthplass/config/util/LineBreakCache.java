@@ -0,0 +1,264 @@
+package de.be.thaw.typeset.knuthplass.config.util;
+
+import de.be.thaw.typeset.knuthplass.item.Item;
+import de.be.thaw.typeset.knuthplass.item.impl.box.HyphenatableTextBox;
+import de.be.thaw.typeset.knuthplass.item.impl.box.TextBox;
+import de.be.thaw.typeset.knuthplass.paragraph.impl.TextParagraph;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bounded cache for the line breaks of text paragraphs.
+ * Line breaking only depends on the items of a paragraph and the available line widths,
+ * so paragraphs whose content, style and available width did not change do not need to be broken into lines again.
+ * <p>
+ * The cache is part of the type setting configuration and may be kept between renders of the same project
+ * (for example when watching a project for changes).
+ * It must only be shared between configurations using the same line breaking parameters.
+ */
+public class LineBreakCache {
+
+    /**
+     * The default maximum count of cached paragraphs.
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /**
+     * Cached line breaks by the key of their paragraph.
+     */
+    private final Map<ParagraphKey, LineBreaks> lineBreaks;
+
+    /**
+     * Count of paragraphs whose line breaks have been found in the cache.
+     */
+    private long hits;
+
+    /**
+     * Count of paragraphs that had to be broken into lines.
+     */
+    private long misses;
+
+    public LineBreakCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LineBreakCache(int capacity) {
+        this.lineBreaks = new LeastRecentlyUsedMap<>(capacity);
+    }
+
+    /**
+     * Get the cached line breaks of the passed paragraph.
+     * Line breaks are only returned when the paragraph has the same line widths
+     * as the paragraph the line breaks have been found for.
+     *
+     * @param key       of the paragraph (created before the paragraph has been hyphenated)
+     * @param paragraph to get line breaks for
+     * @return the cached line breaks or null if there are none
+     */
+    @Nullable
+    public LineBreaks get(ParagraphKey key, TextParagraph paragraph) {
+        LineBreaks result;
+        synchronized (lineBreaks) {
+            result = lineBreaks.get(key);
+        }
+
+        if (result != null && !result.fits(paragraph)) {
+            result = null;
+        }
+
+        synchronized (lineBreaks) {
+            if (result != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Cache the passed line breaks.
+     *
+     * @param key    of the paragraph (created before the paragraph has been hyphenated)
+     * @param breaks to cache
+     */
+    public void put(ParagraphKey key, LineBreaks breaks) {
+        synchronized (lineBreaks) {
+            lineBreaks.put(key, breaks);
+        }
+    }
+
+    /**
+     * Get the count of paragraphs whose line breaks have been found in the cache.
+     *
+     * @return cache hits
+     */
+    public long getHits() {
+        synchronized (lineBreaks) {
+            return hits;
+        }
+    }
+
+    /**
+     * Get the count of paragraphs that had to be broken into lines.
+     *
+     * @return cache misses
+     */
+    public long getMisses() {
+        synchronized (lineBreaks) {
+            return misses;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LineBreakCache{hits: %d, misses: %d}", getHits(), getMisses());
+    }
+
+    /**
+     * Key of a paragraph describing everything the line breaks depend on except the line widths.
+     * This includes the hyphenation rules as the cached break point indices may refer to hyphenated items.
+     */
+    public static class ParagraphKey {
+
+        /**
+         * Count of values describing one item.
+         */
+        private static final int VALUES_PER_ITEM = 6;
+
+        /**
+         * Type, width, stretchability, shrinkability, penalty and flags of every item.
+         */
+        private final double[] values;
+
+        /**
+         * Text of all text boxes (needed as the hyphenation of a paragraph depends on its words).
+         */
+        private final String text;
+
+        /**
+         * Key of the hyphenation rules the paragraph is hyphenated with (for example the language of the document).
+         */
+        @Nullable
+        private final Object hyphenation;
+
+        /**
+         * Precomputed hash code.
+         */
+        private final int hash;
+
+        public ParagraphKey(TextParagraph paragraph, @Nullable Object hyphenation) {
+            this.hyphenation = hyphenation;
+
+            List<Item> items = paragraph.items();
+
+            values = new double[items.size() * VALUES_PER_ITEM];
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < items.size(); i++) {
+                Item item = items.get(i);
+
+                int offset = i * VALUES_PER_ITEM;
+                values[offset] = item.getType().ordinal();
+                values[offset + 1] = item.getWidth();
+                values[offset + 2] = item.getStretchability();
+                values[offset + 3] = item.getShrinkability();
+                values[offset + 4] = item.getPenalty();
+                values[offset + 5] = (item.isFlagged() ? 1 : 0) + (item instanceof HyphenatableTextBox ? 2 : 0);
+
+                if (item instanceof TextBox) {
+                    sb.append(((TextBox) item).getText()).append('\0');
+                }
+            }
+            text = sb.toString();
+
+            hash = 31 * (31 * Arrays.hashCode(values) + text.hashCode()) + Objects.hashCode(hyphenation);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            ParagraphKey that = (ParagraphKey) o;
+
+            if (hash != that.hash) return false;
+            if (!Arrays.equals(values, that.values)) return false;
+            if (!text.equals(that.text)) return false;
+            return Objects.equals(hyphenation, that.hyphenation);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+    /**
+     * Line breaks found for a paragraph.
+     */
+    public static class LineBreaks {
+
+        /**
+         * Item indices of the break points.
+         */
+        private final int[] breakPointIndices;
+
+        /**
+         * Line widths the line breaking algorithm requested (index 0 is the width of line 1).
+         */
+        private final double[] lineWidths;
+
+        /**
+         * Whether the words of the paragraph have been hyphenated before breaking it into lines.
+         */
+        private final boolean hyphenated;
+
+        public LineBreaks(int[] breakPointIndices, double[] lineWidths, boolean hyphenated) {
+            this.breakPointIndices = breakPointIndices;
+            this.lineWidths = lineWidths;
+            this.hyphenated = hyphenated;
+        }
+
+        /**
+         * Check whether the passed paragraph has the line widths the line breaks have been found with.
+         *
+         * @param paragraph to check
+         * @return whether the line breaks apply to the paragraph
+         */
+        private boolean fits(TextParagraph paragraph) {
+            for (int i = 0; i < lineWidths.length; i++) {
+                if (Double.compare(paragraph.getLineWidth(i + 1), lineWidths[i]) != 0) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        /**
+         * Get the item indices of the break points.
+         *
+         * @return break point indices
+         */
+        public int[] getBreakPointIndices() {
+            return breakPointIndices;
+        }
+
+        /**
+         * Check whether the words of the paragraph need to be hyphenated before applying the line breaks.
+         *
+         * @return whether hyphenated
+         */
+        public boolean isHyphenated() {
+            return hyphenated;
+        }
+
+    }
+
+}
@@ -0,0 +1,25 @@
+package de.be.thaw.typeset.knuthplass.config.util;
+
+/**
+ * Available implementations of the Knuth-Plass line breaking algorithm.
+ */
+public enum LineBreakingEngine {
+
+    /**
+     * The original implementation operating directly on the paragraph item objects.
+     */
+    KNUTH_PLASS,
+
+    /**
+     * Implementation operating on primitive item arrays and a pool of break nodes.
+     * Produces the same break points as {@link #KNUTH_PLASS} with far less allocation.
+     */
+    PRIMITIVE_KNUTH_PLASS,
+
+    /**
+     * Same as {@link #PRIMITIVE_KNUTH_PLASS}, but all quality levels are tracked in a single sweep over the items
+     * instead of retrying the whole paragraph with the next worse quality level when no solution could be found.
+     */
+    MULTI_TOLERANCE_KNUTH_PLASS
+
+}
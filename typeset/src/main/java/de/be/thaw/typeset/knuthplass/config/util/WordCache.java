@@ -0,0 +1,236 @@
+package de.be.thaw.typeset.knuthplass.config.util;
+
+import de.be.thaw.core.document.node.DocumentNode;
+import de.be.thaw.typeset.knuthplass.config.util.hyphen.HyphenatedWord;
+import de.be.thaw.typeset.knuthplass.config.util.hyphen.Hyphenator;
+
+import java.util.Map;
+
+/**
+ * Bounded cache for hyphenated words and measured strings.
+ * The same words are repeated many times in a document, so hyphenating and measuring
+ * them only once per font saves a lot of work.
+ * <p>
+ * The cache is part of the type setting configuration and thus shared by all converters
+ * using a configuration derived from the same configuration (for example for foot notes, headers or table cells).
+ */
+public class WordCache {
+
+    /**
+     * The default maximum count of entries per cache.
+     */
+    public static final int DEFAULT_CAPACITY = 16384;
+
+    /**
+     * Cache for hyphenated words.
+     */
+    private final Map<String, HyphenatedWord> hyphenatedWords;
+
+    /**
+     * Cache for measured strings.
+     */
+    private final Map<MeasurementKey, FontDetailsSupplier.StringMetrics> metrics;
+
+    /**
+     * Count of hyphenation requests answered from the cache.
+     */
+    private long hyphenationHits;
+
+    /**
+     * Count of hyphenation requests that had to be computed.
+     */
+    private long hyphenationMisses;
+
+    /**
+     * Count of measurement requests answered from the cache.
+     */
+    private long measurementHits;
+
+    /**
+     * Count of measurement requests that had to be computed.
+     */
+    private long measurementMisses;
+
+    public WordCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public WordCache(int capacity) {
+        this.hyphenatedWords = new LeastRecentlyUsedMap<>(capacity);
+        this.metrics = new LeastRecentlyUsedMap<>(capacity);
+    }
+
+    /**
+     * Hyphenate the passed word or return the cached result.
+     *
+     * @param hyphenator to hyphenate the word with in case it is not cached
+     * @param word       to hyphenate
+     * @return the hyphenated word
+     */
+    public HyphenatedWord hyphenate(Hyphenator hyphenator, String word) {
+        synchronized (hyphenatedWords) {
+            HyphenatedWord result = hyphenatedWords.get(word);
+            if (result != null) {
+                hyphenationHits++;
+                return result;
+            }
+        }
+
+        HyphenatedWord result = hyphenator.hyphenate(word);
+
+        synchronized (hyphenatedWords) {
+            hyphenationMisses++;
+            hyphenatedWords.put(word, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Measure the passed string or return the cached result.
+     *
+     * @param supplier   to measure the string with in case it is not cached
+     * @param node       the string belongs to
+     * @param charBefore character before the string (may be -1)
+     * @param str        to measure
+     * @return the string metrics
+     * @throws Exception in case the string could not be measured
+     */
+    public FontDetailsSupplier.StringMetrics measureString(
+            FontDetailsSupplier supplier,
+            DocumentNode node,
+            int charBefore,
+            String str
+    ) throws Exception {
+        Object fontKey = supplier.getFontKey(node);
+        if (fontKey == null) {
+            return supplier.measureString(node, charBefore, str); // Strings for the node are not to be cached
+        }
+
+        MeasurementKey key = new MeasurementKey(str, fontKey, charBefore);
+        synchronized (metrics) {
+            FontDetailsSupplier.StringMetrics result = metrics.get(key);
+            if (result != null) {
+                measurementHits++;
+                return result;
+            }
+        }
+
+        FontDetailsSupplier.StringMetrics result = supplier.measureString(node, charBefore, str);
+
+        synchronized (metrics) {
+            measurementMisses++;
+            metrics.put(key, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the count of hyphenation requests answered from the cache.
+     *
+     * @return hyphenation cache hits
+     */
+    public long getHyphenationHits() {
+        synchronized (hyphenatedWords) {
+            return hyphenationHits;
+        }
+    }
+
+    /**
+     * Get the count of hyphenation requests that had to be computed.
+     *
+     * @return hyphenation cache misses
+     */
+    public long getHyphenationMisses() {
+        synchronized (hyphenatedWords) {
+            return hyphenationMisses;
+        }
+    }
+
+    /**
+     * Get the count of measurement requests answered from the cache.
+     *
+     * @return measurement cache hits
+     */
+    public long getMeasurementHits() {
+        synchronized (metrics) {
+            return measurementHits;
+        }
+    }
+
+    /**
+     * Get the count of measurement requests that had to be computed.
+     *
+     * @return measurement cache misses
+     */
+    public long getMeasurementMisses() {
+        synchronized (metrics) {
+            return measurementMisses;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "WordCache{hyphenation hits: %d, misses: %d; measurement hits: %d, misses: %d}",
+                getHyphenationHits(),
+                getHyphenationMisses(),
+                getMeasurementHits(),
+                getMeasurementMisses()
+        );
+    }
+
+    /**
+     * Key of a measured string.
+     */
+    private static class MeasurementKey {
+
+        /**
+         * The measured string.
+         */
+        private final String str;
+
+        /**
+         * Key of the font (including the font size) the string has been measured with.
+         */
+        private final Object fontKey;
+
+        /**
+         * The character before the measured string.
+         */
+        private final int charBefore;
+
+        /**
+         * Precomputed hash code.
+         */
+        private final int hash;
+
+        MeasurementKey(String str, Object fontKey, int charBefore) {
+            this.str = str;
+            this.fontKey = fontKey;
+            this.charBefore = charBefore;
+
+            this.hash = 31 * (31 * str.hashCode() + fontKey.hashCode()) + charBefore;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            MeasurementKey that = (MeasurementKey) o;
+
+            if (charBefore != that.charBefore) return false;
+            if (!str.equals(that.str)) return false;
+            return fontKey.equals(that.fontKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+}
@@ -20,4 +20,14 @@ public interface Hyphenator {
      */
     double getExplicitHyphenPenalty();
 
+    /**
+     * Get a key identifying the hyphenation rules (for example the language of the hyphenation dictionary).
+     * Cached line breaks of hyphenated paragraphs are only reused for hyphenators with an equal key.
+     *
+     * @return key of the hyphenation rules or null if the hyphenator always uses the same rules
+     */
+    default Object getKey() {
+        return null;
+    }
+
 }
@@ -37,8 +37,10 @@ import de.be.thaw.typeset.knuthplass.item.impl.box.TextBox;
 import de.be.thaw.typeset.knuthplass.paragraph.Paragraph;
 import de.be.thaw.typeset.knuthplass.paragraph.impl.TextParagraph;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -97,6 +99,8 @@ public class KnuthPlassConverter implements DocumentConverter<List<List<Paragrap
     public List<List<Paragraph>> convert(Document document) throws DocumentConversionException {
         ConversionContext ctx = new ConversionContext(config, document);
 
+        prepareThingies(ctx);
+
         initializeForNode(ctx, root);
 
         // Finalize the last paragraph and list of consecutive paragraphs
@@ -106,6 +110,41 @@ public class KnuthPlassConverter implements DocumentConverter<List<List<Paragrap
         return ctx.getConsecutiveParagraphLists();
     }
 
+    /**
+     * Let the thingy handlers prepare all thingies to convert at once.
+     *
+     * @param ctx the conversion context
+     */
+    private void prepareThingies(ConversionContext ctx) throws DocumentConversionException {
+        Map<ThingyHandler, List<DocumentNode>> nodesByHandler = new LinkedHashMap<>();
+        collectThingies(root, nodesByHandler);
+
+        for (Map.Entry<ThingyHandler, List<DocumentNode>> entry : nodesByHandler.entrySet()) {
+            entry.getKey().prepare(entry.getValue(), ctx);
+        }
+    }
+
+    /**
+     * Collect the nodes with thingies in the given subtree by the handler dealing with them.
+     *
+     * @param node           root of the subtree to collect thingies in
+     * @param nodesByHandler to collect the nodes in
+     */
+    private void collectThingies(DocumentNode node, Map<ThingyHandler, List<DocumentNode>> nodesByHandler) {
+        if (node.getTextNode().getType() == NodeType.THINGY) {
+            ThingyHandler handler = THINGY_HANDLER_MAP.get(((ThingyNode) node.getTextNode()).getName().toLowerCase());
+            if (handler != null) {
+                nodesByHandler.computeIfAbsent(handler, h -> new ArrayList<>()).add(node);
+            }
+        }
+
+        if (node.hasChildren()) {
+            for (DocumentNode child : node.getChildren()) {
+                collectThingies(child, nodesByHandler);
+            }
+        }
+    }
+
     /**
      * Initialize the paragraphs for the given node.
      *
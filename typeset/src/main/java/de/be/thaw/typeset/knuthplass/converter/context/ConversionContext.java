@@ -1,25 +1,29 @@
 package de.be.thaw.typeset.knuthplass.converter.context;
 
+import de.be.thaw.code.syntax.HighlightedCode;
 import de.be.thaw.core.document.Document;
 import de.be.thaw.core.document.convert.exception.DocumentConversionException;
 import de.be.thaw.core.document.node.DocumentNode;
+import de.be.thaw.math.mathml.cache.MathExpressionCache;
 import de.be.thaw.style.model.style.StyleType;
 import de.be.thaw.style.model.style.value.StyleValue;
 import de.be.thaw.typeset.knuthplass.config.KnuthPlassTypeSettingConfig;
 import de.be.thaw.typeset.knuthplass.config.util.FontDetailsSupplier;
-import de.be.thaw.typeset.knuthplass.config.util.hyphen.HyphenatedWord;
-import de.be.thaw.typeset.knuthplass.config.util.hyphen.HyphenatedWordPart;
+import de.be.thaw.typeset.knuthplass.converter.hyphen.WordHyphenator;
 import de.be.thaw.typeset.knuthplass.item.impl.Glue;
 import de.be.thaw.typeset.knuthplass.item.impl.Penalty;
 import de.be.thaw.typeset.knuthplass.item.impl.box.EmptyBox;
+import de.be.thaw.typeset.knuthplass.item.impl.box.HyphenatableTextBox;
 import de.be.thaw.typeset.knuthplass.item.impl.box.TextBox;
 import de.be.thaw.typeset.knuthplass.paragraph.Paragraph;
 import de.be.thaw.typeset.knuthplass.paragraph.impl.TextParagraph;
 import de.be.thaw.util.unit.Unit;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 
 /**
@@ -57,9 +61,26 @@ public class ConversionContext {
      */
     private final Document document;
 
+    /**
+     * Hyphenator used to split words into boxes and optional hyphen penalties.
+     */
+    private final WordHyphenator wordHyphenator;
+
+    /**
+     * Syntax highlighting of code blocks started before the conversion by their document node.
+     */
+    private final Map<DocumentNode, Future<HighlightedCode>> highlightedCode = new HashMap<>();
+
+    /**
+     * Cache for the math expressions of the document (expressions repeating in the document are only typeset once).
+     */
+    private final MathExpressionCache mathExpressionCache = new MathExpressionCache();
+
     public ConversionContext(KnuthPlassTypeSettingConfig config, Document document) {
         this.config = config;
         this.document = document;
+
+        this.wordHyphenator = new WordHyphenator(config);
     }
 
     /**
@@ -71,6 +92,35 @@ public class ConversionContext {
         return document;
     }
 
+    /**
+     * Get the syntax highlighting started for the passed code block node.
+     *
+     * @param node of the code block
+     * @return the future highlighted code or null in case highlighting has not been started before the conversion
+     */
+    public Future<HighlightedCode> getHighlightedCode(DocumentNode node) {
+        return highlightedCode.get(node);
+    }
+
+    /**
+     * Set the syntax highlighting started for the passed code block node.
+     *
+     * @param node the code block
+     * @param code the future highlighted code
+     */
+    public void setHighlightedCode(DocumentNode node, Future<HighlightedCode> code) {
+        highlightedCode.put(node, code);
+    }
+
+    /**
+     * Get the cache for the math expressions of the document.
+     *
+     * @return math expression cache
+     */
+    public MathExpressionCache getMathExpressionCache() {
+        return mathExpressionCache;
+    }
+
     public KnuthPlassTypeSettingConfig getConfig() {
         return config;
     }
@@ -249,47 +299,33 @@ public class ConversionContext {
             int lastChar = -1;
             for (WordPartSplitByPunctuationCharacter splitWordPart : splitWord) {
                 if (splitWordPart.isPunctuationCharacter()) {
-                    FontDetailsSupplier.StringMetrics metrics = config.getFontDetailsSupplier().measureString(node, lastChar, splitWordPart.getPart());
+                    FontDetailsSupplier.StringMetrics metrics = config.getWordCache().measureString(config.getFontDetailsSupplier(), node, lastChar, splitWordPart.getPart());
 
                     paragraph.addItem(new TextBox(
                             splitWordPart.getPart(),
                             metrics,
                             node
                     ));
-                } else { // Is an actual word without punctuation characters
-                    // Hyphenate word first if allowed
-                    List<HyphenatedWordPart> parts;
-                    if (allowHyphenation) {
-                        HyphenatedWord hyphenatedWord = config.getHyphenator().hyphenate(splitWordPart.getPart());
-                        parts = hyphenatedWord.getParts();
-                    } else {
-                        parts = Collections.singletonList(new HyphenatedWordPart(splitWordPart.getPart()));
-                    }
-
-                    int len = parts.size();
-                    FontDetailsSupplier.StringMetrics hyphenMetrics = config.getFontDetailsSupplier().measureString(node, lastChar, "-");
-
-                    for (int i = 0; i < len; i++) {
-                        HyphenatedWordPart part = parts.get(i);
-
-                        FontDetailsSupplier.StringMetrics metrics = config.getFontDetailsSupplier().measureString(node, lastChar, part.getPart());
-                        paragraph.addItem(new TextBox(
-                                part.getPart(),
-                                metrics,
-                                node
-                        ));
+                } else if (!allowHyphenation) { // Is an actual word without punctuation characters
+                    FontDetailsSupplier.StringMetrics metrics = config.getWordCache().measureString(config.getFontDetailsSupplier(), node, lastChar, splitWordPart.getPart());
 
-                        lastChar = getLastCodePoint(part.getPart());
+                    paragraph.addItem(new TextBox(
+                            splitWordPart.getPart(),
+                            metrics,
+                            node
+                    ));
+                } else if (config.isLazyHyphenation()) {
+                    // Add the whole word for now. It is only hyphenated when the paragraph cannot be broken into lines without hyphenation
+                    FontDetailsSupplier.StringMetrics metrics = config.getWordCache().measureString(config.getFontDetailsSupplier(), node, lastChar, splitWordPart.getPart());
 
-                        boolean isLast = i == len - 1;
-                        if (!isLast) {
-                            // Add hyphen penalty to represent an optional hyphen
-                            Penalty penalty = new Penalty(part.getPenalty(), hyphenMetrics.getWidth(), true, node);
-                            penalty.setReplacementString("-");
-                            penalty.setMetrics(hyphenMetrics);
-                            paragraph.addItem(penalty);
-                        }
-                    }
+                    paragraph.addItem(new HyphenatableTextBox(
+                            splitWordPart.getPart(),
+                            metrics,
+                            node,
+                            lastChar
+                    ));
+                } else {
+                    wordHyphenator.appendHyphenatedWord(splitWordPart.getPart(), lastChar, node, paragraph::addItem);
                 }
 
                 lastChar = getLastCodePoint(splitWordPart.getPart());
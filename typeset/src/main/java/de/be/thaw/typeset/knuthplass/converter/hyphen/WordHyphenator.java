@@ -0,0 +1,120 @@
+package de.be.thaw.typeset.knuthplass.converter.hyphen;
+
+import de.be.thaw.core.document.node.DocumentNode;
+import de.be.thaw.typeset.knuthplass.config.KnuthPlassTypeSettingConfig;
+import de.be.thaw.typeset.knuthplass.config.util.FontDetailsSupplier;
+import de.be.thaw.typeset.knuthplass.config.util.hyphen.HyphenatedWord;
+import de.be.thaw.typeset.knuthplass.config.util.hyphen.HyphenatedWordPart;
+import de.be.thaw.typeset.knuthplass.item.Item;
+import de.be.thaw.typeset.knuthplass.item.impl.Penalty;
+import de.be.thaw.typeset.knuthplass.item.impl.box.HyphenatableTextBox;
+import de.be.thaw.typeset.knuthplass.item.impl.box.TextBox;
+import de.be.thaw.typeset.knuthplass.paragraph.impl.TextParagraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Converts words to boxes and optional hyphen penalties.
+ */
+public class WordHyphenator {
+
+    /**
+     * Configuration of the line breaking algorithm.
+     */
+    private final KnuthPlassTypeSettingConfig config;
+
+    public WordHyphenator(KnuthPlassTypeSettingConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Hyphenate the passed word and append its parts separated by optional hyphen penalties.
+     *
+     * @param word       to hyphenate (must not contain punctuation characters)
+     * @param charBefore the code point before the word (or -1 if there is none)
+     * @param node       the word belongs to
+     * @param consumer   to append the resulting items to
+     * @throws Exception in case the word parts could not be measured
+     */
+    public void appendHyphenatedWord(String word, int charBefore, DocumentNode node, Consumer<Item> consumer) throws Exception {
+        HyphenatedWord hyphenatedWord = config.getWordCache().hyphenate(config.getHyphenator(), word);
+        List<HyphenatedWordPart> parts = hyphenatedWord.getParts();
+
+        int len = parts.size();
+        FontDetailsSupplier.StringMetrics hyphenMetrics = config.getWordCache().measureString(config.getFontDetailsSupplier(), node, charBefore, "-");
+
+        int lastChar = charBefore;
+        for (int i = 0; i < len; i++) {
+            HyphenatedWordPart part = parts.get(i);
+
+            FontDetailsSupplier.StringMetrics metrics = config.getWordCache().measureString(config.getFontDetailsSupplier(), node, lastChar, part.getPart());
+            consumer.accept(new TextBox(
+                    part.getPart(),
+                    metrics,
+                    node
+            ));
+
+            lastChar = getLastCodePoint(part.getPart());
+
+            boolean isLast = i == len - 1;
+            if (!isLast) {
+                // Add hyphen penalty to represent an optional hyphen
+                Penalty penalty = new Penalty(part.getPenalty(), hyphenMetrics.getWidth(), true, node);
+                penalty.setReplacementString("-");
+                penalty.setMetrics(hyphenMetrics);
+                consumer.accept(penalty);
+            }
+        }
+    }
+
+    /**
+     * Hyphenate all words of the passed paragraph that have not been hyphenated yet.
+     *
+     * @param paragraph to hyphenate
+     * @return whether at least one hyphenation point has been added to the paragraph
+     * @throws Exception in case the word parts could not be measured
+     */
+    public boolean hyphenate(TextParagraph paragraph) throws Exception {
+        if (!paragraph.containsHyphenatableWords()) {
+            return false;
+        }
+
+        List<Item> oldItems = paragraph.items();
+        List<Item> newItems = new ArrayList<>(oldItems.size() * 2);
+        for (Item item : oldItems) {
+            if (item instanceof HyphenatableTextBox) {
+                HyphenatableTextBox box = (HyphenatableTextBox) item;
+                appendHyphenatedWord(box.getText(), box.getCharBefore(), box.getNode(), newItems::add);
+            } else {
+                newItems.add(item);
+            }
+        }
+
+        boolean changed = newItems.size() != oldItems.size();
+        paragraph.replaceItems(newItems);
+
+        return changed;
+    }
+
+    /**
+     * Get the last code point in the given string.
+     *
+     * @param str to get last code point in
+     * @return last code point
+     */
+    private int getLastCodePoint(String str) {
+        final int len = str.length();
+        int codePoint = -1;
+
+        for (int i = 0; i < len; ) {
+            codePoint = str.codePointAt(i);
+
+            i += Character.charCount(codePoint);
+        }
+
+        return codePoint;
+    }
+
+}
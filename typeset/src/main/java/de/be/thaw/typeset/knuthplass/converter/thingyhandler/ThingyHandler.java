@@ -5,6 +5,7 @@ import de.be.thaw.core.document.node.DocumentNode;
 import de.be.thaw.text.model.tree.impl.ThingyNode;
 import de.be.thaw.typeset.knuthplass.converter.context.ConversionContext;
 
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -29,4 +30,16 @@ public interface ThingyHandler {
      */
     void handle(ThingyNode node, DocumentNode documentNode, ConversionContext ctx) throws DocumentConversionException;
 
+    /**
+     * Prepare handling the passed thingy nodes before the conversion starts.
+     * Allows processing all thingies of a document at once (for example in a single batch).
+     *
+     * @param documentNodes all nodes in the document with a thingy the handler deals with
+     * @param ctx           the conversion context
+     * @throws DocumentConversionException in case the thingies could not be prepared
+     */
+    default void prepare(List<DocumentNode> documentNodes, ConversionContext ctx) throws DocumentConversionException {
+        // Nothing to prepare by default
+    }
+
 }
@@ -1,7 +1,13 @@
 package de.be.thaw.typeset.knuthplass.converter.thingyhandler.impl;
 
+import de.be.thaw.code.syntax.HighlightRequest;
+import de.be.thaw.code.syntax.HighlightedCode;
+import de.be.thaw.code.syntax.SyntaxHighlighter;
+import de.be.thaw.code.syntax.cache.HighlightCache;
 import de.be.thaw.code.syntax.exception.HighlightException;
-import de.be.thaw.code.syntax.impl.RTFSyntaxHighlighter;
+import de.be.thaw.code.syntax.impl.BuiltInSyntaxHighlighter;
+import de.be.thaw.code.syntax.impl.PygmentsSyntaxHighlighter;
+import de.be.thaw.code.syntax.rtf.RTFCodeReader;
 import de.be.thaw.core.document.convert.exception.DocumentConversionException;
 import de.be.thaw.core.document.node.DocumentNode;
 import de.be.thaw.text.model.tree.impl.ThingyNode;
@@ -10,19 +16,38 @@ import de.be.thaw.typeset.knuthplass.converter.thingyhandler.ThingyHandler;
 import de.be.thaw.typeset.knuthplass.paragraph.Paragraph;
 import de.be.thaw.typeset.knuthplass.paragraph.impl.TextParagraph;
 import de.be.thaw.typeset.knuthplass.paragraph.impl.code.CodeParagraph;
+import de.be.thaw.util.cache.exception.CouldNotGetProjectCacheDirectoryException;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Handler dealing with code block thingies.
  */
 public class CodeHandler implements ThingyHandler {
 
+    /**
+     * Executor highlighting code blocks in the background while the document is converted.
+     * There is a thread for every Pygments worker that may highlight code concurrently.
+     */
+    private static final ExecutorService HIGHLIGHT_EXECUTOR = Executors.newFixedThreadPool(PygmentsSyntaxHighlighter.MAX_WORKERS, runnable -> {
+        Thread thread = new Thread(runnable, "thaw-code-highlighter");
+        thread.setDaemon(true); // Must not keep the JVM alive
+        return thread;
+    });
+
     @Override
     public Set<String> getThingyNames() {
         return Set.of("CODE");
@@ -46,9 +71,6 @@ public class CodeHandler implements ThingyHandler {
             ));
         }
 
-        // Try to read code from Thingy arguments and options
-        String code = readSourceCode(node, ctx);
-
         int startLine = 1;
         int endLine = Integer.MAX_VALUE;
         String startLineStr = node.getOptions().get("startline");
@@ -74,17 +96,21 @@ public class CodeHandler implements ThingyHandler {
             }
         }
 
-        // Syntax highlight code (build RTF from code).
-        String rtfCode = syntaxHighlight(code, node, ctx);
+        // Syntax highlight code unless it is already being highlighted in the background
+        Future<HighlightedCode> code = ctx.getHighlightedCode(documentNode);
+        if (code == null) {
+            code = CompletableFuture.completedFuture(syntaxHighlight(readSourceCode(node, ctx), node, ctx));
+        }
 
         // Read additional options
         String caption = node.getOptions().get("caption");
         String captionPrefix = node.getOptions().get("caption-prefix");
 
         // Finalize the current paragraph -> we'll create a special code block paragraph instead
+        // (resolving the highlighted code is deferred until the paragraph is typeset)
         ctx.finalizeParagraph();
         ctx.setCurrentParagraph(new CodeParagraph(
-                rtfCode,
+                code,
                 startLine,
                 endLine,
                 ctx.getLineWidth(),
@@ -94,6 +120,69 @@ public class CodeHandler implements ThingyHandler {
         ));
     }
 
+    @Override
+    public void prepare(List<DocumentNode> documentNodes, ConversionContext ctx) throws DocumentConversionException {
+        // Start highlighting all code blocks of the document in the background, so that they are highlighted
+        // concurrently while the rest of the document is converted.
+        // Code blocks that cannot be highlighted here are reported when handling them.
+        List<DocumentNode> codeNodes = new ArrayList<>();
+        List<HighlightRequest> requests = new ArrayList<>();
+        for (DocumentNode documentNode : documentNodes) {
+            ThingyNode node = (ThingyNode) documentNode.getTextNode();
+            if (isAlreadyRTFCode(node) || node.getOptions().get("language") == null) {
+                continue;
+            }
+
+            String code;
+            try {
+                code = readSourceCode(node, ctx);
+            } catch (DocumentConversionException e) {
+                continue;
+            }
+
+            codeNodes.add(documentNode);
+            requests.add(createHighlightRequest(code, node));
+        }
+
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        // Split the code blocks into a chunk per Pygments worker -> every chunk is highlighted in a single round trip
+        SyntaxHighlighter highlighter = createSyntaxHighlighter(ctx);
+        int chunks = Math.min(PygmentsSyntaxHighlighter.MAX_WORKERS, requests.size());
+        for (int c = 0; c < chunks; c++) {
+            int from = c * requests.size() / chunks;
+            int to = (c + 1) * requests.size() / chunks;
+
+            List<HighlightRequest> chunk = requests.subList(from, to);
+            CompletableFuture<Map<HighlightRequest, HighlightedCode>> results = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return highlighter.highlightAll(chunk);
+                } catch (HighlightException e) {
+                    throw new CompletionException(e);
+                }
+            }, HIGHLIGHT_EXECUTOR);
+
+            for (int i = from; i < to; i++) {
+                HighlightRequest request = requests.get(i);
+                ctx.setHighlightedCode(codeNodes.get(i), results.thenApplyAsync(highlighted -> {
+                    HighlightedCode code = highlighted.get(request);
+                    if (code != null) {
+                        return code;
+                    }
+
+                    // Failed code blocks are missing in the results -> highlight again individually to get the reason
+                    try {
+                        return highlighter.highlight(request.getCode(), request.getLanguage(), request.getStyle());
+                    } catch (HighlightException e) {
+                        throw new CompletionException(e);
+                    }
+                }, HIGHLIGHT_EXECUTOR));
+            }
+        }
+    }
+
     /**
      * Read the source code for the given thingy node.
      *
@@ -105,7 +194,7 @@ public class CodeHandler implements ThingyHandler {
     private String readSourceCode(ThingyNode node, ConversionContext ctx) throws DocumentConversionException {
         String sourceFile = node.getOptions().get("src");
         if (sourceFile != null) {
-            File currentProcessingFolder = ctx.getConfig().getWorkingDirectory();
+            File currentProcessingFolder = ctx.getConfig().getContext().getRootFolder();
             File sourceCodeFile = new File(currentProcessingFolder, sourceFile);
 
             StringBuilder sb = new StringBuilder();
@@ -146,11 +235,16 @@ public class CodeHandler implements ThingyHandler {
      * @return the syntax highlighted code
      * @throws DocumentConversionException in case the code could not be syntax highlighted
      */
-    private String syntaxHighlight(String code, ThingyNode node, ConversionContext ctx) throws DocumentConversionException {
-        String sourceFile = node.getOptions().get("src");
-        boolean isAlreadyRTFCode = sourceFile != null && sourceFile.endsWith(".rtf");
-        if (isAlreadyRTFCode) {
-            return code;
+    private HighlightedCode syntaxHighlight(String code, ThingyNode node, ConversionContext ctx) throws DocumentConversionException {
+        if (isAlreadyRTFCode(node)) {
+            try {
+                return RTFCodeReader.read(code);
+            } catch (HighlightException e) {
+                throw new DocumentConversionException(String.format(
+                        "Could not read the already syntax highlighted code (RTF) of the #CODE# thingy at %s",
+                        node.getTextPosition()
+                ), e);
+            }
         } else {
             String language = node.getOptions().get("language");
             if (language == null) {
@@ -159,17 +253,59 @@ public class CodeHandler implements ThingyHandler {
                         node.getTextPosition()
                 ));
             }
-            String style = node.getOptions().getOrDefault("style", "colorful");
-
-            RTFSyntaxHighlighter syntaxHighlighter = new RTFSyntaxHighlighter();
-            syntaxHighlighter.setWorkingDirectory(ctx.getConfig().getWorkingDirectory());
 
+            HighlightRequest request = createHighlightRequest(code, node);
             try {
-                return syntaxHighlighter.highlight(code, language, style.toLowerCase());
+                return createSyntaxHighlighter(ctx).highlight(request.getCode(), request.getLanguage(), request.getStyle());
             } catch (HighlightException e) {
                 throw new DocumentConversionException(e);
             }
         }
     }
 
+    /**
+     * Check whether the code of the passed thingy node is already RTF code that does not need to be highlighted.
+     *
+     * @param node the code thingy node
+     * @return whether already RTF code
+     */
+    private boolean isAlreadyRTFCode(ThingyNode node) {
+        String sourceFile = node.getOptions().get("src");
+        return sourceFile != null && sourceFile.endsWith(".rtf");
+    }
+
+    /**
+     * Create the request to highlight the passed code of the given thingy node.
+     *
+     * @param code to highlight
+     * @param node the code thingy node (must have the 'language' option)
+     * @return the request
+     */
+    private HighlightRequest createHighlightRequest(String code, ThingyNode node) {
+        String language = node.getOptions().get("language");
+        String style = node.getOptions().getOrDefault("style", "colorful");
+
+        return new HighlightRequest(code, language, style.toLowerCase());
+    }
+
+    /**
+     * Create the syntax highlighter to use.
+     * Languages and styles that are built in are highlighted directly, all others using Pygments.
+     *
+     * @param ctx the conversion context
+     * @return the syntax highlighter
+     */
+    private SyntaxHighlighter createSyntaxHighlighter(ConversionContext ctx) {
+        PygmentsSyntaxHighlighter pygmentsHighlighter = new PygmentsSyntaxHighlighter();
+        pygmentsHighlighter.setWorkingDirectory(ctx.getConfig().getContext().getRootFolder());
+
+        try {
+            pygmentsHighlighter.setCache(HighlightCache.forProject(ctx.getConfig().getContext().getRootFolder()));
+        } catch (CouldNotGetProjectCacheDirectoryException e) {
+            // Highlight without caching results on disk
+        }
+
+        return new BuiltInSyntaxHighlighter(pygmentsHighlighter);
+    }
+
 }
@@ -44,7 +44,7 @@ public class FootNoteHandler implements ThingyHandler {
             paragraph.items().remove(paragraph.items().size() - 1);
         }
 
-        DocumentNode footNoteDocumentNode = new DocumentNode("FOOTNOTE_NODE_" + counter, node, null, documentNode.getStyles());
+        DocumentNode footNoteDocumentNode = new DocumentNode(ctx.getDocument().getNodeIDGenerator().next(), node, null, documentNode.getStyles());
 
         // Remap foot note document note to the new foot note dummy node
         DocumentNode footNoteContentNode = ctx.getDocument().getFootNotes().get(documentNode.getId());
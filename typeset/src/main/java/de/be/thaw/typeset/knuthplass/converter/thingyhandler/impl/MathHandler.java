@@ -2,18 +2,12 @@ package de.be.thaw.typeset.knuthplass.converter.thingyhandler.impl;
 
 import de.be.thaw.core.document.convert.exception.DocumentConversionException;
 import de.be.thaw.core.document.node.DocumentNode;
-import de.be.thaw.math.mathml.parser.MathMLParser;
-import de.be.thaw.math.mathml.parser.MathMLParserConfig;
 import de.be.thaw.math.mathml.parser.exception.ParseException;
-import de.be.thaw.math.mathml.parser.impl.DefaultMathMLParser;
-import de.be.thaw.math.mathml.tree.MathMLTree;
 import de.be.thaw.math.mathml.typeset.MathExpression;
-import de.be.thaw.math.mathml.typeset.MathMLTypesetter;
-import de.be.thaw.math.mathml.typeset.config.MathTypesetConfig;
 import de.be.thaw.math.mathml.typeset.exception.TypesetException;
-import de.be.thaw.math.mathml.typeset.impl.DefaultMathMLTypesetter;
 import de.be.thaw.style.model.style.StyleType;
 import de.be.thaw.style.model.style.value.StyleValue;
+import de.be.thaw.text.model.tree.NodeType;
 import de.be.thaw.text.model.tree.impl.ThingyNode;
 import de.be.thaw.typeset.knuthplass.converter.context.ConversionContext;
 import de.be.thaw.typeset.knuthplass.converter.thingyhandler.ThingyHandler;
@@ -25,9 +19,9 @@ import de.be.thaw.util.HorizontalAlignment;
 import de.be.thaw.util.unit.BaseUnit;
 import de.be.thaw.util.unit.Unit;
 
-import java.io.ByteArrayInputStream;
-import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Handler for math thingies.
@@ -66,30 +60,22 @@ public class MathHandler implements ThingyHandler {
                 .orElseThrow()
                 .doubleValue(Unit.POINTS);
 
-        // Parse MathML
-        MathMLParser parser = new DefaultMathMLParser();
-        MathMLTree tree;
+        // An empty paragraph means that this math expression is a math paragraph and not in-line with text!
+        boolean isInline = !paragraph.isEmpty();
+
+        // Math expressions in-line with text are scaled to fit the line height
+        double maxHeight = isInline ? getLineHeight(documentNode, fontSize) : Double.POSITIVE_INFINITY;
+
+        // Fetch the expression typeset in advance (or parse and typeset it now in case it has not been prepared)
+        MathExpression ex;
         try {
-            tree = parser.parse(
-                    new ByteArrayInputStream(expression.getBytes(StandardCharsets.UTF_16)),
-                    StandardCharsets.UTF_16,
-                    new MathMLParserConfig(
-                            fontSize * 0.05
-                    )
-            );
+            ex = ctx.getMathExpressionCache().get(expression, ctx.getConfig().getMathFont(), fontSize, maxHeight);
         } catch (ParseException e) {
             throw new DocumentConversionException(String.format(
                     "Could not parse math expression from MathML at #MATH# Thingy at %s. Error message was: %s",
                     node.getTextPosition(),
                     e.getMessage()
             ), e);
-        }
-
-        // Typeset MathML tree
-        MathMLTypesetter typesetter = new DefaultMathMLTypesetter();
-        MathExpression ex;
-        try {
-            ex = typesetter.typeset(tree, new MathTypesetConfig(ctx.getConfig().getMathFont(), fontSize));
         } catch (TypesetException e) {
             throw new DocumentConversionException(String.format(
                     "Could not typeset math expression from #MATH# Thingy at %s. Error message was: %s",
@@ -98,9 +84,7 @@ public class MathHandler implements ThingyHandler {
             ), e);
         }
 
-        if (paragraph.isEmpty()) {
-            // This math expression is a math paragraph and not in-line with text!
-
+        if (!isInline) {
             // Finalize the current paragraph
             ctx.finalizeParagraph();
 
@@ -118,24 +102,70 @@ public class MathHandler implements ThingyHandler {
                     alignment
             ));
         } else {
-            // Math expression is in-line with text -> scale it properly and add it to the text paragraph.
-            StyleValue lineHeightStyleValue = documentNode.getStyles().resolve(StyleType.LINE_HEIGHT).orElseThrow();
-            double lineHeight;
-            if (lineHeightStyleValue.unit().getBaseUnit() == BaseUnit.UNITARY) {
-                // Is relative line-height -> Calculate line height from the font size
-                lineHeight = fontSize * lineHeightStyleValue.doubleValue(Unit.UNITARY);
-            } else {
-                lineHeight = lineHeightStyleValue.doubleValue(Unit.POINTS);
+            paragraph.addItem(new MathBox(ex, documentNode));
+        }
+    }
+
+    @Override
+    public void prepare(List<DocumentNode> documentNodes, ConversionContext ctx) {
+        // Math expressions only depend on the font size and not on the surrounding layout
+        // -> parse and typeset all expressions of the document in parallel while the rest of the document is converted.
+        // Expressions that could not be parsed or typeset are reported when handling them.
+        for (DocumentNode documentNode : documentNodes) {
+            ThingyNode node = (ThingyNode) documentNode.getTextNode();
+            if (node.getArguments().isEmpty()) {
+                continue;
             }
 
-            if (ex.getSize().getHeight() > lineHeight) {
-                double scaleFactor = lineHeight / ex.getSize().getHeight();
+            String expression = node.getArguments().iterator().next();
 
-                ex.getRoot().scale(scaleFactor);
-            }
+            final double fontSize = documentNode.getStyles().resolve(StyleType.FONT_SIZE)
+                    .orElseThrow()
+                    .doubleValue(Unit.POINTS);
 
-            paragraph.addItem(new MathBox(ex, documentNode));
+            // Whether the expression is in-line with text is only known when handling it (paragraph not empty).
+            // A thingy at the start of a box is usually a math paragraph, all others are most likely in-line.
+            double maxHeight = isFirstInBox(documentNode) ? Double.POSITIVE_INFINITY : getLineHeight(documentNode, fontSize);
+
+            ctx.getMathExpressionCache().getAsync(
+                    expression,
+                    ctx.getConfig().getMathFont(),
+                    fontSize,
+                    maxHeight,
+                    ForkJoinPool.commonPool()
+            );
         }
     }
 
+    /**
+     * Check whether the passed node is the first node in its box (paragraph).
+     *
+     * @param documentNode to check
+     * @return whether the node is the first in its box
+     */
+    private boolean isFirstInBox(DocumentNode documentNode) {
+        DocumentNode parent = documentNode.getParent();
+
+        return parent != null
+                && parent.getTextNode().getType() == NodeType.BOX
+                && parent.getChildren().get(0) == documentNode;
+    }
+
+    /**
+     * Get the line height for the passed node.
+     *
+     * @param documentNode to get line height for
+     * @param fontSize     the font size of the node
+     * @return the line height
+     */
+    private double getLineHeight(DocumentNode documentNode, double fontSize) {
+        StyleValue lineHeightStyleValue = documentNode.getStyles().resolve(StyleType.LINE_HEIGHT).orElseThrow();
+        if (lineHeightStyleValue.unit().getBaseUnit() == BaseUnit.UNITARY) {
+            // Is relative line-height -> Calculate line height from the font size
+            return fontSize * lineHeightStyleValue.doubleValue(Unit.UNITARY);
+        }
+
+        return lineHeightStyleValue.doubleValue(Unit.POINTS);
+    }
+
 }
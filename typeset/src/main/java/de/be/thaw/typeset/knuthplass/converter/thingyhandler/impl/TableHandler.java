@@ -91,16 +91,16 @@ public class TableHandler implements ThingyHandler {
 
         Styles styles = documentNode.getStyles();
         Insets margin = new Insets(
-                styles.resolve(StyleType.MARGIN_TOP).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0),
-                styles.resolve(StyleType.MARGIN_RIGHT).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0),
-                styles.resolve(StyleType.MARGIN_BOTTOM).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0),
-                styles.resolve(StyleType.MARGIN_LEFT).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0)
+                styles.resolvePoints(StyleType.MARGIN_TOP, 0.0),
+                styles.resolvePoints(StyleType.MARGIN_RIGHT, 0.0),
+                styles.resolvePoints(StyleType.MARGIN_BOTTOM, 0.0),
+                styles.resolvePoints(StyleType.MARGIN_LEFT, 0.0)
         );
         Insets padding = new Insets(
-                styles.resolve(StyleType.PADDING_TOP).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0),
-                styles.resolve(StyleType.PADDING_RIGHT).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0),
-                styles.resolve(StyleType.PADDING_BOTTOM).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0),
-                styles.resolve(StyleType.PADDING_LEFT).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0)
+                styles.resolvePoints(StyleType.PADDING_TOP, 0.0),
+                styles.resolvePoints(StyleType.PADDING_RIGHT, 0.0),
+                styles.resolvePoints(StyleType.PADDING_BOTTOM, 0.0),
+                styles.resolvePoints(StyleType.PADDING_LEFT, 0.0)
         );
 
         double availableWidth = ctx.getLineWidth() - (margin.getLeft() + margin.getRight() + padding.getLeft() + padding.getRight());
@@ -431,7 +431,7 @@ public class TableHandler implements ThingyHandler {
             }
         } else {
             // Load table source from file
-            File file = new File(ctx.getConfig().getWorkingDirectory(), tableSrc);
+            File file = new File(ctx.getConfig().getContext().getRootFolder(), tableSrc);
             try {
                 tableSrc = Files.readString(file.toPath(), ctx.getDocument().getInfo().getEncoding());
             } catch (IOException e) {
@@ -80,9 +80,9 @@ public class TableOfContentsHandler implements ThingyHandler {
                 // Create dummy document nodes
                 Styles numberingStyles = new Styles(tocEntryLevelStyles);
                 numberingStyles.overrideStyle(StyleType.MARGIN_LEFT, new DoubleStyleValue(marginLeft + numberingMetrics.getWidth(), Unit.POINTS));
-                DocumentNode dummyNumberingNode = new DocumentNode(String.format("TOC_%s", numbering), documentNode.getTextNode(), null, numberingStyles);
+                DocumentNode dummyNumberingNode = new DocumentNode(ctx.getDocument().getNodeIDGenerator().next(), documentNode.getTextNode(), null, numberingStyles);
 
-                DocumentNode dummyHeadlineNode = new DocumentNode(String.format("TOC_%s", headline), documentNode.getTextNode(), null, numberingStyles);
+                DocumentNode dummyHeadlineNode = new DocumentNode(ctx.getDocument().getNodeIDGenerator().next(), documentNode.getTextNode(), null, numberingStyles);
 
                 ctx.getDocument().getReferenceModel().addReference(new InternalReference(dummyNumberingNode.getId(), n.getId(), "TOC_numbering"));
                 ctx.getDocument().getReferenceModel().addReference(new InternalReference(dummyHeadlineNode.getId(), n.getId(), "TOC_headline"));
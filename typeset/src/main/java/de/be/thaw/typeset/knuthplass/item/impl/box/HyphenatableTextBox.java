@@ -0,0 +1,32 @@
+package de.be.thaw.typeset.knuthplass.item.impl.box;
+
+import de.be.thaw.core.document.node.DocumentNode;
+import de.be.thaw.typeset.knuthplass.config.util.FontDetailsSupplier;
+
+/**
+ * Box containing a whole word that has not been hyphenated yet.
+ * It is hyphenated later only in case the paragraph it belongs to cannot be broken into lines without hyphenation.
+ */
+public class HyphenatableTextBox extends TextBox {
+
+    /**
+     * The code point before the word (or -1 if there is none) used to measure the word.
+     */
+    private final int charBefore;
+
+    public HyphenatableTextBox(String text, FontDetailsSupplier.StringMetrics metrics, DocumentNode node, int charBefore) {
+        super(text, metrics, node);
+
+        this.charBefore = charBefore;
+    }
+
+    /**
+     * Get the code point before the word (or -1 if there is none) used to measure the word.
+     *
+     * @return code point before the word
+     */
+    public int getCharBefore() {
+        return charBefore;
+    }
+
+}
@@ -1,12 +1,6 @@
 package de.be.thaw.typeset.knuthplass.paragraph.handler.impl.code;
 
-import com.rtfparserkit.parser.IRtfListener;
-import com.rtfparserkit.parser.IRtfParser;
-import com.rtfparserkit.parser.IRtfSource;
-import com.rtfparserkit.parser.RtfStreamSource;
-import com.rtfparserkit.parser.standard.StandardRtfParser;
-import com.rtfparserkit.rtf.Command;
-import com.rtfparserkit.rtf.CommandType;
+import de.be.thaw.code.syntax.HighlightedCode;
 import de.be.thaw.core.document.node.DocumentNode;
 import de.be.thaw.font.util.FontVariant;
 import de.be.thaw.style.model.style.StyleType;
@@ -34,15 +28,10 @@ import de.be.thaw.util.Size;
 import de.be.thaw.util.color.Color;
 import de.be.thaw.util.unit.BaseUnit;
 import de.be.thaw.util.unit.Unit;
-import org.jetbrains.annotations.Nullable;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.Stack;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Paragraph handler dealing with typesetting code block paragraphs.
@@ -54,6 +43,11 @@ public class CodeParagraphHandler extends AbstractParagraphHandler {
      */
     private static final String DEFAULT_CODE_CAPTION_PREFIX = "Listing";
 
+    /**
+     * Maximum time to wait for a code block to be syntax highlighted (in seconds).
+     */
+    private static final int MAX_WAIT_TIME = 30;
+
     @Override
     public ParagraphType supportedType() {
         return ParagraphType.CODE;
@@ -77,21 +71,13 @@ public class CodeParagraphHandler extends AbstractParagraphHandler {
                 styles.resolve(StyleType.PADDING_LEFT).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0)
         );
 
+        // Wait for the code to be highlighted in the background (if not already done)
+        HighlightedCode code = awaitHighlightedCode(codeParagraph);
+
         ctx.getPositionContext().increaseY(margin.getTop());
 
-        // Parse the RTF code
-        IRtfSource source = new RtfStreamSource(new ByteArrayInputStream(codeParagraph.getRtfCode().getBytes(StandardCharsets.UTF_8)));
-        IRtfParser parser = new StandardRtfParser();
-        try {
-            parser.parse(source, new RTFCodeParser(codeParagraph, ctx));
-        } catch (IOException e) {
-            throw new TypeSettingException("Could not typeset code block paragraph properly", e);
-        } catch (ParseCancelException e) {
-            throw new TypeSettingException(String.format(
-                    "An error occurred while trying to parse the syntax highlighted code (RTF) for a code block. Exception was: '%s'",
-                    e.getCause().getMessage()
-            ), e.getCause());
-        }
+        // Lay out the lines of the highlighted code
+        new CodeLayouter(codeParagraph, code, ctx).layout();
 
         double captionStartY = ctx.getPositionContext().getY();
         ctx.getPositionContext().increaseY(margin.getBottom());
@@ -116,144 +102,54 @@ public class CodeParagraphHandler extends AbstractParagraphHandler {
     }
 
     /**
-     * Context of a group in an RTF document.
-     */
-    private static class RTFGroupContext {
-
-        /**
-         * Parent context (if any).
-         */
-        @Nullable
-        private final RTFGroupContext parent;
-
-        /**
-         * Whether bold is enabled
-         */
-        @Nullable
-        private Boolean bold;
-
-        /**
-         * Whether italic is enabled.
-         */
-        @Nullable
-        private Boolean italic;
-
-        /**
-         * The currently used font color.
-         */
-        @Nullable
-        private Color color;
-
-        /**
-         * Whether the group allows for adding page elements.
-         */
-        private Boolean acceptElements;
-
-        public RTFGroupContext(@Nullable RTFGroupContext parent) {
-            this.parent = parent;
-        }
-
-        public Optional<RTFGroupContext> getParent() {
-            return Optional.ofNullable(parent);
-        }
-
-        public boolean isBold() {
-            if (bold != null) {
-                return bold;
-            } else if (parent != null) {
-                return parent.isBold();
-            } else {
-                return false;
-            }
-        }
-
-        public void setBold(boolean bold) {
-            this.bold = bold;
-        }
-
-        public boolean isItalic() {
-            if (italic != null) {
-                return italic;
-            } else if (parent != null) {
-                return parent.isItalic();
-            } else {
-                return false;
-            }
-        }
-
-        public void setItalic(boolean italic) {
-            this.italic = italic;
-        }
-
-        public Color getColor() {
-            if (color != null) {
-                return color;
-            } else if (parent != null) {
-                return parent.getColor();
-            } else {
-                return new Color(0.0, 0.0, 0.0, 1.0);
-            }
-        }
-
-        public void setColor(@Nullable Color color) {
-            this.color = color;
-        }
-
-        public boolean isAcceptElements() {
-            if (acceptElements != null) {
-                return acceptElements;
-            } else if (parent != null) {
-                return parent.isAcceptElements();
-            } else {
-                return true;
-            }
-        }
-
-        public void setAcceptElements(boolean acceptElements) {
-            this.acceptElements = acceptElements;
-        }
-
-    }
-
-    /**
-     * Exception thrown when parsing is cancelled.
+     * Wait for the syntax highlighted code of the passed code paragraph.
+     *
+     * @param codeParagraph to get highlighted code of
+     * @return the highlighted code
+     * @throws TypeSettingException in case the code could not be highlighted
      */
-    private static class ParseCancelException extends RuntimeException {
+    private HighlightedCode awaitHighlightedCode(CodeParagraph codeParagraph) throws TypeSettingException {
+        try {
+            return codeParagraph.getCode().get(MAX_WAIT_TIME, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw new TypeSettingException(String.format(
+                    "Could not syntax highlight the code block at %s. Reason: '%s'",
+                    codeParagraph.getNode().getTextNode().getTextPosition(),
+                    e.getCause().getMessage()
+            ), e.getCause());
+        } catch (TimeoutException e) {
+            codeParagraph.getCode().cancel(true); // Do not highlight the code block anymore if not yet started
 
-        public ParseCancelException(Throwable cause) {
-            super(cause);
+            throw new TypeSettingException(String.format(
+                    "Syntax highlighting the code block at %s took longer than %d seconds",
+                    codeParagraph.getNode().getTextNode().getTextPosition(),
+                    MAX_WAIT_TIME
+            ), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TypeSettingException("Interrupted while waiting for a code block to be syntax highlighted", e);
         }
-
     }
 
     /**
-     * Parser parsing RTF code.
+     * Layouter typesetting the lines of a highlighted code block.
      */
-    private static class RTFCodeParser implements IRtfListener {
-
-        /**
-         * Colors listed in the RTF color table.
-         */
-        private final List<Color> colors = new ArrayList<>();
+    private static class CodeLayouter {
 
         /**
-         * Stack holding always the current RTF group context (colors, bold, italic, ...).
+         * Default color of code without a color in the style palette.
          */
-        private final Stack<RTFGroupContext> ctxStack = new Stack<>();
+        private static final Color DEFAULT_COLOR = new Color(0.0, 0.0, 0.0, 1.0);
 
         /**
-         * Whether the color table is currently being parsed.
+         * The code paragraph to lay out.
          */
-        private boolean isParseColors = false;
-
-        private int tmpRed = -1;
-        private int tmpGreen = -1;
-        private int tmpBlue = -1;
+        private final CodeParagraph codeParagraph;
 
         /**
-         * The code paragraph parsing RTF code from.
+         * The highlighted code of the paragraph.
          */
-        private final CodeParagraph codeParagraph;
+        private final HighlightedCode code;
 
         /**
          * The typesetting context.
@@ -377,8 +273,15 @@ public class CodeParagraphHandler extends AbstractParagraphHandler {
          */
         private boolean isFirstRectangle = true;
 
-        RTFCodeParser(CodeParagraph codeParagraph, TypeSettingContext ctx) {
+        /**
+         * Styles of the text elements by their index in the style palette of the code.
+         * Created lazily.
+         */
+        private final Styles[] tokenStyles;
+
+        CodeLayouter(CodeParagraph codeParagraph, HighlightedCode code, TypeSettingContext ctx) throws TypeSettingException {
             this.codeParagraph = codeParagraph;
+            this.code = code;
             this.ctx = ctx;
 
             startElementIndex = ctx.getCurrentPageElements().size();
@@ -460,18 +363,13 @@ public class CodeParagraphHandler extends AbstractParagraphHandler {
             styles.resolve(StyleType.BORDER_BOTTOM_STYLE).ifPresent(v -> borderStyles[2] = LineStyle.valueOf(v.fillStyle().name()));
             styles.resolve(StyleType.BORDER_LEFT_STYLE).ifPresent(v -> borderStyles[3] = LineStyle.valueOf(v.fillStyle().name()));
 
-            // Add the default color (index 0).
-            colors.add(new Color(0.0, 0.0, 0.0));
+            tokenStyles = new Styles[code.getStyles().size()];
 
             // Check if there is enough space for the next line
             double availableHeight = ctx.getAvailableHeight();
             if (availableHeight < lineHeight) {
                 // Not enough space for this line left on the current page -> Create next page
-                try {
-                    ctx.pushPage();
-                } catch (TypeSettingException e) {
-                    cancelParsing(e);
-                }
+                ctx.pushPage();
             }
 
             startY = ctx.getPositionContext().getY();
@@ -481,59 +379,76 @@ public class CodeParagraphHandler extends AbstractParagraphHandler {
             ctx.getPositionContext().setX(ctx.getConfig().getPageInsets().getLeft() + marginLeft + paddingLeft);
         }
 
-        @Override
-        public void processDocumentStart() {
-            // Do nothing.
-        }
-
-        @Override
-        public void processDocumentEnd() {
-            pushRectangleElement();
-
-            ctx.getPositionContext().increaseY(paddingBottom);
-        }
-
-        @Override
-        public void processGroupStart() {
-            ctxStack.push(new RTFGroupContext(ctxStack.isEmpty() ? null : ctxStack.peek()));
-        }
+        /**
+         * Lay out all lines of the code.
+         *
+         * @throws TypeSettingException in case the code could not be laid out
+         */
+        void layout() throws TypeSettingException {
+            for (HighlightedCode.Line line : code.getLines()) {
+                // Runs of lines that are not shown (defined by start and end line in the code paragraph) do not need to be measured
+                if (isLineShown()) {
+                    for (HighlightedCode.TokenRun run : line.getRuns()) {
+                        addRun(run.getText(), getTokenStyles(run.getStyleIndex()));
+                    }
+                }
 
-        @Override
-        public void processGroupEnd() {
-            if (isParseColors) {
-                isParseColors = false;
+                breakLine(true);
             }
 
-            ctxStack.pop();
-        }
+            pushRectangleElement();
 
-        @Override
-        public void processCharacterBytes(byte[] data) {
-            // Do nothing.
+            ctx.getPositionContext().increaseY(paddingBottom);
         }
 
-        @Override
-        public void processBinaryBytes(byte[] data) {
-            // Do nothing.
+        /**
+         * Check whether the current line should be shown (defined by start and end line in the code paragraph).
+         *
+         * @return whether the current line is shown
+         */
+        private boolean isLineShown() {
+            return lineNumberCounter >= codeParagraph.getStartLine() && lineNumberCounter <= codeParagraph.getEndLine();
         }
 
         /**
-         * Process a string in color parsing state.
+         * Get the styles of text elements with the passed style in the style palette.
          *
-         * @param string that occurred
-         */
-        private void onProcessStringParseColors(String string) {
-            if (string.equals(";") && tmpBlue > -1) {
-                colors.add(new Color(tmpRed / 255.0, tmpGreen / 255.0, tmpBlue / 255.0));
+         * @param styleIndex index of the style in the style palette
+         * @return the styles
+         */
+        private Styles getTokenStyles(int styleIndex) {
+            Styles styles = tokenStyles[styleIndex];
+            if (styles == null) {
+                HighlightedCode.TokenStyle tokenStyle = code.getStyles().get(styleIndex);
+
+                FontVariant variant = FontVariant.MONOSPACE;
+                if (tokenStyle.isBold() && tokenStyle.isItalic()) {
+                    variant = FontVariant.BOLD_ITALIC;
+                } else if (tokenStyle.isBold()) {
+                    variant = FontVariant.BOLD;
+                } else if (tokenStyle.isItalic()) {
+                    variant = FontVariant.ITALIC;
+                }
+
+                styles = new Styles(codeParagraph.getNode().getStyles());
+                styles.overrideStyle(StyleType.FONT_FAMILY, new FontFamilyStyleValue(monoSpacedFontFamily));
+                styles.overrideStyle(StyleType.FONT_VARIANT, new FontVariantStyleValue(variant));
+                styles.overrideStyle(StyleType.COLOR, new ColorStyleValue(tokenStyle.getColor() != null ? tokenStyle.getColor() : DEFAULT_COLOR));
+
+                tokenStyles[styleIndex] = styles;
             }
+
+            return styles;
         }
 
         /**
-         * Process a string in default state.
+         * Add text elements for the passed run of equally styled text.
          *
-         * @param string that occurred
+         * @param string of the run
+         * @param styles of the run
+         * @throws TypeSettingException in case the run could not be added
          */
-        private void onProcessStringDefault(String string) {
+        private void addRun(String string, Styles styles) throws TypeSettingException {
             boolean isBlank = string.isBlank();
 
             // Extract leading and trailing white spaces from string
@@ -543,7 +458,7 @@ public class CodeParagraphHandler extends AbstractParagraphHandler {
 
             // Add leading white spaces as text element
             if (leadingSpacesCount > 0) {
-                addTextElement(" ".repeat(leadingSpacesCount));
+                addTextElement(" ".repeat(leadingSpacesCount), styles);
             }
 
             if (!string.isBlank()) {
@@ -552,65 +467,39 @@ public class CodeParagraphHandler extends AbstractParagraphHandler {
                 for (int i = 0; i < parts.length; i++) {
                     String part = parts[i];
 
-                    addTextElement(i == parts.length - 1 ? part : part + " ");
+                    addTextElement(i == parts.length - 1 ? part : part + " ", styles);
                 }
             }
 
             // Add trailing white spaces as text element
             if (trailingSpacesCount > 0) {
-                addTextElement(" ".repeat(trailingSpacesCount));
+                addTextElement(" ".repeat(trailingSpacesCount), styles);
             }
         }
 
         /**
-         * Add a text element for the passed string that has been parsed.
+         * Add a text element for the passed string.
          *
-         * @param str that has been parsed
-         */
-        private void addTextElement(String str) {
-            // Create styles from current context
-            RTFGroupContext curCtx = ctxStack.peek();
-
-            FontVariant variant = FontVariant.MONOSPACE;
-            if (curCtx.isBold() && curCtx.isItalic()) {
-                variant = FontVariant.BOLD_ITALIC;
-            } else if (curCtx.isBold()) {
-                variant = FontVariant.BOLD;
-            } else if (curCtx.isItalic()) {
-                variant = FontVariant.ITALIC;
-            }
-
-            Styles dummyDocumentNodeStyles = new Styles(codeParagraph.getNode().getStyles());
-            dummyDocumentNodeStyles.overrideStyle(StyleType.FONT_FAMILY, new FontFamilyStyleValue(monoSpacedFontFamily));
-            dummyDocumentNodeStyles.overrideStyle(StyleType.FONT_VARIANT, new FontVariantStyleValue(variant));
-            dummyDocumentNodeStyles.overrideStyle(StyleType.COLOR, new ColorStyleValue(curCtx.getColor()));
-
-            DocumentNode dummyDocumentNode = new DocumentNode(new TextNode(str, null), codeParagraph.getNode(), dummyDocumentNodeStyles);
+         * @param str    to add
+         * @param styles of the string
+         * @throws TypeSettingException in case the text element could not be added
+         */
+        private void addTextElement(String str, Styles styles) throws TypeSettingException {
+            DocumentNode dummyDocumentNode = new DocumentNode(ctx.getDocument().getNodeIDGenerator().next(), new TextNode(str, null), codeParagraph.getNode(), styles);
 
             // Measure string
             FontDetailsSupplier.StringMetrics metrics;
             try {
                 metrics = ctx.getConfig().getFontDetailsSupplier().measureString(dummyDocumentNode, -1, str);
             } catch (Exception e) {
-                cancelParsing(new TypeSettingException(e));
-                return;
-            }
-
-            // Check whether the current line should be shown (defined by start and end line in the code paragraph).
-            boolean showLine = lineNumberCounter >= codeParagraph.getStartLine() && lineNumberCounter <= codeParagraph.getEndLine();
-            if (!showLine) {
-                return;
+                throw new TypeSettingException(e);
             }
 
             // Draw line numbers (if necessary)
             if (showLineNumbers && drawLineNumberNextToken) {
                 drawLineNumberNextToken = false;
 
-                try {
-                    drawLineNumber(++currentLineNumberToDraw, codeParagraph, ctx);
-                } catch (TypeSettingException e) {
-                    cancelParsing(e);
-                }
+                drawLineNumber(++currentLineNumberToDraw, codeParagraph, ctx);
             }
 
             // Check if text element has enough space in the current line -> otherwise break line
@@ -632,62 +521,17 @@ public class CodeParagraphHandler extends AbstractParagraphHandler {
             ctx.getPositionContext().increaseX(metrics.getWidth());
         }
 
-        @Override
-        public void processString(String string) {
-            if (isParseColors) {
-                onProcessStringParseColors(string);
-            } else if (ctxStack.peek().isAcceptElements()) {
-                onProcessStringDefault(string);
-            }
-        }
-
-        /**
-         * Process the passed comment while in color parse state.
-         *
-         * @param command      to process
-         * @param parameter    the parameter (if any)
-         * @param hasParameter whether the parameter is to be honored
-         * @param optional     whether optional
-         */
-        private void processCommandWhileInParseColors(Command command, int parameter, boolean hasParameter, boolean optional) {
-            if (command.getCommandType() == CommandType.Value) {
-                switch (command.getCommandName()) {
-                    case "red" -> tmpRed = parameter;
-                    case "green" -> tmpGreen = parameter;
-                    case "blue" -> tmpBlue = parameter;
-                }
-            }
-        }
-
-        /**
-         * Process a command of type SYMBOL.
-         *
-         * @param command      to process
-         * @param parameter    the parameter (if any)
-         * @param hasParameter whether the parameter is to be honored
-         * @param optional     whether optional
-         */
-        private void processSymbolCommand(Command command, int parameter, boolean hasParameter, boolean optional) {
-            if (command.getCommandName().equals("par") || command.getCommandName().equals("line")) {
-                breakLine(true);
-            }
-        }
-
         /**
          * Break the current line.
          *
          * @param explicit whether we are dealing with an explicit line break or because the line ran out of space
+         * @throws TypeSettingException in case the line could not be broken
          */
-        private void breakLine(boolean explicit) {
-            boolean displayLine = lineNumberCounter >= codeParagraph.getStartLine() && lineNumberCounter <= codeParagraph.getEndLine();
-            if (displayLine) {
+        private void breakLine(boolean explicit) throws TypeSettingException {
+            if (isLineShown()) {
                 // Draw line numbers if it has not been drawn for this line yet
                 if (showLineNumbers && drawLineNumberNextToken) {
-                    try {
-                        drawLineNumber(++currentLineNumberToDraw, codeParagraph, ctx);
-                    } catch (TypeSettingException e) {
-                        cancelParsing(e);
-                    }
+                    drawLineNumber(++currentLineNumberToDraw, codeParagraph, ctx);
                 }
 
                 // Adjust position context for the next line
@@ -702,11 +546,7 @@ public class CodeParagraphHandler extends AbstractParagraphHandler {
                     // First create rectangle element for the background (if necessary)
                     pushRectangleElement();
 
-                    try {
-                        ctx.pushPage();
-                    } catch (TypeSettingException e) {
-                        cancelParsing(e);
-                    }
+                    ctx.pushPage();
 
                     startY = ctx.getPositionContext().getY();
                     startElementIndex = ctx.getCurrentPageElements().size();
@@ -752,82 +592,6 @@ public class CodeParagraphHandler extends AbstractParagraphHandler {
             ctx.getCurrentPageElements().add(startElementIndex, rect);
         }
 
-        /**
-         * Process a command of type VALUE.
-         *
-         * @param command      to process
-         * @param parameter    the parameter (if any)
-         * @param hasParameter whether the parameter is to be honored
-         * @param optional     whether optional
-         */
-        private void processValueCommand(Command command, int parameter, boolean hasParameter, boolean optional) {
-            if (command.getCommandName().equals("cf")) {
-                // Set foreground color
-                ctxStack.peek().setColor(colors.get(parameter));
-            }
-        }
-
-        /**
-         * Process a command of type TOGGLE.
-         *
-         * @param command      to process
-         * @param parameter    the parameter (if any)
-         * @param hasParameter whether the parameter is to be honored
-         * @param optional     whether optional
-         */
-        private void processToggleCommand(Command command, int parameter, boolean hasParameter, boolean optional) {
-            if (command.getCommandName().equals("b")) {
-                ctxStack.peek().setBold(!hasParameter);
-            } else if (command.getCommandName().equals("i")) {
-                ctxStack.peek().setItalic(!hasParameter);
-            }
-        }
-
-        /**
-         * Process the passed comment while in default state.
-         *
-         * @param command      to process
-         * @param parameter    the parameter (if any)
-         * @param hasParameter whether the parameter is to be honored
-         * @param optional     whether optional
-         */
-        private void processCommandDefault(Command command, int parameter, boolean hasParameter, boolean optional) {
-            switch (command.getCommandType()) {
-                case Symbol -> processSymbolCommand(command, parameter, hasParameter, optional);
-                case Value -> processValueCommand(command, parameter, hasParameter, optional);
-                case Toggle -> processToggleCommand(command, parameter, hasParameter, optional);
-            }
-        }
-
-        @Override
-        public void processCommand(Command command, int parameter, boolean hasParameter, boolean optional) {
-            if (command.getCommandType() == CommandType.Destination) {
-                if (!command.getCommandName().equals("rtf")) {
-                    ctxStack.peek().setAcceptElements(false);
-                }
-
-                if (command.getCommandName().equals("colortbl")) {
-                    isParseColors = true;
-                }
-            }
-
-            if (isParseColors) {
-                processCommandWhileInParseColors(command, parameter, hasParameter, optional);
-            } else {
-                processCommandDefault(command, parameter, hasParameter, optional);
-            }
-        }
-
-        /**
-         * Cancel the parsing process.
-         *
-         * @param exception that caused the cancel
-         * @throws RuntimeException thrown indicating that parsing failed
-         */
-        private void cancelParsing(TypeSettingException exception) {
-            throw new ParseCancelException(exception);
-        }
-
         /**
          * Draw the passed line number in front of a code line.
          *
@@ -846,7 +610,7 @@ public class CodeParagraphHandler extends AbstractParagraphHandler {
             lineNumberNodeStyles.overrideStyle(StyleType.FONT_SIZE, new DoubleStyleValue(lineNumberFontSize, Unit.POINTS));
             lineNumberNodeStyles.overrideStyle(StyleType.COLOR, new ColorStyleValue(lineNumberColor));
 
-            DocumentNode lineNumberDocumentNode = new DocumentNode(new TextNode(lineNumberStr, null), paragraph.getNode(), lineNumberNodeStyles);
+            DocumentNode lineNumberDocumentNode = new DocumentNode(ctx.getDocument().getNodeIDGenerator().next(), new TextNode(lineNumberStr, null), paragraph.getNode(), lineNumberNodeStyles);
 
             // Measure line number string
             FontDetailsSupplier.StringMetrics lineNumberStrMetrics;
@@ -17,7 +17,6 @@ import de.be.thaw.util.HorizontalAlignment;
 import de.be.thaw.util.Position;
 import de.be.thaw.util.Size;
 import de.be.thaw.util.color.Color;
-import de.be.thaw.util.unit.Unit;
 
 /**
  * Handler dealing with typesetting math paragraphs.
@@ -36,18 +35,10 @@ public class MathParagraphHandler implements ParagraphTypesetHandler {
         // Fetch some styles
         Styles styles = paragraph.getNode().getStyles();
 
-        final double marginTop = styles.resolve(StyleType.MARGIN_TOP)
-                .orElseThrow()
-                .doubleValue(Unit.POINTS);
-        final double marginBottom = styles.resolve(StyleType.MARGIN_BOTTOM)
-                .orElseThrow()
-                .doubleValue(Unit.POINTS);
-        final double paddingTop = styles.resolve(StyleType.PADDING_TOP)
-                .orElseThrow()
-                .doubleValue(Unit.POINTS);
-        final double paddingBottom = styles.resolve(StyleType.PADDING_BOTTOM)
-                .orElseThrow()
-                .doubleValue(Unit.POINTS);
+        final double marginTop = styles.resolvePoints(StyleType.MARGIN_TOP);
+        final double marginBottom = styles.resolvePoints(StyleType.MARGIN_BOTTOM);
+        final double paddingTop = styles.resolvePoints(StyleType.PADDING_TOP);
+        final double paddingBottom = styles.resolvePoints(StyleType.PADDING_BOTTOM);
 
         ctx.getPositionContext().increaseY(marginTop + paddingTop);
 
@@ -91,31 +82,23 @@ public class MathParagraphHandler implements ParagraphTypesetHandler {
         // Fetch background and border styles
         Styles styles = paragraph.getNode().getStyles();
 
-        final double marginLeft = styles.resolve(StyleType.MARGIN_LEFT)
-                .orElseThrow()
-                .doubleValue(Unit.POINTS);
-        final double marginRight = styles.resolve(StyleType.MARGIN_RIGHT)
-                .orElseThrow()
-                .doubleValue(Unit.POINTS);
-        final double paddingBottom = styles.resolve(StyleType.PADDING_BOTTOM)
-                .orElseThrow()
-                .doubleValue(Unit.POINTS);
-        final double paddingTop = styles.resolve(StyleType.PADDING_TOP)
-                .orElseThrow()
-                .doubleValue(Unit.POINTS);
+        final double marginLeft = styles.resolvePoints(StyleType.MARGIN_LEFT);
+        final double marginRight = styles.resolvePoints(StyleType.MARGIN_RIGHT);
+        final double paddingBottom = styles.resolvePoints(StyleType.PADDING_BOTTOM);
+        final double paddingTop = styles.resolvePoints(StyleType.PADDING_TOP);
 
         Color backgroundColor = styles.resolve(StyleType.BACKGROUND_COLOR).map(StyleValue::colorValue).orElse(new Color(1.0, 1.0, 1.0, 1.0));
         Insets borderWidths = new Insets(
-                styles.resolve(StyleType.BORDER_TOP_WIDTH).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0),
-                styles.resolve(StyleType.BORDER_RIGHT_WIDTH).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0),
-                styles.resolve(StyleType.BORDER_BOTTOM_WIDTH).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0),
-                styles.resolve(StyleType.BORDER_LEFT_WIDTH).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0)
+                styles.resolvePoints(StyleType.BORDER_TOP_WIDTH, 0.0),
+                styles.resolvePoints(StyleType.BORDER_RIGHT_WIDTH, 0.0),
+                styles.resolvePoints(StyleType.BORDER_BOTTOM_WIDTH, 0.0),
+                styles.resolvePoints(StyleType.BORDER_LEFT_WIDTH, 0.0)
         );
         Insets borderRadius = new Insets(
-                styles.resolve(StyleType.BORDER_RADIUS_TOP).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0),
-                styles.resolve(StyleType.BORDER_RADIUS_RIGHT).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0),
-                styles.resolve(StyleType.BORDER_RADIUS_BOTTOM).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0),
-                styles.resolve(StyleType.BORDER_RADIUS_LEFT).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0)
+                styles.resolvePoints(StyleType.BORDER_RADIUS_TOP, 0.0),
+                styles.resolvePoints(StyleType.BORDER_RADIUS_RIGHT, 0.0),
+                styles.resolvePoints(StyleType.BORDER_RADIUS_BOTTOM, 0.0),
+                styles.resolvePoints(StyleType.BORDER_RADIUS_LEFT, 0.0)
         );
         Color[] borderColors = new Color[]{
                 new Color(0.0, 0.0, 0.0),
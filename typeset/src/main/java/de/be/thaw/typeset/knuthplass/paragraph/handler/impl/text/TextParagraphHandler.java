@@ -16,6 +16,9 @@ import de.be.thaw.typeset.exception.TypeSettingException;
 import de.be.thaw.typeset.knuthplass.KnuthPlassAlgorithm;
 import de.be.thaw.typeset.knuthplass.TypeSettingContext;
 import de.be.thaw.typeset.knuthplass.config.util.FontDetailsSupplier;
+import de.be.thaw.typeset.knuthplass.config.util.LineBreakCache;
+import de.be.thaw.typeset.knuthplass.config.util.LineBreakingEngine;
+import de.be.thaw.typeset.knuthplass.converter.hyphen.WordHyphenator;
 import de.be.thaw.typeset.knuthplass.exception.CouldNotFindFeasibleSolutionException;
 import de.be.thaw.typeset.knuthplass.item.Item;
 import de.be.thaw.typeset.knuthplass.item.ItemType;
@@ -83,9 +86,7 @@ public class TextParagraphHandler implements ParagraphTypesetHandler {
         StyleValue lineHeightStyleValue = styles.resolve(StyleType.LINE_HEIGHT).orElseThrow();
         if (lineHeightStyleValue.unit().getBaseUnit() == BaseUnit.UNITARY) {
             // Is relative line-height -> Calculate line height from the font size
-            lineHeight = styles.resolve(StyleType.FONT_SIZE)
-                    .orElseThrow()
-                    .doubleValue(Unit.POINTS) * lineHeightStyleValue.doubleValue(Unit.UNITARY);
+            lineHeight = styles.resolvePoints(StyleType.FONT_SIZE) * lineHeightStyleValue.doubleValue(Unit.UNITARY);
         } else {
             lineHeight = lineHeightStyleValue.doubleValue(Unit.POINTS);
         }
@@ -95,39 +96,21 @@ public class TextParagraphHandler implements ParagraphTypesetHandler {
         final boolean showLineNumbers = styles.resolve(StyleType.SHOW_LINE_NUMBERS).orElse(new BooleanStyleValue(false)).booleanValue();
         final String lineNumberFontFamily = styles.resolve(StyleType.SHOW_LINE_NUMBERS).orElseThrow().value();
 
-        final double lineNumberFontSize = styles.resolve(StyleType.LINE_NUMBER_FONT_SIZE)
-                .orElseThrow()
-                .doubleValue(Unit.POINTS);
+        final double lineNumberFontSize = styles.resolvePoints(StyleType.LINE_NUMBER_FONT_SIZE);
 
         final Color lineNumberColor = styles.resolve(StyleType.LINE_NUMBER_COLOR).orElseThrow().colorValue();
 
         // Calculate margins
-        final double marginTop = styles.resolve(StyleType.MARGIN_TOP)
-                .orElseThrow()
-                .doubleValue(Unit.POINTS);
-        final double marginBottom = styles.resolve(StyleType.MARGIN_BOTTOM)
-                .orElseThrow()
-                .doubleValue(Unit.POINTS);
-        final double marginLeft = styles.resolve(StyleType.MARGIN_LEFT)
-                .orElseThrow()
-                .doubleValue(Unit.POINTS);
-        final double marginRight = styles.resolve(StyleType.MARGIN_RIGHT)
-                .orElseThrow()
-                .doubleValue(Unit.POINTS);
+        final double marginTop = styles.resolvePoints(StyleType.MARGIN_TOP);
+        final double marginBottom = styles.resolvePoints(StyleType.MARGIN_BOTTOM);
+        final double marginLeft = styles.resolvePoints(StyleType.MARGIN_LEFT);
+        final double marginRight = styles.resolvePoints(StyleType.MARGIN_RIGHT);
 
         // Calculate paddings
-        final double paddingTop = styles.resolve(StyleType.PADDING_TOP)
-                .orElseThrow()
-                .doubleValue(Unit.POINTS);
-        final double paddingBottom = styles.resolve(StyleType.PADDING_BOTTOM)
-                .orElseThrow()
-                .doubleValue(Unit.POINTS);
-        final double paddingLeft = styles.resolve(StyleType.PADDING_LEFT)
-                .orElseThrow()
-                .doubleValue(Unit.POINTS);
-        final double paddingRight = styles.resolve(StyleType.PADDING_RIGHT)
-                .orElseThrow()
-                .doubleValue(Unit.POINTS);
+        final double paddingTop = styles.resolvePoints(StyleType.PADDING_TOP);
+        final double paddingBottom = styles.resolvePoints(StyleType.PADDING_BOTTOM);
+        final double paddingLeft = styles.resolvePoints(StyleType.PADDING_LEFT);
+        final double paddingRight = styles.resolvePoints(StyleType.PADDING_RIGHT);
 
         // Calculate some metrics
         double baseline;
@@ -290,7 +273,7 @@ public class TextParagraphHandler implements ParagraphTypesetHandler {
                 lineNumberDocumentNodeStyles.overrideStyle(StyleType.FONT_SIZE, new DoubleStyleValue(lineNumberFontSize, Unit.POINTS));
                 lineNumberDocumentNodeStyles.overrideStyle(StyleType.COLOR, new ColorStyleValue(lineNumberColor));
 
-                DocumentNode lineNumberDocumentNode = new DocumentNode(new TextNode(lineNumberStr, null), paragraph.getNode(), lineNumberDocumentNodeStyles);
+                DocumentNode lineNumberDocumentNode = new DocumentNode(ctx.getDocument().getNodeIDGenerator().next(), new TextNode(lineNumberStr, null), paragraph.getNode(), lineNumberDocumentNodeStyles);
 
                 // Measure line number string
                 FontDetailsSupplier.StringMetrics lineNumberStrMetrics;
@@ -385,28 +368,22 @@ public class TextParagraphHandler implements ParagraphTypesetHandler {
         // Fetch background and border styles
         Styles styles = paragraph.getNode().getStyles();
 
-        final double marginLeft = styles.resolve(StyleType.MARGIN_LEFT)
-                .orElseThrow()
-                .doubleValue(Unit.POINTS);
-        final double marginRight = styles.resolve(StyleType.MARGIN_RIGHT)
-                .orElseThrow()
-                .doubleValue(Unit.POINTS);
-        final double paddingBottom = styles.resolve(StyleType.PADDING_BOTTOM)
-                .orElseThrow()
-                .doubleValue(Unit.POINTS);
+        final double marginLeft = styles.resolvePoints(StyleType.MARGIN_LEFT);
+        final double marginRight = styles.resolvePoints(StyleType.MARGIN_RIGHT);
+        final double paddingBottom = styles.resolvePoints(StyleType.PADDING_BOTTOM);
 
         Color backgroundColor = styles.resolve(StyleType.BACKGROUND_COLOR).map(StyleValue::colorValue).orElse(new Color(1.0, 1.0, 1.0, 0.0));
         Insets borderWidths = new Insets(
-                styles.resolve(StyleType.BORDER_TOP_WIDTH).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0),
-                styles.resolve(StyleType.BORDER_RIGHT_WIDTH).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0),
-                styles.resolve(StyleType.BORDER_BOTTOM_WIDTH).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0),
-                styles.resolve(StyleType.BORDER_LEFT_WIDTH).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0)
+                styles.resolvePoints(StyleType.BORDER_TOP_WIDTH, 0.0),
+                styles.resolvePoints(StyleType.BORDER_RIGHT_WIDTH, 0.0),
+                styles.resolvePoints(StyleType.BORDER_BOTTOM_WIDTH, 0.0),
+                styles.resolvePoints(StyleType.BORDER_LEFT_WIDTH, 0.0)
         );
         Insets borderRadius = new Insets(
-                styles.resolve(StyleType.BORDER_RADIUS_TOP).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0),
-                styles.resolve(StyleType.BORDER_RADIUS_RIGHT).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0),
-                styles.resolve(StyleType.BORDER_RADIUS_BOTTOM).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0),
-                styles.resolve(StyleType.BORDER_RADIUS_LEFT).map(v -> v.doubleValue(Unit.POINTS)).orElse(0.0)
+                styles.resolvePoints(StyleType.BORDER_RADIUS_TOP, 0.0),
+                styles.resolvePoints(StyleType.BORDER_RADIUS_RIGHT, 0.0),
+                styles.resolvePoints(StyleType.BORDER_RADIUS_BOTTOM, 0.0),
+                styles.resolvePoints(StyleType.BORDER_RADIUS_LEFT, 0.0)
         );
         Color[] borderColors = new Color[]{
                 new Color(0.0, 0.0, 0.0),
@@ -524,62 +501,210 @@ public class TextParagraphHandler implements ParagraphTypesetHandler {
 
     /**
      * Find break points for the passed paragraph.
+     * The break points are taken from the line break cache in case the paragraph did not change
+     * since it has been broken into lines the last time (for example during the previous render in watch mode).
      *
      * @param textParagraph to find break points for
      * @param ctx           the type setting context
      * @return the found break points
-     * @throws TypeSettingException in case the algorithm could not find a feasible solution
+     * @throws TypeSettingException in case the words of the paragraph could not be hyphenated
      */
     private KnuthPlassAlgorithm.LineBreakingResult findBreakPoints(TextParagraph textParagraph, TypeSettingContext ctx) throws TypeSettingException {
-        // Do the line breaking. Try several quality levels in case it does not work.
-        for (int quality = 0; quality < WORST_QUALITY; quality++) {
-            KnuthPlassAlgorithm algorithm = new KnuthPlassAlgorithm(ctx.getConfig(), quality);
+        LineBreakCache cache = ctx.getConfig().getLineBreakCache();
+        if (cache == null) {
+            return computeBreakPoints(textParagraph, ctx); // Not worth building the paragraph key
+        }
+
+        LineBreakCache.ParagraphKey key = new LineBreakCache.ParagraphKey(textParagraph, ctx.getConfig().getHyphenator().getKey());
+
+        LineBreakCache.LineBreaks cached = cache.get(key, textParagraph);
+        if (cached != null) {
+            if (cached.isHyphenated()) {
+                hyphenate(textParagraph, ctx); // The cached break point indices refer to the hyphenated items
+            }
+
+            int[] indices = cached.getBreakPointIndices();
+            List<BreakPoint> breakPoints = new ArrayList<>(indices.length);
+            for (int index : indices) {
+                breakPoints.add(new BreakPoint(index));
+            }
+
+            return new KnuthPlassAlgorithm.LineBreakingResult(breakPoints, null);
+        }
+
+        // Record the line widths requested while breaking the paragraph into lines as the break points depend on them
+        final IntToDoubleFunction lineWidthSupplier = textParagraph.getLineWidthSupplier();
+        final int[] maxLineNumber = new int[1];
+        textParagraph.setLineWidthSupplier(lineNumber -> {
+            maxLineNumber[0] = Math.max(maxLineNumber[0], lineNumber);
 
+            return lineWidthSupplier != null ? lineWidthSupplier.applyAsDouble(lineNumber) : textParagraph.getDefaultLineWidth();
+        });
+
+        boolean hyphenatable = textParagraph.containsHyphenatableWords();
+        KnuthPlassAlgorithm.LineBreakingResult result;
+        try {
+            result = computeBreakPoints(textParagraph, ctx);
+        } finally {
+            textParagraph.setLineWidthSupplier(lineWidthSupplier);
+        }
+
+        int[] indices = new int[result.getBreakPoints().size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = result.getBreakPoints().get(i).getIndex();
+        }
+
+        double[] lineWidths = new double[maxLineNumber[0]];
+        for (int i = 0; i < lineWidths.length; i++) {
+            lineWidths[i] = textParagraph.getLineWidth(i + 1);
+        }
+
+        cache.put(key, new LineBreakCache.LineBreaks(
+                indices,
+                lineWidths,
+                hyphenatable && !textParagraph.containsHyphenatableWords()
+        ));
+
+        return result;
+    }
+
+    /**
+     * Compute break points for the passed paragraph.
+     * Words that have not been hyphenated yet are only hyphenated in case the paragraph cannot be
+     * broken into lines without hyphenation using the best quality.
+     *
+     * @param textParagraph to compute break points for
+     * @param ctx           the type setting context
+     * @return the computed break points
+     * @throws TypeSettingException in case the words of the paragraph could not be hyphenated
+     */
+    private KnuthPlassAlgorithm.LineBreakingResult computeBreakPoints(TextParagraph textParagraph, TypeSettingContext ctx) throws TypeSettingException {
+        if (textParagraph.containsHyphenatableWords()) {
+            // First pass: Try to break the paragraph into lines without hyphenating words with the best quality
             try {
-                return algorithm.findBreakPoints(textParagraph);
+                return findBreakPointsWithQuality(textParagraph, ctx, ctx.getConfig().getLineBreakingEngine(), 0);
             } catch (CouldNotFindFeasibleSolutionException e) {
-                if (quality == WORST_QUALITY - 1) {
-                    if (Debug.isDebug()) {
-                        LOGGER.log(Level.INFO, String.format(
-                                "Paragraph at %s could not be split into lines properly using the Knuth-Plass algorithm. Instead using the first-fit algorithm now.",
-                                textParagraph.getNode() != null && textParagraph.getNode().getTextNode() != null ? textParagraph.getNode().getTextNode().getTextPosition() : "UNKNOWN"
-                        ));
-                    }
+                // Hyphenate the words of the paragraph and try again
+            }
+
+            hyphenate(textParagraph, ctx);
+        }
+
+        try {
+            return findBreakPointsUsingKnuthPlass(textParagraph, ctx);
+        } catch (CouldNotFindFeasibleSolutionException e) {
+            if (Debug.isDebug()) {
+                LOGGER.log(Level.INFO, String.format(
+                        "Paragraph at %s could not be split into lines properly using the Knuth-Plass algorithm. Instead using the first-fit algorithm now.",
+                        textParagraph.getNode() != null && textParagraph.getNode().getTextNode() != null ? textParagraph.getNode().getTextNode().getTextPosition() : "UNKNOWN"
+                ));
+            }
+
+            return findBreakPointsUsingFirstFit(textParagraph);
+        }
+    }
+
+    /**
+     * Hyphenate the words of the passed paragraph that have not been hyphenated yet.
+     *
+     * @param textParagraph to hyphenate
+     * @param ctx           the type setting context
+     * @throws TypeSettingException in case the words of the paragraph could not be hyphenated
+     */
+    private void hyphenate(TextParagraph textParagraph, TypeSettingContext ctx) throws TypeSettingException {
+        try {
+            new WordHyphenator(ctx.getConfig()).hyphenate(textParagraph);
+        } catch (Exception e) {
+            throw new TypeSettingException(e);
+        }
+    }
 
-                    // Do the first-fit algorithm instead
-                    int currentLineNumber = 1;
-                    double lineWidth = textParagraph.getLineWidth(currentLineNumber);
-                    double currentWidth = 0;
-                    List<BreakPoint> breakPoints = new ArrayList<>();
-                    int lastPossibleLineBreakIndex = 0;
-                    for (int i = 0; i < textParagraph.items().size(); i++) {
-                        Item item = textParagraph.items().get(i);
+    /**
+     * Find break points for the passed paragraph using the Knuth-Plass algorithm.
+     * Several quality levels are tried in case the best quality does not lead to a feasible solution.
+     *
+     * @param textParagraph to find break points for
+     * @param ctx           the type setting context
+     * @return the found break points
+     * @throws CouldNotFindFeasibleSolutionException in case not even the worst quality leads to a feasible solution
+     */
+    private KnuthPlassAlgorithm.LineBreakingResult findBreakPointsUsingKnuthPlass(TextParagraph textParagraph, TypeSettingContext ctx) throws CouldNotFindFeasibleSolutionException {
+        LineBreakingEngine engine = ctx.getConfig().getLineBreakingEngine();
+        if (engine == LineBreakingEngine.MULTI_TOLERANCE_KNUTH_PLASS) {
+            // Track all quality levels in a single pass over the paragraph
+            return ctx.getPrimitiveKnuthPlassAlgorithm().findBestBreakPoints(textParagraph, WORST_QUALITY);
+        }
 
-                        boolean forceLineBreak = false;
-                        if (item.getType() == ItemType.PENALTY || item.getType() == ItemType.GLUE) {
-                            lastPossibleLineBreakIndex = i;
+        // Do the line breaking. Try several quality levels in case it does not work.
+        for (int quality = 0; quality < WORST_QUALITY - 1; quality++) {
+            try {
+                return findBreakPointsWithQuality(textParagraph, ctx, engine, quality);
+            } catch (CouldNotFindFeasibleSolutionException e) {
+                // Try again with the next worse quality
+            }
+        }
 
-                            forceLineBreak = item instanceof Penalty && ((Penalty) item).isMandatoryLineBreak();
-                        }
+        return findBreakPointsWithQuality(textParagraph, ctx, engine, WORST_QUALITY - 1);
+    }
 
-                        if (forceLineBreak || currentWidth + item.getWidth() > lineWidth) {
-                            breakPoints.add(new BreakPoint(lastPossibleLineBreakIndex));
+    /**
+     * Find break points for the passed paragraph using the given line breaking engine and quality level.
+     *
+     * @param textParagraph to find break points for
+     * @param ctx           the type setting context
+     * @param engine        the line breaking engine to use
+     * @param quality       the quality level
+     * @return the found break points
+     * @throws CouldNotFindFeasibleSolutionException in case the algorithm could not find a feasible solution
+     */
+    private KnuthPlassAlgorithm.LineBreakingResult findBreakPointsWithQuality(
+            TextParagraph textParagraph,
+            TypeSettingContext ctx,
+            LineBreakingEngine engine,
+            int quality
+    ) throws CouldNotFindFeasibleSolutionException {
+        if (engine == LineBreakingEngine.KNUTH_PLASS) {
+            return new KnuthPlassAlgorithm(ctx.getConfig(), quality).findBreakPoints(textParagraph);
+        } else {
+            return ctx.getPrimitiveKnuthPlassAlgorithm().findBreakPoints(textParagraph, quality);
+        }
+    }
 
-                            lineWidth = textParagraph.getLineWidth(++currentLineNumber);
-                            currentWidth = 0;
-                        }
+    /**
+     * Find break points for the passed paragraph using the first-fit algorithm.
+     *
+     * @param textParagraph to find break points for
+     * @return the found break points
+     */
+    private KnuthPlassAlgorithm.LineBreakingResult findBreakPointsUsingFirstFit(TextParagraph textParagraph) {
+        int currentLineNumber = 1;
+        double lineWidth = textParagraph.getLineWidth(currentLineNumber);
+        double currentWidth = 0;
+        List<BreakPoint> breakPoints = new ArrayList<>();
+        int lastPossibleLineBreakIndex = 0;
+        for (int i = 0; i < textParagraph.items().size(); i++) {
+            Item item = textParagraph.items().get(i);
+
+            boolean forceLineBreak = false;
+            if (item.getType() == ItemType.PENALTY || item.getType() == ItemType.GLUE) {
+                lastPossibleLineBreakIndex = i;
+
+                forceLineBreak = item instanceof Penalty && ((Penalty) item).isMandatoryLineBreak();
+            }
 
-                        currentWidth += item.getWidth();
-                    }
+            if (forceLineBreak || currentWidth + item.getWidth() > lineWidth) {
+                breakPoints.add(new BreakPoint(lastPossibleLineBreakIndex));
 
-                    return new KnuthPlassAlgorithm.LineBreakingResult(
-                            breakPoints, new LineBreakingContext(textParagraph,
-                            Integer.MAX_VALUE));
-                }
+                lineWidth = textParagraph.getLineWidth(++currentLineNumber);
+                currentWidth = 0;
             }
+
+            currentWidth += item.getWidth();
         }
 
-        throw new TypeSettingException();
+        return new KnuthPlassAlgorithm.LineBreakingResult(
+                breakPoints, new LineBreakingContext(textParagraph,
+                Integer.MAX_VALUE));
     }
 
     /**
@@ -2,6 +2,7 @@ package de.be.thaw.typeset.knuthplass.paragraph.impl;
 
 import de.be.thaw.core.document.node.DocumentNode;
 import de.be.thaw.typeset.knuthplass.item.Item;
+import de.be.thaw.typeset.knuthplass.item.impl.box.HyphenatableTextBox;
 import de.be.thaw.typeset.knuthplass.paragraph.AbstractParagraph;
 import de.be.thaw.typeset.knuthplass.paragraph.ParagraphType;
 
@@ -18,6 +19,11 @@ public class TextParagraph extends AbstractParagraph {
      */
     private final List<Item> items = new ArrayList<>();
 
+    /**
+     * Whether the paragraph contains words that have not been hyphenated yet.
+     */
+    private boolean containsHyphenatableWords = false;
+
     public TextParagraph(double lineWidth, DocumentNode node) {
         super(lineWidth, node);
     }
@@ -29,6 +35,24 @@ public class TextParagraph extends AbstractParagraph {
      */
     public void addItem(Item item) {
         items.add(item);
+
+        if (item instanceof HyphenatableTextBox) {
+            containsHyphenatableWords = true;
+        }
+    }
+
+    /**
+     * Replace all items of the paragraph by the passed items.
+     *
+     * @param newItems to replace the current items with
+     */
+    public void replaceItems(List<Item> newItems) {
+        items.clear();
+        containsHyphenatableWords = false;
+
+        for (Item item : newItems) {
+            addItem(item);
+        }
     }
 
     /**
@@ -49,6 +73,15 @@ public class TextParagraph extends AbstractParagraph {
         return items.isEmpty();
     }
 
+    /**
+     * Check whether the paragraph contains words that have not been hyphenated yet.
+     *
+     * @return whether there are hyphenatable words
+     */
+    public boolean containsHyphenatableWords() {
+        return containsHyphenatableWords;
+    }
+
     @Override
     public ParagraphType getType() {
         return ParagraphType.TEXT;
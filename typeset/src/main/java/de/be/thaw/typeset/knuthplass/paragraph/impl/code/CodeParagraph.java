@@ -1,21 +1,25 @@
 package de.be.thaw.typeset.knuthplass.paragraph.impl.code;
 
+import de.be.thaw.code.syntax.HighlightedCode;
 import de.be.thaw.core.document.node.DocumentNode;
 import de.be.thaw.typeset.knuthplass.paragraph.AbstractParagraph;
 import de.be.thaw.typeset.knuthplass.paragraph.ParagraphType;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Optional;
+import java.util.concurrent.Future;
 
 /**
  * Paragraph representing a code block.
+ * The code may still be syntax highlighted in the background while the paragraph is created,
+ * it is only needed once the paragraph is typeset.
  */
 public class CodeParagraph extends AbstractParagraph {
 
     /**
-     * The code formatted in RTF-format.
+     * The (future) syntax highlighted code.
      */
-    private final String rtfCode;
+    private final Future<HighlightedCode> code;
 
     /**
      * The start line to display from.
@@ -41,7 +45,7 @@ public class CodeParagraph extends AbstractParagraph {
     private final String captionPrefix;
 
     public CodeParagraph(
-            String rtfCode,
+            Future<HighlightedCode> code,
             int startLine,
             int endLine,
             double lineWidth,
@@ -51,7 +55,7 @@ public class CodeParagraph extends AbstractParagraph {
     ) {
         super(lineWidth, node);
 
-        this.rtfCode = rtfCode;
+        this.code = code;
         this.startLine = startLine;
         this.endLine = endLine;
 
@@ -65,12 +69,12 @@ public class CodeParagraph extends AbstractParagraph {
     }
 
     /**
-     * Get the RTF-formatted code.
+     * Get the (future) syntax highlighted code.
      *
-     * @return RTF-formatted code
+     * @return highlighted code
      */
-    public String getRtfCode() {
-        return rtfCode;
+    public Future<HighlightedCode> getCode() {
+        return code;
     }
 
     /**
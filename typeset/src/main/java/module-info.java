@@ -28,8 +28,8 @@ module de.be.thaw.typeset {
     requires de.be.thaw.math;
     requires de.be.thaw.code;
     requires de.be.thaw.table;
+    requires de.be.thaw.shared;
     requires org.jetbrains.annotations;
     requires java.desktop;
-    requires rtfparserkit;
     requires java.logging;
 }
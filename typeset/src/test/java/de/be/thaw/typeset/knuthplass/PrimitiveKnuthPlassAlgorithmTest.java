@@ -0,0 +1,179 @@
+package de.be.thaw.typeset.knuthplass;
+
+import de.be.thaw.core.document.node.DocumentNode;
+import de.be.thaw.shared.ThawContext;
+import de.be.thaw.text.parser.TextParser;
+import de.be.thaw.typeset.knuthplass.config.KnuthPlassTypeSettingConfig;
+import de.be.thaw.typeset.knuthplass.config.util.FontDetailsSupplier;
+import de.be.thaw.typeset.knuthplass.config.util.GlueConfig;
+import de.be.thaw.typeset.knuthplass.config.util.hyphen.HyphenatedWord;
+import de.be.thaw.typeset.knuthplass.config.util.hyphen.Hyphenator;
+import de.be.thaw.typeset.knuthplass.exception.CouldNotFindFeasibleSolutionException;
+import de.be.thaw.typeset.knuthplass.item.impl.Glue;
+import de.be.thaw.typeset.knuthplass.item.impl.Penalty;
+import de.be.thaw.typeset.knuthplass.item.impl.box.EmptyBox;
+import de.be.thaw.typeset.knuthplass.paragraph.impl.TextParagraph;
+import de.be.thaw.typeset.knuthplass.util.BreakPoint;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+public class PrimitiveKnuthPlassAlgorithmTest {
+
+    private static KnuthPlassTypeSettingConfig createConfig(int looseness) {
+        return KnuthPlassTypeSettingConfig.newBuilder()
+                .setLooseness(looseness)
+                .setFontDetailsSupplier(new FontDetailsSupplier() {
+                    @Override
+                    public StringMetrics measureString(DocumentNode node, int charBefore, String str) {
+                        return new StringMetrics(str.length(), 1, new double[str.length()], 1, 1);
+                    }
+
+                    @Override
+                    public double getSpaceWidth(DocumentNode node) {
+                        return 1;
+                    }
+                })
+                .setHyphenator(new Hyphenator() {
+                    @Override
+                    public HyphenatedWord hyphenate(String word) {
+                        return null;
+                    }
+
+                    @Override
+                    public double getExplicitHyphenPenalty() {
+                        return 50;
+                    }
+                })
+                .setGlueConfig(new GlueConfig() {
+                    @Override
+                    public double getInterWordStretchability(DocumentNode node, char lastChar) {
+                        return 1;
+                    }
+
+                    @Override
+                    public double getInterWordShrinkability(DocumentNode node, char lastChar) {
+                        return 1;
+                    }
+                })
+                .setContext(new ThawContext(new File("."), null, new TextParser(), null, StandardCharsets.UTF_8, null))
+                .setProperties(new Properties())
+                .build();
+    }
+
+    private static TextParagraph createRandomParagraph(Random random, double lineWidth) {
+        TextParagraph paragraph = new TextParagraph(lineWidth, null);
+
+        int words = 5 + random.nextInt(200);
+        for (int i = 0; i < words; i++) {
+            int parts = 1 + random.nextInt(3);
+            for (int p = 0; p < parts; p++) {
+                paragraph.addItem(new EmptyBox(5 + random.nextInt(60)));
+
+                if (p < parts - 1) {
+                    paragraph.addItem(new Penalty(50, 3, true));
+                }
+            }
+
+            if (random.nextInt(40) == 0) {
+                paragraph.addItem(new Glue(0, 10000, 0));
+                paragraph.addItem(new Penalty(Double.NEGATIVE_INFINITY, 0, true));
+            } else {
+                paragraph.addItem(new Glue(4, 2, 1.5));
+            }
+        }
+
+        paragraph.addItem(new Glue(0, 10000, 0));
+        paragraph.addItem(new Penalty(Double.NEGATIVE_INFINITY, 0, true));
+
+        if (random.nextBoolean()) {
+            paragraph.setLineWidthSupplier(lineNumber -> lineNumber <= 2 ? lineWidth - 40 : lineWidth);
+        }
+
+        return paragraph;
+    }
+
+    @Test
+    public void testSameBreakPointsAsObjectBasedAlgorithm() {
+        Random random = new Random(42);
+
+        for (int looseness : new int[]{0, 1, -1}) {
+            KnuthPlassTypeSettingConfig config = createConfig(looseness);
+            PrimitiveKnuthPlassAlgorithm primitive = new PrimitiveKnuthPlassAlgorithm(config);
+
+            for (int run = 0; run < 200; run++) {
+                TextParagraph paragraph = createRandomParagraph(random, 150 + random.nextInt(400));
+
+                for (int quality = 0; quality < 5; quality++) {
+                    List<BreakPoint> expected;
+                    try {
+                        expected = new KnuthPlassAlgorithm(config, quality).findBreakPoints(paragraph).getBreakPoints();
+                    } catch (CouldNotFindFeasibleSolutionException e) {
+                        expected = null;
+                    }
+
+                    List<BreakPoint> actual;
+                    try {
+                        actual = primitive.findBreakPoints(paragraph, quality).getBreakPoints();
+                    } catch (CouldNotFindFeasibleSolutionException e) {
+                        actual = null;
+                    }
+
+                    assertSameBreakPoints(expected, actual);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSingleSweepFindsSameBreakPointsAsRetrying() {
+        Random random = new Random(7);
+
+        KnuthPlassTypeSettingConfig config = createConfig(0);
+        PrimitiveKnuthPlassAlgorithm primitive = new PrimitiveKnuthPlassAlgorithm(config);
+
+        for (int run = 0; run < 300; run++) {
+            TextParagraph paragraph = createRandomParagraph(random, 100 + random.nextInt(400));
+
+            List<BreakPoint> expected = null;
+            for (int quality = 0; quality < 5 && expected == null; quality++) {
+                try {
+                    expected = new KnuthPlassAlgorithm(config, quality).findBreakPoints(paragraph).getBreakPoints();
+                } catch (CouldNotFindFeasibleSolutionException e) {
+                    // Try next quality
+                }
+            }
+
+            List<BreakPoint> actual;
+            try {
+                actual = primitive.findBestBreakPoints(paragraph, 5).getBreakPoints();
+            } catch (CouldNotFindFeasibleSolutionException e) {
+                actual = null;
+            }
+
+            assertSameBreakPoints(expected, actual);
+        }
+    }
+
+    private static void assertSameBreakPoints(List<BreakPoint> expected, List<BreakPoint> actual) {
+        if (expected == null) {
+            Assertions.assertNull(actual);
+            return;
+        }
+
+        Assertions.assertNotNull(actual);
+        Assertions.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assertions.assertEquals(expected.get(i).getIndex(), actual.get(i).getIndex());
+            Assertions.assertEquals(expected.get(i).getLineNumber(), actual.get(i).getLineNumber());
+            Assertions.assertEquals(expected.get(i).getLineFit(), actual.get(i).getLineFit());
+            Assertions.assertEquals(expected.get(i).getDemerits(), actual.get(i).getDemerits());
+        }
+    }
+
+}
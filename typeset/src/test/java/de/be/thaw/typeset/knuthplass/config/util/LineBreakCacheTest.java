@@ -0,0 +1,203 @@
+package de.be.thaw.typeset.knuthplass.config.util;
+
+import de.be.thaw.typeset.knuthplass.item.impl.Glue;
+import de.be.thaw.typeset.knuthplass.item.impl.Penalty;
+import de.be.thaw.typeset.knuthplass.item.impl.box.EmptyBox;
+import de.be.thaw.typeset.knuthplass.item.impl.box.HyphenatableTextBox;
+import de.be.thaw.typeset.knuthplass.item.impl.box.TextBox;
+import de.be.thaw.typeset.knuthplass.paragraph.impl.TextParagraph;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LineBreakCacheTest {
+
+    @Test
+    public void sameParagraphsHaveEqualKeys() {
+        LineBreakCache.ParagraphKey a = key(createParagraph(100, "Hello", "world", 5));
+        LineBreakCache.ParagraphKey b = key(createParagraph(200, "Hello", "world", 5));
+
+        // The line width is checked when looking up the line breaks and thus not part of the key
+        Assertions.assertEquals(a, b);
+        Assertions.assertEquals(a.hashCode(), b.hashCode());
+    }
+
+    @Test
+    public void keyDependsOnText() {
+        LineBreakCache.ParagraphKey a = key(createParagraph(100, "Hello", "world", 5));
+        LineBreakCache.ParagraphKey b = key(createParagraph(100, "Hello", "words", 5));
+
+        Assertions.assertNotEquals(a, b);
+    }
+
+    @Test
+    public void keyDependsOnItemMetrics() {
+        LineBreakCache.ParagraphKey a = key(createParagraph(100, "Hello", "world", 5));
+        LineBreakCache.ParagraphKey b = key(createParagraph(100, "Hello", "world", 6));
+
+        // For example a changed font size changes the widths but not the text
+        Assertions.assertNotEquals(a, b);
+    }
+
+    @Test
+    public void keyDependsOnHyphenatability() {
+        TextParagraph hyphenatable = new TextParagraph(100, null);
+        hyphenatable.addItem(new HyphenatableTextBox("Hello", metrics(25), null, -1));
+
+        TextParagraph notHyphenatable = new TextParagraph(100, null);
+        notHyphenatable.addItem(new TextBox("Hello", metrics(25), null));
+
+        Assertions.assertNotEquals(
+                key(hyphenatable),
+                key(notHyphenatable)
+        );
+    }
+
+    @Test
+    public void keyDependsOnHyphenation() {
+        TextParagraph paragraph = createParagraph(100, "Hello", "world", 5);
+
+        // For example the language of the document changed
+        Assertions.assertNotEquals(
+                new LineBreakCache.ParagraphKey(paragraph, "en"),
+                new LineBreakCache.ParagraphKey(paragraph, "de")
+        );
+        Assertions.assertNotEquals(
+                new LineBreakCache.ParagraphKey(paragraph, "en"),
+                new LineBreakCache.ParagraphKey(paragraph, null)
+        );
+    }
+
+    @Test
+    public void keyDependsOnPenaltiesAndGlue() {
+        TextParagraph a = new TextParagraph(100, null);
+        a.addItem(new EmptyBox(10));
+        a.addItem(new Penalty(50, 3, true));
+        a.addItem(new Glue(4, 2, 1));
+
+        TextParagraph b = new TextParagraph(100, null);
+        b.addItem(new EmptyBox(10));
+        b.addItem(new Penalty(50, 3, false));
+        b.addItem(new Glue(4, 2, 1));
+
+        TextParagraph c = new TextParagraph(100, null);
+        c.addItem(new EmptyBox(10));
+        c.addItem(new Penalty(50, 3, true));
+        c.addItem(new Glue(4, 3, 1));
+
+        LineBreakCache.ParagraphKey keyA = key(a);
+        Assertions.assertNotEquals(keyA, key(b));
+        Assertions.assertNotEquals(keyA, key(c));
+    }
+
+    @Test
+    public void hitForUnchangedParagraph() {
+        LineBreakCache cache = new LineBreakCache();
+        TextParagraph paragraph = createParagraph(100, "Hello", "world", 5);
+
+        LineBreakCache.ParagraphKey key = key(paragraph);
+        Assertions.assertNull(cache.get(key, paragraph));
+
+        LineBreakCache.LineBreaks breaks = new LineBreakCache.LineBreaks(new int[]{4}, new double[]{100}, false);
+        cache.put(key, breaks);
+
+        TextParagraph rendered = createParagraph(100, "Hello", "world", 5);
+        Assertions.assertSame(breaks, cache.get(key(rendered), rendered));
+
+        Assertions.assertEquals(1, cache.getHits());
+        Assertions.assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void missForChangedParagraph() {
+        LineBreakCache cache = new LineBreakCache();
+        TextParagraph paragraph = createParagraph(100, "Hello", "world", 5);
+        cache.put(key(paragraph), new LineBreakCache.LineBreaks(new int[]{4}, new double[]{100}, false));
+
+        TextParagraph changed = createParagraph(100, "Hello", "there", 5);
+        Assertions.assertNull(cache.get(key(changed), changed));
+        Assertions.assertEquals(0, cache.getHits());
+        Assertions.assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void missForChangedLineWidths() {
+        LineBreakCache cache = new LineBreakCache();
+        TextParagraph paragraph = createParagraph(100, "Hello", "world", 5);
+        cache.put(key(paragraph), new LineBreakCache.LineBreaks(new int[]{4}, new double[]{100, 100}, false));
+
+        // Another default line width
+        TextParagraph narrower = createParagraph(80, "Hello", "world", 5);
+        Assertions.assertNull(cache.get(key(narrower), narrower));
+
+        // Only the second line (that has been requested by the line breaking algorithm) is narrower
+        TextParagraph secondLineNarrower = createParagraph(100, "Hello", "world", 5);
+        secondLineNarrower.setLineWidthSupplier(lineNumber -> lineNumber == 2 ? 80 : 100);
+        Assertions.assertNull(cache.get(key(secondLineNarrower), secondLineNarrower));
+
+        // A line the line breaking algorithm did not request changed
+        TextParagraph thirdLineNarrower = createParagraph(100, "Hello", "world", 5);
+        thirdLineNarrower.setLineWidthSupplier(lineNumber -> lineNumber == 3 ? 80 : 100);
+        Assertions.assertNotNull(cache.get(key(thirdLineNarrower), thirdLineNarrower));
+    }
+
+    @Test
+    public void leastRecentlyUsedParagraphIsEvicted() {
+        LineBreakCache cache = new LineBreakCache(2);
+
+        TextParagraph a = createParagraph(100, "a", "a", 5);
+        TextParagraph b = createParagraph(100, "b", "b", 5);
+        TextParagraph c = createParagraph(100, "c", "c", 5);
+        for (TextParagraph paragraph : new TextParagraph[]{a, b}) {
+            cache.put(key(paragraph), new LineBreakCache.LineBreaks(new int[0], new double[0], false));
+        }
+
+        Assertions.assertNotNull(cache.get(key(a), a)); // a is now more recently used than b
+        cache.put(key(c), new LineBreakCache.LineBreaks(new int[0], new double[0], false));
+
+        Assertions.assertNotNull(cache.get(key(a), a));
+        Assertions.assertNull(cache.get(key(b), b));
+        Assertions.assertNotNull(cache.get(key(c), c));
+    }
+
+    /**
+     * Create the key of the passed paragraph.
+     *
+     * @param paragraph to create key of
+     * @return the key
+     */
+    private static LineBreakCache.ParagraphKey key(TextParagraph paragraph) {
+        return new LineBreakCache.ParagraphKey(paragraph, "en");
+    }
+
+    /**
+     * Create a paragraph of two words.
+     *
+     * @param lineWidth   of the paragraph
+     * @param first       word
+     * @param second      word
+     * @param letterWidth width of a letter
+     * @return the paragraph
+     */
+    private static TextParagraph createParagraph(double lineWidth, String first, String second, double letterWidth) {
+        TextParagraph paragraph = new TextParagraph(lineWidth, null);
+
+        paragraph.addItem(new TextBox(first, metrics(first.length() * letterWidth), null));
+        paragraph.addItem(new Glue(letterWidth, letterWidth / 2, letterWidth / 3));
+        paragraph.addItem(new TextBox(second, metrics(second.length() * letterWidth), null));
+        paragraph.addItem(new Glue(0, 10000, 0));
+        paragraph.addItem(new Penalty(Double.NEGATIVE_INFINITY, 0, true));
+
+        return paragraph;
+    }
+
+    /**
+     * Create string metrics of the passed width.
+     *
+     * @param width of the string
+     * @return metrics
+     */
+    private static FontDetailsSupplier.StringMetrics metrics(double width) {
+        return new FontDetailsSupplier.StringMetrics(width, 10, new double[0], 8, 2);
+    }
+
+}
@@ -0,0 +1,192 @@
+package de.be.thaw.typeset.knuthplass.config.util;
+
+import de.be.thaw.core.document.node.DocumentNode;
+import de.be.thaw.typeset.knuthplass.config.util.hyphen.HyphenatedWord;
+import de.be.thaw.typeset.knuthplass.config.util.hyphen.HyphenatedWordPart;
+import de.be.thaw.typeset.knuthplass.config.util.hyphen.Hyphenator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public class WordCacheTest {
+
+    /**
+     * Font details supplier measuring every character with the font size as width
+     * and recording all strings it had to measure.
+     */
+    private static class RecordingFontDetailsSupplier implements FontDetailsSupplier {
+
+        /**
+         * Font settings per node.
+         */
+        private final Map<DocumentNode, TestFont> fonts = new HashMap<>();
+
+        /**
+         * All measured strings in order.
+         */
+        private final List<String> measured = new ArrayList<>();
+
+        DocumentNode createNode(int id, TestFont font) {
+            DocumentNode node = new DocumentNode(id, null, null, null);
+            fonts.put(node, font);
+
+            return node;
+        }
+
+        @Override
+        public StringMetrics measureString(DocumentNode node, int charBefore, String str) {
+            measured.add(str);
+
+            TestFont font = fonts.get(node);
+            double kerning = charBefore == -1 ? 0 : -1;
+            return new StringMetrics(str.length() * font.size + kerning, font.size, new double[str.length()], font.size, font.size);
+        }
+
+        @Override
+        public double getSpaceWidth(DocumentNode node) {
+            return fonts.get(node).size;
+        }
+
+        @Override
+        public Object getFontKey(DocumentNode node) {
+            return fonts.get(node).cacheable ? fonts.get(node) : null;
+        }
+
+    }
+
+    /**
+     * Font settings of a node.
+     */
+    private static class TestFont {
+
+        private final String family;
+
+        private final double size;
+
+        private final boolean cacheable;
+
+        TestFont(String family, double size, boolean cacheable) {
+            this.family = family;
+            this.size = size;
+            this.cacheable = cacheable;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            TestFont testFont = (TestFont) o;
+
+            if (Double.compare(testFont.size, size) != 0) return false;
+            if (cacheable != testFont.cacheable) return false;
+            return family.equals(testFont.family);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(family, size, cacheable);
+        }
+
+    }
+
+    @Test
+    public void measurementsAreCachedPerFontKey() throws Exception {
+        RecordingFontDetailsSupplier supplier = new RecordingFontDetailsSupplier();
+        DocumentNode serif10 = supplier.createNode(1, new TestFont("serif", 10, true));
+        DocumentNode otherSerif10 = supplier.createNode(2, new TestFont("serif", 10, true));
+        DocumentNode serif12 = supplier.createNode(3, new TestFont("serif", 12, true));
+        DocumentNode sans10 = supplier.createNode(4, new TestFont("sans", 10, true));
+
+        WordCache cache = new WordCache();
+
+        Assertions.assertEquals(50, cache.measureString(supplier, serif10, -1, "hello").getWidth());
+        Assertions.assertEquals(50, cache.measureString(supplier, serif10, -1, "hello").getWidth());
+        Assertions.assertEquals(50, cache.measureString(supplier, otherSerif10, -1, "hello").getWidth()); // Equal font key
+        Assertions.assertEquals(1, supplier.measured.size());
+
+        // The font size, font and character before are part of the key
+        Assertions.assertEquals(60, cache.measureString(supplier, serif12, -1, "hello").getWidth());
+        Assertions.assertEquals(50, cache.measureString(supplier, sans10, -1, "hello").getWidth());
+        Assertions.assertEquals(49, cache.measureString(supplier, serif10, 'a', "hello").getWidth());
+        Assertions.assertEquals(4, supplier.measured.size());
+
+        Assertions.assertEquals(2, cache.getMeasurementHits());
+        Assertions.assertEquals(4, cache.getMeasurementMisses());
+    }
+
+    @Test
+    public void measurementsWithoutFontKeyAreNotCached() throws Exception {
+        RecordingFontDetailsSupplier supplier = new RecordingFontDetailsSupplier();
+        DocumentNode node = supplier.createNode(1, new TestFont("serif", 10, false));
+
+        WordCache cache = new WordCache();
+        cache.measureString(supplier, node, -1, "hello");
+        cache.measureString(supplier, node, -1, "hello");
+
+        Assertions.assertEquals(2, supplier.measured.size());
+        Assertions.assertEquals(0, cache.getMeasurementHits());
+        Assertions.assertEquals(0, cache.getMeasurementMisses());
+    }
+
+    @Test
+    public void leastRecentlyUsedMeasurementIsEvicted() throws Exception {
+        RecordingFontDetailsSupplier supplier = new RecordingFontDetailsSupplier();
+        DocumentNode node = supplier.createNode(1, new TestFont("serif", 10, true));
+
+        WordCache cache = new WordCache(2);
+        cache.measureString(supplier, node, -1, "a");
+        cache.measureString(supplier, node, -1, "b");
+        cache.measureString(supplier, node, -1, "a"); // "b" is now the least recently used entry
+        cache.measureString(supplier, node, -1, "c"); // Evicts "b"
+
+        cache.measureString(supplier, node, -1, "a");
+        cache.measureString(supplier, node, -1, "c");
+        Assertions.assertEquals(List.of("a", "b", "c"), supplier.measured);
+
+        cache.measureString(supplier, node, -1, "b");
+        Assertions.assertEquals(List.of("a", "b", "c", "b"), supplier.measured);
+    }
+
+    @Test
+    public void hyphenatedWordsAreCachedWithEviction() {
+        List<String> hyphenated = new ArrayList<>();
+        Hyphenator hyphenator = new Hyphenator() {
+            @Override
+            public HyphenatedWord hyphenate(String word) {
+                hyphenated.add(word);
+
+                int middle = word.length() / 2;
+                return new HyphenatedWord(List.of(
+                        new HyphenatedWordPart(word.substring(0, middle)),
+                        new HyphenatedWordPart(word.substring(middle))
+                ));
+            }
+
+            @Override
+            public double getExplicitHyphenPenalty() {
+                return 50;
+            }
+        };
+
+        WordCache cache = new WordCache(2);
+        HyphenatedWord first = cache.hyphenate(hyphenator, "typesetting");
+        Assertions.assertSame(first, cache.hyphenate(hyphenator, "typesetting"));
+        Assertions.assertEquals("types", first.getParts().get(0).getPart());
+
+        // Words differing in case are hyphenated separately
+        cache.hyphenate(hyphenator, "Typesetting");
+        cache.hyphenate(hyphenator, "paragraph"); // Evicts "typesetting"
+        cache.hyphenate(hyphenator, "typesetting");
+
+        Assertions.assertEquals(List.of("typesetting", "Typesetting", "paragraph", "typesetting"), hyphenated);
+        Assertions.assertEquals(1, cache.getHyphenationHits());
+        Assertions.assertEquals(4, cache.getHyphenationMisses());
+    }
+
+}
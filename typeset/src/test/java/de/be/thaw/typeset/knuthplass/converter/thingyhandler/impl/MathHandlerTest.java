@@ -0,0 +1,251 @@
+package de.be.thaw.typeset.knuthplass.converter.thingyhandler.impl;
+
+import de.be.thaw.core.document.node.DocumentNode;
+import de.be.thaw.font.AbstractFont;
+import de.be.thaw.font.ThawFont;
+import de.be.thaw.font.util.CharacterSize;
+import de.be.thaw.math.mathml.cache.MathExpressionCache;
+import de.be.thaw.math.mathml.typeset.MathExpression;
+import de.be.thaw.math.mathml.typeset.element.MathElement;
+import de.be.thaw.shared.ThawContext;
+import de.be.thaw.style.model.style.StyleType;
+import de.be.thaw.style.model.style.Styles;
+import de.be.thaw.style.model.style.value.DoubleStyleValue;
+import de.be.thaw.text.model.tree.Node;
+import de.be.thaw.text.model.tree.impl.BoxNode;
+import de.be.thaw.text.model.tree.impl.ThingyNode;
+import de.be.thaw.text.parser.TextParser;
+import de.be.thaw.text.util.TextPosition;
+import de.be.thaw.typeset.knuthplass.config.KnuthPlassTypeSettingConfig;
+import de.be.thaw.typeset.knuthplass.config.util.FontDetailsSupplier;
+import de.be.thaw.typeset.knuthplass.config.util.GlueConfig;
+import de.be.thaw.typeset.knuthplass.config.util.hyphen.HyphenatedWord;
+import de.be.thaw.typeset.knuthplass.config.util.hyphen.Hyphenator;
+import de.be.thaw.typeset.knuthplass.converter.context.ConversionContext;
+import de.be.thaw.util.unit.Unit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+public class MathHandlerTest {
+
+    /**
+     * Font size of the math expressions.
+     */
+    private static final double FONT_SIZE = 10;
+
+    /**
+     * Line height of the math expressions (relative to the font size).
+     */
+    private static final double LINE_HEIGHT = 1.2;
+
+    /**
+     * Expressions to prepare (repeating expressions included).
+     */
+    private static final String[] EXPRESSIONS = {
+            "<math><mi>a</mi><mo>+</mo><mi>b</mi></math>",
+            "<math><mfrac><mrow><mi>a</mi><mo>+</mo><mn>1</mn></mrow><msqrt><mi>b</mi></msqrt></mfrac></math>",
+            "<math><mi>a</mi><mo>+</mo><mi>b</mi></math>",
+            "<math><msup><mi>x</mi><mn>2</mn></msup></math>",
+            "<math><mfrac><mrow><mi>a</mi><mo>+</mo><mn>1</mn></mrow><msqrt><mi>b</mi></msqrt></mfrac></math>"
+    };
+
+    /**
+     * Font measuring every character differently so that typesetting results depend on the text.
+     */
+    private static final ThawFont FONT = new AbstractFont() {
+
+        @Override
+        public double getAscent(double fontSize) {
+            return fontSize * 0.8;
+        }
+
+        @Override
+        public double getDescent(double fontSize) {
+            return fontSize * 0.2;
+        }
+
+        @Override
+        public CharacterSize getCharacterSize(int character, double fontSize) {
+            double ascent = fontSize * (0.5 + character % 4 * 0.1);
+            double descent = fontSize * (character % 3 * 0.1);
+
+            return new CharacterSize(fontSize * (0.4 + character % 5 * 0.1), ascent + descent, ascent, descent);
+        }
+
+        @Override
+        public double getKerningAdjustment(int leftChar, int rightChar, double fontSize) {
+            return -fontSize * ((leftChar + rightChar) % 3) * 0.01;
+        }
+
+    };
+
+    @Test
+    public void prepareTypesetsAllExpressionsInAdvance() throws Exception {
+        ConversionContext ctx = createContext();
+        MathExpressionCache cache = ctx.getMathExpressionCache();
+
+        // The first node of each box is predicted to be a math paragraph, all others to be in-line with text
+        List<DocumentNode> mathNodes = new ArrayList<>();
+        DocumentNode box = createNode(0, new BoxNode(), null);
+        for (int i = 0; i < EXPRESSIONS.length; i++) {
+            if (i == 3) {
+                box = createNode(100, new BoxNode(), null);
+            }
+
+            mathNodes.add(createNode(i + 1, new ThingyNode("MATH", List.of(EXPRESSIONS[i]), Map.of(), new TextPosition(1, 1, 1, 1)), box));
+        }
+
+        new MathHandler().prepare(mathNodes, ctx);
+
+        // Fetching the expressions like when handling them does not typeset them again and yields the sequential results
+        List<String> prepared = new ArrayList<>();
+        for (int i = 0; i < EXPRESSIONS.length; i++) {
+            double maxHeight = i == 0 || i == 3 ? Double.POSITIVE_INFINITY : FONT_SIZE * LINE_HEIGHT;
+            prepared.add(describe(cache.get(EXPRESSIONS[i], FONT, FONT_SIZE, maxHeight)));
+        }
+        long misses = cache.getMisses();
+
+        MathExpressionCache sequentialCache = new MathExpressionCache();
+        List<String> sequential = new ArrayList<>();
+        for (int i = 0; i < EXPRESSIONS.length; i++) {
+            double maxHeight = i == 0 || i == 3 ? Double.POSITIVE_INFINITY : FONT_SIZE * LINE_HEIGHT;
+            sequential.add(describe(sequentialCache.get(EXPRESSIONS[i], FONT, FONT_SIZE, maxHeight)));
+        }
+
+        Assertions.assertEquals(sequential, prepared);
+        Assertions.assertEquals(sequentialCache.getMisses(), misses);
+        Assertions.assertEquals(misses, cache.getMisses());
+
+        // Repeating expressions are parsed and typeset only once
+        Assertions.assertSame(
+                cache.get(EXPRESSIONS[0], FONT, FONT_SIZE, Double.POSITIVE_INFINITY),
+                cache.get(EXPRESSIONS[2], FONT, FONT_SIZE, FONT_SIZE * LINE_HEIGHT)
+        );
+        Assertions.assertSame(
+                cache.get(EXPRESSIONS[1], FONT, FONT_SIZE, FONT_SIZE * LINE_HEIGHT),
+                cache.get(EXPRESSIONS[4], FONT, FONT_SIZE, FONT_SIZE * LINE_HEIGHT)
+        );
+        Assertions.assertEquals(misses, cache.getMisses());
+    }
+
+    @Test
+    public void prepareSkipsThingiesWithoutExpression() {
+        ConversionContext ctx = createContext();
+
+        DocumentNode box = createNode(0, new BoxNode(), null);
+        DocumentNode node = createNode(1, new ThingyNode("MATH", List.of(), Map.of(), new TextPosition(1, 1, 1, 1)), box);
+
+        new MathHandler().prepare(List.of(node), ctx);
+
+        Assertions.assertEquals(0, ctx.getMathExpressionCache().getMisses());
+    }
+
+    /**
+     * Create a conversion context using the test math font.
+     *
+     * @return the conversion context
+     */
+    private static ConversionContext createContext() {
+        KnuthPlassTypeSettingConfig config = KnuthPlassTypeSettingConfig.newBuilder()
+                .setFontDetailsSupplier(new FontDetailsSupplier() {
+                    @Override
+                    public StringMetrics measureString(DocumentNode node, int charBefore, String str) {
+                        return new StringMetrics(str.length(), 1, new double[str.length()], 1, 1);
+                    }
+
+                    @Override
+                    public double getSpaceWidth(DocumentNode node) {
+                        return 1;
+                    }
+                })
+                .setHyphenator(new Hyphenator() {
+                    @Override
+                    public HyphenatedWord hyphenate(String word) {
+                        return null;
+                    }
+
+                    @Override
+                    public double getExplicitHyphenPenalty() {
+                        return 50;
+                    }
+                })
+                .setGlueConfig(new GlueConfig() {
+                    @Override
+                    public double getInterWordStretchability(DocumentNode node, char lastChar) {
+                        return 1;
+                    }
+
+                    @Override
+                    public double getInterWordShrinkability(DocumentNode node, char lastChar) {
+                        return 1;
+                    }
+                })
+                .setContext(new ThawContext(new File("."), null, new TextParser(), null, StandardCharsets.UTF_8, null))
+                .setProperties(new Properties())
+                .setMathFont(FONT)
+                .build();
+
+        return new ConversionContext(config, null);
+    }
+
+    /**
+     * Create a document node with the font size and line height used for the math expressions.
+     *
+     * @param id       of the node
+     * @param textNode of the node
+     * @param parent   of the node
+     * @return the document node
+     */
+    private static DocumentNode createNode(int id, Node textNode, DocumentNode parent) {
+        Styles styles = new Styles(List.of());
+        styles.overrideStyle(StyleType.FONT_SIZE, new DoubleStyleValue(FONT_SIZE, Unit.POINTS));
+        styles.overrideStyle(StyleType.LINE_HEIGHT, new DoubleStyleValue(LINE_HEIGHT, Unit.UNITARY));
+
+        return new DocumentNode(id, textNode, parent, styles);
+    }
+
+    /**
+     * Describe the layout of the passed expression.
+     *
+     * @param expression to describe
+     * @return description of the layout of all elements
+     */
+    private static String describe(MathExpression expression) {
+        StringBuilder sb = new StringBuilder();
+        describe(expression.getRoot(), sb);
+
+        return sb.toString();
+    }
+
+    /**
+     * Describe the layout of the passed element and its children.
+     *
+     * @param element to describe
+     * @param sb      to append the description to
+     */
+    private static void describe(MathElement element, StringBuilder sb) {
+        sb.append(element.getType())
+                .append('[').append(element.getSize().getWidth())
+                .append('x').append(element.getSize().getHeight())
+                .append(" at ").append(element.getPosition(true).getX())
+                .append(',').append(element.getPosition(true).getY())
+                .append(" baseline ").append(element.getBaseline())
+                .append(']');
+
+        element.getChildren().ifPresent(children -> {
+            sb.append('(');
+            for (MathElement child : children) {
+                describe(child, sb);
+            }
+            sb.append(')');
+        });
+    }
+
+}
@@ -0,0 +1,111 @@
+package de.be.thaw.util;
+
+import java.util.Arrays;
+
+/**
+ * Lookup of values by non-negative integer keys.
+ * Meant for densely allocated keys (for example sequential IDs) as the values are stored in an array indexed by the key.
+ *
+ * @param <T> type of the values
+ */
+public class IntLookup<T> {
+
+    /**
+     * Initial capacity of the lookup.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Values indexed by their key.
+     */
+    private Object[] values;
+
+    /**
+     * Count of values in the lookup.
+     */
+    private int size;
+
+    public IntLookup() {
+        values = new Object[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param lookup to copy
+     */
+    public IntLookup(IntLookup<T> lookup) {
+        values = Arrays.copyOf(lookup.values, lookup.values.length);
+        size = lookup.size;
+    }
+
+    /**
+     * Get the value for the passed key.
+     *
+     * @param key to get value for
+     * @return the value or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int key) {
+        return key >= 0 && key < values.length ? (T) values[key] : null;
+    }
+
+    /**
+     * Put a value for the passed key.
+     *
+     * @param key   to put value for (must not be negative)
+     * @param value to put
+     * @return the previous value or null
+     */
+    @SuppressWarnings("unchecked")
+    public T put(int key, T value) {
+        if (key < 0) {
+            throw new IllegalArgumentException(String.format("Key must not be negative, got %d", key));
+        }
+
+        if (key >= values.length) {
+            values = Arrays.copyOf(values, Math.max(values.length * 2, key + 1));
+        }
+
+        T old = (T) values[key];
+        values[key] = value;
+
+        if (old == null && value != null) {
+            size++;
+        } else if (old != null && value == null) {
+            size--;
+        }
+
+        return old;
+    }
+
+    /**
+     * Remove the value for the passed key.
+     *
+     * @param key to remove value for
+     * @return the removed value or null
+     */
+    public T remove(int key) {
+        return key >= 0 && key < values.length ? put(key, null) : null;
+    }
+
+    /**
+     * Check whether there is a value for the passed key.
+     *
+     * @param key to check
+     * @return whether there is a value
+     */
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Get the count of values in the lookup.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+}
@@ -0,0 +1,127 @@
+package de.be.thaw.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class IntLookupTest {
+
+    @Test
+    public void missingKeys() {
+        IntLookup<String> lookup = new IntLookup<>();
+        lookup.put(3, "three");
+
+        Assertions.assertNull(lookup.get(0));
+        Assertions.assertNull(lookup.get(4));
+        Assertions.assertNull(lookup.get(-1));
+        Assertions.assertNull(lookup.get(Integer.MAX_VALUE));
+        Assertions.assertFalse(lookup.containsKey(-1));
+        Assertions.assertFalse(lookup.containsKey(1000));
+
+        Assertions.assertNull(lookup.remove(-1));
+        Assertions.assertNull(lookup.remove(1000));
+        Assertions.assertEquals(1, lookup.size());
+    }
+
+    @Test
+    public void negativeKeysAreRejected() {
+        IntLookup<String> lookup = new IntLookup<>();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> lookup.put(-1, "minus one"));
+    }
+
+    @Test
+    public void growBeyondInitialCapacity() {
+        IntLookup<Integer> lookup = new IntLookup<>();
+        for (int i = 0; i < 10000; i++) {
+            Assertions.assertNull(lookup.put(i, i * 2));
+        }
+
+        Assertions.assertEquals(10000, lookup.size());
+        for (int i = 0; i < 10000; i++) {
+            Assertions.assertEquals(i * 2, lookup.get(i));
+        }
+        Assertions.assertNull(lookup.get(10000));
+    }
+
+    @Test
+    public void growToSparseKey() {
+        IntLookup<String> lookup = new IntLookup<>();
+        lookup.put(1, "one");
+        lookup.put(100000, "hundred thousand");
+
+        Assertions.assertEquals("one", lookup.get(1));
+        Assertions.assertEquals("hundred thousand", lookup.get(100000));
+        Assertions.assertNull(lookup.get(99999));
+        Assertions.assertEquals(2, lookup.size());
+    }
+
+    @Test
+    public void overwriteAndRemove() {
+        IntLookup<String> lookup = new IntLookup<>();
+
+        Assertions.assertNull(lookup.put(5, "a"));
+        Assertions.assertEquals("a", lookup.put(5, "b"));
+        Assertions.assertEquals(1, lookup.size());
+        Assertions.assertEquals("b", lookup.get(5));
+
+        Assertions.assertEquals("b", lookup.remove(5));
+        Assertions.assertFalse(lookup.containsKey(5));
+        Assertions.assertEquals(0, lookup.size());
+
+        // Putting null is the same as removing
+        lookup.put(6, "c");
+        Assertions.assertEquals("c", lookup.put(6, null));
+        Assertions.assertNull(lookup.put(6, null));
+        Assertions.assertEquals(0, lookup.size());
+    }
+
+    @Test
+    public void copyIsIndependent() {
+        IntLookup<String> lookup = new IntLookup<>();
+        lookup.put(1, "one");
+
+        IntLookup<String> copy = new IntLookup<>(lookup);
+        copy.put(2, "two");
+        copy.remove(1);
+        lookup.put(3, "three");
+
+        Assertions.assertEquals("one", lookup.get(1));
+        Assertions.assertNull(lookup.get(2));
+        Assertions.assertEquals(2, lookup.size());
+
+        Assertions.assertNull(copy.get(1));
+        Assertions.assertEquals("two", copy.get(2));
+        Assertions.assertNull(copy.get(3));
+        Assertions.assertEquals(1, copy.size());
+    }
+
+    @Test
+    public void sameAsHashMap() {
+        Random random = new Random(42);
+        IntLookup<Integer> lookup = new IntLookup<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 50000; i++) {
+            int key = random.nextInt(2000);
+            switch (random.nextInt(3)) {
+                case 0:
+                    Assertions.assertEquals(expected.remove(key), lookup.remove(key));
+                    break;
+                default:
+                    Assertions.assertEquals(expected.put(key, i), lookup.put(key, i));
+                    break;
+            }
+
+            Assertions.assertEquals(expected.size(), lookup.size());
+        }
+
+        for (int key = 0; key < 2100; key++) {
+            Assertions.assertEquals(expected.get(key), lookup.get(key));
+        }
+    }
+
+}